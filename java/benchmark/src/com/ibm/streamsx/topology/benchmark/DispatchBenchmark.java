@@ -0,0 +1,141 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.function.ThreadSafe;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionFilter;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionTransform;
+
+/**
+ * Throughput of Map and Filter with tuples arriving on
+ * multiple threads, as from threaded ports or a union of streams.
+ * Stateful logic is invoked synchronized on the logic instance,
+ * logic annotated with {@link ThreadSafe} is invoked without
+ * synchronization. Run with {@code -t 1} for the uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DispatchBenchmark {
+
+    private static final int TUPLES = 1024;
+
+    /** Logic invoked synchronized or lock-free. */
+    @Param({ "synchronized", "threadSafe" })
+    public String logic;
+
+    private Tuple[] tuples;
+
+    private OperatorHarness map;
+    private OperatorHarness filter;
+
+    /**
+     * Counting identity function, stateful so it is
+     * invoked synchronized.
+     */
+    public static final class Count implements Function<Payload, Payload>, Predicate<Payload> {
+        private static final long serialVersionUID = 1L;
+        private long count;
+
+        @Override
+        public Payload apply(Payload v) {
+            count++;
+            return v;
+        }
+
+        @Override
+        public boolean test(Payload v) {
+            count++;
+            return true;
+        }
+    }
+
+    /**
+     * Counting identity function that is thread safe.
+     */
+    @ThreadSafe
+    public static final class ConcurrentCount implements Function<Payload, Payload>, Predicate<Payload> {
+        private static final long serialVersionUID = 1L;
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public Payload apply(Payload v) {
+            count.increment();
+            return v;
+        }
+
+        @Override
+        public boolean test(Payload v) {
+            count.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Position in the input tuples for each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        Tuple next(Tuple[] tuples) {
+            return tuples[next++ & (TUPLES - 1)];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tuples = OperatorHarness.tuples(Payload.create(TUPLES, 64, 64), false);
+
+        final boolean threadSafe = "threadSafe".equals(logic);
+        map = new OperatorHarness(FunctionTransform.class,
+                threadSafe ? new ConcurrentCount() : new Count())
+                .addOutput(OperatorHarness.JAVA_OBJECT).start();
+        filter = new OperatorHarness(FunctionFilter.class,
+                threadSafe ? new ConcurrentCount() : new Count())
+                .addOutput(OperatorHarness.JAVA_OBJECT).start();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        map.stop();
+        filter.stop();
+    }
+
+    @Benchmark
+    public void map(Cursor cursor) throws Exception {
+        map.inject(cursor.next(tuples));
+    }
+
+    @Benchmark
+    public void filter(Cursor cursor) throws Exception {
+        filter.inject(cursor.next(tuples));
+    }
+}
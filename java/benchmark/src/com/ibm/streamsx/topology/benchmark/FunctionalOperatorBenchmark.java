@@ -0,0 +1,113 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.internal.functional.operators.HashAdder;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionSplit;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionTransform;
+
+/**
+ * Throughput of a single tuple passing through a functional operator:
+ * Map (with and without its input queue), HashAdder and Split.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionalOperatorBenchmark {
+
+    private static final int TUPLES = 1024;
+
+    /** Payload size in bytes. */
+    @Param({ "16", "256", "4096" })
+    public int size;
+
+    /** Input tuples are serialized, as from another PE. */
+    @Param({ "false", "true" })
+    public boolean serialized;
+
+    private Tuple[] tuples;
+    private int next;
+
+    private OperatorHarness map;
+    private OperatorHarness queuedMap;
+    private OperatorHarness hashAdder;
+    private OperatorHarness split;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tuples = OperatorHarness.tuples(Payload.create(TUPLES, 64, size), serialized);
+
+        map = new OperatorHarness(FunctionTransform.class, new Payload.Identity())
+                .addOutput(OperatorHarness.JAVA_OBJECT).start();
+
+        queuedMap = new OperatorHarness(FunctionTransform.class, new Payload.Identity());
+        queuedMap.operator().setIntParameter("queueSize", 1024);
+        queuedMap.addOutput(OperatorHarness.JAVA_OBJECT).start();
+
+        hashAdder = new OperatorHarness(HashAdder.class, new Payload.Key())
+                .addOutput(OperatorHarness.JAVA_OBJECT_HASH).start();
+
+        split = new OperatorHarness(FunctionSplit.class, new Payload.Key());
+        for (int i = 0; i < 4; i++)
+            split.addOutput(OperatorHarness.JAVA_OBJECT);
+        split.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        map.stop();
+        queuedMap.stop();
+        hashAdder.stop();
+        split.stop();
+    }
+
+    private Tuple nextTuple() {
+        return tuples[next++ & (TUPLES - 1)];
+    }
+
+    @Benchmark
+    public void map() throws Exception {
+        map.inject(nextTuple());
+    }
+
+    /**
+     * Enqueue rate, the queue's reader thread
+     * applies the logic and submits.
+     */
+    @Benchmark
+    public void queuedMap() throws Exception {
+        queuedMap.inject(nextTuple());
+    }
+
+    @Benchmark
+    public void hashAdder() throws Exception {
+        hashAdder.inject(nextTuple());
+    }
+
+    @Benchmark
+    public void split() throws Exception {
+        split.inject(nextTuple());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.json.java.JSONObject;
+import com.ibm.streamsx.topology.json.JSONStreams;
+import com.ibm.streamsx.topology.json.LazyJSONObject;
+
+/**
+ * Throughput of JSON tuple processing, comparing fully parsed
+ * JSON4J objects ({@code JSONStreams.deserialize/serialize})
+ * with lazily parsed objects ({@code JSONStreams.deserializeLazy/serializeLazy}).
+ * <BR>
+ * Each tuple is an event with a few top-level fields and
+ * a nested payload of a configurable size. A typical
+ * pass-through pipeline reads a field, optionally projects
+ * or modifies the object and serializes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONBenchmark {
+
+    private static final int TUPLES = 1024;
+
+    /** Number of readings in each event's nested payload. */
+    @Param({ "4", "32" })
+    public int readings;
+
+    private String[] events;
+    private int next;
+
+    private final JSONStreams.DeserializeJSON deserialize = new JSONStreams.DeserializeJSON();
+    private final JSONStreams.SerializeJSON serialize = new JSONStreams.SerializeJSON();
+    private final JSONStreams.DeserializeLazyJSON deserializeLazy = new JSONStreams.DeserializeLazyJSON();
+    private final JSONStreams.SerializeLazyJSON serializeLazy = new JSONStreams.SerializeLazyJSON();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        events = new String[TUPLES];
+        Random r = new Random(7);
+        for (int i = 0; i < TUPLES; i++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"id\":").append(i);
+            sb.append(",\"device\":\"sensor-").append(r.nextInt(64)).append('"');
+            sb.append(",\"ts\":").append(1546300800000L + i);
+            sb.append(",\"tags\":[\"plant-a\",\"line-3\",\"calibrated\"]");
+            sb.append(",\"readings\":[");
+            for (int j = 0; j < readings; j++) {
+                if (j != 0)
+                    sb.append(',');
+                sb.append("{\"name\":\"r").append(j).append("\",\"value\":")
+                  .append(r.nextDouble() * 100).append(",\"unit\":\"kPa\",\"ok\":true}");
+            }
+            sb.append("]}");
+            events[i] = sb.toString();
+        }
+    }
+
+    private String event() {
+        return events[next++ & (TUPLES - 1)];
+    }
+
+    /** Read one field of a fully parsed object. */
+    @Benchmark
+    public Object getField() {
+        return deserialize.apply(event()).get("device");
+    }
+
+    /** Read one field of a lazily parsed object. */
+    @Benchmark
+    public Object getFieldLazy() {
+        return deserializeLazy.apply(event()).get("device");
+    }
+
+    /** Parse, read a field and serialize unmodified. */
+    @Benchmark
+    public String passThrough() {
+        JSONObject jo = deserialize.apply(event());
+        jo.get("device");
+        return serialize.apply(jo);
+    }
+
+    /** Parse lazily, read a field and serialize unmodified. */
+    @Benchmark
+    public String passThroughLazy() {
+        LazyJSONObject jo = deserializeLazy.apply(event());
+        jo.get("device");
+        return serializeLazy.apply(jo);
+    }
+
+    /** Parse, project to three fields and serialize. */
+    @Benchmark
+    public String project() {
+        JSONObject jo = deserialize.apply(event());
+        JSONObject projected = new JSONObject();
+        for (String field : new String[] {"id", "device", "readings"})
+            projected.put(field, jo.get(field));
+        return serialize.apply(projected);
+    }
+
+    /** Parse lazily, project to three fields and serialize. */
+    @Benchmark
+    public String projectLazy() {
+        return serializeLazy.apply(deserializeLazy.apply(event()).project("id", "device", "readings"));
+    }
+
+    /** Parse, add a field and serialize. */
+    @Benchmark
+    public String enrich() {
+        JSONObject jo = deserialize.apply(event());
+        jo.put("site", "plant-a");
+        return serialize.apply(jo);
+    }
+
+    /** Parse lazily, add a field and serialize. */
+    @Benchmark
+    public String enrichLazy() {
+        return serializeLazy.apply(deserializeLazy.apply(event()).put("site", "plant-a"));
+    }
+}
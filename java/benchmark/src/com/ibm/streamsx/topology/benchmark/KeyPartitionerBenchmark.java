@@ -0,0 +1,88 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.window.KeyPartitioner;
+import com.ibm.streamsx.topology.internal.functional.window.TupleDecoder;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+import com.ibm.streamsx.topology.internal.spljava.Schemas;
+
+/**
+ * Cost of partitioning and inserting a tuple received from
+ * another PE into a keyed window. {@code decodeOnce} is the
+ * window's {@link KeyPartitioner} and listener sharing a
+ * {@link TupleDecoder}, {@code decodeTwice} deserializes the
+ * tuple for its key and again for the insert.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyPartitionerBenchmark {
+
+    private static final int TUPLES = 1024;
+
+    /** Payload size in bytes. */
+    @Param({ "16", "256", "4096" })
+    public int size;
+
+    private Tuple[] tuples;
+    private int next;
+
+    private SPLMapping<Object> mapping;
+    private Function<Object,Object> key;
+    private TupleDecoder<Object> decoder;
+    private KeyPartitioner partitioner;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tuples = OperatorHarness.tuples(Payload.create(TUPLES, 64, size), true);
+
+        mapping = (SPLMapping<Object>) Schemas.getSPLMapping(OperatorHarness.JAVA_OBJECT);
+        final Function<?,?> payloadKey = new Payload.Key();
+        key = (Function<Object,Object>) payloadKey;
+        decoder = new TupleDecoder<>(mapping);
+        partitioner = new KeyPartitioner(decoder, key);
+    }
+
+    private Tuple nextTuple() {
+        return tuples[next++ & (TUPLES - 1)];
+    }
+
+    @Benchmark
+    public void decodeOnce(Blackhole bh) throws Exception {
+        final Tuple tuple = nextTuple();
+        bh.consume(partitioner.getPartition(tuple));
+        bh.consume(decoder.decode(tuple));
+    }
+
+    @Benchmark
+    public void decodeTwice(Blackhole bh) throws Exception {
+        final Tuple tuple = nextTuple();
+        bh.consume(key.apply(mapping.convertFrom(tuple)));
+        bh.consume(mapping.convertFrom(tuple));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.streams.flow.declare.InputPortDeclaration;
+import com.ibm.streams.flow.declare.OperatorGraph;
+import com.ibm.streams.flow.declare.OperatorGraphFactory;
+import com.ibm.streams.flow.declare.OperatorInvocation;
+import com.ibm.streams.flow.declare.OutputPortDeclaration;
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.flow.javaprimitives.JavaOperatorTester;
+import com.ibm.streams.flow.javaprimitives.JavaTestableGraph;
+import com.ibm.streams.operator.Operator;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.Type;
+import com.ibm.streams.operator.types.ValueFactory;
+import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+import com.ibm.streamsx.topology.internal.spljava.Schemas;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Executes a single functional operator in the
+ * current JVM with Java object tuples injected into its
+ * input port and its output tuples counted.
+ * <BR>
+ * Injected tuples are either passed by reference,
+ * as between operators in the same PE, or already serialized,
+ * as when received from another PE.
+ * <BR>
+ * A source operator has no input port, its tuples
+ * are counted until it submits a final marker.
+ */
+public final class OperatorHarness {
+
+    public static final StreamSchema JAVA_OBJECT = Type.Factory
+            .getStreamSchema(ObjectSchemas.JAVA_OBJECT_SCHEMA);
+    public static final StreamSchema JAVA_OBJECT_HASH = Type.Factory
+            .getStreamSchema(ObjectSchemas.schemaWithHash(ObjectSchemas.JAVA_OBJECT_SCHEMA));
+
+    private final OperatorGraph graph = OperatorGraphFactory.newGraph();
+    private final OperatorInvocation<? extends Operator> op;
+    private final InputPortDeclaration input;
+    private final List<OutputPortDeclaration> outputs = new ArrayList<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final CountDownLatch finalMarker = new CountDownLatch(1);
+
+    private JavaTestableGraph executable;
+    private StreamingOutput<OutputTuple> injector;
+
+    public <T extends Operator> OperatorHarness(Class<T> opClass, Serializable logic) {
+        this(opClass, logic, true);
+    }
+
+    private <T extends Operator> OperatorHarness(Class<T> opClass, Serializable logic, boolean hasInput) {
+        op = graph.addOperator(opClass);
+        op.setStringParameter("functionalLogic", ObjectUtils.serializeLogic(logic));
+        input = hasInput ? op.addInput(JAVA_OBJECT) : null;
+    }
+
+    /**
+     * Harness for a source operator, which starts
+     * submitting tuples once {@link #start()} is called.
+     */
+    public static <T extends Operator> OperatorHarness source(Class<T> opClass, Serializable logic) {
+        return new OperatorHarness(opClass, logic, false);
+    }
+
+    public OperatorInvocation<? extends Operator> operator() {
+        return op;
+    }
+
+    /**
+     * Input port, to declare a window.
+     */
+    public InputPortDeclaration input() {
+        return input;
+    }
+
+    public OperatorHarness addOutput(StreamSchema schema) {
+        outputs.add(op.addOutput(schema));
+        return this;
+    }
+
+    /**
+     * Initialize the operator and make its ports ready.
+     */
+    public OperatorHarness start() throws Exception {
+        executable = new JavaOperatorTester().executable(graph);
+        if (input != null)
+            injector = executable.getInputTester(input);
+        final StreamHandler<Tuple> counter = new StreamHandler<Tuple>() {
+            @Override
+            public void tuple(Tuple tuple) {
+                submitted.incrementAndGet();
+            }
+
+            @Override
+            public void mark(Punctuation mark) {
+                if (mark == Punctuation.FINAL_MARKER)
+                    finalMarker.countDown();
+            }
+        };
+        for (OutputPortDeclaration output : outputs)
+            executable.registerStreamHandler(output, counter);
+
+        executable.initialize().get();
+        executable.allPortsReady().get();
+        return this;
+    }
+
+    public void stop() throws Exception {
+        if (executable != null)
+            executable.shutdown().get();
+        executable = null;
+    }
+
+    public void inject(Tuple tuple) throws Exception {
+        injector.submit(tuple);
+    }
+
+    /**
+     * Wait for the operator to submit a final marker.
+     */
+    public void awaitFinal() throws InterruptedException {
+        finalMarker.await();
+    }
+
+    /**
+     * Number of tuples submitted by the operator.
+     */
+    public long submitted() {
+        return submitted.get();
+    }
+
+    /**
+     * Convert Java objects to input tuples.
+     * @param serialized True to serialize the objects into the tuples.
+     */
+    @SuppressWarnings("unchecked")
+    public static Tuple[] tuples(Object[] values, boolean serialized) throws Exception {
+        final SPLMapping<Object> mapping = (SPLMapping<Object>) Schemas.getSPLMapping(JAVA_OBJECT);
+        final Tuple[] tuples = new Tuple[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (serialized) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                TupleSerializer.JAVA_SERIALIZER.serialize(values[i], bytes);
+                tuples[i] = JAVA_OBJECT.getTuple(new Object[] { ValueFactory.newBlob(bytes.toByteArray()) });
+            } else {
+                tuples[i] = mapping.convertTo(values[i]);
+            }
+        }
+        return tuples;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.io.Serializable;
+import java.util.Random;
+
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.ToIntFunction;
+
+/**
+ * Java object tuple used by the benchmarks, a key
+ * and a payload of a configurable size.
+ */
+public final class Payload implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int key;
+    private final byte[] data;
+
+    public Payload(int key, int size) {
+        this.key = key;
+        this.data = new byte[size];
+        new Random(key).nextBytes(data);
+    }
+
+    public int getKey() {
+        return key;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Create {@code count} tuples with keys cycling through {@code keys} values.
+     */
+    public static Payload[] create(int count, int keys, int size) {
+        Payload[] tuples = new Payload[count];
+        for (int i = 0; i < count; i++)
+            tuples[i] = new Payload(i % keys, size);
+        return tuples;
+    }
+
+    /**
+     * Identity function.
+     */
+    public static final class Identity implements Function<Payload, Payload> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Payload apply(Payload v) {
+            return v;
+        }
+    }
+
+    /**
+     * Function returning the tuple's key.
+     */
+    public static final class Key implements Function<Payload, Integer>, ToIntFunction<Payload> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer apply(Payload v) {
+            return v.key;
+        }
+
+        @Override
+        public int applyAsInt(Payload v) {
+            return v.key;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streamsx.topology.internal.functional.window.RingList;
+
+/**
+ * Window partition state held in a {@link RingList}
+ * compared with the {@code LinkedList} it replaced.
+ * <UL>
+ * <LI>{@code slide} - insert a tuple and evict the oldest,
+ * cycling through the partitions.</LI>
+ * <LI>{@code middle} - random access to a partition's middle tuple,
+ * as by aggregation logic calling {@code List.get}.</LI>
+ * <LI>{@code fill} - create a partition of {@code windowSize} tuples,
+ * run with {@code -prof gc} to report its heap usage as
+ * {@code gc.alloc.rate.norm}, bytes per partition excluding the tuples.</LI>
+ * </UL>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingListBenchmark {
+
+    /** Partition state implementation. */
+    @Param({ "RingList", "LinkedList" })
+    public String list;
+
+    /** Number of tuples in each partition. */
+    @Param({ "10", "1000" })
+    public int windowSize;
+
+    /** Number of partitions. */
+    @Param({ "1", "1000" })
+    public int partitions;
+
+    private final Payload tuple = new Payload(0, 16);
+    private Partition[] state;
+    private int next;
+
+    /**
+     * Operations used by a sliding window on its partition state.
+     */
+    private interface Partition {
+        void addLast(Object tuple);
+        Object removeFirst();
+        Object get(int index);
+        int size();
+    }
+
+    private static final class Ring implements Partition {
+        private final RingList<Object> tuples = new RingList<>();
+        public void addLast(Object tuple) { tuples.addLast(tuple); }
+        public Object removeFirst() { return tuples.removeFirst(); }
+        public Object get(int index) { return tuples.get(index); }
+        public int size() { return tuples.size(); }
+    }
+
+    private static final class Linked implements Partition {
+        private final LinkedList<Object> tuples = new LinkedList<>();
+        public void addLast(Object tuple) { tuples.addLast(tuple); }
+        public Object removeFirst() { return tuples.removeFirst(); }
+        public Object get(int index) { return tuples.get(index); }
+        public int size() { return tuples.size(); }
+    }
+
+    private Partition newPartition() {
+        return "RingList".equals(list) ? new Ring() : new Linked();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        state = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            state[i] = newPartition();
+            for (int t = 0; t < windowSize; t++)
+                state[i].addLast(tuple);
+        }
+    }
+
+    private Partition nextPartition() {
+        final Partition partition = state[next++];
+        if (next == partitions)
+            next = 0;
+        return partition;
+    }
+
+    @Benchmark
+    public Object slide() {
+        final Partition partition = nextPartition();
+        partition.addLast(tuple);
+        return partition.removeFirst();
+    }
+
+    @Benchmark
+    public Object middle() {
+        final Partition partition = nextPartition();
+        return partition.get(partition.size() / 2);
+    }
+
+    @Benchmark
+    public Object fill() {
+        final Partition partition = newPartition();
+        for (int t = 0; t < windowSize; t++)
+            partition.addLast(tuple);
+        return partition;
+    }
+}
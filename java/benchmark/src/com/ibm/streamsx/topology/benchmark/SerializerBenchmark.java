@@ -0,0 +1,130 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streamsx.topology.spi.runtime.BinarySerializer;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Throughput of tuple serialization, comparing Java serialization
+ * ({@code TupleSerializer.JAVA_SERIALIZER}) with {@code BinarySerializer}.
+ * <BR>
+ * Each tuple is an event with a few primitive and string fields
+ * and a list of nested readings of a configurable size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    private static final int TUPLES = 256;
+
+    /** Number of readings in each event. */
+    @Param({ "1", "16", "128" })
+    public int readings;
+
+    @Param({ "java", "binary" })
+    public String serializer;
+
+    private TupleSerializer ts;
+    private Event[] events;
+    private byte[][] serialized;
+    private int next;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+
+    public static class Event implements Serializable {
+        private static final long serialVersionUID = 1L;
+        long id;
+        String device;
+        long ts;
+        boolean calibrated;
+        ArrayList<Reading> readings;
+    }
+
+    public static class Reading implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String name;
+        double value;
+        int quality;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ts = "binary".equals(serializer)
+                ? new BinarySerializer(Event.class, Reading.class)
+                : TupleSerializer.JAVA_SERIALIZER;
+
+        Random r = new Random(7);
+        events = new Event[TUPLES];
+        serialized = new byte[TUPLES][];
+        for (int i = 0; i < TUPLES; i++) {
+            Event e = new Event();
+            e.id = i;
+            e.device = "sensor-" + r.nextInt(64);
+            e.ts = 1546300800000L + i;
+            e.calibrated = r.nextBoolean();
+            e.readings = new ArrayList<>(readings);
+            for (int j = 0; j < readings; j++) {
+                Reading reading = new Reading();
+                reading.name = "r" + j;
+                reading.value = r.nextDouble() * 100;
+                reading.quality = r.nextInt(4);
+                e.readings.add(reading);
+            }
+            events[i] = e;
+            serialized[i] = serialize(e);
+        }
+    }
+
+    private byte[] serialize(Event e) throws IOException {
+        out.reset();
+        ts.serialize(e, out);
+        return out.toByteArray();
+    }
+
+    /** Serialize an event. */
+    @Benchmark
+    public int serialize() throws IOException {
+        out.reset();
+        ts.serialize(events[next++ & (TUPLES - 1)], out);
+        return out.size();
+    }
+
+    /** Deserialize an event. */
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        return ts.deserialize(new ByteArrayInputStream(serialized[next++ & (TUPLES - 1)]));
+    }
+
+    /** Serialize and deserialize an event, as across a connection. */
+    @Benchmark
+    public Object roundTrip() throws IOException, ClassNotFoundException {
+        return ts.deserialize(new ByteArrayInputStream(serialize(events[next++ & (TUPLES - 1)])));
+    }
+}
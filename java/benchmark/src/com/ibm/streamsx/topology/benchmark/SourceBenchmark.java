@@ -0,0 +1,123 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+import com.ibm.streamsx.topology.internal.functional.operators.Source;
+
+/**
+ * Throughput of a source operator submitting {@value #TUPLES} tuples,
+ * as declared by {@code Topology.source} (a batch size of 0) and
+ * {@code Topology.batchSource} with a range of batch sizes.
+ * Each invocation runs a new operator until its final marker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceBenchmark {
+
+    private static final int TUPLES = 100_000;
+
+    /** Tuples per batch, 0 for a single {@code Iterable}. */
+    @Param({ "0", "1", "100", "10000" })
+    public int batchSize;
+
+    /** Submit a window marker after each batch, ignored for a batch size of 0. */
+    @Param({ "false", "true" })
+    public boolean batchMarkers;
+
+    private OperatorHarness source;
+
+    /**
+     * Logic for {@code Topology.source}, a single
+     * {@code Iterable} of all the tuples.
+     */
+    public static final class Tuples implements Supplier<Iterable<Payload>> {
+        private static final long serialVersionUID = 1L;
+        private final Payload tuple = new Payload(0, 64);
+
+        @Override
+        public Iterable<Payload> get() {
+            return Collections.nCopies(TUPLES, tuple);
+        }
+    }
+
+    /**
+     * Logic for {@code Topology.batchSource}, each
+     * call returns a batch until all tuples are returned.
+     */
+    public static final class Batches implements Supplier<Collection<Payload>> {
+        private static final long serialVersionUID = 1L;
+        private final Payload tuple = new Payload(0, 64);
+        private final int batchSize;
+        private int remaining = TUPLES;
+
+        public Batches(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public Collection<Payload> get() {
+            if (remaining == 0)
+                return null;
+            final int n = Math.min(batchSize, remaining);
+            remaining -= n;
+            final List<Payload> batch = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                batch.add(tuple);
+            return batch;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() throws Exception {
+        if (batchSize == 0) {
+            source = OperatorHarness.source(Source.class, new Tuples());
+        } else {
+            source = OperatorHarness.source(Source.class, new Batches(batchSize));
+            source.operator().setBooleanParameter(FunctionalOpProperties.SOURCE_BATCH_PARAM, true);
+            source.operator().setBooleanParameter(FunctionalOpProperties.SOURCE_BATCH_MARKERS_PARAM,
+                    batchMarkers);
+        }
+        source.addOutput(OperatorHarness.JAVA_OBJECT);
+    }
+
+    @TearDown(Level.Invocation)
+    public void teardown() throws Exception {
+        source.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TUPLES)
+    public long source() throws Exception {
+        source.start().awaitFinal();
+        return source.submitted();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionTransform;
+
+/**
+ * Latency of many queued operators whose logic blocks, as on I/O,
+ * with the queue reader threads being platform or virtual threads.
+ * Each invocation submits a tuple to every operator and waits until
+ * all have been processed. Run with {@code -prof hs_thr} to report
+ * the JVM's platform thread count. Virtual threads require Java 21,
+ * with earlier versions both benchmarks use platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VirtualThreadsBenchmark {
+
+    private static final String VIRTUAL_THREADS = "-D" + FunctionalOpProperties.VIRTUAL_THREADS_PROPERTY + "=true";
+
+    /** Number of operators. */
+    @Param({ "100", "1000" })
+    public int operators;
+
+    /** Time each tuple blocks in the logic, in microseconds. */
+    @Param({ "1000" })
+    public int blockMicros;
+
+    private static final Semaphore processed = new Semaphore(0);
+
+    private Tuple tuple;
+    private OperatorHarness[] maps;
+
+    /**
+     * Identity function that blocks before returning.
+     */
+    public static final class Blocking implements Function<Payload, Payload> {
+        private static final long serialVersionUID = 1L;
+        private final long micros;
+
+        public Blocking(long micros) {
+            this.micros = micros;
+        }
+
+        @Override
+        public Payload apply(Payload v) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(micros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.release();
+            return v;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tuple = OperatorHarness.tuples(Payload.create(1, 1, 64), false)[0];
+        maps = new OperatorHarness[operators];
+        for (int i = 0; i < operators; i++) {
+            maps[i] = new OperatorHarness(FunctionTransform.class, new Blocking(blockMicros));
+            maps[i].operator().setIntParameter("queueSize", 16);
+            maps[i].addOutput(OperatorHarness.JAVA_OBJECT).start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        for (OperatorHarness map : maps)
+            map.stop();
+    }
+
+    private void blockingOperators() throws Exception {
+        for (OperatorHarness map : maps)
+            map.inject(tuple);
+        processed.acquire(operators);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void platformThreads() throws Exception {
+        blockingOperators();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VIRTUAL_THREADS)
+    public void virtualThreads() throws Exception {
+        blockingOperators();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionAggregate;
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+
+/**
+ * Throughput of a sliding count window aggregation, each tuple
+ * is inserted, evicts the oldest tuple and triggers an aggregation.
+ * A partitioned window also obtains each tuple's key through
+ * the window's partitioner. With serialized input tuples, as from
+ * another PE, a partitioned window's tuple is deserialized
+ * once for both its key and its insertion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark {
+
+    private static final int TUPLES = 1024;
+
+    /** Payload size in bytes. */
+    @Param({ "16", "256", "4096" })
+    public int size;
+
+    /** Number of tuples in the window (per partition). */
+    @Param({ "10", "1000" })
+    public int windowSize;
+
+    /** Window partitioned by the tuple's key. */
+    @Param({ "false", "true" })
+    public boolean keyed;
+
+    /** Input tuples are serialized, as from another PE. */
+    @Param({ "false", "true" })
+    public boolean serialized;
+
+    private Tuple[] tuples;
+    private int next;
+
+    private OperatorHarness aggregate;
+
+    public static final class Count implements Function<List<Payload>, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer apply(List<Payload> v) {
+            return v.size();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tuples = OperatorHarness.tuples(Payload.create(TUPLES, 64, size), serialized);
+
+        aggregate = new OperatorHarness(FunctionAggregate.class, new Count());
+        aggregate.input().sliding().evictCount(windowSize).triggerCount(1);
+        if (keyed) {
+            aggregate.input().partitioned();
+            aggregate.operator().setStringParameter(FunctionalOpProperties.WINDOW_KEY_GETTER_PARAM,
+                    ObjectUtils.serializeLogic(new Payload.Key()));
+        }
+        aggregate.addOutput(OperatorHarness.JAVA_OBJECT).start();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        aggregate.stop();
+    }
+
+    @Benchmark
+    public void aggregate() throws Exception {
+        aggregate.inject(tuples[next++ & (TUPLES - 1)]);
+    }
+}
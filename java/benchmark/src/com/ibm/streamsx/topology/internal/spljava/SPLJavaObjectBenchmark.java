@@ -0,0 +1,119 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.benchmark.OperatorHarness;
+import com.ibm.streamsx.topology.benchmark.Payload;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Conversion of Java objects to and from SPL tuples,
+ * within a PE (by reference) and between PEs (serialized).
+ * Fan-out benchmarks convert a tuple for each of two consumers,
+ * with copy on fan-out one of them deserializes a copy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SPLJavaObjectBenchmark {
+
+    /** Payload size in bytes. */
+    @Param({ "16", "256", "4096" })
+    public int size;
+
+    private SPLJavaObject mapping;
+    private SPLJavaObject sharedMapping;
+    private SerializationStats stats;
+    private Payload payload;
+    private Tuple byReference;
+    private Tuple serialized;
+    private ByteBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        mapping = new SPLJavaObject(Schemas.JAVA_OBJECT);
+        sharedMapping = new SPLJavaObject(Schemas.JAVA_OBJECT);
+        sharedMapping.setOutputConnections(2);
+        stats = new SerializationStats();
+        payload = new Payload(1, size);
+        byReference = mapping.convertTo(payload);
+        serialized = OperatorHarness.tuples(new Object[] { payload }, true)[0];
+        buffer = ByteBuffer.allocateDirect(size + 1024);
+    }
+
+    @Benchmark
+    public Tuple convertTo() {
+        return mapping.convertTo(payload);
+    }
+
+    @Benchmark
+    public Object convertFromByReference() {
+        return mapping.convertFrom(byReference);
+    }
+
+    @Benchmark
+    public Object convertFromSerialized() {
+        return mapping.convertFrom(serialized);
+    }
+
+    /**
+     * Fan-out to two consumers without the connection
+     * count, both are passed the reference.
+     */
+    @Benchmark
+    public Object fanOutByReference() {
+        final Tuple tuple = mapping.convertTo(payload);
+        mapping.convertFrom(tuple);
+        return mapping.convertFrom(tuple);
+    }
+
+    /**
+     * Fan-out to two consumers with copy on fan-out.
+     */
+    @Benchmark
+    public Object fanOutCopy() {
+        final Tuple tuple = sharedMapping.convertTo(payload);
+        sharedMapping.convertFrom(tuple);
+        return sharedMapping.convertFrom(tuple);
+    }
+
+    /**
+     * Serialization into a heap byte array.
+     */
+    @Benchmark
+    public byte[] blobData() {
+        return new JavaObjectBlob(TupleSerializer.JAVA_SERIALIZER, payload, stats).getData();
+    }
+
+    /**
+     * Serialization directly into a buffer,
+     * as when a tuple is written to a PE output port.
+     */
+    @Benchmark
+    public ByteBuffer blobPut() {
+        buffer.clear();
+        return new JavaObjectBlob(TupleSerializer.JAVA_SERIALIZER, payload, stats).put(buffer);
+    }
+}
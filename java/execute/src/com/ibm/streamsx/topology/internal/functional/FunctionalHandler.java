@@ -14,14 +14,29 @@ import com.ibm.streamsx.topology.internal.logic.WrapperFunction;
 public abstract class FunctionalHandler<T> {
 
     private final FunctionContext context;
+    private final boolean threadSafe;
     
     public FunctionalHandler(FunctionContext context) throws Exception {
+        this(context, false);
+    }
+    
+    public FunctionalHandler(FunctionContext context, boolean threadSafe) throws Exception {
         this.context = context;
+        this.threadSafe = threadSafe;
     }
     
     public FunctionContext getFunctionContext() {
         return context;
     }
+    
+    /**
+     * Can the logic be invoked concurrently without synchronizing on it.
+     * Determined once when the handler is created so that
+     * operators select their invocation path at initialization.
+     */
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
        
     public abstract T getLogic();
     
@@ -6,6 +6,7 @@ package com.ibm.streamsx.topology.internal.functional;
 
 import java.io.File;
 import java.net.MalformedURLException;
+import java.util.List;
 import java.util.logging.Logger;
 
 import com.ibm.streams.operator.AbstractOperator;
@@ -43,12 +44,49 @@ public class FunctionalHelper {
     public static <T> SPLMapping<T> getOutputMapping(AbstractOperator operator,
             int port, String serializer) throws ClassNotFoundException {
         
+        final SPLMapping<T> mapping;
         if (serializer != null && !serializer.isEmpty()) {
-            return (SPLMapping<T>) Schemas.getObjectMapping(serializer);
+            mapping = (SPLMapping<T>) Schemas.getObjectMapping(serializer);
+        } else {
+            mapping = (SPLMapping<T>) Schemas.getSPLMapping(operator.getOutput(port)
+                .getStreamSchema());
         }
+        mapping.addOutputMetrics(operator.getOperatorContext(), port);
+        if (port == 0)
+            mapping.setOutputConnections(getOutputConnections(operator));
+        return mapping;
+    }
+
+    /**
+     * Get the number of connections to output port 0, set by
+     * the SPL generator when every connection is to a Java
+     * functional operator.
+     * @return Number of connections or -1 if not known.
+     */
+    public static int getOutputConnections(AbstractOperator operator) {
+        List<String> values = operator.getOperatorContext().getParameterValues(
+                FunctionalOpProperties.OUTPUT_CONNECTIONS_PARAM);
+        if (values == null || values.isEmpty())
+            return -1;
+        return Integer.parseInt(values.get(0));
+    }
+
+    /**
+     * Get the output mapping for a port where the hash of
+     * each Java object is added by this operator.
+     * @param hasher Serialized hash function, if {@code null} or empty the hash is not added.
+     */
+    public static <T> SPLMapping<T> getOutputMapping(AbstractOperator operator,
+            int port, String serializer, String hasher) throws ClassNotFoundException {
+        if (hasher == null || hasher.isEmpty())
+            return getOutputMapping(operator, port, serializer);
         
-        return (SPLMapping<T>) Schemas.getSPLMapping(operator.getOutput(port)
-                .getStreamSchema());
+        final SPLMapping<T> mapping = Schemas.getHashMapping(
+                operator.getOutput(port).getStreamSchema(), serializer, hasher);
+        mapping.addOutputMetrics(operator.getOperatorContext(), port);
+        if (port == 0)
+            mapping.setOutputConnections(getOutputConnections(operator));
+        return mapping;
     }
 
     @SuppressWarnings("unchecked")
@@ -18,7 +18,11 @@ public final class StatelessFunctionalHandler<T> extends FunctionalHandler<T> {
     private final T logic;
    
     public StatelessFunctionalHandler(FunctionContext context, T initialLogic) throws Exception {
-        super(context);
+        this(context, initialLogic, false);
+    }
+    
+    public StatelessFunctionalHandler(FunctionContext context, T initialLogic, boolean threadSafe) throws Exception {
+        super(context, threadSafe);
         this.logic = initialLogic;
         initializeLogic();
     }
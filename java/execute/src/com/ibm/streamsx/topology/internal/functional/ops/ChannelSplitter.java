@@ -0,0 +1,150 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.InputPorts;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.OutputPorts;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
+
+/**
+ * Splits a stream into parallel channels, each output
+ * port is a channel with its own queue and reader thread
+ * that submits the channel's tuples.
+ * <BR>
+ * Used by threaded embedded execution in place of the
+ * {@code $Parallel$} virtual marker.
+ * <BR>
+ * Parameter routing is the name of the parallel region's
+ * routing. With {@code BROADCAST} every tuple is submitted
+ * to all channels. If the input schema has the hash attribute
+ * added for a partitioned region the channel is selected
+ * by the hash, otherwise tuples are routed round robin.
+ * Punctuation marks are submitted to all channels.
+ */
+@InputPorts(@InputPortSet(cardinality = 1))
+@OutputPorts(@OutputPortSet(cardinality = -1))
+public class ChannelSplitter extends AbstractOperator {
+
+    static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    private String routing;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private String queueWait;
+
+    private FunctionalQueue<Tuple>[] channels;
+    private boolean broadcast;
+    private int hashIndex = -1;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+
+        broadcast = "BROADCAST".equals(getRouting());
+        if (getInput(0).getStreamSchema().getAttribute(ObjectSchemas.HASH_ATTR) != null)
+            hashIndex = getInput(0).getStreamSchema().getAttributeIndex(ObjectSchemas.HASH_ATTR);
+
+        final FunctionalQueue.Wait wait = FunctionalQueue.Wait.fromParameter(getQueueWait());
+        channels = new FunctionalQueue[context.getNumberOfStreamingOutputs()];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new FunctionalQueue<Tuple>(context, getQueueSize(), wait,
+                    new Channel(getOutput(i)), "." + i);
+        }
+    }
+
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple) throws Exception {
+        if (broadcast) {
+            for (FunctionalQueue<Tuple> channel : channels)
+                channel.tuple(tuple);
+            return;
+        }
+
+        final int channel;
+        if (hashIndex != -1)
+            channel = Math.floorMod(tuple.getInt(hashIndex), channels.length);
+        else
+            channel = Math.floorMod(next.getAndIncrement(), channels.length);
+        channels[channel].tuple(tuple);
+    }
+
+    @Override
+    public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark) throws Exception {
+        for (FunctionalQueue<Tuple> channel : channels)
+            channel.mark(mark);
+    }
+
+    @Override
+    public synchronized void shutdown() throws Exception {
+        if (channels != null) {
+            for (FunctionalQueue<Tuple> channel : channels)
+                channel.stop();
+        }
+        super.shutdown();
+    }
+
+    public String getRouting() {
+        return routing;
+    }
+
+    @Parameter(optional=true)
+    public void setRouting(String routing) {
+        this.routing = routing;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public String getQueueWait() {
+        return queueWait;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueWait(String queueWait) {
+        this.queueWait = queueWait;
+    }
+
+    /**
+     * Submits a channel's tuples from its queue's reader thread.
+     */
+    private static final class Channel implements StreamHandler<Tuple> {
+
+        private final StreamingOutput<OutputTuple> output;
+
+        Channel(StreamingOutput<OutputTuple> output) {
+            this.output = output;
+        }
+
+        @Override
+        public void tuple(Tuple tuple) throws Exception {
+            output.submit(tuple);
+        }
+
+        @Override
+        public void mark(Punctuation mark) throws Exception {
+            output.punctuate(mark);
+        }
+    }
+}
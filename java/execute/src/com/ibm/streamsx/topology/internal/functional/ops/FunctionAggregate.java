@@ -4,27 +4,51 @@
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
+
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
+import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streams.operator.window.StreamWindow.Policy;
+import com.ibm.streamsx.topology.function.BiFunction;
 import com.ibm.streamsx.topology.internal.functional.window.ContinuousAggregatorCountEvict;
 import com.ibm.streamsx.topology.internal.functional.window.ContinuousAggregatorTimeEvict;
+import com.ibm.streamsx.topology.internal.functional.window.PanePeriodicAggregator;
 import com.ibm.streamsx.topology.internal.functional.window.PeriodicAggregator;
 
 @PrimitiveOperator(name="Aggregate")
 @Icons(location16 = "opt/icons/aggregate_16.gif", location32 = "opt/icons/aggregate_32.gif")
 public class FunctionAggregate<T, A> extends FunctionWindow {
+    
+    private String paneCombiner;
+    
     @Override
     void createWindowListener(StreamWindow<Tuple> window)
             throws Exception {
         
-        if (window.getTriggerPolicy() == Policy.TIME)
+        if (window.getTriggerPolicy() == Policy.TIME && getPaneCombiner() != null) {
+            BiFunction<A,A,A> combiner = getLogicObject(getPaneCombiner());
+            new PanePeriodicAggregator<T,A>(this, window, combiner);
+        } else if (window.getTriggerPolicy() == Policy.TIME)
             new PeriodicAggregator<T,A>(this, window);
         else if (window.getEvictionPolicy() == Policy.TIME)
             new ContinuousAggregatorTimeEvict<T,A>(this, window);
         else
             new ContinuousAggregatorCountEvict<T,A>(this, window);
     }
+
+    public String getPaneCombiner() {
+        return paneCombiner;
+    }
+
+    /**
+     * Associative function that combines aggregations of panes
+     * for a periodic aggregation.
+     */
+    @Parameter(optional=true)
+    public void setPaneCombiner(String paneCombiner) {
+        this.paneCombiner = paneCombiner;
+    }
 }
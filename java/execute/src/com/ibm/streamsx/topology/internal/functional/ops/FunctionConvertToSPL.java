@@ -14,6 +14,7 @@ import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
 import com.ibm.streams.operator.model.InputPortSet;
 import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streamsx.topology.function.BiFunction;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
@@ -28,6 +29,8 @@ public class FunctionConvertToSPL extends FunctionFunctor {
     private FunctionalHandler<BiFunction<Object, OutputTuple, OutputTuple>> convertHandler;
     private SPLMapping<Object> inputMapping;
     private StreamingOutput<OutputTuple> output;
+    private boolean threadSafe;
+    private String inputSerializer;
 
     @Override
     public synchronized void initialize(OperatorContext context)
@@ -35,8 +38,14 @@ public class FunctionConvertToSPL extends FunctionFunctor {
         super.initialize(context);
 
         convertHandler = createLogicHandler();
+        threadSafe = convertHandler.isThreadSafe();
         output = getOutput(0);
-        inputMapping = getInputMapping(this, 0);
+        inputMapping = getInputMapping(this, 0, inputSerializer);
+    }
+
+    @Parameter(optional=true)
+    public void setInputSerializer(String inputSerializer) {
+        this.inputSerializer = inputSerializer;
     }
 
     @Override
@@ -48,8 +57,12 @@ public class FunctionConvertToSPL extends FunctionFunctor {
         
         OutputTuple outTuple = output.newTuple();
         
-        synchronized (convert) {
+        if (threadSafe) {
             outTuple = convert.apply(value, outTuple);
+        } else {
+            synchronized (convert) {
+                outTuple = convert.apply(value, outTuple);
+            }
         }
         if (outTuple != null)
             output.submit(outTuple);
@@ -4,11 +4,9 @@
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
-import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
-
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.OutputTuple;
-import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.StreamingData.Punctuation;
 import com.ibm.streams.operator.StreamingOutput;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
@@ -19,37 +17,73 @@ import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
+/**
+ * Filter that submits input tuples as-is when they pass the predicate.
+ * With a queue the input tuple is queued and converted
+ * to its Java object by the reader thread.
+ */
 @PrimitiveOperator(name="Filter")
 @InputPortSet(cardinality = 1)
 @OutputPortSet(cardinality = 1)
 @Icons(location16 = "opt/icons/filter_16.gif", location32 = "opt/icons/filter_32.gif")
-public class FunctionFilter extends FunctionFunctor {
+public class FunctionFilter extends FunctionQueueableFunctor {
 
     private FunctionalHandler<Predicate<Object>> filterHandler;
     private SPLMapping<?> mapping;
     private StreamingOutput<OutputTuple> passed;
+    private boolean shareOutput;
 
     @Override
-    public void initialize(OperatorContext context) throws Exception {
+    public synchronized void initialize(OperatorContext context) throws Exception {
         super.initialize(context);
 
         filterHandler = createLogicHandler();
         
         passed = getOutput(0);
-        mapping = getInputMapping(this, 0);
+        mapping = inputMapping();
+        // Passed tuples are submitted as-is, so fan-out
+        // after the filter must be marked on the tuple.
+        shareOutput = getOutputConnections() > 1;
+    }
+
+    @Override
+    Object queueValue(Tuple tuple) {
+        return tuple;
     }
 
+    /**
+     * Test the tuple's value.
+     * @return The tuple if it passed, otherwise {@code null}.
+     */
     @Override
-    public void process(StreamingInput<Tuple> stream, Tuple tuple)
-            throws Exception {
-        Object value = mapping.convertFrom(tuple);
+    Object apply(Object tuple) throws Exception {
+        Object value = mapping.convertFrom((Tuple) tuple);
 
         final Predicate<Object> filter = filterHandler.getLogic();
         boolean submitTuple;
-        synchronized (filter) {
+        if (isConcurrentLogic()) {
             submitTuple = filter.test(value);
+        } else {
+            synchronized (filter) {
+                submitTuple = filter.test(value);
+            }
         }
-        if (submitTuple)
-            passed.submit(tuple);
+        return submitTuple ? tuple : null;
+    }
+
+    @Override
+    void submit(Object tuple) throws Exception {
+        if (shareOutput)
+            mapping.share((Tuple) tuple);
+        passed.submit((Tuple) tuple);
+    }
+
+    /**
+     * The filter does not submit punctuation itself, processing
+     * the mark ensures all earlier tuples have been submitted
+     * before the punctuation is processed by the operator.
+     */
+    @Override
+    public void mark(Punctuation mark) throws Exception {
     }
 }
@@ -47,6 +47,7 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private int outputConnections = -1;
     
     private FunctionOperatorContext functionContext;
     
@@ -92,6 +93,20 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
         this.submissionParamValues = SubmissionParamValues;
     }
 
+    public final int getOutputConnections() {
+        return outputConnections;
+    }
+
+    /**
+     * Number of connections to output port 0 when they are all
+     * to Java functional operators, set by the SPL generator.
+     * @see com.ibm.streamsx.topology.internal.functional.FunctionalHelper#getOutputConnections(com.ibm.streams.operator.AbstractOperator)
+     */
+    @Parameter(optional = true)
+    public final void setOutputConnections(int outputConnections) {
+        this.outputConnections = outputConnections;
+    }
+
     @Override
     public synchronized void initialize(OperatorContext context)
             throws Exception {
@@ -130,6 +145,9 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
         
         if (logicHandler != null)
             logicHandler.close();
+        
+        if (functionContext != null)
+            functionContext.shutdown();
                
         super.shutdown();
     }
@@ -16,6 +16,7 @@ import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.window.IndexedSlidingJoin;
 import com.ibm.streamsx.topology.internal.functional.window.PartitionedSlidingJoin;
 import com.ibm.streamsx.topology.internal.functional.window.SlidingJoin;
 
@@ -29,11 +30,20 @@ public class FunctionJoin extends FunctionWindow {
     private SlidingJoin<Object, Object, Object> joiner;
     
     private String joinKeyGetter;
+    private String joinWindowIndexer;
+    private String joinIndexer;
 
     @Override
     void createWindowListener(StreamWindow<Tuple> window)
             throws Exception {
-        if (window.isPartitioned()) {
+        if (getJoinWindowIndexer() != null) {
+            Function<Object,Object> joinKeyGetter = window.isPartitioned()
+                    ? getLogicObject(getJoinKeyGetter()) : null;
+            joiner = new IndexedSlidingJoin<Object, Object, Object>(
+                    this, window, joinKeyGetter,
+                    getLogicObject(getJoinWindowIndexer()),
+                    getLogicObject(getJoinIndexer()));
+        } else if (window.isPartitioned()) {
             Function<Object,Object> joinKeyGetter = getLogicObject(getJoinKeyGetter());
             joiner = new PartitionedSlidingJoin<Object, Object, Object>(
                     this, window, joinKeyGetter);
@@ -62,4 +72,29 @@ public class FunctionJoin extends FunctionWindow {
     public void setJoinKeyGetter(String joinKeyGetter) {
         this.joinKeyGetter = joinKeyGetter;
     }
+
+    public String getJoinWindowIndexer() {
+        return joinWindowIndexer;
+    }
+
+    /**
+     * Index key function for windowed tuples,
+     * when set the join uses an index of each window partition.
+     */
+    @Parameter(optional=true)
+    public void setJoinWindowIndexer(String joinWindowIndexer) {
+        this.joinWindowIndexer = joinWindowIndexer;
+    }
+
+    public String getJoinIndexer() {
+        return joinIndexer;
+    }
+
+    /**
+     * Index key function for lookup tuples.
+     */
+    @Parameter(optional=true)
+    public void setJoinIndexer(String joinIndexer) {
+        this.joinIndexer = joinIndexer;
+    }
 }
@@ -35,23 +35,25 @@ public class FunctionMultiTransform extends FunctionQueueableFunctor {
 
         transformHandler = createLogicHandler();
         output = getOutput(0);
-        outputMapping = getOutputMapping(this, 0);
+        outputMapping = getOutputMapping(this, 0, getOutputSerializer(), getOutputHasher());
     }
 
     @Override
-    public void tuple(Object tuple)
-            throws Exception {
-        
+    Object apply(Object tuple) throws Exception {
         final Function<Object, Iterable<Object>> transform = transformHandler.getLogic();
-        Iterable<Object> modValues;
+        if (isConcurrentLogic())
+            return transform.apply(tuple);
         synchronized (transform) {
-            modValues = transform.apply(tuple);
+            return transform.apply(tuple);
         }
-        if (modValues != null) {
-            for (Object modValue : modValues) {
-                if (modValue != null)
-                    output.submit(outputMapping.convertTo(modValue));
-            }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    void submit(Object result) throws Exception {
+        for (Object modValue : (Iterable<Object>) result) {
+            if (modValue != null)
+                output.submit(outputMapping.convertTo(modValue));
         }
     }
     
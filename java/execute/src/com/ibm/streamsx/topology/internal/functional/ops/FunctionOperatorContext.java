@@ -9,9 +9,13 @@ import static java.util.Objects.requireNonNull;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
@@ -28,10 +32,18 @@ class FunctionOperatorContext implements FunctionContext {
     
     private final OperatorContext context;
     private final FunctionContainer container;
+    private final VirtualThreads.OperatorThreadFactory virtualThreads;
+    private ScheduledExecutorService virtualScheduler;
     
     private List<MetricSetter> metrics;
     private ScheduledFuture<?> metricsGetter;
     
+    /**
+     * Names of custom metrics created through stage contexts,
+     * kept across resets, guarded by this.
+     */
+    private final Set<String> stageMetricNames = new HashSet<>();
+    
     static class MetricSetter {
         final Metric metric;
         final LongSupplier value;
@@ -45,6 +57,7 @@ class FunctionOperatorContext implements FunctionContext {
     FunctionOperatorContext( OperatorContext context) {
         this.context = context;
         container = new FunctionPEContainer(context.getPE());
+        virtualThreads = VirtualThreads.isEnabled() ? new VirtualThreads.OperatorThreadFactory() : null;
     }
     
     @Override
@@ -54,12 +67,33 @@ class FunctionOperatorContext implements FunctionContext {
 
     @Override
     public ScheduledExecutorService getScheduledExecutorService() {
-        return context.getScheduledExecutorService();
+        if (virtualThreads == null)
+            return context.getScheduledExecutorService();
+        synchronized (virtualThreads) {
+            if (virtualScheduler == null)
+                virtualScheduler = Executors.newScheduledThreadPool(
+                        Runtime.getRuntime().availableProcessors(), virtualThreads);
+            return virtualScheduler;
+        }
     }
 
     @Override
     public ThreadFactory getThreadFactory() {
-        return context.getThreadFactory();
+        return virtualThreads == null ? context.getThreadFactory() : virtualThreads;
+    }
+    
+    /**
+     * Stop any virtual threads created for the logic,
+     * platform threads are stopped by the operator context.
+     */
+    void shutdown() {
+        if (virtualThreads == null)
+            return;
+        synchronized (virtualThreads) {
+            if (virtualScheduler != null)
+                virtualScheduler.shutdownNow();
+        }
+        virtualThreads.shutdown();
     }
 
     @Override
@@ -143,4 +177,100 @@ class FunctionOperatorContext implements FunctionContext {
         // TODO Auto-generated method stub
         return Collections.unmodifiableSet(context.getMetrics().getCustomMetrics().keySet());
     } 
+    
+    /**
+     * Get a context for one stage of a fused operator.
+     * Custom metrics created through the stage's context keep
+     * their name unless another stage already created a metric
+     * with that name, then the name is qualified by the stage.
+     * @param stage Stage identifier appended to colliding metric names.
+     */
+    FunctionContext stageContext(String stage) {
+        return new StageContext(this, requireNonNull(stage));
+    }
+    
+    /**
+     * Get the operator context for a function context
+     * returned by this class.
+     */
+    static FunctionOperatorContext operatorContext(FunctionContext context) {
+        if (context instanceof StageContext)
+            return ((StageContext) context).operator;
+        return (FunctionOperatorContext) context;
+    }
+    
+    private static final class StageContext implements FunctionContext {
+        private final FunctionOperatorContext operator;
+        private final String suffix;
+        
+        /**
+         * Operator metric name by the name used by this stage,
+         * kept across resets so the stage rebinds to its metrics,
+         * guarded by the operator.
+         */
+        private final Map<String,String> metricNames = new HashMap<>();
+        
+        StageContext(FunctionOperatorContext operator, String stage) {
+            this.operator = operator;
+            this.suffix = "." + stage;
+        }
+
+        @Override
+        public FunctionContainer getContainer() {
+            return operator.getContainer();
+        }
+
+        @Override
+        public ScheduledExecutorService getScheduledExecutorService() {
+            return operator.getScheduledExecutorService();
+        }
+
+        @Override
+        public ThreadFactory getThreadFactory() {
+            return operator.getThreadFactory();
+        }
+
+        @Override
+        public int getChannel() {
+            return operator.getChannel();
+        }
+
+        @Override
+        public int getMaxChannels() {
+            return operator.getMaxChannels();
+        }
+
+        @Override
+        public void addClassLibraries(String[] libraries) throws MalformedURLException {
+            operator.addClassLibraries(libraries);
+        }
+
+        /**
+         * Create a custom metric with {@code name}, qualified by
+         * this stage if another stage already created a metric
+         * with the same name.
+         */
+        @Override
+        public void createCustomMetric(String name, String description, String kind, LongSupplier value) {
+            synchronized (operator) {
+                String metricName = metricNames.get(requireNonNull(name));
+                if (metricName == null)
+                    metricName = operator.stageMetricNames.contains(name) ? name + suffix : name;
+                operator.createCustomMetric(metricName, description, kind, value);
+                operator.stageMetricNames.add(metricName);
+                metricNames.put(name, metricName);
+            }
+        }
+
+        /**
+         * Names of the custom metrics created by this stage,
+         * without any stage qualifier.
+         */
+        @Override
+        public Set<String> getCustomMetricNames() {
+            synchronized (operator) {
+                return Collections.unmodifiableSet(new HashSet<>(metricNames.keySet()));
+            }
+        }
+    }
 }
@@ -39,9 +39,10 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private int outputConnections = -1;
     private StreamingOutput<OutputTuple> output;
     
-    private FunctionContext functionContext;
+    private FunctionOperatorContext functionContext;
 
     @Override
     public synchronized void initialize(OperatorContext context)
@@ -98,6 +99,20 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     public final void setSubmissionParamValues(String[] SubmissionParamValues) {
         this.submissionParamValues = SubmissionParamValues;
     }
+
+    public final int getOutputConnections() {
+        return outputConnections;
+    }
+
+    /**
+     * Number of connections to output port 0 when they are all
+     * to Java functional operators, set by the SPL generator.
+     * @see com.ibm.streamsx.topology.internal.functional.FunctionalHelper#getOutputConnections(com.ibm.streams.operator.AbstractOperator)
+     */
+    @Parameter(optional = true)
+    public final void setOutputConnections(int outputConnections) {
+        this.outputConnections = outputConnections;
+    }
     
     @Override
     protected void fetchTuples() throws Exception {
@@ -114,6 +129,7 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     @Override
     public void shutdown() throws Exception {
         dataHandler.close();
+        functionContext.shutdown();
         super.shutdown();
     }
 }
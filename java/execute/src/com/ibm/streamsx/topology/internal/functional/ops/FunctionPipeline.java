@@ -0,0 +1,268 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.model.Icons;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streams.operator.model.PrimitiveOperator;
+import com.ibm.streamsx.topology.function.Consumer;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * Fused chain of Filter, Map, FlatMap and ForEach functional
+ * operators, created by the SPL generator's optimizer.
+ * <BR>
+ * Parameter stages lists the kind of each stage, Filter, Map,
+ * FlatMap or ForEach (only as the last stage).
+ * The first stage's logic is the functionalLogic parameter
+ * and the logic of the remaining stages is the stageLogic parameter.
+ * Objects are passed between stages by reference, only the first
+ * stage's input and the last stage's output are converted
+ * from and to tuples.
+ * <BR>
+ * Each stage's logic has its own {@code FunctionContext}, custom
+ * metrics it creates keep their name, as they would in their own
+ * operator. Only when a stage uses a name already used by another
+ * stage is its metric named {@code name.index.kind}, for
+ * example {@code count.1.Map}.
+ * <BR>
+ * Parameter stageMetrics creates a custom metric for each stage
+ * counting the objects it processed.
+ */
+@PrimitiveOperator(name="Pipeline")
+@InputPortSet(cardinality = 1)
+@OutputPortSet(cardinality = 1, optional = true)
+@Icons(location16 = "opt/icons/functor_16.gif", location32 = "opt/icons/functor_32.gif")
+public class FunctionPipeline extends FunctionQueueableFunctor {
+
+    private static final String[] KINDS = { "Filter", "Map", "FlatMap", "ForEach" };
+    private static final int FILTER = 0;
+    private static final int MAP = 1;
+    private static final int FLAT_MAP = 2;
+    private static final int FOR_EACH = 3;
+
+    private String[] stages;
+    private String[] stageLogic;
+    private boolean stageMetrics;
+
+    private int[] kinds;
+    private FunctionContext[] stageContexts;
+    private FunctionalHandler<?>[] handlers;
+    private final List<FunctionalHandler<?>> stageHandlers = new ArrayList<>();
+    private boolean[] threadSafe;
+    private Metric[] processed;
+
+    private SPLMapping<Object> outputMapping;
+    private StreamingOutput<OutputTuple> output;
+
+    @Override
+    public synchronized void initialize(OperatorContext context)
+            throws Exception {
+        super.initialize(context);
+
+        if (stages.length == 0 || getStageLogic().length != stages.length - 1)
+            throw new IllegalStateException(Arrays.toString(stages));
+
+        kinds = new int[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            kinds[i] = Arrays.asList(KINDS).indexOf(stages[i]);
+            if (kinds[i] == -1 || (kinds[i] == FOR_EACH && i != stages.length - 1))
+                throw new IllegalStateException(Arrays.toString(stages));
+        }
+
+        stageContexts = new FunctionContext[stages.length];
+        for (int i = 0; i < stages.length; i++)
+            stageContexts[i] = ((FunctionOperatorContext) super.getFunctionContext())
+                    .stageContext(i + "." + stages[i]);
+
+        handlers = new FunctionalHandler[stages.length];
+        threadSafe = new boolean[stages.length];
+        handlers[0] = createLogicHandler();
+        for (int i = 1; i < stages.length; i++) {
+            handlers[i] = FunctionalOpUtils.createFunctionHandler(
+                    context, stageContexts[i], getStageLogic()[i - 1]);
+            stageHandlers.add(handlers[i]);
+        }
+        for (int i = 0; i < stages.length; i++)
+            threadSafe[i] = handlers[i].isThreadSafe();
+
+        if (isStageMetrics()) {
+            processed = new Metric[stages.length];
+            for (int i = 0; i < stages.length; i++)
+                processed[i] = context.getMetrics().createCustomMetric(
+                        "nStageTuplesProcessed." + i + "." + stages[i],
+                        "Number of objects processed by stage " + i + " (" + stages[i] + ").",
+                        Metric.Kind.COUNTER);
+        }
+
+        if (kinds[stages.length - 1] != FOR_EACH) {
+            output = getOutput(0);
+            outputMapping = getOutputMapping(this, 0, getOutputSerializer(), getOutputHasher());
+        }
+    }
+
+    /**
+     * Context of the first stage, used for the
+     * functionalLogic parameter's handler.
+     */
+    @Override
+    protected FunctionContext getFunctionContext() {
+        return stageContexts[0];
+    }
+
+    @Override
+    Object apply(Object value) throws Exception {
+        return apply(0, value, null);
+    }
+
+    /**
+     * Pass a value through the stages starting at {@code stage}.
+     * @return The single result, {@code null} if there was no result
+     * or {@code results} if it is not null and results were added to it.
+     */
+    @SuppressWarnings("unchecked")
+    private Object apply(int stage, Object value, Results results) throws Exception {
+        for (; stage < handlers.length; stage++) {
+            if (processed != null)
+                processed[stage].increment();
+
+            final Object logic = handlers[stage].getLogic();
+            switch (kinds[stage]) {
+            case FILTER:
+                if (!test((Predicate<Object>) logic, threadSafe[stage], value))
+                    return results;
+                break;
+            case MAP:
+                value = map((Function<Object,Object>) logic, threadSafe[stage], value);
+                if (value == null)
+                    return results;
+                break;
+            case FLAT_MAP:
+                final Iterable<Object> values = (Iterable<Object>) map(
+                        (Function<Object,Object>) logic, threadSafe[stage], value);
+                if (values == null)
+                    return results;
+                if (results == null)
+                    results = new Results();
+                for (Object v : values) {
+                    if (v != null)
+                        apply(stage + 1, v, results);
+                }
+                return results;
+            case FOR_EACH:
+                accept((Consumer<Object>) logic, threadSafe[stage], value);
+                return results;
+            }
+        }
+        if (results == null)
+            return value;
+        results.add(value);
+        return results;
+    }
+
+    private static boolean test(Predicate<Object> filter, boolean threadSafe, Object value) {
+        if (threadSafe)
+            return filter.test(value);
+        synchronized (filter) {
+            return filter.test(value);
+        }
+    }
+
+    private static Object map(Function<Object,Object> transform, boolean threadSafe, Object value) {
+        if (threadSafe)
+            return transform.apply(value);
+        synchronized (transform) {
+            return transform.apply(value);
+        }
+    }
+
+    private static void accept(Consumer<Object> sinker, boolean threadSafe, Object value) {
+        if (threadSafe) {
+            sinker.accept(value);
+            return;
+        }
+        synchronized (sinker) {
+            sinker.accept(value);
+        }
+    }
+
+    @Override
+    void submit(Object result) throws Exception {
+        if (output == null)
+            return;
+        if (result instanceof Results) {
+            for (Object value : (Results) result)
+                output.submit(outputMapping.convertTo(value));
+        } else {
+            output.submit(outputMapping.convertTo(result));
+        }
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        if (output != null)
+            output.punctuate(mark);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FunctionalHandler<?> handler : stageHandlers)
+            handler.close();
+        stageHandlers.clear();
+    }
+
+    public String[] getStages() {
+        return stages;
+    }
+
+    @Parameter
+    public void setStages(String[] stages) {
+        this.stages = stages;
+    }
+
+    public String[] getStageLogic() {
+        return stageLogic == null ? new String[0] : stageLogic;
+    }
+
+    @Parameter(optional=true)
+    public void setStageLogic(String[] stageLogic) {
+        this.stageLogic = stageLogic;
+    }
+
+    public boolean isStageMetrics() {
+        return stageMetrics;
+    }
+
+    @Parameter(optional=true)
+    public void setStageMetrics(boolean stageMetrics) {
+        this.stageMetrics = stageMetrics;
+    }
+
+    /**
+     * Multiple results from a FlatMap stage, distinguished
+     * from a single result that is itself a list.
+     */
+    private static final class Results extends ArrayList<Object> {
+        private static final long serialVersionUID = 1L;
+    }
+}
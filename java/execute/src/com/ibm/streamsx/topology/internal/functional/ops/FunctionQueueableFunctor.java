@@ -12,6 +12,7 @@ import com.ibm.streams.operator.StreamingData.Punctuation;
 import com.ibm.streams.operator.StreamingInput;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 /**
@@ -21,30 +22,118 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
  * AND
  * The input port is not connected to a PE port. In this case
  * there is already a thread for the processing.
+ * 
+ * Parameter queueWait selects how the queue's reader thread
+ * waits for tuples, one of spin, yield, park or block (default).
+ * 
+ * Parameter queueThreads > 1 uses that number of reader threads
+ * when the logic is thread safe, the logic is applied concurrently
+ * and the results are submitted in the order tuples arrived.
+ * Other logic always uses a single reader thread.
+ * 
+ * Processing a tuple is split into {@link #apply(Object)} that
+ * executes the logic and {@link #submit(Object)} that submits
+ * the result. With multiple reader threads {@code apply} is called
+ * concurrently while {@code submit} and {@link #mark(Punctuation)}
+ * are only called by a single thread at any time.
+ * 
+ * Parameters inputSerializer and outputSerializer set the
+ * serializer for Java object tuples on port 0.
+ * 
+ * Parameter outputHasher adds the hash of each output Java object
+ * to its tuple, in place of a downstream HashAdder.
  */
 abstract class FunctionQueueableFunctor extends FunctionFunctor implements StreamHandler<Object> {
     
     private int queueSize;
+    private String queueWait;
+    private int queueThreads;
+    private String inputSerializer;
+    private String outputSerializer;
+    private String outputHasher;
     
     private SPLMapping<?> inputMapping;
     private StreamHandler<Object> handler;
+    private FunctionalQueue<Object> queue;
+    private ParallelFunctionalQueue parallelQueue;
+    private boolean concurrentLogic;
     
     @Override
     public synchronized void initialize(OperatorContext context)
             throws Exception {
         super.initialize(context);
-        inputMapping = getInputMapping(this, 0);
+        inputMapping = getInputMapping(this, 0, inputSerializer);
+        handler = this; // not queued until the logic is known
+    }
+    
+    /**
+     * Create the logic handler and then the queue, if any,
+     * as the number of reader threads depends on the logic.
+     */
+    @Override
+    public <T> FunctionalHandler<T> createLogicHandler() throws Exception {
+        FunctionalHandler<T> logicHandler = super.createLogicHandler();
+        concurrentLogic = logicHandler.isThreadSafe();
+        
         if (getQueueSize() <=0 || getInput(0).isConnectedToPEPort())
-            handler = this; // not queued
-        else
-            handler = new FunctionalQueue<Object>(context, getQueueSize(), this);
+            return logicHandler; // not queued
+        
+        final OperatorContext context = getOperatorContext();
+        final FunctionalQueue.Wait wait = FunctionalQueue.Wait.fromParameter(getQueueWait());
+        
+        if (getQueueThreads() > 1 && concurrentLogic) {
+            handler = parallelQueue = new ParallelFunctionalQueue(context, getQueueSize(),
+                    wait, getQueueThreads(), this);
+        } else {
+            handler = queue = new FunctionalQueue<Object>(context, getQueueSize(),
+                    wait, this);
+        }
+        return logicHandler;
+    }
+    
+    /**
+     * Apply the logic to a tuple.
+     * @return Result to be passed to {@link #submit(Object)}, {@code null} if nothing is submitted.
+     */
+    abstract Object apply(Object value) throws Exception;
+    
+    /**
+     * Submit the non-null result of {@link #apply(Object)}.
+     */
+    abstract void submit(Object result) throws Exception;
+    
+    @Override
+    public final void tuple(Object value) throws Exception {
+        Object result = apply(value);
+        if (result != null)
+            submit(result);
+    }
+    
+    /**
+     * True if the logic is thread safe and thus is invoked
+     * without synchronizing on it.
+     */
+    final boolean isConcurrentLogic() {
+        return concurrentLogic;
     }
     
     @Override
     public final void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
-        Object value = inputMapping.convertFrom(tuple);
-        handler.tuple(value);
+        handler.tuple(queueValue(tuple));
+    }
+    
+    /**
+     * Get the value passed to {@link #apply(Object)} for a tuple,
+     * by default the tuple's Java object.
+     * With a queue this is called by the submitting thread.
+     */
+    Object queueValue(Tuple tuple) throws Exception {
+        return inputMapping.convertFrom(tuple);
+    }
+    
+    final SPLMapping<?> inputMapping() {
+        return inputMapping;
     }
     
     @Override
@@ -53,6 +142,15 @@ abstract class FunctionQueueableFunctor extends FunctionFunctor implements Strea
         handler.mark(mark);
         super.processPunctuation(port, mark);
     }
+    
+    @Override
+    public synchronized void shutdown() throws Exception {
+        if (queue != null)
+            queue.stop();
+        if (parallelQueue != null)
+            parallelQueue.stop();
+        super.shutdown();
+    }
 
     public int getQueueSize() {
         return queueSize;
@@ -62,4 +160,45 @@ abstract class FunctionQueueableFunctor extends FunctionFunctor implements Strea
     public void setQueueSize(int queueSize) {
         this.queueSize = queueSize;
     }
+
+    public String getQueueWait() {
+        return queueWait;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueWait(String queueWait) {
+        this.queueWait = queueWait;
+    }
+
+    public int getQueueThreads() {
+        return queueThreads;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueThreads(int queueThreads) {
+        this.queueThreads = queueThreads;
+    }
+
+    @Parameter(optional=true)
+    public void setInputSerializer(String inputSerializer) {
+        this.inputSerializer = inputSerializer;
+    }
+
+    public String getOutputSerializer() {
+        return outputSerializer;
+    }
+
+    @Parameter(optional=true)
+    public void setOutputSerializer(String outputSerializer) {
+        this.outputSerializer = outputSerializer;
+    }
+
+    public String getOutputHasher() {
+        return outputHasher;
+    }
+
+    @Parameter(optional=true)
+    public void setOutputHasher(String outputHasher) {
+        this.outputHasher = outputHasher;
+    }
 }
@@ -18,6 +18,8 @@ public abstract class FunctionSink extends FunctionFunctor {
     private FunctionalHandler<Consumer<Object>> sinkerHandler;
     private SPLMapping<?> mapping;
     private String tupleSerializer;
+    private String inputSerializer;
+    private boolean threadSafe;
 
     @Override
     public synchronized void initialize(OperatorContext context)
@@ -25,8 +27,10 @@ public abstract class FunctionSink extends FunctionFunctor {
         super.initialize(context);
 
         sinkerHandler = createLogicHandler();
+        threadSafe = sinkerHandler.isThreadSafe();
         
-        mapping = getInputMapping(this, 0);
+        mapping = getInputMapping(this, 0,
+                inputSerializer != null ? inputSerializer : tupleSerializer);
         
         initialize();
     }
@@ -36,6 +40,11 @@ public abstract class FunctionSink extends FunctionFunctor {
         this.tupleSerializer = tupleSerializer;
     }
     
+    @Parameter(optional=true)
+    public final void setInputSerializer(String inputSerializer) {
+        this.inputSerializer = inputSerializer;
+    }
+    
     protected void initialize() throws Exception {        
     }
 
@@ -44,8 +53,12 @@ public abstract class FunctionSink extends FunctionFunctor {
             throws Exception {
         Object value = mapping.convertFrom(tuple);
         final Consumer<Object> sinker = sinkerHandler.getLogic();
-        synchronized (sinker) {
+        if (threadSafe) {
             sinker.accept(value);
+        } else {
+            synchronized (sinker) {
+                sinker.accept(value);
+            }
         }
     }
 }
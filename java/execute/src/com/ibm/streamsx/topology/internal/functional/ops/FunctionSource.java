@@ -36,9 +36,13 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
 
     private String functionalLogic;
     private String outputSerializer;
+    private String outputHasher;
+    private boolean batch;
+    private boolean batchMarkers;
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private int outputConnections = -1;
     private StreamingOutput<OutputTuple> output;
      
     private FunctionOperatorContext functionContext;
@@ -56,7 +60,7 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
             
             output = getOutput(0);
                 
-            mapping = getOutputMapping(this, 0, outputSerializer);
+            mapping = getOutputMapping(this, 0, outputSerializer, outputHasher);
             
             dataHandler = FunctionalOpUtils.createFunctionHandler(
                     getOperatorContext(), getFunctionContext(), getFunctionalLogic());
@@ -111,23 +115,64 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
     public final void setSubmissionParamValues(String[] SubmissionParamValues) {
         this.submissionParamValues = SubmissionParamValues;
     }
+
+    public final int getOutputConnections() {
+        return outputConnections;
+    }
+
+    /**
+     * Number of connections to output port 0 when they are all
+     * to Java functional operators, set by the SPL generator.
+     * @see com.ibm.streamsx.topology.internal.functional.FunctionalHelper#getOutputConnections(com.ibm.streams.operator.AbstractOperator)
+     */
+    @Parameter(optional = true)
+    public final void setOutputConnections(int outputConnections) {
+        this.outputConnections = outputConnections;
+    }
     
     @Parameter(optional=true)
     public final void setOutputSerializer(String outputSerializer) {
         this.outputSerializer = outputSerializer;
     }
+    
+    @Parameter(optional=true)
+    public final void setOutputHasher(String outputHasher) {
+        this.outputHasher = outputHasher;
+    }
+    
+    /**
+     * Logic is called repeatedly, each call returns a batch
+     * of tuples, until it returns null.
+     */
+    @Parameter(optional=true)
+    public final void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+    
+    /**
+     * Submit a window marker after each batch.
+     */
+    @Parameter(optional=true)
+    public final void setBatchMarkers(boolean batchMarkers) {
+        this.batchMarkers = batchMarkers;
+    }
 
     @Override
     protected final void process() throws Exception {
 
         try {
             Supplier<Iterable<Object>> data = getLogic();
-            for (Object tuple : data.get()) {
-                if (Thread.interrupted())
+            if (batch) {
+                if (!processBatches(data))
                     return;
-                if (tuple == null)
-                    continue;
-                output.submit(mapping.convertTo(tuple));
+            } else {
+                for (Object tuple : data.get()) {
+                    if (Thread.interrupted())
+                        return;
+                    if (tuple == null)
+                        continue;
+                    output.submit(mapping.convertTo(tuple));
+                }
             }
         } catch (Exception e) {
             throw throwError(exception(e));
@@ -139,6 +184,28 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
         functionContext.finalMarkers();
     }
     
+    /**
+     * Submit batches until the logic returns null.
+     * Interrupts are only checked between batches.
+     * @return False if the thread was interrupted.
+     */
+    private boolean processBatches(Supplier<Iterable<Object>> data) throws Exception {
+        Iterable<Object> tuples;
+        while ((tuples = data.get()) != null) {
+            if (Thread.interrupted())
+                return false;
+            final SPLMapping<Object> mapping = this.mapping;
+            final StreamingOutput<OutputTuple> output = this.output;
+            for (Object tuple : tuples) {
+                if (tuple != null)
+                    output.submit(mapping.convertTo(tuple));
+            }
+            if (batchMarkers)
+                output.punctuate(StreamingData.Punctuation.WINDOW_MARKER);
+        }
+        return true;
+    }
+    
     @Override
     public void shutdown() throws Exception {
         try {
@@ -146,6 +213,9 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
             
             if (dataHandler != null)
                  dataHandler.close();
+            
+            if (functionContext != null)
+                functionContext.shutdown();
         } catch (Exception e) {
             throw throwError(exception(e));
         }
@@ -16,6 +16,7 @@ import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
 import com.ibm.streams.operator.model.InputPortSet;
 import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streamsx.topology.function.ToIntFunction;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
@@ -31,18 +32,26 @@ public class FunctionSplit extends FunctionFunctor {
     private SPLMapping<?> mapping;
     private int n;
     private List<StreamingOutput<OutputTuple>> oports;
+    private boolean threadSafe;
+    private String inputSerializer;
 
     @Override
     public void initialize(OperatorContext context) throws Exception {
         super.initialize(context);
 
         splitterHandler = createLogicHandler();
+        threadSafe = splitterHandler.isThreadSafe();
         
         OperatorContext ctxt = getOperatorContext();
         oports = ctxt.getStreamingOutputs();
         n = oports.size();
         
-        mapping = getInputMapping(this, 0);
+        mapping = getInputMapping(this, 0, inputSerializer);
+    }
+
+    @Parameter(optional=true)
+    public void setInputSerializer(String inputSerializer) {
+        this.inputSerializer = inputSerializer;
     }
 
     @Override
@@ -53,8 +62,12 @@ public class FunctionSplit extends FunctionFunctor {
         
         final ToIntFunction<Object> splitter = splitterHandler.getLogic();
         int r;
-        synchronized (splitter) {
+        if (threadSafe) {
             r = splitter.applyAsInt(value);
+        } else {
+            synchronized (splitter) {
+                r = splitter.applyAsInt(value);
+            }
         }
         if (r >= 0)
             oports.get(r % n).submit(tuple);
@@ -35,21 +35,24 @@ public class FunctionTransform extends FunctionQueueableFunctor {
 
         transformHandler = createLogicHandler();
         output = getOutput(0);
-        outputMapping = getOutputMapping(this, 0);
+        outputMapping = getOutputMapping(this, 0, getOutputSerializer(), getOutputHasher());
     }
     
-    public void tuple(Object value) throws Exception {
-
-        Object modValue;
+    @Override
+    Object apply(Object value) throws Exception {
         Function<Object, Object> transform = transformHandler.getLogic();
+        if (isConcurrentLogic())
+            return transform.apply(value);
         synchronized (transform) {
-            modValue = transform.apply(value);
-        }
-        if (modValue != null) {
-            output.submit(outputMapping.convertTo(modValue));
+            return transform.apply(value);
         }
     }
     
+    @Override
+    void submit(Object modValue) throws Exception {
+        output.submit(outputMapping.convertTo(modValue));
+    }
+    
     @Override
     public void mark(Punctuation mark) throws Exception {
         output.punctuate(mark);
@@ -7,6 +7,11 @@ package com.ibm.streamsx.topology.internal.functional.ops;
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.metrics.Metric;
@@ -21,6 +26,7 @@ import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.internal.functional.window.KeyPartitioner;
+import com.ibm.streamsx.topology.internal.functional.window.TupleDecoder;
 import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 @InputPorts(@InputPortSet(cardinality = 1, windowingMode = WindowMode.Windowed))
@@ -28,6 +34,9 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 public abstract class FunctionWindow extends FunctionFunctor {
         
     private String keyGetter;
+    private int windowSpill;
+    private Closeable windowState;
+    private TupleDecoder<Object> windowDecoder;
 
     private Metric nPartitions;
 
@@ -37,20 +46,30 @@ public abstract class FunctionWindow extends FunctionFunctor {
 
         StreamWindow<Tuple> window = getInput(0).getStreamWindow();
 
+        SPLMapping<Object> input0Mapping = getInputMapping(this, 0);
+        windowDecoder = new TupleDecoder<>(input0Mapping);
+
         createWindowListener(window);
 
         if (window.isPartitioned()) {
             if (getKeyGetter() == null)
                 throw new IllegalStateException("Missing keyGetter function");
             
-            SPLMapping<Object> input0Mapping = getInputMapping(
-                    this, 0);
             Function<Object,Object> functionKeyGetter = getLogicObject(getKeyGetter());
-            window.registerPartitioner(new KeyPartitioner(input0Mapping,
+            window.registerPartitioner(new KeyPartitioner(windowDecoder,
                     functionKeyGetter));
         }
     }
 
+    /**
+     * Decoder for the windowed input port, shared by the
+     * window's partitioner and listener.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TupleDecoder<T> getWindowDecoder() {
+        return (TupleDecoder<T>) windowDecoder;
+    }
+
     public Metric getnPartitions() {
         return nPartitions;
     }
@@ -60,6 +79,40 @@ public abstract class FunctionWindow extends FunctionFunctor {
         this.nPartitions = nPartitions;
     }
 
+    /**
+     * Create a directory for window state that is
+     * stored off the heap. The directory is under the
+     * PE's data directory, or the temporary directory
+     * if no data directory is set.
+     */
+    public File createWindowStateDirectory() throws IOException {
+        File parent;
+        try {
+            parent = getOperatorContext().getPE().getDataDirectory();
+        } catch (IllegalStateException e) {
+            parent = new File(System.getProperty("java.io.tmpdir"));
+        }
+        parent = new File(parent, "windowState");
+        if (!parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Cannot create window state directory: " + parent);
+        String prefix = getOperatorContext().getName().replaceAll("[^A-Za-z0-9_]", "_") + "-";
+        return Files.createTempDirectory(parent.toPath(), prefix).toFile();
+    }
+
+    /**
+     * Set window state that is closed when the operator is shutdown.
+     */
+    public void setWindowState(Closeable windowState) {
+        this.windowState = windowState;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (windowState != null)
+            windowState.close();
+        super.close();
+    }
+
     abstract void createWindowListener(StreamWindow<Tuple> window)
             throws Exception;
 
@@ -74,4 +127,18 @@ public abstract class FunctionWindow extends FunctionFunctor {
     public void setKeyGetter(String keyGetter) {
         this.keyGetter = keyGetter;
     }
+
+    public int getWindowSpill() {
+        return windowSpill;
+    }
+
+    /**
+     * Number of tuples cached on the heap when the window's
+     * partition state is stored off the heap, zero (the default)
+     * keeps the window's partition state on the heap.
+     */
+    @Parameter(optional=true)
+    public void setWindowSpill(int windowSpill) {
+        this.windowSpill = windowSpill;
+    }
 }
@@ -15,6 +15,7 @@ import com.ibm.streams.operator.state.CheckpointContext;
 import com.ibm.streams.operator.state.CheckpointContext.Kind;
 import com.ibm.streams.operator.state.ConsistentRegionContext;
 import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.IncrementalCheckpoint;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.functional.StatelessFunctionalHandler;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
@@ -26,6 +27,7 @@ class FunctionalOpUtils {
     static <T> FunctionalHandler<T> createFunctionHandler(OperatorContext context, FunctionContext functionContext, String functionalLogic) throws Exception {
 
         final T initialLogic = getLogicObject(functionalLogic);
+        final boolean threadSafe = ObjectUtils.isThreadSafe(initialLogic.getClass());
                
         CheckpointContext cc = context.getOptionalContext(CheckpointContext.class);
         if (trace.isLoggable(Level.FINE))
@@ -56,7 +58,8 @@ class FunctionalOpUtils {
                 FunctionalHandler.closeLogic(initialLogic); 
                                 
                 StatefulFunctionalHandler<T> handler =
-                        new StatefulFunctionalHandler<T>(functionContext, functionalLogic);
+                        new StatefulFunctionalHandler<T>(functionContext, functionalLogic, threadSafe,
+                                initialLogic instanceof IncrementalCheckpoint);
                 
                 context.registerStateHandler(handler);
                 
@@ -70,9 +73,10 @@ class FunctionalOpUtils {
         }
         
         if (trace.isLoggable(Level.FINE))
-            trace.fine("Stateless function:" + initialLogic.getClass().getName());
+            trace.fine("Stateless function:" + initialLogic.getClass().getName()
+                    + (threadSafe ? " (thread safe)" : ""));
         
-        return new StatelessFunctionalHandler<T>(functionContext, initialLogic);
+        return new StatelessFunctionalHandler<T>(functionContext, initialLogic, threadSafe);
     }
     
     /**
@@ -4,77 +4,338 @@
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
 import com.ibm.streams.flow.handlers.StreamHandler;
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.metrics.Metric;
 
+/**
+ * Queue between the thread(s) submitting tuples to a functional
+ * operator and a single reader thread that executes the logic.
+ *
+ * The queue is a bounded ring buffer supporting multiple
+ * producers and a single consumer. Producers claim a slot
+ * with a compare-and-set, no lock is taken on the submission path.
+ * The reader drains all available tuples as a batch before
+ * it waits using the configured {@link Wait} strategy.
+ * <BR>
+ * Punctuation marks are passed through the ring so that they
+ * are processed in order with tuples, the submitting thread
+ * waits for the mark to be processed by the reader.
+ * <BR>
+ * Once the reader thread has stopped, due to its handler
+ * failing or the queue being stopped, submitting threads
+ * waiting for space or for a mark to be processed are released
+ * and fail with an {@code IllegalStateException}.
+ */
 class FunctionalQueue<T> implements StreamHandler<T>, Runnable {
 
-    private BlockingQueue<T> queue;
-    
+    /**
+     * How the reader waits when the queue is empty
+     * and how producers wait when the queue is full.
+     */
+    enum Wait {
+        /** Busy spin, lowest latency, consumes a core. */
+        SPIN,
+        /** Yield the processor between checks. */
+        YIELD,
+        /** Park the thread for a short fixed period between checks. */
+        PARK,
+        /** Reader parks until a producer signals it. */
+        BLOCK;
+
+        static Wait fromParameter(String value) {
+            if (value == null || value.isEmpty())
+                return BLOCK;
+            return valueOf(value.toUpperCase(Locale.US));
+        }
+    }
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MARK_CHECK_MILLIS = 100;
+
+    private final int mask;
+    private final AtomicReferenceArray<Object> buffer;
+    private final AtomicLongArray sequences;
+
+    /** Next slot to be claimed by a producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next slot to be read, only accessed by the reader. */
+    private long head;
+
+    private final Wait wait;
+    private volatile boolean readerWaiting;
+
+    /** Set once the reader thread has stopped. */
+    private volatile boolean stopped;
+    private volatile Throwable failure;
+
     private final StreamHandler<T> handler;
     private final Thread reader;
-        
-    FunctionalQueue(OperatorContext context, int size, StreamHandler<T> handler) {
-        this.queue = new ArrayBlockingQueue<>(size);
+
+    private final AtomicLong enqueueWaitNanos = new AtomicLong();
+    private final Metric queueDepth;
+    private final Metric queueBatchSize;
+    private final Metric queueEnqueueWait;
+
+    FunctionalQueue(OperatorContext context, int size, Wait wait, StreamHandler<T> handler) {
+        this(context, size, wait, handler, "");
+    }
+
+    /**
+     * Create a queue.
+     * @param metricSuffix Suffix for the names of the queue's metrics,
+     * allows multiple queues in a single operator.
+     */
+    FunctionalQueue(OperatorContext context, int size, Wait wait, StreamHandler<T> handler,
+            String metricSuffix) {
+
+        int capacity = Integer.highestOneBit(Math.max(2, size));
+        if (capacity < size)
+            capacity <<= 1;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            sequences.set(i, i);
+
+        this.wait = wait;
         this.handler = handler;
 
-        reader = context.getThreadFactory().newThread(this);
-        reader.setDaemon(false);
+        queueDepth = context.getMetrics().createCustomMetric("queueDepth" + metricSuffix,
+                "Number of tuples in the input queue.", Metric.Kind.GAUGE);
+        queueBatchSize = context.getMetrics().createCustomMetric("queueBatchSize" + metricSuffix,
+                "Number of tuples processed in the last batch drained from the input queue.", Metric.Kind.GAUGE);
+        queueEnqueueWait = context.getMetrics().createCustomMetric("queueEnqueueWaitNanos" + metricSuffix,
+                "Total time in nanoseconds submitters waited for space in the full input queue.", Metric.Kind.COUNTER);
+
+        reader = VirtualThreads.newThread(context, this);
         start();
     }
-    
+
     @Override
     public void run() {
-        while (!Thread.interrupted()) {
-            try {
-                T tuple = queue.take();
-                handler.tuple(tuple);
-
-            } catch (InterruptedException e) {
-                return;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        try {
+            while (!Thread.interrupted()) {
+                int batch = drain();
+                if (batch == 0) {
+                    idle();
+                    continue;
+                }
+                queueBatchSize.setValue(batch);
+                queueDepth.setValue(tail.get() - head);
+                queueEnqueueWait.setValue(enqueueWaitNanos.get());
             }
+        } catch (InterruptedException e) {
+            return;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } catch (Exception e) {
+            failure = e;
+            throw new RuntimeException(e);
+        } finally {
+            stopped = true;
+            releaseMarks();
+        }
+    }
+
+    /**
+     * Release submitters waiting on marks that
+     * will not be processed as the reader has stopped.
+     */
+    private void releaseMarks() {
+        final int capacity = mask + 1;
+        for (long h = head;; h++) {
+            final int index = (int) h & mask;
+            if (sequences.get(index) != h + 1)
+                break;
+            final Object item = buffer.get(index);
+            buffer.lazySet(index, null);
+            sequences.lazySet(index, h + capacity);
+            head = h + 1;
+            if (item instanceof QueuedMark)
+                ((QueuedMark) item).processed.countDown();
         }
     }
-    
-    
-    
+
+    /**
+     * Fail if the reader thread has stopped.
+     */
+    void checkRunning() {
+        if (stopped) {
+            if (failure != null)
+                throw new IllegalStateException("Functional queue reader failed: " + failure, failure);
+            throw new IllegalStateException("Functional queue stopped");
+        }
+    }
+
+    /**
+     * Has the reader thread stopped.
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Process all tuples currently in the queue.
+     * @return Number of items processed.
+     */
+    @SuppressWarnings("unchecked")
+    private int drain() throws Exception {
+        int count = 0;
+        final int capacity = mask + 1;
+        long h = head;
+        for (;;) {
+            final int index = (int) h & mask;
+            if (sequences.get(index) != h + 1)
+                break;
+
+            final Object item = buffer.get(index);
+            buffer.lazySet(index, null);
+            sequences.lazySet(index, h + capacity);
+            head = ++h;
+
+            if (item instanceof QueuedMark) {
+                QueuedMark qm = (QueuedMark) item;
+                try {
+                    handler.mark(qm.mark);
+                    qm.handled = true;
+                } finally {
+                    qm.processed.countDown();
+                }
+            } else {
+                handler.tuple((T) item);
+            }
+
+            // Bound the batch to the queue capacity so that
+            // metrics are updated under constant load.
+            if (++count == capacity)
+                break;
+        }
+        return count;
+    }
+
+    private void idle() throws InterruptedException {
+        switch (wait) {
+        case SPIN:
+            break;
+        case YIELD:
+            Thread.yield();
+            break;
+        case PARK:
+            LockSupport.parkNanos(this, PARK_NANOS);
+            break;
+        case BLOCK:
+            readerWaiting = true;
+            if (isEmpty())
+                LockSupport.park(this);
+            readerWaiting = false;
+            break;
+        }
+        if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+
+    private boolean isEmpty() {
+        final long h = head;
+        return sequences.get((int) h & mask) != h + 1;
+    }
+
+    /**
+     * Add an item to the ring, waiting while the queue is full.
+     */
+    private void put(Object item) throws InterruptedException {
+        long waitStart = 0;
+        for (;;) {
+            checkRunning();
+            final long t = tail.get();
+            final int index = (int) t & mask;
+            final long seq = sequences.get(index);
+            if (seq == t) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    buffer.lazySet(index, item);
+                    sequences.set(index, t + 1);
+                    break;
+                }
+            } else if (seq < t) {
+                // Full
+                if (waitStart == 0)
+                    waitStart = System.nanoTime();
+                producerWait();
+            }
+        }
+
+        if (waitStart != 0)
+            enqueueWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        if (readerWaiting)
+            LockSupport.unpark(reader);
+    }
+
+    private void producerWait() throws InterruptedException {
+        switch (wait) {
+        case SPIN:
+            break;
+        case YIELD:
+            Thread.yield();
+            break;
+        case PARK:
+        case BLOCK:
+            LockSupport.parkNanos(this, PARK_NANOS);
+            break;
+        }
+        if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+
     @Override
-    public synchronized void tuple(T tuple) throws Exception {
-        queue.put(tuple);
+    public void tuple(T tuple) throws Exception {
+        put(tuple);
     }
-       
+
     /**
      * Ensure all tuples seen before the mark
      * are processed before the mark.
      */
     @Override
     public void mark(Punctuation mark) throws Exception {
-        if (!queue.isEmpty()) {
-            List<T> drained = new ArrayList<T>(queue.size());
-            queue.drainTo(drained);
-            if (!drained.isEmpty()) {
-                for (T tuple : drained)
-                    handler.tuple(tuple);
-            }
+        QueuedMark qm = new QueuedMark(mark);
+        put(qm);
+        while (!qm.processed.await(MARK_CHECK_MILLIS, TimeUnit.MILLISECONDS))
+            checkRunning();
+        if (!qm.handled) {
+            // Reader failed processing the mark or stopped before it.
+            while (!stopped)
+                LockSupport.parkNanos(this, PARK_NANOS);
+            checkRunning();
         }
-        
-        handler.mark(mark);
     }
-    
+
     void start() {
         reader.start();
     }
-    
+
     void stop() {
         reader.interrupt();
     }
-    
+
+    private static final class QueuedMark {
+        final Punctuation mark;
+        final CountDownLatch processed = new CountDownLatch(1);
+        volatile boolean handled;
+
+        QueuedMark(Punctuation mark) {
+            this.mark = mark;
+        }
+    }
 }
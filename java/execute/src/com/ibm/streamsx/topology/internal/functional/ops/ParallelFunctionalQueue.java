@@ -0,0 +1,196 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+
+/**
+ * Queue that fans tuples out to multiple reader threads
+ * for operators with stateless (immutable) logic.
+ * <BR>
+ * Each tuple is given a sequence number and passed to a
+ * worker {@link FunctionalQueue} in round-robin order.
+ * Workers apply the logic concurrently and place the result
+ * in a reorder buffer indexed by sequence number. Results are
+ * submitted in sequence order by whichever worker completes
+ * the next expected sequence, so the output order matches
+ * the input order.
+ * <BR>
+ * Punctuation marks take a sequence number and are placed
+ * directly into the reorder buffer, thus a mark is submitted
+ * once all tuples seen before it have been submitted.
+ */
+class ParallelFunctionalQueue implements StreamHandler<Object> {
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MARK_CHECK_MILLIS = 100;
+
+    /** Marker for a tuple whose logic returned null. */
+    private static final Object NO_RESULT = new Object();
+
+    private final FunctionQueueableFunctor functor;
+    private final FunctionalQueue<Sequenced>[] workers;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final int mask;
+    private final AtomicReferenceArray<Object> results;
+
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private volatile long nextSubmit;
+
+    @SuppressWarnings("unchecked")
+    ParallelFunctionalQueue(OperatorContext context, int size, FunctionalQueue.Wait wait,
+            int threads, FunctionQueueableFunctor functor) {
+        this.functor = functor;
+
+        // Sequences that have been assigned but not submitted are
+        // bounded by the reorder buffer's capacity.
+        final int outstanding = threads * (size + 1) * 2;
+        int capacity = Integer.highestOneBit(outstanding);
+        if (capacity < outstanding)
+            capacity <<= 1;
+        this.mask = capacity - 1;
+        this.results = new AtomicReferenceArray<>(capacity);
+
+        workers = new FunctionalQueue[threads];
+        final StreamHandler<Sequenced> worker = new Worker();
+        for (int i = 0; i < threads; i++)
+            workers[i] = new FunctionalQueue<Sequenced>(context, size, wait, worker, "." + i);
+    }
+
+    @Override
+    public void tuple(Object tuple) throws Exception {
+        final long seq = nextSequence();
+        workers[(int) (seq % workers.length)].tuple(new Sequenced(seq, tuple));
+    }
+
+    /**
+     * Submit the mark once all earlier tuples have been submitted
+     * and wait for it to be processed.
+     */
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        final SequencedMark sm = new SequencedMark(mark);
+        complete(nextSequence(), sm);
+        while (!sm.processed.await(MARK_CHECK_MILLIS, TimeUnit.MILLISECONDS))
+            checkRunning();
+    }
+
+    /**
+     * Fail if any worker has stopped, as the results
+     * of its tuples will never be submitted.
+     */
+    private void checkRunning() {
+        for (FunctionalQueue<Sequenced> worker : workers)
+            worker.checkRunning();
+    }
+
+    /**
+     * Assign the next sequence number, waiting
+     * while the reorder buffer is full.
+     */
+    private long nextSequence() throws InterruptedException {
+        final long seq = sequence.getAndIncrement();
+        while (seq - nextSubmit > mask) {
+            checkRunning();
+            LockSupport.parkNanos(this, PARK_NANOS);
+            if (Thread.interrupted())
+                throw new InterruptedException();
+        }
+        return seq;
+    }
+
+    private void complete(long seq, Object result) throws Exception {
+        results.set((int) seq & mask, result == null ? NO_RESULT : result);
+        submitInOrder();
+    }
+
+    /**
+     * Submit all results that are next in sequence.
+     * Only one thread submits at any time, a thread that
+     * fails to acquire the lock leaves its result to the
+     * thread holding it, which rechecks after releasing it.
+     */
+    private void submitInOrder() throws Exception {
+        for (;;) {
+            if (!submitLock.tryLock())
+                return;
+            try {
+                long n = nextSubmit;
+                Object result;
+                while ((result = results.get((int) n & mask)) != null) {
+                    results.set((int) n & mask, null);
+                    nextSubmit = ++n;
+                    submit(result);
+                }
+            } finally {
+                submitLock.unlock();
+            }
+            if (results.get((int) nextSubmit & mask) == null)
+                return;
+        }
+    }
+
+    private void submit(Object result) throws Exception {
+        if (result instanceof SequencedMark) {
+            final SequencedMark sm = (SequencedMark) result;
+            try {
+                functor.mark(sm.mark);
+            } finally {
+                sm.processed.countDown();
+            }
+        } else if (result != NO_RESULT) {
+            functor.submit(result);
+        }
+    }
+
+    void stop() {
+        for (FunctionalQueue<Sequenced> worker : workers)
+            worker.stop();
+    }
+
+    /**
+     * Handler executed by each worker thread.
+     */
+    private class Worker implements StreamHandler<Sequenced> {
+        @Override
+        public void tuple(Sequenced tuple) throws Exception {
+            complete(tuple.seq, functor.apply(tuple.value));
+        }
+
+        @Override
+        public void mark(Punctuation mark) throws Exception {
+            // Marks bypass the workers.
+        }
+    }
+
+    private static final class Sequenced {
+        final long seq;
+        final Object value;
+
+        Sequenced(long seq, Object value) {
+            this.seq = seq;
+            this.value = value;
+        }
+    }
+
+    private static final class SequencedMark {
+        final Punctuation mark;
+        final CountDownLatch processed = new CountDownLatch(1);
+
+        SequencedMark(Punctuation mark) {
+            this.mark = mark;
+        }
+    }
+}
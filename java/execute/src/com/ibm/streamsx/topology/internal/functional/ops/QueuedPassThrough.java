@@ -0,0 +1,111 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.InputPorts;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.OutputPorts;
+import com.ibm.streams.operator.model.Parameter;
+
+/**
+ * Pass through with a queue on its input port, tuples are
+ * submitted by the queue's reader thread.
+ * <BR>
+ * Used by threaded embedded execution in place of the
+ * {@code $Isolate$} and {@code $EndParallel$} virtual markers
+ * so that the upstream and downstream operators execute
+ * on different threads.
+ * <BR>
+ * Parameter channels is the number of parallel channels
+ * merged by this operator, a window marker is submitted
+ * once for every {@code channels} window markers received.
+ */
+@InputPorts(@InputPortSet(cardinality = 1))
+@OutputPorts(@OutputPortSet(cardinality = 1))
+public class QueuedPassThrough extends AbstractOperator implements StreamHandler<Tuple> {
+
+    private int queueSize = ChannelSplitter.DEFAULT_QUEUE_SIZE;
+    private String queueWait;
+    private int channels = 1;
+
+    private StreamingOutput<OutputTuple> out;
+    private FunctionalQueue<Tuple> queue;
+
+    /** Only accessed by the queue's reader thread. */
+    private int windowMarks;
+
+    @Override
+    public synchronized void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+        out = getOutput(0);
+        queue = new FunctionalQueue<Tuple>(context, getQueueSize(),
+                FunctionalQueue.Wait.fromParameter(getQueueWait()), this);
+    }
+
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple) throws Exception {
+        queue.tuple(tuple);
+    }
+
+    @Override
+    public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark) throws Exception {
+        queue.mark(mark);
+    }
+
+    @Override
+    public void tuple(Tuple tuple) throws Exception {
+        out.submit(tuple);
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        if (mark == Punctuation.WINDOW_MARKER && ++windowMarks % getChannels() != 0)
+            return;
+        out.punctuate(mark);
+    }
+
+    @Override
+    public synchronized void shutdown() throws Exception {
+        if (queue != null)
+            queue.stop();
+        super.shutdown();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public String getQueueWait() {
+        return queueWait;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueWait(String queueWait) {
+        this.queueWait = queueWait;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    @Parameter(optional=true)
+    public void setChannels(int channels) {
+        this.channels = Math.max(1, channels);
+    }
+}
@@ -6,36 +6,72 @@ package com.ibm.streamsx.topology.internal.functional.ops;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
 import com.ibm.streams.operator.state.Checkpoint;
 import com.ibm.streams.operator.state.StateHandler;
 import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.IncrementalCheckpoint;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 
 /**
  * Functional logic handler used when checkpointing/consistent region is configured
  * and the logic is not immutable.
- * 
+ * <BR>
+ * Logic that implements {@link IncrementalCheckpoint} is checkpointed
+ * as its last serialized snapshot followed by the serialized deltas
+ * since the snapshot. Only taking the snapshot or delta blocks
+ * tuple processing, serialization occurs after the logic is released.
  */
 class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements StateHandler {
     
     private final String initialLogic;
-    private T logic;
+    private final boolean incremental;
+    
+    /**
+     * Volatile as the logic is only replaced on a reset,
+     * allowing tuple processing to fetch it without a lock.
+     */
+    private volatile T logic;
+
+    /**
+     * Number of checkpoints after a full snapshot
+     * before another full snapshot is taken.
+     */
+    static final int FULL_SNAPSHOT_INTERVAL = 10;
+
+    /**
+     * For incremental checkpoints the serialized
+     * snapshot and deltas since the snapshot.
+     * Guarded by this.
+     */
+    private byte[] snapshot;
+    private final List<byte[]> deltas = new ArrayList<>();
+    private long deltaBytes;
 
     StatefulFunctionalHandler(FunctionContext context,
-            String initialLogic) throws Exception {
-        super(context);
+            String initialLogic, boolean threadSafe, boolean incremental) throws Exception {
+        super(context, threadSafe);
         this.initialLogic = initialLogic;
+        this.incremental = incremental;
     }
     
     @Override
-    public synchronized T getLogic() {
+    public T getLogic() {
         return logic;
     }
     
     private synchronized void closeLogic() {
         if (this.logic != null) {
             // Clear mapping of custom metrics to any objects in the logic.
-            ((FunctionOperatorContext) getFunctionContext()).clearMetrics();
+            FunctionOperatorContext.operatorContext(getFunctionContext()).clearMetrics();
             closeLogic(this.logic);
             this.logic = null;
         }
@@ -47,6 +83,7 @@ class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements State
     
     @Override
     public void resetToInitialState() throws Exception {
+        clearIncremental();
         closeLogic();
         setLogic(getLogicObject(initialLogic));
         initializeLogic();
@@ -55,11 +92,63 @@ class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements State
     @Override
     public void checkpoint(Checkpoint checkpoint) throws Exception {
         final Object logic = getLogic();
+        if (incremental) {
+            checkpointIncremental((IncrementalCheckpoint<?,?>) logic, checkpoint);
+            return;
+        }
         synchronized (logic) {
             checkpoint.getOutputStream().writeObject(logic);
         }
     }
 
+    private synchronized void checkpointIncremental(IncrementalCheckpoint<?,?> logic,
+            Checkpoint checkpoint) throws IOException {
+
+        final boolean full = snapshot == null
+                || deltas.size() >= FULL_SNAPSHOT_INTERVAL
+                || deltaBytes > snapshot.length / 2;
+
+        final Serializable state;
+        synchronized (logic) {
+            state = full ? logic.snapshot() : logic.delta();
+        }
+
+        if (full) {
+            clearIncremental();
+            snapshot = serialize(state);
+        } else if (state != null) {
+            final byte[] delta = serialize(state);
+            deltas.add(delta);
+            deltaBytes += delta.length;
+        }
+
+        final ObjectOutputStream out = checkpoint.getOutputStream();
+        out.writeObject(snapshot);
+        out.writeInt(deltas.size());
+        for (byte[] delta : deltas)
+            out.writeObject(delta);
+    }
+
+    private synchronized void clearIncremental() {
+        snapshot = null;
+        deltas.clear();
+        deltaBytes = 0;
+    }
+
+    private static byte[] serialize(Serializable state) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] state) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state))) {
+            return in.readObject();
+        }
+    }
+
     @Override
     public void drain() throws Exception {
     }
@@ -68,11 +157,35 @@ class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements State
     @Override
     public void reset(Checkpoint checkpoint) throws Exception {
         closeLogic();
-        final Object logic = checkpoint.getInputStream().readObject();
-        setLogic((T) logic);
+        if (incremental)
+            resetIncremental(getLogicObject(initialLogic), checkpoint);
+        else
+            setLogic((T) checkpoint.getInputStream().readObject());
         initializeLogic();
     }
 
+    /**
+     * Restore the snapshot and replay the deltas, retaining
+     * them for subsequent checkpoints.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized void resetIncremental(T logic, Checkpoint checkpoint) throws Exception {
+        final IncrementalCheckpoint<Serializable,Serializable> state =
+                (IncrementalCheckpoint<Serializable,Serializable>) logic;
+        clearIncremental();
+        final ObjectInputStream in = checkpoint.getInputStream();
+        snapshot = (byte[]) in.readObject();
+        state.restore((Serializable) deserialize(snapshot));
+        final int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            final byte[] delta = (byte[]) in.readObject();
+            deltas.add(delta);
+            deltaBytes += delta.length;
+            state.apply((Serializable) deserialize(delta));
+        }
+        setLogic(logic);
+    }
+
     @Override
     public void retireCheckpoint(long arg0) throws Exception {
     }
@@ -0,0 +1,113 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+
+/**
+ * Optional use of virtual threads for threads created for
+ * functional logic and functional operator queues.
+ * <BR>
+ * Enabled by setting the system property {@value #PROPERTY}
+ * to {@code true} in the operator's JVM. Virtual threads
+ * require Java 21, with earlier versions the operator context's
+ * platform threads are used.
+ * <BR>
+ * Virtual threads are obtained through reflection so that
+ * this class compiles and runs with earlier Java versions.
+ */
+final class VirtualThreads {
+
+    static final String PROPERTY = FunctionalOpProperties.VIRTUAL_THREADS_PROPERTY;
+
+    private static final ThreadFactory VIRTUAL = virtualThreadFactory(Boolean.getBoolean(PROPERTY));
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Get a factory for virtual threads, null if not enabled
+     * or virtual threads are not supported by this JVM.
+     */
+    static ThreadFactory virtualThreadFactory(boolean enabled) {
+        if (!enabled)
+            return null;
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "functional-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            FunctionFunctor.trace.log(Level.WARNING,
+                    "Virtual threads not available, using platform threads: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Are virtual threads used.
+     */
+    static boolean isEnabled() {
+        return VIRTUAL != null;
+    }
+
+    /**
+     * Create a thread for an operator, a virtual thread if enabled
+     * otherwise a thread from the operator context.
+     */
+    static Thread newThread(OperatorContext context, Runnable task) {
+        if (!isEnabled()) {
+            Thread thread = context.getThreadFactory().newThread(task);
+            thread.setDaemon(false);
+            return thread;
+        }
+        Thread thread = VIRTUAL.newThread(task);
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        return thread;
+    }
+
+    /**
+     * Thread factory for an operator's functional logic.
+     * Virtual threads use the class loader of the thread
+     * that created the factory and are interrupted when the
+     * factory is shutdown, as the operator context does for
+     * its own threads.
+     */
+    static final class OperatorThreadFactory implements ThreadFactory {
+
+        private final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        private final Set<Thread> threads = Collections.newSetFromMap(new WeakHashMap<>());
+
+        @Override
+        public Thread newThread(Runnable task) {
+            final Thread thread = VIRTUAL.newThread(task);
+            thread.setContextClassLoader(loader);
+            synchronized (threads) {
+                threads.add(thread);
+            }
+            return thread;
+        }
+
+        void shutdown() {
+            final List<Thread> active;
+            synchronized (threads) {
+                active = new ArrayList<>(threads);
+                threads.clear();
+            }
+            for (Thread thread : active)
+                thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.util.List;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.window.StreamWindow;
+import com.ibm.streamsx.topology.function.BiFunction;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
+
+/**
+ * Join where each window partition has a hash index of its
+ * tuples by an index key. A lookup tuple is joined with
+ * the window tuples in its partition that have the same index key,
+ * so each lookup is constant time rather than a scan of the partition.
+ * <BR>
+ * Indexes are guarded by a lock per partition stripe rather than
+ * the whole window, so lookups for partitions in different stripes
+ * proceed concurrently with each other and with window updates,
+ * see {@link PartitionIndexes}.
+ * Join logic that is not thread safe is still only invoked
+ * by one thread at a time.
+ * <BR>
+ * Each index references all the tuples in its partition,
+ * thus the window's tuples are held on the heap even if
+ * its partition state is stored off the heap.
+ *
+ * @param <T>
+ *            Input (lookup) tuple type
+ * @param <U>
+ *            Window tuple type
+ * @param <J>
+ *            Output (joined) tuple type
+ */
+public class IndexedSlidingJoin<T, U, J> extends SlidingJoin<T, U, J> {
+
+    private final Function<Object,Object> joinKeyGetter;
+    private final Function<Object,Object> indexer;
+    private final PartitionIndexes<U> indexes;
+
+    /**
+     * Create an indexed join.
+     * @param joinKeyGetter Partition key for lookup tuples, {@code null} if the window is not partitioned.
+     * @param windowIndexer Index key for window tuples.
+     * @param indexer Index key for lookup tuples.
+     */
+    public IndexedSlidingJoin(FunctionWindow op, StreamWindow<Tuple> window,
+            Function<Object,Object> joinKeyGetter,
+            Function<Object,Object> windowIndexer,
+            Function<Object,Object> indexer) throws Exception {
+        super(op, window);
+        this.joinKeyGetter = joinKeyGetter;
+        this.indexer = indexer;
+        this.indexes = new PartitionIndexes<>(windowIndexer);
+    }
+
+    @Override
+    void insert(Object partition, PartitionTuples<U> tuples, U tuple) throws Exception {
+        indexes.insert(partition, tuples, tuple);
+    }
+
+    @Override
+    void evict(Object partition, PartitionTuples<U> tuples) throws Exception {
+        indexes.evict(partition, tuples);
+    }
+
+    @Override
+    void partitionEvicted(Object partition) {
+        indexes.remove(partition);
+    }
+
+    /**
+     * Join a lookup tuple with the matching window tuples.
+     * The window's lock is only held to obtain the partition's state,
+     * the join holds the lock for the lookup tuple's partition stripe.
+     */
+    @Override
+    public void port1Join(Tuple splTuple) throws Exception {
+        final BiFunction<T, List<U>, J> joiner = joinerHandler.getLogic();
+        final T tTuple = input1Mapping.convertFrom(splTuple);
+        final Object partition = getPort1PartitionKey(tTuple);
+        final Object indexKey = indexer.apply(tTuple);
+
+        final PartitionTuples<U> tuples;
+        synchronized (this) {
+            tuples = getPartitionState(partition);
+        }
+
+        J jTuple;
+        synchronized (indexes.stripe(partition)) {
+            final List<U> matches = indexes.matches(partition, tuples, indexKey);
+            if (joinerHandler.isThreadSafe()) {
+                jTuple = joiner.apply(tTuple, matches);
+            } else {
+                synchronized (joiner) {
+                    jTuple = joiner.apply(tTuple, matches);
+                }
+            }
+        }
+        if (jTuple != null) {
+            Tuple splOutTuple = outputMapping.convertTo(jTuple);
+            output.submit(splOutTuple);
+        }
+    }
+
+    @Override
+    protected Object getPort1PartitionKey(T tTuple) {
+        return joinKeyGetter == null ? super.getPort1PartitionKey(tTuple) : joinKeyGetter.apply(tTuple);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.window.StreamWindow;
+import com.ibm.streams.operator.window.StreamWindowEvent;
+import com.ibm.streamsx.topology.function.BiFunction;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
+
+/**
+ * Periodic aggregation (trigger is time based) that shares
+ * work between aggregations using panes.
+ * <BR>
+ * Each partition's tuples are split into panes, the tuples
+ * inserted between two triggers. A pane is aggregated once
+ * using the user's function and each trigger combines the pane
+ * aggregations using the user's associative combiner.
+ * A pane is only aggregated again if some of its tuples
+ * are evicted.
+ * <BR>
+ * A partition's panes are rebuilt as a single pane when they
+ * were created for a different instance of the partition's tuples,
+ * such as after the window has been restored or reset.
+ *
+ * @param <I>
+ *            Input tuple type
+ * @param <O>
+ *            Output tuple type
+ */
+public class PanePeriodicAggregator<I, O> extends SlidingSet<I, O> {
+
+    private final FunctionalHandler<Function<List<I>, O>> aggregatorHandler;
+    private final BiFunction<O, O, O> combiner;
+
+    /**
+     * Panes by partition, oldest pane first, the last pane is open
+     * (receiving tuples) until the next trigger.
+     */
+    private final Map<Object, PartitionPanes<O>> panes = new HashMap<>();
+
+    public PanePeriodicAggregator(FunctionWindow op, StreamWindow<Tuple> window,
+            BiFunction<O, O, O> combiner) throws Exception {
+        super(op, window);
+        aggregatorHandler = op.createLogicHandler();
+        this.combiner = combiner;
+    }
+
+    static final class Pane<O> {
+        /** Number of tuples in the pane. */
+        int count;
+        /** Is the pane closed to new tuples. */
+        boolean closed;
+        /** Aggregation of the pane, null if it needs to be aggregated. */
+        O aggregation;
+        boolean aggregated;
+
+        void modified() {
+            aggregation = null;
+            aggregated = false;
+        }
+    }
+
+    @Override
+    void preInsert(Object partition, PartitionTuples<I> tuples, I tuple) throws Exception {
+        final RingList<Pane<O>> partitionPanes = panes(partition, tuples);
+        Pane<O> pane = partitionPanes.isEmpty() ? null
+                : partitionPanes.get(partitionPanes.size() - 1);
+        if (pane == null || pane.closed) {
+            pane = new Pane<>();
+            partitionPanes.addLast(pane);
+        }
+        pane.count++;
+        pane.modified();
+    }
+
+    @Override
+    void preEvict(Object partition, PartitionTuples<I> tuples) throws Exception {
+        final RingList<Pane<O>> partitionPanes = panes(partition, tuples);
+        final Pane<O> oldest = partitionPanes.getFirst();
+        if (--oldest.count == 0)
+            partitionPanes.removeFirst();
+        else
+            oldest.modified();
+    }
+
+    @Override
+    void partitionEvicted(Object partition) {
+        panes.remove(partition);
+    }
+
+    /**
+     * Panes of a partition, created for a specific
+     * {@link PartitionTuples} instance.
+     */
+    static final class PartitionPanes<O> {
+        private final PartitionTuples<?> tuples;
+        final RingList<Pane<O>> panes = new RingList<>();
+
+        PartitionPanes(PartitionTuples<?> tuples) {
+            this.tuples = tuples;
+        }
+
+        /**
+         * Are these the panes of {@code tuples}.
+         */
+        boolean isFor(PartitionTuples<?> tuples) {
+            return this.tuples == tuples;
+        }
+    }
+
+    private RingList<Pane<O>> panes(Object partition, PartitionTuples<I> tuples) {
+        return panes(panes, partition, tuples).panes;
+    }
+
+    /**
+     * Get the partition's panes, creating a single pane for
+     * any existing tuples if they do not exist or are not
+     * for {@code tuples}, such as after the window
+     * has been restored or reset.
+     */
+    static <O> PartitionPanes<O> panes(Map<Object, PartitionPanes<O>> panes,
+            Object partition, PartitionTuples<?> tuples) {
+        PartitionPanes<O> partitionPanes = panes.get(partition);
+        if (partitionPanes == null || !partitionPanes.isFor(tuples)) {
+            partitionPanes = new PartitionPanes<>(tuples);
+            if (!tuples.isEmpty()) {
+                Pane<O> pane = new Pane<>();
+                pane.count = tuples.size();
+                partitionPanes.panes.addLast(pane);
+            }
+            panes.put(partition, partitionPanes);
+        }
+        return partitionPanes;
+    }
+
+    @Override
+    void postSetUpdate(StreamWindowEvent<Tuple> event, Object partition,
+            PartitionTuples<I> tuples) throws Exception {
+        switch (event.getType()) {
+        case TRIGGER:
+            aggregate(partition, tuples);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void aggregate(Object partition, PartitionTuples<I> tuples) throws Exception {
+        final Function<List<I>, O> aggregator = aggregatorHandler.getLogic();
+        final RingList<Pane<O>> partitionPanes = panes(partition, tuples);
+
+        O aggregation;
+        if (partitionPanes.isEmpty()) {
+            aggregation = aggregator.apply(Collections.<I>emptyList());
+        } else {
+            aggregation = null;
+            int start = 0;
+            for (int i = 0; i < partitionPanes.size(); i++) {
+                final Pane<O> pane = partitionPanes.get(i);
+                if (!pane.aggregated) {
+                    pane.aggregation = aggregator.apply(tuples.subList(start, start + pane.count));
+                    pane.aggregated = true;
+                }
+                start += pane.count;
+
+                if (i == 0)
+                    aggregation = pane.aggregation;
+                else
+                    aggregation = combiner.apply(aggregation, pane.aggregation);
+            }
+            // Tuples inserted after this trigger go into a new pane.
+            partitionPanes.get(partitionPanes.size() - 1).closed = true;
+        }
+
+        if (aggregation != null) {
+            Tuple splTuple = outputMapping.convertTo(aggregation);
+            output.submit(splTuple);
+        }
+    }
+}
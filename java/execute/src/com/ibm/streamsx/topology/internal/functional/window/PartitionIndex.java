@@ -0,0 +1,88 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.streamsx.topology.function.Function;
+
+/**
+ * Hash index of a window partition's tuples by an index key,
+ * each index key maps to its tuples in insertion order.
+ * <BR>
+ * The index is built for a specific {@link PartitionTuples} instance,
+ * when the window is restored or reset its partitions are new instances
+ * so {@link #isFor(PartitionTuples)} is false and the index must be rebuilt.
+ * <BR>
+ * The index references every tuple in the partition, so the
+ * tuples are held on the heap even when the window's partition
+ * state is stored off the heap.
+ * <BR>
+ * Not thread safe.
+ *
+ * @param <U> Window tuple type.
+ */
+final class PartitionIndex<U> {
+
+    private final PartitionTuples<U> tuples;
+    private final Function<Object,Object> windowIndexer;
+    private final Map<Object, RingList<U>> index = new HashMap<>();
+
+    /**
+     * Create an index of the current contents of {@code tuples}.
+     */
+    PartitionIndex(PartitionTuples<U> tuples, Function<Object,Object> windowIndexer) {
+        this.tuples = tuples;
+        this.windowIndexer = windowIndexer;
+        for (U tuple : tuples)
+            insert(tuple);
+    }
+
+    /**
+     * Is this the index of {@code tuples}.
+     */
+    boolean isFor(PartitionTuples<U> tuples) {
+        return this.tuples == tuples;
+    }
+
+    /**
+     * Index a tuple being added to the end of the partition.
+     */
+    void insert(U tuple) {
+        final Object indexKey = windowIndexer.apply(tuple);
+        RingList<U> matches = index.get(indexKey);
+        if (matches == null)
+            index.put(indexKey, matches = new RingList<>());
+        matches.addLast(tuple);
+    }
+
+    /**
+     * Remove the oldest tuple in the partition from the index,
+     * which is also the oldest tuple for its index key.
+     */
+    void evict(U oldest) {
+        final Object indexKey = windowIndexer.apply(oldest);
+        final RingList<U> matches = index.get(indexKey);
+        matches.removeFirst();
+        if (matches.isEmpty())
+            index.remove(indexKey);
+    }
+
+    boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * Get the tuples with {@code indexKey} in insertion order,
+     * the returned list is read-only.
+     */
+    List<U> matches(Object indexKey) {
+        final List<U> matches = index.get(indexKey);
+        return matches == null ? Collections.<U>emptyList() : matches;
+    }
+}
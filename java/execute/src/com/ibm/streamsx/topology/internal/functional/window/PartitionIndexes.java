@@ -0,0 +1,133 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.streamsx.topology.function.Function;
+
+/**
+ * Hash indexes of a window's partitions, guarded by a lock per
+ * partition stripe rather than the whole window.
+ * <BR>
+ * Indexes are only created and updated by the thread handling
+ * window events, which adds and removes a partition's tuples
+ * holding its stripe's lock, so an index is always consistent
+ * with its partition's tuples. A lookup holds the stripe's lock
+ * but never creates an index, when the partition's index does
+ * not exist or is for a different instance of the partition's
+ * state, such as after the window has been restored or reset,
+ * the lookup scans the partition's tuples.
+ *
+ * @param <U> Window tuple type.
+ */
+final class PartitionIndexes<U> {
+
+    private static final int STRIPES = 32;
+
+    private final Function<Object,Object> windowIndexer;
+    private final Object[] stripes = new Object[STRIPES];
+
+    /**
+     * Index by partition, an index is only accessed holding its stripe's lock.
+     */
+    private final Map<Object, PartitionIndex<U>> indexes = new ConcurrentHashMap<>();
+
+    PartitionIndexes(Function<Object,Object> windowIndexer) {
+        this.windowIndexer = windowIndexer;
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Object();
+    }
+
+    /**
+     * Get the lock guarding the index of {@code partition}.
+     */
+    Object stripe(Object partition) {
+        int h = partition == null ? 0 : partition.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (STRIPES - 1)];
+    }
+
+    /**
+     * Add {@code tuple} to the end of {@code tuples} and its index.
+     * Called by the window event thread.
+     */
+    void insert(Object partition, PartitionTuples<U> tuples, U tuple) {
+        synchronized (stripe(partition)) {
+            index(indexes, partition, tuples, windowIndexer).insert(tuple);
+            tuples.addLast(tuple);
+        }
+    }
+
+    /**
+     * Remove the oldest tuple from {@code tuples} and its index,
+     * it is also the oldest tuple for its index key.
+     * Called by the window event thread.
+     */
+    void evict(Object partition, PartitionTuples<U> tuples) {
+        synchronized (stripe(partition)) {
+            final PartitionIndex<U> index = index(indexes, partition, tuples, windowIndexer);
+            index.evict(tuples.getFirst());
+            if (index.isEmpty())
+                indexes.remove(partition);
+            tuples.removeFirst();
+        }
+    }
+
+    /**
+     * Remove the index of an evicted partition.
+     * Called by the window event thread.
+     */
+    void remove(Object partition) {
+        synchronized (stripe(partition)) {
+            indexes.remove(partition);
+        }
+    }
+
+    /**
+     * Get the tuples in {@code tuples} with {@code indexKey}
+     * in insertion order.
+     * Called holding the partition's stripe lock.
+     */
+    List<U> matches(Object partition, PartitionTuples<U> tuples, Object indexKey) {
+        final PartitionIndex<U> index = indexes.get(partition);
+        if (index != null && index.isFor(tuples))
+            return index.matches(indexKey);
+        final List<U> matches = new ArrayList<>();
+        for (U tuple : tuples) {
+            if (Objects.equals(indexKey, windowIndexer.apply(tuple)))
+                matches.add(tuple);
+        }
+        return matches;
+    }
+
+    /**
+     * Get the current index of {@code partition}.
+     */
+    PartitionIndex<U> get(Object partition) {
+        return indexes.get(partition);
+    }
+
+    /**
+     * Get the partition's index, creating it from the
+     * tuples in the partition if it does not exist or
+     * is not for {@code tuples}, such as after the window
+     * has been restored or reset.
+     */
+    static <U> PartitionIndex<U> index(Map<Object, PartitionIndex<U>> indexes,
+            Object partition, PartitionTuples<U> tuples,
+            Function<Object,Object> windowIndexer) {
+        PartitionIndex<U> index = indexes.get(partition);
+        if (index == null || !index.isFor(tuples)) {
+            index = new PartitionIndex<>(tuples, windowIndexer);
+            indexes.put(partition, index);
+        }
+        return index;
+    }
+}
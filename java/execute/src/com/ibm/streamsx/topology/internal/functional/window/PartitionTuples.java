@@ -0,0 +1,43 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Tuples in a window partition, oldest tuple first.
+ * <BR>
+ * Tuples are only added at the end and removed from the start,
+ * which matches window insertion and eviction.
+ * The {@code List} interface is read-only, so an instance can be
+ * passed directly to user logic as the window contents.
+ *
+ * @param <E> Element type.
+ */
+public abstract class PartitionTuples<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Get the oldest tuple.
+     */
+    public abstract E getFirst();
+
+    /**
+     * Add a tuple to the end of the list.
+     */
+    public abstract void addLast(E e);
+
+    /**
+     * Remove the oldest tuple.
+     */
+    public abstract E removeFirst();
+
+    /**
+     * Release any resources held by this list
+     * as its partition has been evicted.
+     */
+    public void release() {
+    }
+}
@@ -4,7 +4,6 @@
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
-import java.util.LinkedList;
 
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.window.StreamWindow;
@@ -28,7 +27,7 @@ public class PeriodicAggregator<I, O> extends SlidingSetAggregator<I, O> {
 
     @Override
     protected void postSetUpdate(StreamWindowEvent<Tuple> event,
-            Object partition, LinkedList<I> tuples) throws Exception {
+            Object partition, PartitionTuples<I> tuples) throws Exception {
         switch (event.getType()) {
         case TRIGGER:
             aggregate(partition, tuples);
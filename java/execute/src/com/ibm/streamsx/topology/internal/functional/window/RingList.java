@@ -0,0 +1,114 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+
+/**
+ * Window partition state held on the heap as a circular array,
+ * oldest element first.
+ * <BR>
+ * The array doubles when full and halves when a quarter full,
+ * so memory follows the size of the partition. Compared to a
+ * {@code LinkedList} there is no per-element node and
+ * {@link #get(int)} is constant time.
+ *
+ * @param <E> Element type.
+ */
+public final class RingList<E> extends PartitionTuples<E> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_CAPACITY = 8;
+
+    private transient Object[] elements = new Object[MIN_CAPACITY];
+
+    /** Index of the oldest element. */
+    private transient int head;
+
+    private transient int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        return (E) elements[(head + index) & (elements.length - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E getFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return (E) elements[head];
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (size == elements.length)
+            resize(elements.length << 1);
+        elements[(head + size) & (elements.length - 1)] = e;
+        size++;
+        modCount++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E removeFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        final E e = (E) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        if (elements.length > MIN_CAPACITY && size <= (elements.length >> 2))
+            resize(elements.length >> 1);
+        return e;
+    }
+
+    /**
+     * Copy the elements into a new array of {@code capacity},
+     * with the oldest element at index zero.
+     */
+    private void resize(int capacity) {
+        final Object[] resized = new Object[capacity];
+        final int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, resized, 0, firstPart);
+        System.arraycopy(elements, 0, resized, firstPart, size - firstPart);
+        elements = resized;
+        head = 0;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++)
+            out.writeObject(get(i));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final int n = in.readInt();
+        int capacity = MIN_CAPACITY;
+        while (capacity < n)
+            capacity <<= 1;
+        elements = new Object[capacity];
+        for (int i = 0; i < n; i++)
+            elements[i] = (E) in.readObject();
+        size = n;
+    }
+}
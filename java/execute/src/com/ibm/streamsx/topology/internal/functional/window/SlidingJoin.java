@@ -6,7 +6,6 @@ package com.ibm.streamsx.topology.internal.functional.window;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import com.ibm.streams.operator.Tuple;
@@ -27,7 +26,7 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
  */
 public class SlidingJoin<T, U, J> extends SlidingSet<U, J> {
 
-    private FunctionalHandler<BiFunction<T, List<U>, J>> joinerHandler;
+    final FunctionalHandler<BiFunction<T, List<U>, J>> joinerHandler;
     protected SPLMapping<T> input1Mapping;
 
     public SlidingJoin(FunctionWindow op, StreamWindow<Tuple> window)
@@ -43,7 +42,7 @@ public class SlidingJoin<T, U, J> extends SlidingSet<U, J> {
      */
     @Override
     void postSetUpdate(StreamWindowEvent<Tuple> event, Object partition,
-            LinkedList<U> tuples) throws Exception {
+            PartitionTuples<U> tuples) throws Exception {
     }
 
     public void port1Join(Tuple splTuple) throws Exception {
@@ -51,7 +50,7 @@ public class SlidingJoin<T, U, J> extends SlidingSet<U, J> {
         J jTuple;
         synchronized (this) {
             T tTuple = input1Mapping.convertFrom(splTuple);
-            LinkedList<U> tuples = getPartitionState(getPort1PartitionKey(tTuple));
+            PartitionTuples<U> tuples = getPartitionState(getPort1PartitionKey(tTuple));
             jTuple = joiner.apply(tTuple, tuples);
         }
         if (jTuple != null) {
@@ -4,10 +4,9 @@
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
-import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
 
-import java.util.LinkedList;
+import java.io.IOException;
 
 import com.ibm.streams.operator.StreamingOutput;
 import com.ibm.streams.operator.Tuple;
@@ -19,41 +18,53 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 /**
  * 
- * State is LinkedList<I> input tuples as their Java object, with the oldest
+ * State is the input tuples as their Java object, with the oldest
  * tuple first.
+ * <BR>
+ * Partition state is held on the heap unless the operator's
+ * {@code windowSpill} parameter is set, in which case the tuples are
+ * stored in memory-mapped files with a bounded number cached on the heap.
  * 
  * @param <I>
  *            Input tuple type
  */
 public abstract class SlidingSet<I, O> extends
-        StatefulWindowListener<LinkedList<I>, Tuple> {
+        StatefulWindowListener<PartitionTuples<I>, Tuple> {
 
     private final FunctionWindow op;
-    private final SPLMapping<I> inputMapping;
+    private final TupleDecoder<I> inputDecoder;
+    private final SpillStore spillStore;
 
     protected final SPLMapping<O> outputMapping;
     protected final StreamingOutput<?> output;
 
     protected SlidingSet(FunctionWindow op, StreamWindow<Tuple> window)
-            throws ClassNotFoundException {
+            throws ClassNotFoundException, IOException {
         super(window);
         this.op = op;
-        inputMapping = getInputMapping(op, 0);
+        inputDecoder = op.getWindowDecoder();
         output = op.getOutput(0);
         outputMapping = getOutputMapping(op, 0);
+
+        if (op.getWindowSpill() > 0) {
+            spillStore = new SpillStore(op.createWindowStateDirectory(), op.getWindowSpill(),
+                    inputDecoder.getTupleSerializer());
+            op.setWindowState(spillStore);
+        } else {
+            spillStore = null;
+        }
     }
 
     @Override
     public synchronized final void handleEvent(StreamWindowEvent<Tuple> event)
             throws Exception {
         final Object partition = event.getPartition();
-        LinkedList<I> tuples = getPartitionState(partition);
+        PartitionTuples<I> tuples = getPartitionState(partition);
 
         switch (event.getType()) {
         case INSERTION:
             for (Tuple splTuple : event.getTuples()) {
-                I tuple = inputMapping.convertFrom(splTuple);
-                tuples.addLast(tuple);
+                insert(partition, tuples, inputDecoder.decode(splTuple));
             }
 
             break;
@@ -61,11 +72,13 @@ public abstract class SlidingSet<I, O> extends
             // we only support count and time based eviction, which
             // means any eviction is always the oldest N tuples.
             for (@SuppressWarnings("unused") Tuple splTuple : event.getTuples()) {
-                tuples.removeFirst();
+                evict(partition, tuples);
             }
             break;
         case PARTITION_EVICTION:
             op.getnPartitions().incrementValue(-1);
+            partitionEvicted(partition);
+            tuples.release();
             break;
         default:
             break;
@@ -75,12 +88,43 @@ public abstract class SlidingSet<I, O> extends
     }
 
     abstract void postSetUpdate(StreamWindowEvent<Tuple> event,
-            Object partition, LinkedList<I> tuples) throws Exception;
+            Object partition, PartitionTuples<I> tuples) throws Exception;
+    
+    /**
+     * Add {@code tuple} to the end of {@code tuples}.
+     */
+    void insert(Object partition, PartitionTuples<I> tuples, I tuple) throws Exception {
+        preInsert(partition, tuples, tuple);
+        tuples.addLast(tuple);
+    }
+    
+    /**
+     * Remove the oldest tuple from {@code tuples}.
+     */
+    void evict(Object partition, PartitionTuples<I> tuples) throws Exception {
+        preEvict(partition, tuples);
+        tuples.removeFirst();
+    }
+    
+    /**
+     * Called before {@code tuple} is added to the end of {@code tuples}.
+     */
+    void preInsert(Object partition, PartitionTuples<I> tuples, I tuple) throws Exception {
+    }
+    
+    /**
+     * Called before the oldest tuple is removed from {@code tuples}.
+     */
+    void preEvict(Object partition, PartitionTuples<I> tuples) throws Exception {
+    }
+    
+    void partitionEvicted(Object partition) {
+    }
 
     @Override
-    protected final LinkedList<I> getInitializedState(Object partition,
-            LinkedList<I> state) {
+    protected final PartitionTuples<I> getInitializedState(Object partition,
+            PartitionTuples<I> state) {
         op.getnPartitions().increment();
-        return new LinkedList<I>();
+        return spillStore == null ? new RingList<I>() : new SpillList<I>(spillStore);
     }
 }
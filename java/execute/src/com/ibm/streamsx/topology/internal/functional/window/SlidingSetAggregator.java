@@ -4,20 +4,29 @@
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
 
 /**
  * This is set based aggregation, the user's function is given
  * the complete list of tuples in the window.
- * State is LinkedList<I> input tuples as their Java object, with the newest
+ * State is the input tuples as their Java object, with the newest
  * tuple at the front.
+ * <BR>
+ * If the user's logic is an {@link IncrementalAggregator} then
+ * an aggregation state is maintained for each partition as tuples
+ * are inserted and evicted, and aggregating only obtains the result
+ * from the state. The state is rebuilt from the partition's tuples
+ * when it was built for a different instance of the partition's
+ * tuples, such as after the window has been restored or reset.
  * 
  * @param <I>
  *            Input tuple type
@@ -26,21 +35,102 @@ import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
  */
 public abstract class SlidingSetAggregator<I, O> extends SlidingSet<I, O> {
 
-    private FunctionalHandler<Function<List<I>, O>> aggregatorHandler;
+    private FunctionalHandler<Object> aggregatorHandler;
+    
+    /**
+     * Aggregation state by partition for an incremental aggregator.
+     */
+    private final Map<Object, AggregationState<I>> states;
 
     public SlidingSetAggregator(FunctionWindow op, StreamWindow<Tuple> window)
             throws Exception {
         super(op, window);
         aggregatorHandler = op.createLogicHandler();
+        states = aggregatorHandler.getLogic() instanceof IncrementalAggregator
+                ? new HashMap<>() : null;
     }
 
-    protected void aggregate(Object partition, LinkedList<I> tuples)
+    @SuppressWarnings("unchecked")
+    protected void aggregate(Object partition, PartitionTuples<I> tuples)
             throws Exception {
-        final Function<List<I>, O> aggregator = aggregatorHandler.getLogic();
-        O aggregation = aggregator.apply(tuples);
+        final Object logic = aggregatorHandler.getLogic();
+        O aggregation;
+        if (states != null) {
+            IncrementalAggregator<I, Object, O> aggregator = (IncrementalAggregator<I, Object, O>) logic;
+            aggregation = aggregator.result(state(states, aggregator, partition, tuples).value);
+        } else {
+            aggregation = ((Function<List<I>, O>) logic).apply(tuples);
+        }
         if (aggregation != null) {
             Tuple splTuple = outputMapping.convertTo(aggregation);
             output.submit(splTuple);
         }
     }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    void preInsert(Object partition, PartitionTuples<I> tuples, I tuple) throws Exception {
+        if (states == null)
+            return;
+        IncrementalAggregator<I, Object, O> aggregator = (IncrementalAggregator<I, Object, O>) aggregatorHandler.getLogic();
+        final AggregationState<I> state = state(states, aggregator, partition, tuples);
+        state.value = aggregator.add(state.value, tuple);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    void preEvict(Object partition, PartitionTuples<I> tuples) throws Exception {
+        if (states == null)
+            return;
+        IncrementalAggregator<I, Object, O> aggregator = (IncrementalAggregator<I, Object, O>) aggregatorHandler.getLogic();
+        final AggregationState<I> state = state(states, aggregator, partition, tuples);
+        state.value = aggregator.remove(state.value, tuples.getFirst());
+    }
+    
+    @Override
+    void partitionEvicted(Object partition) {
+        if (states != null)
+            states.remove(partition);
+    }
+    
+    /**
+     * Aggregation state of a partition, built for
+     * a specific {@link PartitionTuples} instance.
+     */
+    static final class AggregationState<I> {
+        private final PartitionTuples<I> tuples;
+        Object value;
+
+        AggregationState(PartitionTuples<I> tuples, Object value) {
+            this.tuples = tuples;
+            this.value = value;
+        }
+
+        /**
+         * Is this the aggregation state of {@code tuples}.
+         */
+        boolean isFor(PartitionTuples<I> tuples) {
+            return this.tuples == tuples;
+        }
+    }
+    
+    /**
+     * Get the partition's aggregation state, creating it from
+     * the tuples in the partition if it does not exist or
+     * is not for {@code tuples}, such as after the window
+     * has been restored or reset.
+     */
+    static <I> AggregationState<I> state(Map<Object, AggregationState<I>> states,
+            IncrementalAggregator<I, Object, ?> aggregator,
+            Object partition, PartitionTuples<I> tuples) {
+        AggregationState<I> state = states.get(partition);
+        if (state == null || !state.isFor(tuples)) {
+            Object value = aggregator.initialState();
+            for (I tuple : tuples)
+                value = aggregator.add(value, tuple);
+            state = new AggregationState<>(tuples, value);
+            states.put(partition, state);
+        }
+        return state;
+    }
 }
@@ -0,0 +1,118 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+
+/**
+ * Window partition state whose tuples are held in a {@link SpillStore}.
+ * <BR>
+ * Only the location of each tuple is held on the heap, in a circular
+ * array with the oldest tuple first. When serialized, such as for a
+ * checkpoint, the list is replaced by a {@link RingList} holding the
+ * tuples, thus restored partitions are held on the heap.
+ *
+ * @param <E> Element type.
+ */
+final class SpillList<E> extends PartitionTuples<E> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_CAPACITY = 8;
+
+    private final transient SpillStore store;
+
+    private transient long[] locations = new long[MIN_CAPACITY];
+    private transient int head;
+    private transient int size;
+
+    SpillList(SpillStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        return read(locations[(head + index) & (locations.length - 1)]);
+    }
+
+    @Override
+    public E getFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return read(locations[head]);
+    }
+
+    @Override
+    public void addLast(E e) {
+        final long location;
+        try {
+            location = store.write(e);
+        } catch (IOException ioe) {
+            throw new IllegalStateException(ioe);
+        }
+        if (size == locations.length)
+            resize(locations.length << 1);
+        locations[(head + size) & (locations.length - 1)] = location;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public E removeFirst() {
+        final E e = getFirst();
+        store.free(locations[head]);
+        head = (head + 1) & (locations.length - 1);
+        size--;
+        modCount++;
+        if (locations.length > MIN_CAPACITY && size <= (locations.length >> 2))
+            resize(locations.length >> 1);
+        return e;
+    }
+
+    @Override
+    public void release() {
+        for (int i = 0; i < size; i++)
+            store.free(locations[(head + i) & (locations.length - 1)]);
+        locations = new long[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E read(long location) {
+        try {
+            return (E) store.read(location);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void resize(int capacity) {
+        final long[] resized = new long[capacity];
+        final int firstPart = Math.min(size, locations.length - head);
+        System.arraycopy(locations, head, resized, 0, firstPart);
+        System.arraycopy(locations, 0, resized, firstPart, size - firstPart);
+        locations = resized;
+        head = 0;
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        final RingList<E> tuples = new RingList<>();
+        for (E e : this)
+            tuples.addLast(e);
+        return tuples;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Off-heap storage for the tuples of a window's partitions.
+ * <BR>
+ * Tuples are serialized and appended to memory-mapped segment
+ * files, a tuple is identified by its location, the segment
+ * number and offset within the segment. A segment file is deleted
+ * once all of its tuples have been freed, as tuples are evicted
+ * oldest first segments are freed in roughly the order they were written.
+ * <BR>
+ * A bounded number of recently written or read tuples are cached
+ * on the heap to avoid deserializing them on every access.
+ * <BR>
+ * A segment is unmapped when it is deleted, rather than when its
+ * buffer is garbage collected, so the memory and file of a segment
+ * whose tuples were all evicted, or whose partitions were evicted,
+ * are released immediately. All segments are released when the
+ * store is closed, any later access fails.
+ * <BR>
+ * Tuples are serialized using the serializer of the window's
+ * input stream.
+ * <BR>
+ * Methods are synchronized so that closing the store at operator
+ * shutdown cannot unmap a segment while it is being accessed.
+ */
+final class SpillStore implements Closeable {
+
+    private static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final TupleSerializer serializer;
+    private final File directory;
+    private final Map<Integer, Segment> segments = new HashMap<>();
+    private final Map<Long, Object> cache;
+    private final Bytes bytes = new Bytes();
+
+    private Segment current;
+    private int nextSegment;
+    private boolean closed;
+
+    /**
+     * Create a store.
+     * @param directory Directory for the segment files, created if it does not exist.
+     * @param cacheSize Maximum number of tuples cached on the heap.
+     * @param serializer Serializer for the tuples.
+     */
+    SpillStore(File directory, final int cacheSize, TupleSerializer serializer) throws IOException {
+        this.directory = directory;
+        this.serializer = serializer;
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Cannot create window spill directory: " + directory);
+
+        cache = new LinkedHashMap<Long, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Write a tuple.
+     * @return Location of the tuple.
+     */
+    synchronized long write(Object tuple) throws IOException {
+        checkOpen();
+        bytes.reset();
+        serializer.serialize(tuple, bytes);
+        final int length = bytes.size();
+
+        if (current == null || current.remaining() < 4 + length)
+            current = newSegment(Math.max(SEGMENT_SIZE, 4 + length));
+
+        final int offset = current.position;
+        current.buffer.position(offset);
+        current.buffer.putInt(length);
+        current.buffer.put(bytes.data(), 0, length);
+        current.position = current.buffer.position();
+        current.live++;
+
+        final long location = ((long) current.id << 32) | offset;
+        cache.put(location, tuple);
+        return location;
+    }
+
+    /**
+     * Read the tuple at {@code location}.
+     */
+    synchronized Object read(long location) throws IOException, ClassNotFoundException {
+        checkOpen();
+        Object tuple = cache.get(location);
+        if (tuple == null) {
+            final Segment segment = segment(location);
+            final int offset = (int) location;
+            final ByteBuffer record = segment.buffer.duplicate();
+            record.position(offset);
+            final byte[] data = new byte[record.getInt()];
+            record.get(data);
+            tuple = serializer.deserialize(new ByteArrayInputStream(data));
+            cache.put(location, tuple);
+        }
+        return tuple;
+    }
+
+    /**
+     * Free the tuple at {@code location}.
+     */
+    synchronized void free(long location) {
+        if (closed)
+            return;
+        cache.remove(location);
+
+        final Segment segment = segment(location);
+        if (--segment.live != 0)
+            return;
+
+        if (segment == current) {
+            // Reuse the current segment from its start.
+            current.position = 0;
+        } else {
+            segments.remove(segment.id);
+            segment.delete();
+        }
+    }
+
+    /**
+     * Number of segments currently mapped.
+     */
+    synchronized int mappedSegments() {
+        return segments.size();
+    }
+
+    private void checkOpen() {
+        if (closed)
+            throw new IllegalStateException("Window spill store is closed: " + directory);
+    }
+
+    private Segment segment(long location) {
+        return segments.get((int) (location >>> 32));
+    }
+
+    private Segment newSegment(int size) throws IOException {
+        if (current != null && current.live == 0) {
+            segments.remove(current.id);
+            current.delete();
+        }
+        Segment segment = new Segment(nextSegment++, size);
+        segments.put(segment.id, segment);
+        return segment;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed)
+            return;
+        closed = true;
+        for (Segment segment : segments.values())
+            segment.delete();
+        segments.clear();
+        cache.clear();
+        current = null;
+        directory.delete();
+    }
+
+    /**
+     * Serialization buffer that is reused for every tuple.
+     */
+    private static final class Bytes extends ByteArrayOutputStream {
+        Bytes() {
+            super(1024);
+        }
+
+        byte[] data() {
+            return buf;
+        }
+    }
+
+    private final class Segment {
+        final int id;
+        final File file;
+        final MappedByteBuffer buffer;
+        int position;
+        int live;
+
+        Segment(int id, int size) throws IOException {
+            this.id = id;
+            file = new File(directory, "segment-" + id);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        void delete() {
+            unmap(buffer);
+            file.delete();
+        }
+    }
+
+    /**
+     * Unmap a buffer using its cleaner, a buffer that cannot
+     * be unmapped is left to be unmapped when it is garbage collected.
+     * The buffer must not be accessed after this call.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                // Java 8
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null)
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                return;
+            }
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Unmapped when garbage collected.
+        }
+    }
+}
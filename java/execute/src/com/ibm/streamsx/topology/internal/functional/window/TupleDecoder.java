@@ -0,0 +1,73 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Decodes a window's input tuples so that each tuple is
+ * only converted to its Java object once.
+ * <BR>
+ * For a partitioned window the partitioner decodes a tuple
+ * to obtain its key, and then the window listener is passed
+ * the same tuple on the same thread when it is inserted.
+ * The partitioner keeps the decoded object for the thread,
+ * which the listener then uses instead of decoding the tuple again.
+ * Tuples are matched by identity, so a tuple that was not
+ * decoded by the partitioner is always decoded.
+ *
+ * @param <T> Type of the Java object.
+ */
+public final class TupleDecoder<T> {
+
+    private static final class Decoded<T> {
+        Tuple tuple;
+        T value;
+    }
+
+    private final SPLMapping<T> mapping;
+    private final ThreadLocal<Decoded<T>> decoded = ThreadLocal.withInitial(Decoded::new);
+
+    public TupleDecoder(SPLMapping<T> mapping) {
+        this.mapping = mapping;
+    }
+
+    /**
+     * Serializer for the decoded objects.
+     */
+    public TupleSerializer getTupleSerializer() {
+        return mapping.getTupleSerializer();
+    }
+
+    /**
+     * Decode a tuple, keeping its value for the next
+     * call to {@link #decode(Tuple)} from this thread.
+     */
+    public T decodeAndKeep(Tuple tuple) {
+        final Decoded<T> last = decoded.get();
+        if (last.tuple != tuple) {
+            last.value = mapping.convertFrom(tuple);
+            last.tuple = tuple;
+        }
+        return last.value;
+    }
+
+    /**
+     * Decode a tuple, using the value kept by
+     * {@link #decodeAndKeep(Tuple)} if it was for the same tuple.
+     */
+    public T decode(Tuple tuple) {
+        final Decoded<T> last = decoded.get();
+        if (last.tuple == tuple) {
+            final T value = last.value;
+            last.tuple = null;
+            last.value = null;
+            return value;
+        }
+        return mapping.convertFrom(tuple);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Per-thread growable buffer that Java object tuples are
+ * serialized into before being copied into an exactly sized array.
+ * Reusing the buffer avoids allocating and growing a new
+ * buffer for every tuple.
+ */
+final class BlobBuffer extends OutputStream {
+
+    private static final int INITIAL_SIZE = 1024;
+
+    /** Buffers larger than this are not retained between tuples. */
+    private static final int RETAIN_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<BlobBuffer> CACHED = ThreadLocal.withInitial(BlobBuffer::new);
+
+    private byte[] buf = new byte[INITIAL_SIZE];
+    private int count;
+    private boolean inUse;
+
+    /**
+     * Get the buffer for the current thread.
+     * @param sizeHint Expected size of the serialized tuple.
+     */
+    static BlobBuffer acquire(int sizeHint) {
+        BlobBuffer bb = CACHED.get();
+        if (bb.inUse)
+            bb = new BlobBuffer();
+        bb.inUse = true;
+        if (sizeHint > bb.buf.length)
+            bb.buf = new byte[sizeHint];
+        return bb;
+    }
+
+    void release() {
+        count = 0;
+        if (buf.length > RETAIN_SIZE)
+            buf = new byte[INITIAL_SIZE];
+        inUse = false;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Copy of the contents with the exact length.
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    private void ensure(int n) {
+        if (count + n > buf.length)
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + n));
+    }
+
+    @Override
+    public void write(int b) {
+        ensure(1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensure(len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.ToIntFunction;
+
+/**
+ * Mapping for a Java object to a schema with its hash
+ * as the second attribute. The hash is calculated from the
+ * Java object when it is converted, rather than by a downstream
+ * operator that has to convert the tuple back to a Java object.
+ * <BR>
+ * The object is converted by a mapping for the schema without
+ * the hash attribute.
+ */
+class HashMapping<T> extends SPLMapping<T> {
+
+    private final SPLMapping<T> mapping;
+    private final ToIntFunction<T> hasher;
+
+    HashMapping(StreamSchema schema, SPLMapping<T> mapping, ToIntFunction<T> hasher) {
+        super(schema);
+        this.mapping = mapping;
+        this.hasher = hasher;
+    }
+
+    @Override
+    public Tuple convertTo(T tuple) {
+        final Object value = mapping.convertTo(tuple).getObject(0);
+        return getSchema().getTuple(new Object[] { value, hasher.applyAsInt(tuple) });
+    }
+
+    @Override
+    public T convertFrom(Tuple tuple) {
+        return mapping.convertFrom(tuple);
+    }
+
+    @Override
+    public void addOutputMetrics(OperatorContext context, int port) {
+        mapping.addOutputMetrics(context, port);
+    }
+
+    @Override
+    public void setOutputConnections(int connections) {
+        mapping.setOutputConnections(connections);
+    }
+
+    @Override
+    public void share(Tuple tuple) {
+        mapping.share(tuple);
+    }
+}
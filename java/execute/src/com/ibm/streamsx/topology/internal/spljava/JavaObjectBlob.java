@@ -5,33 +5,78 @@
 package com.ibm.streamsx.topology.internal.spljava;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 
 import com.ibm.streams.operator.types.Blob;
 import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
+/**
+ * Blob holding a Java object, only serialized when the
+ * tuple leaves the PE.
+ * <BR>
+ * A shared blob was submitted to multiple connections,
+ * its object reference is handed to a single consumer and
+ * the other consumers deserialize a copy.
+ */
 public class JavaObjectBlob implements Blob {
 
     private final TupleSerializer serializer;
-    private byte[] data;
-    private int len;
+    private final SerializationStats stats;
+    private volatile byte[] data;
+    private int len = -1;
     private final Object object;
+    private volatile boolean shared;
+    private boolean taken;
+
+    JavaObjectBlob(TupleSerializer serializer, Object object, SerializationStats stats) {
+        this(serializer, object, stats, false);
+    }
 
-    JavaObjectBlob(TupleSerializer serializer, Object object) {
+    JavaObjectBlob(TupleSerializer serializer, Object object, SerializationStats stats, boolean shared) {
         this.serializer = serializer;
         this.object = object;
+        this.stats = stats;
+        this.shared = shared;
     }
 
     Object getObject() {
         return object;
     }
 
+    /**
+     * Mark this blob as submitted to multiple connections.
+     */
+    synchronized void share() {
+        shared = true;
+    }
+
+    /**
+     * Take the object reference for a consumer.
+     * @return The object or {@code null} if this blob is shared
+     * and the reference was already taken, in which case the
+     * consumer must deserialize a copy.
+     */
+    Object takeObject() {
+        if (!shared)
+            return object;
+        synchronized (this) {
+            if (taken)
+                return null;
+            // Serialize before the reference escapes so that
+            // copies reflect the object as submitted.
+            serializeObject();
+            taken = true;
+            return object;
+        }
+    }
+
     @Override
-    public long getLength() {
-        if (data == null)
+    public synchronized long getLength() {
+        if (len == -1)
             serializeObject();
         return len;
     }
@@ -65,8 +110,31 @@ public class JavaObjectBlob implements Blob {
         return data.clone();
     }
 
+    /**
+     * Serialize the object directly into {@code buf} when
+     * the data has not been serialized yet, the blob is not shared
+     * and {@code buf} has space for the expected size.
+     * <BR>
+     * No copy of the serialized form is kept, a blob is
+     * normally put once, so a later put or read of this blob
+     * serializes the object again. A shared blob is read by
+     * multiple consumers so it serializes into its own data.
+     */
     @Override
-    public ByteBuffer put(ByteBuffer buf) {
+    public synchronized ByteBuffer put(ByteBuffer buf) {
+        if (data == null && !shared && buf.remaining() >= stats.sizeHint()) {
+            final int start = buf.position();
+            try {
+                serializer.serialize(object, new ByteBufferOutput(buf));
+                final int length = buf.position() - start;
+                stats.serialized(length, 0);
+                return buf;
+            } catch (BufferOverflowException e) {
+                buf.position(start);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
         if (data == null)
             serializeObject();
         return buf.put(data, 0, len);
@@ -80,27 +148,41 @@ public class JavaObjectBlob implements Blob {
     /************************/
 
     private synchronized void serializeObject() {
+        if (data != null)
+            return;
 
+        final BlobBuffer bb = BlobBuffer.acquire(stats.sizeHint());
         try {
-            AB baos = new AB();
-            
-            serializer.serialize(object, baos);
-            len = baos.size();
-            data = baos.data();
-
+            serializer.serialize(object, bb);
+            len = bb.size();
+            data = bb.toByteArray();
+            stats.serialized(len, len);
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            bb.release();
         }
     }
 
-    static class AB extends ByteArrayOutputStream {
-        AB() {
-            super(1024);
+    /**
+     * Output stream writing directly into a byte buffer.
+     * Throws BufferOverflowException if the buffer is full.
+     */
+    private static final class ByteBufferOutput extends OutputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferOutput(ByteBuffer buf) {
+            this.buf = buf;
         }
 
-        byte[] data() {
-            return buf;
+        @Override
+        public void write(int b) {
+            buf.put((byte) b);
         }
-    }
 
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buf.put(b, off, len);
+        }
+    }
 }
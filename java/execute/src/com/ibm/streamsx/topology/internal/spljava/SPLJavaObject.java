@@ -6,6 +6,7 @@ package com.ibm.streamsx.topology.internal.spljava;
 
 import java.io.IOException;
 
+import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.types.Blob;
@@ -16,6 +17,14 @@ import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
  * Like Java at runtime (the schema) we have no knowledge of
  * the actual type of the Java object, the info for
  *  generic parameter of TStream<T> is not needed. 
+ * <BR>
+ * Within a PE the object is passed by reference. When a tuple
+ * is submitted to multiple connections (known from the SPL generator's
+ * {@code outputConnections} parameter, or marked by {@link #share(Tuple)})
+ * only the first consumer receives the reference, the others
+ * receive a deserialized copy so that no two downstream operators
+ * see the same mutable object. Without the parameter the reference
+ * is passed to all consumers.
  */
 class SPLJavaObject extends SPLMapping<Object> {
 
@@ -25,6 +34,8 @@ class SPLJavaObject extends SPLMapping<Object> {
     public static final String SPL_JAVA_OBJECT = "__spl_jo";
     
     private final TupleSerializer serializer;
+    private final SerializationStats stats = new SerializationStats();
+    private boolean shared;
 
     SPLJavaObject(StreamSchema schema) {
         this(schema, TupleSerializer.JAVA_SERIALIZER);
@@ -35,13 +46,20 @@ class SPLJavaObject extends SPLMapping<Object> {
         this.serializer = serializer;
     }
 
+    @Override
+    public TupleSerializer getTupleSerializer() {
+        return serializer;
+    }
+
     @Override
     public Object convertFrom(Tuple tuple) {
         Blob blob = tuple.getBlob(0);
 
         if (blob instanceof JavaObjectBlob) {
             JavaObjectBlob jblob = (JavaObjectBlob) blob;
-            return jblob.getObject();
+            Object object = jblob.takeObject();
+            if (object != null)
+                return object;
         }
         
         try {
@@ -53,10 +71,27 @@ class SPLJavaObject extends SPLMapping<Object> {
         }
     }
 
+    @Override
+    public void addOutputMetrics(OperatorContext context, int port) {
+        stats.addMetrics(context, port);
+    }
+
+    @Override
+    public void setOutputConnections(int connections) {
+        shared = connections > 1;
+    }
+
+    @Override
+    public void share(Tuple tuple) {
+        Blob blob = tuple.getBlob(0);
+        if (blob instanceof JavaObjectBlob)
+            ((JavaObjectBlob) blob).share();
+    }
+
     @Override
     public Tuple convertTo(Object tuple) {
 
-        JavaObjectBlob jblob = new JavaObjectBlob(serializer, tuple);
+        JavaObjectBlob jblob = new JavaObjectBlob(serializer, tuple, stats, shared);
         return getSchema().getTuple(new Blob[] { jblob });
     }
 }
@@ -4,8 +4,10 @@
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
+import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
 /**
  * Provides the API for the conversion between a Java object and its SPL Tuple
@@ -30,6 +32,38 @@ public abstract class SPLMapping<T> {
         return schema;
     }
     public abstract Tuple convertTo(T tuple);
+    
+    /**
+     * Add metrics for tuples converted by this mapping
+     * and submitted to an output port.
+     * @param context Context of the submitting operator.
+     * @param port Index of the output port.
+     */
+    public void addOutputMetrics(OperatorContext context, int port) {
+    }
+
+    /**
+     * Set the number of connections to the output port
+     * tuples converted by this mapping are submitted to.
+     * @param connections Number of connections, -1 if not known.
+     */
+    public void setOutputConnections(int connections) {
+    }
+
+    /**
+     * Mark a tuple converted by this mapping as being
+     * submitted to multiple connections.
+     */
+    public void share(Tuple tuple) {
+    }
 
     public abstract T convertFrom(Tuple tuple);
+
+    /**
+     * Get the serializer for Java objects converted by this mapping,
+     * used when the objects are held off the heap.
+     */
+    public TupleSerializer getTupleSerializer() {
+        return TupleSerializer.JAVA_SERIALIZER;
+    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import java.lang.reflect.Type;
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.types.Blob;
 import com.ibm.streams.operator.types.XML;
+import com.ibm.streamsx.topology.function.ToIntFunction;
 import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
 import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
@@ -66,4 +67,22 @@ public class Schemas {
         return new SPLTuple(schema);
     }
 
+    /**
+     * Get a mapping for a schema that has the hash of the
+     * Java object as its last attribute.
+     * @param schema Schema including the hash attribute.
+     * @param tupleSerializer Serialized {@code TupleSerializer} for the object or {@code null}.
+     * @param hasher Serialized {@code ToIntFunction} that hashes the object.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SPLMapping<T> getHashMapping(StreamSchema schema, String tupleSerializer,
+            String hasher) throws ClassNotFoundException {
+        final SPLMapping<T> mapping;
+        if (tupleSerializer != null && !tupleSerializer.isEmpty())
+            mapping = (SPLMapping<T>) getObjectMapping(tupleSerializer);
+        else
+            mapping = (SPLMapping<T>) getSPLMapping(schema.remove(ObjectSchemas.HASH_ATTR));
+        return new HashMapping<T>(schema, mapping, (ToIntFunction<T>) deserializeLogic(hasher));
+    }
+
 }
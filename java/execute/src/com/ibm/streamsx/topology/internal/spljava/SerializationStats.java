@@ -0,0 +1,80 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.OperatorMetrics;
+
+/**
+ * Serialized sizes of Java object tuples for a single stream.
+ * <BR>
+ * The size hint is the power of two size class that holds the
+ * recent serialized tuple sizes, it is used to size buffers
+ * so that they do not need to grow while a tuple is serialized.
+ * Updates are not synchronized as the hint is only an estimate.
+ */
+final class SerializationStats {
+
+    private static final int MIN_SIZE_CLASS = 64;
+
+    /** Moving average of serialized size, scaled by 8. */
+    private volatile int averageX8 = MIN_SIZE_CLASS * 8;
+    private volatile int sizeHint = MIN_SIZE_CLASS;
+
+    private Metric serialized;
+    private Metric serializedBytes;
+    private Metric allocatedBytes;
+
+    int sizeHint() {
+        return sizeHint;
+    }
+
+    /**
+     * Record a serialized tuple.
+     * @param length Length of the serialized tuple.
+     * @param allocated Number of bytes allocated to hold the serialized tuple.
+     */
+    void serialized(int length, int allocated) {
+        int avg = averageX8;
+        avg += length - (avg >> 3);
+        averageX8 = avg;
+
+        // Size class covers the larger of the average and the last tuple.
+        int size = Math.max(MIN_SIZE_CLASS, Math.max(length, avg >> 3));
+        int sizeClass = Integer.highestOneBit(size);
+        if (sizeClass < size)
+            sizeClass <<= 1;
+        if (sizeClass != sizeHint)
+            sizeHint = sizeClass;
+
+        if (serialized != null) {
+            serialized.increment();
+            serializedBytes.incrementValue(length);
+            allocatedBytes.incrementValue(allocated);
+        }
+    }
+
+    /**
+     * Create the metrics for tuples submitted on an output port.
+     */
+    void addMetrics(OperatorContext context, int port) {
+        final String suffix = port == 0 ? "" : "." + port;
+        final OperatorMetrics metrics = context.getMetrics();
+        allocatedBytes = metric(metrics, "serializedAllocatedBytes" + suffix,
+                "Total bytes allocated to hold serialized Java object tuples.");
+        serializedBytes = metric(metrics, "serializedBytes" + suffix,
+                "Total bytes of serialized Java object tuples.");
+        serialized = metric(metrics, "serializedTuples" + suffix,
+                "Number of Java object tuples serialized.");
+    }
+
+    private static Metric metric(OperatorMetrics metrics, String name, String description) {
+        Metric metric = metrics.getCustomMetrics().get(name);
+        if (metric == null)
+            metric = metrics.createCustomMetric(name, description, Metric.Kind.COUNTER);
+        return metric;
+    }
+}
@@ -0,0 +1,21 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+/**
+ * Specialization of {@link BiFunction} where the arguments and
+ * return type are the same type.
+ * <BR>
+ * If an implementation also implements
+ * {@code java.lang.AutoCloseable} then it will be
+ * automatically closed when the application terminates.
+ * 
+ * @param <T>
+ *            Type of the arguments and return
+ * @since 1.15
+ */
+public interface BinaryOperator<T> extends BiFunction<T, T, T> {
+
+}
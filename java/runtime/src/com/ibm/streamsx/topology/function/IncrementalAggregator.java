@@ -0,0 +1,69 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+import java.io.Serializable;
+
+/**
+ * Aggregation of a window that is incrementally updated
+ * as tuples are inserted into and evicted from the window.
+ * <BR>
+ * Each window partition has its own aggregation state,
+ * created by {@link #initialState()}. When a tuple is inserted into
+ * a partition {@link #add(Object, Object)} is called, when a tuple is
+ * evicted {@link #remove(Object, Object)} is called with the evicted tuple,
+ * which is always the oldest tuple in the partition.
+ * The aggregation is obtained from the current state
+ * using {@link #result(Object)}.
+ * <BR>
+ * Thus the cost of an aggregation is independent of the number of
+ * tuples in the window, for example a sum, count or average is
+ * updated in constant time.
+ * <BR>
+ * If an implementation also implements
+ * {@code java.lang.AutoCloseable} then it will be
+ * automatically closed when the application terminates.
+ *
+ * @param <T>
+ *            Type of the tuples in the window.
+ * @param <S>
+ *            Type of the aggregation state for a window partition.
+ * @param <A>
+ *            Type of the aggregation.
+ *
+ * @see com.ibm.streamsx.topology.TWindow#aggregate(IncrementalAggregator)
+ * @since 1.15
+ */
+public interface IncrementalAggregator<T, S, A> extends Serializable {
+
+    /**
+     * Create the state for an empty window partition.
+     * @return Initial state.
+     */
+    S initialState();
+
+    /**
+     * Add a tuple to the aggregation.
+     * @param state Current state.
+     * @param tuple Tuple inserted into the window.
+     * @return New state, may be {@code state} if it was modified in place.
+     */
+    S add(S state, T tuple);
+
+    /**
+     * Remove a tuple from the aggregation.
+     * @param state Current state.
+     * @param tuple Tuple evicted from the window, the oldest tuple in the window.
+     * @return New state, may be {@code state} if it was modified in place.
+     */
+    S remove(S state, T tuple);
+
+    /**
+     * Get the aggregation for the current state.
+     * @param state Current state.
+     * @return Aggregation to be submitted, if {@code null} then no tuple is submitted.
+     */
+    A result(S state);
+}
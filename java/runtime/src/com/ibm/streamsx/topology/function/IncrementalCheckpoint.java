@@ -0,0 +1,76 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+import java.io.Serializable;
+
+/**
+ * Optional interface that a stateful function can implement
+ * to reduce the cost of checkpointing large state.
+ * <P>
+ * By default a stateful function in a consistent region or
+ * with checkpointing enabled is checkpointed by serializing
+ * the whole function while invocations of the function are
+ * blocked. A function that implements this interface instead
+ * provides a full snapshot of its state periodically and
+ * otherwise only the changes (delta) since the previous checkpoint,
+ * for example the entries of a map whose keys have been
+ * modified since the last snapshot or delta.
+ * </P>
+ * <P>
+ * {@link #snapshot()} and {@link #delta()} are called while
+ * invocations of the function are blocked, they are
+ * expected to be fast, returning a copy or copy-on-write view
+ * of the state that is not modified by later invocations.
+ * The returned objects are serialized after invocations
+ * of the function resume.
+ * <BR>
+ * The serialized snapshot is retained and written again into
+ * each checkpoint with the deltas that follow it, so
+ * the bulk of the state is only serialized for a full snapshot.
+ * </P>
+ * <P>
+ * When the function is reset to a checkpoint, it is
+ * recreated as it was declared, its state is set using
+ * {@link #restore(Serializable)} with the snapshot and then
+ * {@link #apply(Serializable)} is called for each delta in order.
+ * The function's fields are not serialized, thus any state
+ * not contained in the snapshot and deltas is that of the declared function.
+ * </P>
+ *
+ * @param <S> Type of a full snapshot of the state.
+ * @param <D> Type of a change to the state.
+ *
+ * @since 1.15
+ */
+public interface IncrementalCheckpoint<S extends Serializable, D extends Serializable> {
+
+    /**
+     * Take a full snapshot of the state.
+     * Changes up to this point are not included
+     * in the next {@link #delta()}.
+     * @return Snapshot of the state.
+     */
+    S snapshot();
+
+    /**
+     * Get the changes to the state since the previous call to
+     * {@link #snapshot()} or {@code delta()}.
+     * @return Changes to the state, {@code null} if there are no changes.
+     */
+    D delta();
+
+    /**
+     * Set the state from a snapshot.
+     * @param snapshot Snapshot returned by {@link #snapshot()}.
+     */
+    void restore(S snapshot);
+
+    /**
+     * Apply changes to the state.
+     * @param delta Changes returned by {@link #delta()}.
+     */
+    void apply(D delta);
+}
@@ -0,0 +1,39 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a function can be invoked concurrently
+ * by multiple threads.
+ * <P>
+ * By default the runtime synchronizes on a function
+ * instance for each invocation, unless the function is
+ * immutable, that is all its instance fields are {@code final}
+ * and of a primitive or immutable type.
+ * When a function's class is annotated with {@code ThreadSafe}
+ * the runtime invokes the function without synchronization,
+ * allowing tuples arriving on multiple threads, for example from
+ * threaded ports or a union of streams, to be processed in parallel.
+ * </P>
+ * <P>
+ * A thread safe function that has mutable state and is
+ * checkpointed must ensure its serialized state is consistent,
+ * as serialization may occur concurrently with invocations.
+ * </P>
+ * @since 1.15
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ThreadSafe {
+}
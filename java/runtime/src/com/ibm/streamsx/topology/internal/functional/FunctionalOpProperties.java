@@ -17,5 +17,38 @@ public interface FunctionalOpProperties {
     
     String JOIN_KEY_GETTER_PARAM = "joinKeyGetter";
     
+    String JOIN_WINDOW_INDEXER_PARAM = "joinWindowIndexer";
+    
+    String JOIN_INDEXER_PARAM = "joinIndexer";
+    
     String WINDOW_KEY_GETTER_PARAM = "keyGetter";
+    
+    String WINDOW_SPILL_PARAM = "windowSpill";
+    
+    String AGGREGATE_PANE_COMBINER_PARAM = "paneCombiner";
+    
+    String OUTPUT_HASHER_PARAM = "outputHasher";
+    
+    String SOURCE_BATCH_PARAM = "batch";
+    
+    String SOURCE_BATCH_MARKERS_PARAM = "batchMarkers";
+    
+    String PIPELINE_STAGES_PARAM = "stages";
+    
+    String PIPELINE_LOGIC_PARAM = "stageLogic";
+    
+    String PIPELINE_METRICS_PARAM = "stageMetrics";
+    
+    String OUTPUT_CONNECTIONS_PARAM = "outputConnections";
+    
+    String QUEUE_SIZE_PARAM = "queueSize";
+    
+    String QUEUE_WAIT_PARAM = "queueWait";
+    
+    String QUEUE_THREADS_PARAM = "queueThreads";
+    
+    /**
+     * System property enabling virtual threads for functional logic.
+     */
+    String VIRTUAL_THREADS_PROPERTY = "com.ibm.streamsx.topology.virtualThreads";
 }
@@ -51,7 +51,12 @@ public abstract class ObjectSchemas {
         return JAVA_OBJECT_SCHEMA;
     }
     
-    private static final String HASH_ATTR_SCHEMA = ", int32 __spl_hash>";
+    /**
+     * Attribute name for the hash added for hash partitioned parallel regions.
+     */
+    public static final String HASH_ATTR = "__spl_hash";
+    
+    private static final String HASH_ATTR_SCHEMA = ", int32 " + HASH_ATTR + ">";
     
     public static String schemaWithHash(String schema) {
         switch (schema) {
@@ -22,6 +22,8 @@ import java.util.UUID;
 
 import javax.xml.bind.DatatypeConverter;
 
+import com.ibm.streamsx.topology.function.ThreadSafe;
+
 public class ObjectUtils {
 
     public static String serializeLogic(Serializable logic) {
@@ -90,7 +92,25 @@ public class ObjectUtils {
         return isImmutable(logic.getClass());
     }
     
+    /**
+     * See if the functional logic can be invoked concurrently
+     * without synchronizing on the instance.
+     * 
+     * Logic is thread safe if its class is annotated
+     * with {@link ThreadSafe} or all its instance fields are
+     * final, not transient and of an immutable type.
+     * Unlike {@link #isImmutable(Class)} transient fields are
+     * not ignored, as they may hold state modified by the logic.
+     */
+    public static boolean isThreadSafe(Class<?> clazz) {
+        return clazz.isAnnotationPresent(ThreadSafe.class) || hasImmutableFields(clazz, false);
+    }
+    
     public static boolean isImmutable(Class<?> clazz) {
+        return hasImmutableFields(clazz, true);
+    }
+    
+    private static boolean hasImmutableFields(Class<?> clazz, boolean ignoreTransient) {
                
         do {
                Field[] fields = clazz.getDeclaredFields();
@@ -98,8 +118,11 @@ public class ObjectUtils {
                    if (Modifier.isStatic(field.getModifiers()))
                        continue;
                    
-                   if (Modifier.isTransient(field.getModifiers()))
-                       continue;
+                   if (Modifier.isTransient(field.getModifiers())) {
+                       if (ignoreTransient)
+                           continue;
+                       return false;
+                   }
                    
                    if (!Modifier.isFinal(field.getModifiers()))
                        return false;
@@ -0,0 +1,141 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.spi.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader for bytes written by {@link BinaryOutput}.
+ * The complete serialized tuple is read into a per-thread
+ * buffer which is then decoded.
+ */
+final class BinaryInput {
+
+    private static final int INITIAL_SIZE = 1024;
+    private static final int RETAIN_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<BinaryInput> CACHED = ThreadLocal.withInitial(BinaryInput::new);
+
+    private byte[] buf = new byte[INITIAL_SIZE];
+    private int pos;
+    private int limit;
+    private boolean inUse;
+
+    static BinaryInput acquire(InputStream input) throws IOException {
+        BinaryInput in = CACHED.get();
+        if (in.inUse)
+            in = new BinaryInput();
+        in.inUse = true;
+        in.fill(input);
+        return in;
+    }
+
+    void release() {
+        pos = limit = 0;
+        if (buf.length > RETAIN_SIZE)
+            buf = new byte[INITIAL_SIZE];
+        inUse = false;
+    }
+
+    private void fill(InputStream input) throws IOException {
+        int n;
+        while ((n = input.read(buf, limit, buf.length - limit)) != -1) {
+            limit += n;
+            if (limit == buf.length) {
+                byte[] nb = new byte[buf.length * 2];
+                System.arraycopy(buf, 0, nb, 0, limit);
+                buf = nb;
+            }
+        }
+    }
+
+    private void require(int n) throws EOFException {
+        if (pos + n > limit)
+            throw new EOFException();
+    }
+
+    int readByte() throws EOFException {
+        require(1);
+        return buf[pos++];
+    }
+
+    byte[] readBytes(int len) throws EOFException {
+        require(len);
+        byte[] b = new byte[len];
+        System.arraycopy(buf, pos, b, 0, len);
+        pos += len;
+        return b;
+    }
+
+    /**
+     * Stream over the next {@code len} bytes, used to read
+     * values written with Java serialization.
+     */
+    InputStream stream(int len) throws EOFException {
+        require(len);
+        InputStream is = new ByteArrayInputStream(buf, pos, len);
+        pos += len;
+        return is;
+    }
+
+    short readShort() throws EOFException {
+        require(2);
+        return (short) (((buf[pos++] & 0xFF) << 8) | (buf[pos++] & 0xFF));
+    }
+
+    int readInt() throws EOFException {
+        require(4);
+        return ((buf[pos++] & 0xFF) << 24) | ((buf[pos++] & 0xFF) << 16)
+                | ((buf[pos++] & 0xFF) << 8) | (buf[pos++] & 0xFF);
+    }
+
+    long readLong() throws EOFException {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    int readVarInt() throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return v;
+        }
+        throw new IOException("Malformed variable length int");
+    }
+
+    long readVarLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return v;
+        }
+        throw new IOException("Malformed variable length long");
+    }
+
+    int readZigZagInt() throws IOException {
+        int v = readVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    long readZigZagLong() throws IOException {
+        long v = readVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    String readString() throws IOException {
+        int len = readVarInt();
+        require(len);
+        String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+        pos += len;
+        return s;
+    }
+}
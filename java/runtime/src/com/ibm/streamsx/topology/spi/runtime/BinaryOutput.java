@@ -0,0 +1,137 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.spi.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable byte buffer used by {@link BinarySerializer}.
+ * One instance is kept per thread so that serializing
+ * a tuple does not allocate a buffer.
+ */
+final class BinaryOutput {
+
+    private static final int INITIAL_SIZE = 1024;
+
+    /** Buffers larger than this are not retained between tuples. */
+    private static final int RETAIN_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<BinaryOutput> CACHED = ThreadLocal.withInitial(BinaryOutput::new);
+
+    private byte[] buf = new byte[INITIAL_SIZE];
+    private int pos;
+    private boolean inUse;
+
+    /**
+     * Get the buffer for the current thread, a new
+     * buffer is returned if the thread's buffer is in use.
+     */
+    static BinaryOutput acquire() {
+        BinaryOutput out = CACHED.get();
+        if (out.inUse)
+            return new BinaryOutput();
+        out.inUse = true;
+        return out;
+    }
+
+    void release() {
+        pos = 0;
+        if (buf.length > RETAIN_SIZE)
+            buf = new byte[INITIAL_SIZE];
+        inUse = false;
+    }
+
+    void writeTo(OutputStream output) throws IOException {
+        output.write(buf, 0, pos);
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            byte[] nb = new byte[Math.max(buf.length * 2, pos + n)];
+            System.arraycopy(buf, 0, nb, 0, pos);
+            buf = nb;
+        }
+    }
+
+    void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    void writeBytes(byte[] b, int off, int len) {
+        ensure(len);
+        System.arraycopy(b, off, buf, pos, len);
+        pos += len;
+    }
+
+    void writeShort(int v) {
+        ensure(2);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    void writeInt(int v) {
+        ensure(4);
+        buf[pos++] = (byte) (v >>> 24);
+        buf[pos++] = (byte) (v >>> 16);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    void writeLong(long v) {
+        writeInt((int) (v >>> 32));
+        writeInt((int) v);
+    }
+
+    /** Unsigned variable length int, seven bits per byte. */
+    void writeVarInt(int v) {
+        ensure(5);
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    void writeVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    /** Signed int using zig-zag encoding so small negative values are short. */
+    void writeZigZagInt(int v) {
+        writeVarInt((v << 1) ^ (v >> 31));
+    }
+
+    void writeZigZagLong(long v) {
+        writeVarLong((v << 1) ^ (v >> 63));
+    }
+
+    /**
+     * Write a string as its UTF-8 byte length followed
+     * by the bytes, ASCII strings are copied directly.
+     */
+    void writeString(String s) {
+        final int len = s.length();
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) >= 0x80) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(utf8.length);
+                writeBytes(utf8, 0, utf8.length);
+                return;
+            }
+        }
+        writeVarInt(len);
+        ensure(len);
+        for (int i = 0; i < len; i++)
+            buf[pos++] = (byte) s.charAt(i);
+    }
+}
@@ -0,0 +1,459 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.spi.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary tuple serializer for registered classes.
+ * <P>
+ * Each registered class is assigned an identifier from its position
+ * in the registration list, so the same list must be used
+ * by the producer and the consumers of a stream, which is the case
+ * when the serializer is set using
+ * {@code TStream.asType(Class, TupleSerializer)}.
+ * </P>
+ * <P>
+ * A registered class is serialized as its identifier followed by its
+ * non-static, non-transient fields in a fixed order, fields of superclasses
+ * first and then each class's fields ordered by name. Primitive fields are
+ * written without any type information. A registered class must have a
+ * no-argument constructor (of any visibility), which is used to create
+ * instances when deserializing; it does not need to implement
+ * {@code java.io.Serializable}. Enum classes may be registered
+ * and are serialized by ordinal.
+ * <BR>
+ * Object references are not tracked, a value referenced
+ * multiple times is written multiple times and
+ * the tuple must not contain cycles.
+ * </P>
+ * <P>
+ * Primitive wrappers, {@code String}, {@code byte[]}, {@code ArrayList}
+ * and {@code HashMap} are supported directly. Any other value is written
+ * using Java serialization and thus must be {@code Serializable}.
+ * </P>
+ * <P>
+ * The layout of each registered class is resolved once and
+ * serialization uses a per-thread buffer, so serializing a tuple
+ * only allocates for values written using Java serialization.
+ * </P>
+ *
+ * @since 1.15
+ */
+public final class BinarySerializer implements TupleSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int BYTE = 3;
+    private static final int SHORT = 4;
+    private static final int CHAR = 5;
+    private static final int INT = 6;
+    private static final int LONG = 7;
+    private static final int FLOAT = 8;
+    private static final int DOUBLE = 9;
+    private static final int STRING = 10;
+    private static final int BYTES = 11;
+    private static final int LIST = 12;
+    private static final int MAP = 13;
+    private static final int REGISTERED = 14;
+    private static final int JAVA = 15;
+
+    private final Class<?>[] types;
+
+    private transient volatile Layouts layouts;
+
+    /**
+     * Create a serializer for the registered classes.
+     * @param types Classes to register, typically the tuple class
+     * and the classes of its fields.
+     * @throws IllegalArgumentException A class cannot be registered.
+     */
+    public BinarySerializer(Class<?>... types) {
+        this.types = types.clone();
+        this.layouts = new Layouts(this.types);
+    }
+
+    /**
+     * Get the registered classes.
+     * @return Registered classes in identifier order.
+     */
+    public List<Class<?>> getRegisteredClasses() {
+        return Arrays.asList(types.clone());
+    }
+
+    private Layouts layouts() {
+        Layouts l = layouts;
+        if (l == null)
+            layouts = l = new Layouts(types);
+        return l;
+    }
+
+    @Override
+    public void serialize(Object tuple, OutputStream output) throws IOException {
+        final BinaryOutput out = BinaryOutput.acquire();
+        try {
+            writeValue(layouts(), out, tuple);
+            out.writeTo(output);
+        } finally {
+            out.release();
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream input) throws IOException, ClassNotFoundException {
+        final BinaryInput in = BinaryInput.acquire(input);
+        try {
+            return readValue(layouts(), in);
+        } finally {
+            in.release();
+        }
+    }
+
+    private static void writeValue(Layouts layouts, BinaryOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+
+        final Class<?> type = value.getClass();
+        final Layout layout = layouts.byClass.get(type);
+        if (layout != null) {
+            out.writeByte(REGISTERED);
+            out.writeVarInt(layout.id);
+            layout.write(layouts, out, value);
+        } else if (type == String.class) {
+            out.writeByte(STRING);
+            out.writeString((String) value);
+        } else if (type == Integer.class) {
+            out.writeByte(INT);
+            out.writeZigZagInt((Integer) value);
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            out.writeZigZagLong((Long) value);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeInt(Float.floatToRawIntBits((Float) value));
+        } else if (type == Short.class) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Character.class) {
+            out.writeByte(CHAR);
+            out.writeShort((Character) value);
+        } else if (type == byte[].class) {
+            byte[] b = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeVarInt(b.length);
+            out.writeBytes(b, 0, b.length);
+        } else if (type == ArrayList.class) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeVarInt(list.size());
+            for (int i = 0; i < list.size(); i++)
+                writeValue(layouts, out, list.get(i));
+        } else if (type == HashMap.class) {
+            Map<?,?> map = (Map<?,?>) value;
+            out.writeByte(MAP);
+            out.writeVarInt(map.size());
+            for (Map.Entry<?,?> e : map.entrySet()) {
+                writeValue(layouts, out, e.getKey());
+                writeValue(layouts, out, e.getValue());
+            }
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            JAVA_SERIALIZER.serialize(value, bytes);
+            out.writeByte(JAVA);
+            out.writeVarInt(bytes.size());
+            out.writeBytes(bytes.toByteArray(), 0, bytes.size());
+        }
+    }
+
+    private static Object readValue(Layouts layouts, BinaryInput in) throws IOException, ClassNotFoundException {
+        final int tag = in.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        case BYTE:
+            return (byte) in.readByte();
+        case SHORT:
+            return in.readShort();
+        case CHAR:
+            return (char) in.readShort();
+        case INT:
+            return in.readZigZagInt();
+        case LONG:
+            return in.readZigZagLong();
+        case FLOAT:
+            return Float.intBitsToFloat(in.readInt());
+        case DOUBLE:
+            return Double.longBitsToDouble(in.readLong());
+        case STRING:
+            return in.readString();
+        case BYTES:
+            return in.readBytes(in.readVarInt());
+        case LIST: {
+            final int n = in.readVarInt();
+            List<Object> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                list.add(readValue(layouts, in));
+            return list;
+        }
+        case MAP: {
+            final int n = in.readVarInt();
+            Map<Object,Object> map = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+            for (int i = 0; i < n; i++)
+                map.put(readValue(layouts, in), readValue(layouts, in));
+            return map;
+        }
+        case REGISTERED: {
+            final int id = in.readVarInt();
+            if (id < 0 || id >= layouts.byId.length)
+                throw new IOException("Unregistered class identifier: " + id);
+            return layouts.byId[id].read(layouts, in);
+        }
+        case JAVA:
+            return JAVA_SERIALIZER.deserialize(in.stream(in.readVarInt()));
+        default:
+            throw new IOException("Invalid type tag: " + tag);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this)
+            return true;
+        return obj instanceof BinarySerializer
+                && Arrays.equals(types, ((BinarySerializer) obj).types);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(types);
+    }
+
+    /**
+     * Layouts for all registered classes.
+     */
+    private static final class Layouts {
+        final Map<Class<?>,Layout> byClass = new IdentityHashMap<>();
+        final Layout[] byId;
+
+        Layouts(Class<?>[] types) {
+            byId = new Layout[types.length];
+            for (int id = 0; id < types.length; id++) {
+                if (byClass.containsKey(types[id]))
+                    throw new IllegalArgumentException("Class registered twice: " + types[id].getName());
+                byId[id] = new Layout(id, types[id]);
+                byClass.put(types[id], byId[id]);
+            }
+        }
+    }
+
+    /**
+     * How an instance of a registered class is written and read.
+     */
+    private static final class Layout {
+        final int id;
+        final Object[] enumConstants;
+        final Constructor<?> constructor;
+        final FieldCodec[] fields;
+
+        Layout(int id, Class<?> type) {
+            this.id = id;
+            if (type.isEnum()) {
+                enumConstants = type.getEnumConstants();
+                constructor = null;
+                fields = null;
+                return;
+            }
+            if (type.isInterface() || type.isArray() || type.isPrimitive()
+                    || Modifier.isAbstract(type.getModifiers()))
+                throw new IllegalArgumentException("Class cannot be registered: " + type.getName());
+
+            enumConstants = null;
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Registered class requires a no-argument constructor: " + type.getName());
+            }
+
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = type; c != Object.class; c = c.getSuperclass())
+                hierarchy.add(0, c);
+
+            List<FieldCodec> codecs = new ArrayList<>();
+            for (Class<?> c : hierarchy) {
+                Field[] declared = c.getDeclaredFields();
+                Arrays.sort(declared, Comparator.comparing(Field::getName));
+                for (Field f : declared) {
+                    final int mods = f.getModifiers();
+                    if (Modifier.isStatic(mods) || Modifier.isTransient(mods) || f.isSynthetic())
+                        continue;
+                    f.setAccessible(true);
+                    codecs.add(FieldCodec.of(f));
+                }
+            }
+            fields = codecs.toArray(new FieldCodec[codecs.size()]);
+        }
+
+        void write(Layouts layouts, BinaryOutput out, Object value) throws IOException {
+            if (enumConstants != null) {
+                out.writeVarInt(((Enum<?>) value).ordinal());
+                return;
+            }
+            try {
+                for (FieldCodec field : fields)
+                    field.write(layouts, out, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Object read(Layouts layouts, BinaryInput in) throws IOException, ClassNotFoundException {
+            if (enumConstants != null)
+                return enumConstants[in.readVarInt()];
+            try {
+                final Object value = constructor.newInstance();
+                for (FieldCodec field : fields)
+                    field.read(layouts, in, value);
+                return value;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Writer and reader for a single field, selected once from the
+     * field's declared type so that primitive fields are accessed
+     * without boxing and written without a type tag.
+     */
+    private static abstract class FieldCodec {
+        final Field field;
+
+        FieldCodec(Field field) {
+            this.field = field;
+        }
+
+        abstract void write(Layouts layouts, BinaryOutput out, Object o)
+                throws IOException, IllegalAccessException;
+
+        abstract void read(Layouts layouts, BinaryInput in, Object o)
+                throws IOException, ClassNotFoundException, IllegalAccessException;
+
+        static FieldCodec of(Field field) {
+            final Class<?> type = field.getType();
+            if (type == int.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeZigZagInt(field.getInt(o));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setInt(o, in.readZigZagInt());
+                    }
+                };
+            if (type == long.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeZigZagLong(field.getLong(o));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setLong(o, in.readZigZagLong());
+                    }
+                };
+            if (type == double.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeLong(Double.doubleToRawLongBits(field.getDouble(o)));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setDouble(o, Double.longBitsToDouble(in.readLong()));
+                    }
+                };
+            if (type == boolean.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeByte(field.getBoolean(o) ? 1 : 0);
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setBoolean(o, in.readByte() != 0);
+                    }
+                };
+            if (type == float.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeInt(Float.floatToRawIntBits(field.getFloat(o)));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setFloat(o, Float.intBitsToFloat(in.readInt()));
+                    }
+                };
+            if (type == short.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeShort(field.getShort(o));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setShort(o, in.readShort());
+                    }
+                };
+            if (type == byte.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeByte(field.getByte(o));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setByte(o, (byte) in.readByte());
+                    }
+                };
+            if (type == char.class)
+                return new FieldCodec(field) {
+                    void write(Layouts layouts, BinaryOutput out, Object o) throws IllegalAccessException {
+                        out.writeShort(field.getChar(o));
+                    }
+                    void read(Layouts layouts, BinaryInput in, Object o) throws IOException, IllegalAccessException {
+                        field.setChar(o, (char) in.readShort());
+                    }
+                };
+            return new FieldCodec(field) {
+                void write(Layouts layouts, BinaryOutput out, Object o) throws IOException, IllegalAccessException {
+                    writeValue(layouts, out, field.get(o));
+                }
+                void read(Layouts layouts, BinaryInput in, Object o)
+                        throws IOException, ClassNotFoundException, IllegalAccessException {
+                    field.set(o, readValue(layouts, in));
+                }
+            };
+        }
+    }
+}
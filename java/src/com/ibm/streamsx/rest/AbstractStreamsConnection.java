@@ -8,6 +8,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.http.client.fluent.Executor;
 
@@ -28,6 +33,9 @@ abstract class AbstractStreamsConnection {
     protected Executor executor;
     private boolean verify;
     private String instancesUrl;
+
+    private int maxConcurrency = RestUtils.DEFAULT_MAX_CONNECTIONS;
+    private ExecutorService asyncExecutor;
     
     private StreamsConnection streamsConnection;
     
@@ -70,10 +78,65 @@ abstract class AbstractStreamsConnection {
     }
     
     public boolean allowInsecureHosts(boolean allowInsecure) {
-    	this.executor = RestUtils.createExecutor(allowInsecure);
+    	this.executor = RestUtils.createExecutor(allowInsecure, maxConcurrency);
     	verify = !allowInsecure;
     	return allowInsecure;
     }
+
+    /**
+     * Set the maximum number of concurrent requests, the size
+     * of the HTTP connection pool and of the thread pool
+     * executing asynchronous requests.
+     */
+    synchronized void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1)
+            throw new IllegalArgumentException(Integer.toString(maxConcurrency));
+        this.maxConcurrency = maxConcurrency;
+        this.executor = RestUtils.createExecutor(!verify, maxConcurrency);
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+    }
+
+    synchronized int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * A REST call that can be executed asynchronously.
+     */
+    interface RestCall<T> {
+        T execute() throws IOException;
+    }
+
+    /**
+     * Execute a call asynchronously using a pool
+     * of {@link #getMaxConcurrency()} daemon threads.
+     * An {@code IOException} completes the returned future
+     * exceptionally with a {@code CompletionException}.
+     */
+    <T> CompletableFuture<T> async(RestCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.execute();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, asyncExecutor());
+    }
+
+    private synchronized ExecutorService asyncExecutor() {
+        if (asyncExecutor == null) {
+            final AtomicInteger threads = new AtomicInteger();
+            asyncExecutor = Executors.newFixedThreadPool(maxConcurrency, r -> {
+                Thread t = new Thread(r, "StreamsRest-" + threads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return asyncExecutor;
+    }
     
     final boolean isVerify() {
         return verify;
@@ -14,7 +14,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import com.google.gson.JsonObject;
@@ -262,6 +265,42 @@ public class Instance extends Element {
     public List<Job> getJobs() throws IOException {
         return Job.createJobList(this, jobs);
     }
+
+    /**
+     * Asynchronously gets the list of {@link Job jobs} that this instance knows about.
+     * 
+     * @return Future completing with the jobs.
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public CompletableFuture<List<Job>> getJobsAsync() {
+        return connection().async(this::getJobs);
+    }
+
+    /**
+     * Gets the {@link Metric metrics} of all operators in all
+     * jobs in this instance. The jobs' operators and the
+     * operators' metrics are fetched concurrently.
+     * 
+     * @return Map of job identifier to a map of operator name to the operator's metrics.
+     * @throws IOException Error communicating with Streams.
+     * @see Job#getOperatorMetrics()
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public Map<String,Map<String,List<Metric>>> getOperatorMetrics() throws IOException {
+        return await(getJobsAsync().thenCompose(jobs -> {
+            List<CompletableFuture<Map<String,List<Metric>>>> metrics = new ArrayList<>(jobs.size());
+            for (Job job : jobs)
+                metrics.add(job.getOperatorMetricsAsync());
+            return all(metrics).thenApply(values -> {
+                Map<String,Map<String,List<Metric>>> snapshot = new LinkedHashMap<>();
+                for (int i = 0; i < jobs.size(); i++)
+                    snapshot.put(jobs.get(i).getId(), values.get(i));
+                return snapshot;
+            });
+        }));
+    }
     
     /**
      * Gets a list of {@link ProcessingElement processing elements} for this instance.
@@ -274,6 +313,17 @@ public class Instance extends Element {
     public List<ProcessingElement> getPes() throws IOException {
         return ProcessingElement.createPEList(connection(), pes);
     }
+
+    /**
+     * Asynchronously gets the list of {@link ProcessingElement processing elements} for this instance.
+     * 
+     * @return Future completing with the processing elements.
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public CompletableFuture<List<ProcessingElement>> getPesAsync() {
+        return connection().async(this::getPes);
+    }
     
     /**
      * Gets a list of {@link ResourceAllocation resource allocations} for this instance.
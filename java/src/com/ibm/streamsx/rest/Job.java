@@ -8,11 +8,16 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.google.gson.annotations.Expose;
 
 /**
@@ -107,6 +112,52 @@ public class Job extends Element {
         return Operator.createOperatorList(connection(), operators);
     }
 
+    /**
+     * Asynchronously gets the list of {@link Operator operators} for this job.
+     * 
+     * @return Future completing with the operators.
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public CompletableFuture<List<Operator>> getOperatorsAsync() {
+        return connection().async(this::getOperators);
+    }
+
+    /**
+     * Gets the {@link Metric metrics} of all operators in this job.
+     * The metrics of the operators are fetched concurrently.
+     * 
+     * @return Map of operator name to the operator's metrics.
+     * @throws IOException Error communicating with Streams.
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public Map<String,List<Metric>> getOperatorMetrics() throws IOException {
+        return await(getOperatorMetricsAsync());
+    }
+
+    /**
+     * Asynchronously gets the {@link Metric metrics} of all operators in this job.
+     * The metrics of the operators are fetched concurrently.
+     * 
+     * @return Future completing with a map of operator name to the operator's metrics.
+     * @see #getOperatorMetrics()
+     * @since 1.15
+     */
+    public CompletableFuture<Map<String,List<Metric>>> getOperatorMetricsAsync() {
+        return getOperatorsAsync().thenCompose(ops -> {
+            List<CompletableFuture<List<Metric>>> metrics = new ArrayList<>(ops.size());
+            for (Operator op : ops)
+                metrics.add(op.getMetricsAsync());
+            return all(metrics).thenApply(values -> {
+                Map<String,List<Metric>> snapshot = new LinkedHashMap<>();
+                for (int i = 0; i < ops.size(); i++)
+                    snapshot.put(ops.get(i).getName(), values.get(i));
+                return snapshot;
+            });
+        });
+    }
+
     /**
      * Cancels this job.
      * 
@@ -122,6 +173,54 @@ public class Job extends Element {
         return connection().cancelJob(this._instance, id);
     }          
 
+    /**
+     * Updates the operators of this job using a job configuration overlay,
+     * for example to change the width of a parallel region.
+     * 
+     * @param jobConfigOverlay Job configuration overlay containing
+     *        the update's configuration instructions.
+     * @return Response from the update.
+     * @throws IOException Error communicating with Streams.
+     * 
+     * @since 1.15
+     */
+    public JsonObject updateOperators(JsonObject jobConfigOverlay) throws IOException {
+        return StreamsRestActions.updateOperators(this, jobConfigOverlay);
+    }
+
+    /**
+     * Changes the width of a parallel region of this job.
+     * 
+     * @param region Name of the parallel region.
+     * @param width New width of the region.
+     * @return Response from the update.
+     * @throws IOException Error communicating with Streams.
+     * 
+     * @see #updateOperators(JsonObject)
+     * @since 1.15
+     */
+    public JsonObject setParallelRegionWidth(String region, int width) throws IOException {
+        if (width < 1)
+            throw new IllegalArgumentException(Integer.toString(width));
+
+        JsonObject adjustment = new JsonObject();
+        adjustment.addProperty("parallelRegionWidth", region);
+        adjustment.addProperty("newWidth", width);
+        JsonArray adjustments = new JsonArray();
+        adjustments.add(adjustment);
+
+        JsonObject instructions = new JsonObject();
+        instructions.add("adjustmentSection", adjustments);
+        JsonObject overlay = new JsonObject();
+        overlay.add("configInstructions", instructions);
+        JsonArray overlays = new JsonArray();
+        overlays.add(overlay);
+
+        JsonObject jco = new JsonObject();
+        jco.add("jobConfigOverlays", overlays);
+        return updateOperators(jco);
+    }
+
     /**
      * Gets the name of the streams processing application that this job is
      * running
@@ -185,6 +284,17 @@ public class Job extends Element {
     public List<ProcessingElement> getPes() throws IOException {
         return ProcessingElement.createPEList(connection(), pes);
     }
+
+    /**
+     * Asynchronously gets the list of {@link ProcessingElement processing elements} for this job.
+     * 
+     * @return Future completing with the processing elements.
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public CompletableFuture<List<ProcessingElement>> getPesAsync() {
+        return connection().async(this::getPes);
+    }
     
     /**
      * Gets a list of {@link ResourceAllocation resource allocations} for this job.
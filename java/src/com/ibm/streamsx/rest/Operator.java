@@ -7,6 +7,7 @@ package com.ibm.streamsx.rest;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.annotations.Expose;
 
@@ -78,6 +79,17 @@ public class Operator extends Element {
         return lMetrics;
     }
 
+    /**
+     * Asynchronously gets the list of {@link Metric metrics} for this operator.
+     * 
+     * @return Future completing with the metrics.
+     * @see StreamsConnection#setMaxConcurrency(int)
+     * @since 1.15
+     */
+    public CompletableFuture<List<Metric>> getMetricsAsync() {
+        return connection().async(this::getMetrics);
+    }
+
     /**
      * Gets the index of this operator within the {@link Job}
      * 
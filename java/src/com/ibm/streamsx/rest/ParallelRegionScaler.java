@@ -0,0 +1,268 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest;
+
+import static com.ibm.streamsx.rest.StreamsRestUtils.TRACE;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Client side autoscaler for a parallel region of a running job.
+ * <P>
+ * The width of a parallel region declared with
+ * {@code TStream.parallel(Supplier<Integer>)} is fixed when
+ * the job is submitted. A scaler periodically samples the
+ * input port metrics of the region's operators through the
+ * REST API and changes the region's width with
+ * {@link Job#setParallelRegionWidth(String, int)}.
+ * </P>
+ * <P>
+ * A sample is <em>high</em> if the average number of tuples
+ * queued per channel is at or above the high water mark, or if
+ * any channel's port had to wait to enqueue a tuple (congestion)
+ * since the previous sample. A sample is <em>low</em> if no
+ * channel has more queued tuples than the low water mark and
+ * no channel was congested.
+ * <BR>
+ * The width is doubled after {@link #setHysteresis(int, int) up}
+ * consecutive high samples and reduced by one after
+ * {@link #setHysteresis(int, int) down} consecutive low samples,
+ * within the {@link #setWidthRange(int, int) width range}.
+ * Samples are ignored for the {@link #setCooldown(int) cooldown}
+ * period after a width change while the job is updated.
+ * </P>
+ *
+ * @since 1.15
+ */
+public class ParallelRegionScaler {
+
+    /** Input port metric for the number of tuples queued. */
+    public static final String QUEUED_METRIC = "nTuplesQueued";
+
+    /** Input port metric for the number of times enqueuing a tuple waited. */
+    public static final String ENQUEUE_WAITS_METRIC = "nEnqueueWaits";
+
+    private final Job job;
+    private final String region;
+
+    private int minWidth = 1;
+    private int maxWidth = 16;
+    private long highWater = 500;
+    private long lowWater = 10;
+    private int up = 2;
+    private int down = 5;
+    private int cooldown = 3;
+
+    private int highSamples;
+    private int lowSamples;
+    private int ignore;
+    private long lastEnqueueWaits = -1;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Create a scaler for a parallel region.
+     * @param job Job containing the region.
+     * @param region Name of the parallel region, the operators
+     * in its channels have logical names prefixed with
+     * {@code region.}.
+     */
+    public ParallelRegionScaler(Job job, String region) {
+        this.job = job;
+        this.region = region;
+    }
+
+    /**
+     * Set the range of the region's width.
+     * @return This scaler.
+     */
+    public ParallelRegionScaler setWidthRange(int minWidth, int maxWidth) {
+        if (minWidth < 1 || maxWidth < minWidth)
+            throw new IllegalArgumentException(minWidth + ":" + maxWidth);
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        return this;
+    }
+
+    /**
+     * Set the high and low water marks for the
+     * number of tuples queued per channel.
+     * @return This scaler.
+     */
+    public ParallelRegionScaler setQueueThresholds(long highWater, long lowWater) {
+        if (lowWater < 0 || highWater <= lowWater)
+            throw new IllegalArgumentException(highWater + ":" + lowWater);
+        this.highWater = highWater;
+        this.lowWater = lowWater;
+        return this;
+    }
+
+    /**
+     * Set the number of consecutive high samples before
+     * the width is increased and consecutive low samples
+     * before the width is decreased.
+     * @return This scaler.
+     */
+    public ParallelRegionScaler setHysteresis(int up, int down) {
+        if (up < 1 || down < 1)
+            throw new IllegalArgumentException(up + ":" + down);
+        this.up = up;
+        this.down = down;
+        return this;
+    }
+
+    /**
+     * Set the number of samples ignored after a width change.
+     * @return This scaler.
+     */
+    public ParallelRegionScaler setCooldown(int cooldown) {
+        if (cooldown < 0)
+            throw new IllegalArgumentException(Integer.toString(cooldown));
+        this.cooldown = cooldown;
+        return this;
+    }
+
+    /**
+     * Sample the region's metrics and change its width
+     * if required by the policy.
+     * @return Width of the region after this step,
+     * or 0 if the region has no operators.
+     * @throws IOException Error communicating with Streams.
+     */
+    public synchronized int step() throws IOException {
+        final Sample sample = sample();
+        if (sample.width == 0)
+            return 0;
+
+        final int width = decide(sample);
+        if (width != sample.width) {
+            TRACE.info("Parallel region " + region + " of job " + job.getId()
+                    + " width " + sample.width + " -> " + width);
+            job.setParallelRegionWidth(region, width);
+        }
+        return width;
+    }
+
+    /**
+     * Periodically call {@link #step()} on a background thread.
+     * Errors are logged and do not stop the scaler.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (task != null)
+            throw new IllegalStateException();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ParallelRegionScaler:" + region);
+            t.setDaemon(true);
+            return t;
+        });
+        task = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                step();
+            } catch (IOException | RuntimeException e) {
+                TRACE.log(Level.WARNING, "Parallel region " + region, e);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stop a scaler started with {@link #start(long, TimeUnit)}.
+     */
+    public synchronized void stop() {
+        if (task == null)
+            return;
+        task.cancel(false);
+        scheduler.shutdown();
+        task = null;
+        scheduler = null;
+    }
+
+    /**
+     * Apply the hysteresis policy to a sample.
+     * @return The new width.
+     */
+    int decide(Sample sample) {
+        final boolean congested = lastEnqueueWaits != -1
+                && sample.enqueueWaits > lastEnqueueWaits;
+        lastEnqueueWaits = sample.enqueueWaits;
+
+        if (ignore > 0) {
+            ignore--;
+            return sample.width;
+        }
+
+        final boolean high = congested || sample.queued / sample.width >= highWater;
+        final boolean low = !congested && sample.maxQueued <= lowWater;
+
+        highSamples = high ? highSamples + 1 : 0;
+        lowSamples = low ? lowSamples + 1 : 0;
+
+        int width = sample.width;
+        if (highSamples >= up)
+            width = Math.min(maxWidth, width * 2);
+        else if (lowSamples >= down)
+            width = Math.max(minWidth, width - 1);
+
+        if (width != sample.width) {
+            highSamples = 0;
+            lowSamples = 0;
+            ignore = cooldown;
+            lastEnqueueWaits = -1;
+        }
+        return width;
+    }
+
+    /**
+     * Sample the metrics of the region's operators.
+     */
+    Sample sample() throws IOException {
+        final Sample sample = new Sample();
+        final String prefix = region + ".";
+
+        // Channels per logical operator, the region's width
+        // is the number of channels of its operators.
+        final Map<String,Integer> channels = new HashMap<>();
+
+        for (Operator op : job.getOperators()) {
+            final String logicalName = op.getLogicalName();
+            if (logicalName == null || !logicalName.startsWith(prefix))
+                continue;
+            // Operators in nested regions are not replicated by this region's width.
+            if (logicalName.indexOf('.', prefix.length()) != -1)
+                continue;
+            channels.merge(logicalName, 1, Integer::sum);
+
+            for (InputPort port : op.getInputPorts()) {
+                final List<Metric> metrics = port.getMetrics();
+                for (Metric metric : metrics) {
+                    if (QUEUED_METRIC.equals(metric.getName())) {
+                        sample.queued += metric.getValue();
+                        sample.maxQueued = Math.max(sample.maxQueued, metric.getValue());
+                    } else if (ENQUEUE_WAITS_METRIC.equals(metric.getName())) {
+                        sample.enqueueWaits += metric.getValue();
+                    }
+                }
+            }
+        }
+        for (int n : channels.values())
+            sample.width = Math.max(sample.width, n);
+        return sample;
+    }
+
+    static final class Sample {
+        int width;
+        long queued;
+        long maxQueued;
+        long enqueueWaits;
+    }
+}
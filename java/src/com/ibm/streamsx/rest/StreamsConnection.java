@@ -118,6 +118,25 @@ public class StreamsConnection {
         return delegate().isVerify();
     }
 
+    /**
+     * Set the maximum number of concurrent requests made through this connection.
+     * <P>
+     * Requests are made over a pool of keep-alive HTTP connections
+     * of this size, and asynchronous methods such as
+     * {@link Instance#getJobsAsync()} and bulk methods such as
+     * {@link Instance#getOperatorMetrics()} execute
+     * on a pool of this number of threads.
+     * The default is 8.
+     * </P>
+     * 
+     * @param maxConcurrency Maximum number of concurrent requests.
+     * 
+     * @since 1.15
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        delegate().setMaxConcurrency(maxConcurrency);
+    }
+
     /**
      * Gets a specific {@link Instance instance} identified by the instanceId at
      * this IBM Streams connection
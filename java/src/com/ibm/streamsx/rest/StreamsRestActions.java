@@ -55,6 +55,19 @@ class StreamsRestActions {
 				() -> job, response);
 	}
 	
+	static JsonObject updateOperators(Job job, JsonObject jco) throws IOException {
+		JsonObject body = new JsonObject();
+		body.add("jobConfigurationOverlay", jco);
+
+		final AbstractStreamsConnection conn = job.connection();
+
+		Request putJob = Request.Put(job.self());
+		putJob.addHeader(AUTH.WWW_AUTH_RESP, conn.getAuthorization());
+		putJob.body(new StringEntity(body.toString(), ContentType.APPLICATION_JSON));
+
+		return requestGsonResponse(conn.executor, putJob);
+	}
+
     static boolean cancelJob(Instance instance, String jobId) throws IOException {
     	Request deleteJob = Request.Delete(instance.self() + "/jobs/" + jobId);
     	Response response = instance.connection().executor.execute(deleteJob);
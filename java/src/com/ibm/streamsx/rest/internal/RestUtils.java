@@ -54,6 +54,12 @@ public interface RestUtils {
     
     int CONNECT_TIMEOUT_MILLISECONDS = 30000;
 
+    /**
+     * Default maximum number of pooled keep-alive
+     * connections to a single host.
+     */
+    int DEFAULT_MAX_CONNECTIONS = 8;
+
     /**
      * Create an encoded Basic auth header for the given credentials.
      * @param credentials Service credentials.
@@ -100,11 +106,23 @@ public interface RestUtils {
         return Executor.newInstance(createHttpClient(allowInsecure));
     }
 
+    static Executor createExecutor(boolean allowInsecure, int maxConnections) {
+        return Executor.newInstance(createHttpClient(allowInsecure, maxConnections));
+    }
+
     static CloseableHttpClient createHttpClient() {
         return createHttpClient(false);
     }
 
     static CloseableHttpClient createHttpClient(boolean allowInsecure) {
+        return createHttpClient(allowInsecure, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Create an HTTP client whose connections are pooled and kept alive,
+     * allowing up to {@code maxConnections} concurrent requests to a host.
+     */
+    static CloseableHttpClient createHttpClient(boolean allowInsecure, int maxConnections) {
         CloseableHttpClient client = null;
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectTimeout(CONNECT_TIMEOUT_MILLISECONDS) // timeout to connect with server
@@ -137,6 +155,8 @@ public interface RestUtils {
                 client = HttpClients.custom()
                         .setSSLSocketFactory(factory)
                         .setDefaultRequestConfig(requestConfig)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setMaxConnTotal(2 * maxConnections)
                         .build();
                 TRACE.warning("Insecure host connections enabled.");
             } catch (KeyStoreException | KeyManagementException | NoSuchAlgorithmException e) {
@@ -150,6 +170,8 @@ public interface RestUtils {
             client = HttpClients.custom()
                     .setSSLSocketFactory(factory)
                     .setDefaultRequestConfig(requestConfig)
+                    .setMaxConnPerRoute(maxConnections)
+                    .setMaxConnTotal(2 * maxConnections)
                     .build();
         }
         return client;
@@ -141,7 +141,7 @@ public class StandaloneAuthenticator implements Function<Executor,String> {
      * @return Contents for an {@code Authentication} header or null;
      */
     @Override
-    public String apply(Executor executor) {
+    public synchronized String apply(Executor executor) {
         if (serviceAuth == null || System.currentTimeMillis() > expire) {
             try {
                 refreshAuth(executor, cfg);
@@ -21,6 +21,7 @@ import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.function.Supplier;
 import com.ibm.streamsx.topology.function.ToIntFunction;
 import com.ibm.streamsx.topology.function.UnaryOperator;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
 /**
  * A {@code TStream} is a declaration of a continuous sequence of tuples. A
@@ -503,6 +504,7 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
      * stream, it is joined with the contents of {@code window}. Each tuple is
      * passed into {@code joiner} and the return value is submitted to the
      * returned stream. If call returns null then no tuple is submitted.
+     * The {@code List} passed to {@code joiner} is read-only.
      * 
      * @param joiner Join function.
      * @return A stream that is the results of joining this stream with
@@ -517,6 +519,7 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
      * for the key {@code keyer.apply(tuple)}. Each tuple is
      * passed into {@code joiner} and the return value is submitted to the
      * returned stream. If call returns null then no tuple is submitted.
+     * The {@code List} passed to {@code joiner} is read-only.
      * 
      * @param keyer Key function for this stream to match the window's key.
      * @param window Keyed window to join this stream with.
@@ -529,6 +532,48 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
             TWindow<U,K> window,
             BiFunction<T, List<U>, J> joiner);
     
+    /**
+     * Join this stream with a partitioned window of type {@code U} with key type {@code K},
+     * using an index of each window partition.
+     * For each tuple on this stream, it is joined with the tuples in
+     * the partition of {@code window} for the key {@code keyer.apply(tuple)}
+     * that have the same index key, that is where
+     * {@code windowIndexer.apply(windowTuple)} is equal to {@code indexer.apply(tuple)}.
+     * Each tuple is passed into {@code joiner} with the matching window tuples,
+     * in the order they were inserted into the window,
+     * and the return value is submitted to the returned stream.
+     * If call returns null then no tuple is submitted.
+     * The {@code List} passed to {@code joiner} is read-only.
+     * <P>
+     * The window maintains a hash index of each partition by
+     * {@code windowIndexer} so that the cost of a join is independent of
+     * the number of tuples in the partition. If {@code window} is not
+     * keyed then {@code keyer} is not used and the index covers the
+     * whole window. The index references every tuple in the window,
+     * so the tuples are held on the heap even if the window's
+     * partition state is stored off the heap using {@link TWindow#offHeap(int)}.
+     * Tuples for different partitions may be joined concurrently,
+     * {@code joiner} is only invoked concurrently if it is immutable or
+     * annotated with {@link com.ibm.streamsx.topology.function.ThreadSafe}.
+     * </P>
+     * 
+     * @param keyer Key function for this stream to match the window's key.
+     * @param window Keyed window to join this stream with.
+     * @param indexer Index key function for this stream.
+     * @param windowIndexer Index key function for the window's tuples.
+     * @param joiner Join function.
+     * @return A stream that is the results of joining this stream with
+     *         {@code window}.
+     * 
+     * @since 1.15
+     */
+    <J, U, K, I> TStream<J> join(
+            Function<T,K> keyer,
+            TWindow<U,K> window,
+            Function<? super T, ? extends I> indexer,
+            Function<? super U, ? extends I> windowIndexer,
+            BiFunction<T, List<U>, J> joiner);
+    
     /**
      * Join this stream with the last tuple seen on a stream of type {@code U}
      * with partitioning.
@@ -1317,6 +1362,33 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
      */
     TStream<T> asType(Class<T> tupleTypeClass);
     
+    /**
+     * Return a strongly typed reference to this stream
+     * whose tuples are serialized using {@code serializer}.
+     * <P>
+     * Tuples are serialized when they are sent between processing elements,
+     * by default Java serialization is used. A serializer such as
+     * {@link com.ibm.streamsx.topology.spi.runtime.BinarySerializer} can
+     * significantly reduce the cost of passing tuples between processing elements.
+     * <BR>
+     * Downstream functional transformations ({@code filter}, {@code map},
+     * {@code flatMap}, {@code forEach}, {@code split} etc.) use
+     * the serializer, other consumers of the returned stream, such as windows
+     * and {@link #publish(String) publish}, receive Java serialized tuples.
+     * </P>
+     * <P>
+     * The serializer is ignored when {@code tupleTypeClass} is a type mapped
+     * directly to an SPL schema, such as {@code String}.
+     * </P>
+     * @param tupleTypeClass Class type for the tuples.
+     * @param serializer Serializer for the tuples.
+     * @return A stream with the same contents as this stream but strongly typed as
+     * containing tuples of type {@code tupleClass} serialized using {@code serializer}.
+     * 
+     * @since 1.15
+     */
+    TStream<T> asType(Class<T> tupleTypeClass, TupleSerializer serializer);
+    
     /**
      * Return a keyed stream that contains the same tuples as this stream. 
      * A keyed stream is a stream where each tuple has an inherent
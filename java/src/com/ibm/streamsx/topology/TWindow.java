@@ -8,7 +8,9 @@ import java.lang.reflect.Type;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import com.ibm.streamsx.topology.function.BinaryOperator;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 
 /**
  * Declares a window of tuples for a {@link TStream}. Logically a {@code Window}
@@ -51,7 +53,9 @@ public interface TWindow<T,K> extends TopologyElement {
      * {@code aggregator.call(tuples)} is called, where {@code tuples} is an
      * {@code List} that containing all the tuples in the current window.
      * The {@code List} is stable during the method call, and returns the
-     * tuples in order of insertion into the window, from oldest to newest. <BR>
+     * tuples in order of insertion into the window, from oldest to newest.
+     * The {@code List} is read-only, its contents are the window's state
+     * so any attempt to modify it throws {@code UnsupportedOperationException}. <BR>
      * Thus the returned stream will contain a sequence of tuples that where the
      * most recent tuple represents the most up to date aggregation of this
      * window or window partition.
@@ -68,7 +72,9 @@ public interface TWindow<T,K> extends TopologyElement {
      * {@code aggregator.call(tuples)} is called, where {@code tuples} is an
      * {@code List} that containing all the tuples in the current window.
      * The {@code List} is stable during the method call, and returns the
-     * tuples in order of insertion into the window, from oldest to newest. <BR>
+     * tuples in order of insertion into the window, from oldest to newest.
+     * The {@code List} is read-only, its contents are the window's state
+     * so any attempt to modify it throws {@code UnsupportedOperationException}. <BR>
      * Thus the returned stream will contain a new tuple every {@code period}
      * seconds (according to {@code unit}) aggregation of this window or window
      * partition.
@@ -83,6 +89,94 @@ public interface TWindow<T,K> extends TopologyElement {
      */
     <A> TStream<A> aggregate(Function<List<T>, A> aggregator, long period,
             TimeUnit unit);
+    
+    /**
+     * Declares a stream that containing tuples that represent an aggregation of
+     * this window, where aggregations are shared across periods.
+     * Approximately every {@code period} (with unit {@code unit})
+     * an aggregation of all the tuples in the current window is submitted.
+     * <BR>
+     * The tuples in the window are divided into panes, where a pane is
+     * the tuples inserted into the window during one period.
+     * Each pane is aggregated once using {@code aggregator.apply(tuples)},
+     * where {@code tuples} is the pane's tuples in order of insertion,
+     * and the aggregation of the window is the pane aggregations,
+     * from oldest to newest, combined using {@code combiner}.
+     * A pane is aggregated again only if some, but not all,
+     * of its tuples are evicted.
+     * The list of a pane's tuples is read-only.
+     * <BR>
+     * Thus the cost of each aggregation depends on the number of periods
+     * in the window rather than the number of tuples, for example a
+     * ten minute window with a period of one second
+     * aggregates each tuple once, rather than six hundred times with
+     * {@link #aggregate(Function, long, TimeUnit)}.
+     * <BR>
+     * {@code combiner} must be associative and combining pane aggregations
+     * must be equivalent to aggregating their tuples, that is
+     * {@code combiner.apply(aggregator.apply(a), aggregator.apply(b))}
+     * equals {@code aggregator.apply(ab)}
+     * where {@code ab} is the tuples of {@code a} followed by the tuples of {@code b}.
+     * For example a sum, count, minimum or maximum.
+     * If the window is empty then {@code aggregator.apply(tuples)}
+     * is called with an empty list.
+     * 
+     * @param aggregator
+     *            Logic to aggregate tuples in a pane.
+     * @param combiner
+     *            Logic to combine aggregations of panes.
+     * @param period
+     *            Approximately how often to perform the aggregation.
+     * @param unit
+     *            Time unit for {@code period}.
+     * @return A stream that contains the latest aggregations of this window.
+     * 
+     * @since 1.15
+     */
+    <A> TStream<A> aggregate(Function<List<T>, A> aggregator, BinaryOperator<A> combiner,
+            long period, TimeUnit unit);
+    
+    /**
+     * Declares a stream that containing tuples that represent an incremental
+     * aggregation of this window. Each time the contents of the window is updated
+     * by a new tuple being added to it, or a tuple being evicted from the window,
+     * the aggregation state of the window partition is updated using
+     * {@link IncrementalAggregator#add(Object, Object) aggregator.add(state, tuple)}
+     * or {@link IncrementalAggregator#remove(Object, Object) aggregator.remove(state, tuple)}
+     * and then {@link IncrementalAggregator#result(Object) aggregator.result(state)}
+     * is submitted. <BR>
+     * Tuples are submitted at the same points as {@link #aggregate(Function)}
+     * but the cost of each aggregation does not depend on the number of tuples
+     * in the window.
+     * 
+     * @param aggregator
+     *            Logic to incrementally aggregate the window contents.
+     * @return A stream that contains the latest aggregations of this window.
+     * 
+     * @since 1.15
+     */
+    <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator);
+
+    /**
+     * Declares a stream that containing tuples that represent an incremental
+     * aggregation of this window. The aggregation state of each window partition
+     * is updated as tuples are inserted into and evicted from the window and
+     * approximately every {@code period} (with unit {@code unit})
+     * {@link IncrementalAggregator#result(Object) aggregator.result(state)}
+     * is submitted.
+     * 
+     * @param aggregator
+     *            Logic to incrementally aggregate the window contents.
+     * @param period
+     *            Approximately how often to perform the aggregation.
+     * @param unit
+     *            Time unit for {@code period}.
+     * @return A stream that contains the latest aggregations of this window.
+     * 
+     * @since 1.15
+     */
+    <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator, long period,
+            TimeUnit unit);
 
     /**
      * Class of the tuples in this window. WIll be the same as {@link #getTupleType()}
@@ -144,4 +238,29 @@ public interface TWindow<T,K> extends TopologyElement {
      * @see #key()
      */
     boolean isKeyed();
+    
+    /**
+     * Return a window that has the same configuration as this window
+     * with its partition state stored off the heap.
+     * <P>
+     * Tuples in the window are serialized into memory-mapped files
+     * under the processing element's data directory, with at most
+     * {@code heapTuples} recently used tuples cached on the heap.
+     * This reduces heap usage for windows that hold a large number
+     * of tuples, such as long time based windows with many keys,
+     * at the cost of serializing and deserializing tuples.
+     * </P>
+     * <P>
+     * The window's tuple type must be {@code java.io.Serializable}.
+     * Window state restored from a checkpoint is held on the heap.
+     * The index of a window joined using
+     * {@link TStream#join(Function, TWindow, Function, Function, com.ibm.streamsx.topology.function.BiFunction)}
+     * references every tuple in the window, so its tuples remain on the heap.
+     * </P>
+     * @param heapTuples Maximum number of tuples cached on the heap, must be greater than zero.
+     * @return Window with the same configuration as this window with its partition state stored off the heap.
+     * 
+     * @since 1.15
+     */
+    TWindow<T,K> offHeap(int heapTuples);
 }
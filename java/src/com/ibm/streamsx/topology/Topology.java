@@ -17,6 +17,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -41,6 +42,7 @@ import com.ibm.streamsx.topology.internal.core.SPLStreamBridge;
 import com.ibm.streamsx.topology.internal.core.SourceInfo;
 import com.ibm.streamsx.topology.internal.core.SubmissionParameterFactory;
 import com.ibm.streamsx.topology.internal.core.TypeDiscoverer;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
 import com.ibm.streamsx.topology.internal.functional.SubmissionParameter;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
 import com.ibm.streamsx.topology.internal.logic.Constants;
@@ -293,6 +295,71 @@ public class Topology implements TopologyElement {
                 data, tupleType, null, null);
     }
     
+    /**
+     * Declare a new source stream from batches of tuples.
+     * {@code batches.get()} is called repeatedly and each
+     * non-null tuple in the returned collection is
+     * submitted on the stream. The stream ends
+     * when {@code batches.get()} returns {@code null}.
+     * <BR>
+     * Batches are submitted as a unit, which reduces the per-tuple
+     * overhead of the source compared to
+     * {@link #source(Supplier)} for data that is naturally
+     * produced in batches, such as rows from a database poll
+     * or records read from a chunk of a file.
+     * {@code batches.get()} is expected to block until
+     * a batch is available.
+     * 
+     * @param batches
+     *            Function that produces the batches of tuples for the stream.
+     * @return New stream containing the tuples from the collections
+     *         returned by {@code batches.get()}.
+     * 
+     * @since 1.15
+     */
+    public <T> TStream<T> batchSource(Supplier<Collection<T>> batches) {
+        return batchSource(batches, false);
+    }
+
+    /**
+     * Declare a new source stream from batches of tuples,
+     * optionally submitting a window marker after each batch.
+     * {@code batches.get()} is called repeatedly and each
+     * non-null tuple in the returned collection is
+     * submitted on the stream. The stream ends
+     * when {@code batches.get()} returns {@code null}.
+     * 
+     * @param batches
+     *            Function that produces the batches of tuples for the stream.
+     * @param windowMarkers True to submit a window marker after each batch.
+     * @return New stream containing the tuples from the collections
+     *         returned by {@code batches.get()}.
+     * 
+     * @see #batchSource(Supplier)
+     * @since 1.15
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TStream<T> batchSource(Supplier<Collection<T>> batches, boolean windowMarkers) {
+        Type tupleType = TypeDiscoverer.determineStreamTypeNested(Supplier.class, 0, Collection.class, batches);
+        
+        String opName = LogicUtils.functionName(batches);
+        
+        JsonObject invokeInfo = new JsonObject();
+        com.ibm.streamsx.topology.spi.builder.SourceInfo.addSourceInfo(invokeInfo, getClass());
+        invokeInfo.addProperty("name", opName);
+        LayoutInfo.kind(invokeInfo, "BatchSource");
+        
+        Map<String,Object> params = new HashMap<>();
+        params.put(FunctionalOpProperties.SOURCE_BATCH_PARAM, true);
+        if (windowMarkers)
+            params.put(FunctionalOpProperties.SOURCE_BATCH_MARKERS_PARAM, true);
+        
+        // Each call to get() returns a Collection, an Iterable, as the Source operator expects.
+        Supplier<?> logic = batches;
+        return invokeSource(this, JavaFunctionalOps.SOURCE_KIND, invokeInfo,
+                (Supplier<Iterable<T>>) logic, tupleType, null, params);
+    }
+    
     /**
      * Declare a new source stream that calls
      * {@code data.get()} periodically. Each non-null value
@@ -83,28 +83,18 @@ public class BInputPort extends BInput {
     
     /**
      * Add a declaration of a default queue to this input port.
+     * <BR>
+     * For a functional operator the port is marked as accepting
+     * a queue, the SPL generator only adds the queue by setting
+     * the operator's queue parameters when
+     * {@code ContextProperties.FUNCTIONAL_QUEUE_SIZE} is set.
      * @param functional True if this is for a functional operator.
      */
     public void addQueue(boolean functional) {
-        /* TODO - investigate
-         * Disable queuing for now, seeing a hang when
-         * using Java 8 and Streams 4.0.1 plus need
-         * to investigate performance impact more.
-         * 
-
-        JSONObject queue = new JSONObject();
-        queue.put("functional", functional);
-        json().put("queue", queue);
         if (functional) {
-            JSONObject params = (JSONObject) op.json().get("parameters");
-            if (params == null) {
-                params = new JSONObject();
-                op.json().put("parameters", params);             
-            }
-            JSONObject value = new JSONObject();
-            value.put("value", 100);
-            params.put("queueSize", value);
+            JsonObject queue = new JsonObject();
+            queue.addProperty("functional", true);
+            _json().add("queue", queue);
         }
-        */
     }
 }
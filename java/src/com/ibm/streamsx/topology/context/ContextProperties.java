@@ -199,5 +199,147 @@ public interface ContextProperties {
      */
     String SC_OPTIONS = "topology.sc.options";
 
+    /**
+     * Use virtual threads for Java functional logic.
+     * <BR>
+     * When set to {@code true} threads obtained from
+     * {@link com.ibm.streamsx.topology.function.FunctionContext#getThreadFactory()}
+     * and {@link com.ibm.streamsx.topology.function.FunctionContext#getScheduledExecutorService()},
+     * and the reader threads of functional operator input queues
+     * are virtual threads, allowing many operators to block
+     * in their logic without each holding an operating system thread.
+     * <BR>
+     * Virtual threads require Java 21, with earlier
+     * Java versions platform threads are used.
+     * <BR>
+     * Argument is a {@code Boolean}.
+     * <BR>
+     * For an embedded context set the Java system property
+     * {@code com.ibm.streamsx.topology.virtualThreads} to {@code true} instead.
+     * 
+     * @since 1.15
+     */
+    String VIRTUAL_THREADS = "topology.virtualThreads";
+    
+    /**
+     * Execute an {@link StreamsContext.Type#EMBEDDED embedded}
+     * topology with multiple threads.
+     * <BR>
+     * When set to {@code true} each channel of a
+     * {@link com.ibm.streamsx.topology.TStream#parallel(int) parallel region}
+     * is a copy of the region's streams executing on its own thread,
+     * and an {@link com.ibm.streamsx.topology.TStream#isolate() isolated}
+     * stream is processed by a thread separate from the thread
+     * that submitted its tuples. Threads are connected by bounded queues.
+     * Streams within a {@link com.ibm.streamsx.topology.TStream#lowLatency() low latency}
+     * region are not separated by a queue.
+     * <BR>
+     * When not set or {@code false} the parallel, isolate and low latency
+     * hints are ignored by embedded execution.
+     * <BR>
+     * Argument is a {@code Boolean}.
+     * 
+     * @since 1.15
+     */
+    String EMBEDDED_THREADED = "topology.embedded.threaded";
+    
+    /**
+     * Fuse chains of Java functional streams into a single operator.
+     * <BR>
+     * When a stream created by {@link com.ibm.streamsx.topology.TStream#filter(com.ibm.streamsx.topology.function.Predicate) filter},
+     * {@link com.ibm.streamsx.topology.TStream#map(com.ibm.streamsx.topology.function.Function) map}
+     * or {@link com.ibm.streamsx.topology.TStream#flatMap(com.ibm.streamsx.topology.function.Function) flatMap}
+     * is only consumed by another of those or by
+     * {@link com.ibm.streamsx.topology.TStream#forEach(com.ibm.streamsx.topology.function.Consumer) forEach},
+     * and both are placed in the same processing element, the
+     * functions are executed by a single SPL operator passing
+     * each object directly from one function to the next.
+     * <BR>
+     * Only functions that are immutable or annotated with
+     * {@link com.ibm.streamsx.topology.function.ThreadSafe ThreadSafe}
+     * are fused, a stateful function is always executed by its own operator.
+     * <BR>
+     * Fusion is not performed when checkpointing or a consistent
+     * region is used.
+     * <BR>
+     * Custom metrics created by fused functions are metrics of
+     * the single operator and keep their names. If more than one
+     * fused function creates a metric with the same name then the
+     * later ones are named {@code name.index.kind}, for example
+     * {@code count.1.Map}, where {@code index} is the position of
+     * the function in the chain. Set this to {@code false} to
+     * keep each function's metrics in its own operator.
+     * <BR>
+     * Argument is a {@code Boolean}, defaults to {@code true}.
+     * 
+     * @since 1.15
+     */
+    String JAVA_FUSION = "topology.javaFusion";
+    
+    /**
+     * Create a custom metric for each function in a fused operator.
+     * <BR>
+     * When set to {@code true} each operator created by {@link #JAVA_FUSION}
+     * has a custom metric for each function counting the objects
+     * passed to it, in addition to the operator's metrics.
+     * <BR>
+     * Argument is a {@code Boolean}, defaults to {@code false}.
+     * 
+     * @since 1.15
+     */
+    String JAVA_FUSION_METRICS = "topology.javaFusionMetrics";
+
+    /**
+     * Size of the input queue of Java functional operators.
+     * <BR>
+     * When set to a positive value streams created by
+     * {@link com.ibm.streamsx.topology.TStream#filter(com.ibm.streamsx.topology.function.Predicate) filter},
+     * {@link com.ibm.streamsx.topology.TStream#map(com.ibm.streamsx.topology.function.Function) map},
+     * {@link com.ibm.streamsx.topology.TStream#modify(com.ibm.streamsx.topology.function.UnaryOperator) modify}
+     * and {@link com.ibm.streamsx.topology.TStream#flatMap(com.ibm.streamsx.topology.function.Function) flatMap}
+     * execute their function on a separate reader thread, decoupled from
+     * the thread submitting tuples by a queue of this size.
+     * A queue is not used when the input is from another processing element,
+     * as the tuples are then already submitted by a separate thread.
+     * <BR>
+     * Argument is an {@code Integer}, by default no queue is used.
+     *
+     * @see #FUNCTIONAL_QUEUE_WAIT
+     * @see #FUNCTIONAL_QUEUE_THREADS
+     * @since 1.15
+     */
+    String FUNCTIONAL_QUEUE_SIZE = "topology.functionalQueueSize";
+
+    /**
+     * How the reader thread of a Java functional operator's
+     * input queue waits for tuples.
+     * <BR>
+     * One of {@code spin}, {@code yield}, {@code park} or {@code block}.
+     * {@code spin} has the lowest latency but consumes a processor core
+     * for each queue, {@code block} (the default) parks the reader thread
+     * until a tuple is submitted.
+     * <BR>
+     * Argument is a {@code String}, only used when {@link #FUNCTIONAL_QUEUE_SIZE} is set.
+     *
+     * @since 1.15
+     */
+    String FUNCTIONAL_QUEUE_WAIT = "topology.functionalQueueWait";
+
+    /**
+     * Number of reader threads for the input queue of
+     * Java functional operators.
+     * <BR>
+     * When greater than one, functions that are
+     * {@link com.ibm.streamsx.topology.function.ThreadSafe thread safe}
+     * are applied to tuples concurrently by this number of threads,
+     * with results submitted in the order tuples were received.
+     * Other functions always use a single reader thread.
+     * <BR>
+     * Argument is an {@code Integer}, only used when {@link #FUNCTIONAL_QUEUE_SIZE} is set.
+     *
+     * @since 1.15
+     */
+    String FUNCTIONAL_QUEUE_THREADS = "topology.functionalQueueThreads";
+
     String _SPLMM_OPTIONS = "topology.internal.splmm_options";
 }
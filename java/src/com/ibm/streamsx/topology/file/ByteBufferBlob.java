@@ -0,0 +1,85 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.file;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.ibm.streams.operator.types.Blob;
+
+/**
+ * Blob backed by a read-only slice of a byte buffer,
+ * such as a line in a memory-mapped file, without copying
+ * its bytes.
+ */
+final class ByteBufferBlob implements Blob {
+
+    private final ByteBuffer data;
+
+    /**
+     * @param data Buffer whose remaining bytes are the blob's value,
+     * must not be modified once the blob is created.
+     */
+    ByteBufferBlob(ByteBuffer data) {
+        this.data = data.slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public long getLength() {
+        return data.capacity();
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return data.duplicate();
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer(long position, int length) {
+        ByteBuffer bb = data.duplicate();
+        bb.position((int) position);
+        bb.limit((int) position + length);
+        return bb.slice();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        final ByteBuffer bb = data.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return bb.hasRemaining() ? bb.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0)
+                    return 0;
+                if (!bb.hasRemaining())
+                    return -1;
+                len = Math.min(len, bb.remaining());
+                bb.get(b, off, len);
+                return len;
+            }
+
+            @Override
+            public int available() {
+                return bb.remaining();
+            }
+        };
+    }
+
+    @Override
+    public byte[] getData() {
+        byte[] bytes = new byte[data.capacity()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public ByteBuffer put(ByteBuffer buf) {
+        return buf.put(data.duplicate());
+    }
+}
@@ -5,7 +5,11 @@
 package com.ibm.streamsx.topology.file;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import com.ibm.streams.operator.types.Blob;
+import com.ibm.streams.operator.types.ValueFactory;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.TopologyElement;
 import com.ibm.streamsx.topology.function.Predicate;
@@ -92,4 +96,60 @@ public class FileStreams {
                 TextFileReader.class, tupleInput, SPLSchemas.STRING, null);
         return lines.toStringStream();
     }
+
+    /**
+     * Returns a Stream that reads each file named on its input stream
+     * using memory-mapped I/O, outputting a tuple for each line read.
+     * All files are assumed to be encoded using UTF-8.
+     * <BR>
+     * Each file is split into chunks that are decoded in parallel,
+     * the lines are output in the order they appear in each file,
+     * with the first line of a file appearing first.
+     * 
+     * @param input
+     *            Stream containing files to read.
+     * @param threads
+     *            Number of threads decoding chunks of a file.
+     * @return Stream contains lines from input files.
+     * 
+     * @since 1.15
+     */
+    public static TStream<String> mappedTextFileReader(TStream<String> input, int threads) {
+
+        Map<String,Object> params = new HashMap<>();
+        params.put("mapped", true);
+        params.put("threads", threads);
+
+        SPLStream tupleInput = SPLStreams.stringToSPLStream(input);
+        SPLStream lines = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, tupleInput, SPLSchemas.STRING, params);
+        return lines.toStringStream();
+    }
+
+    /**
+     * Returns a Stream that reads each file named on its input stream
+     * using memory-mapped I/O, outputting the bytes of each line read
+     * without decoding them. Lines are terminated by a line feed,
+     * a carriage return or a carriage return followed by a line feed,
+     * the terminator is not included in the line's bytes.
+     * The files must use an ASCII compatible encoding, such as UTF-8.
+     * The bytes of each line are copied from the mapped file,
+     * so the blobs are serializable and do not refer to the file.
+     * <BR>
+     * The lines are output in the order they appear in
+     * each file, with the first line of a file appearing first.
+     * 
+     * @param input
+     *            Stream containing files to read.
+     * @return Stream contains the bytes of lines from input files.
+     * 
+     * @since 1.15
+     */
+    public static TStream<Blob> mappedLineReader(TStream<String> input) {
+
+        SPLStream tupleInput = SPLStreams.stringToSPLStream(input);
+        SPLStream lines = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, tupleInput, SPLSchemas.BLOB, null);
+        return lines.convert(tuple -> ValueFactory.newBlob(tuple.getBlob(0).getData()));
+    }
 }
@@ -7,8 +7,24 @@ package com.ibm.streamsx.topology.file;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.ibm.streams.operator.AbstractOperator;
 import com.ibm.streams.operator.OperatorContext;
@@ -16,19 +32,46 @@ import com.ibm.streams.operator.OutputTuple;
 import com.ibm.streams.operator.StreamingInput;
 import com.ibm.streams.operator.StreamingOutput;
 import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.Type.MetaType;
 import com.ibm.streams.operator.model.InputPortSet;
 import com.ibm.streams.operator.model.OutputPortSet;
 import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.types.RString;
 
+/**
+ * Reads each file named by its input tuples, submitting
+ * a tuple for each line in order.
+ * <BR>
+ * By default a file is read through a buffered reader.
+ * With parameter mapped the file is memory-mapped and split
+ * into chunks of about chunkSize bytes ending at a line terminator,
+ * the chunks are decoded in parallel by threads threads while
+ * lines are submitted in order by the input tuple's thread.
+ * Mapped reading requires an encoding where line terminators
+ * are single bytes that do not occur within other characters,
+ * such as UTF-8 or ISO-8859-1, otherwise the buffered reader is used.
+ * <BR>
+ * If the output attribute is a {@code blob} each line is submitted
+ * as its raw bytes, without decoding, using memory-mapped reading.
+ * The blobs reference the mapped file, which must not be modified
+ * while they are in use.
+ */
 @PrimitiveOperator
 @InputPortSet(cardinality = 1)
 @OutputPortSet(cardinality = 1)
 public class TextFileReader extends AbstractOperator {
 
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
     private String encoding = "UTF-8";
     private Charset charset;
+    private boolean mapped;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private boolean blobs;
+    private ExecutorService decoders;
 
     public String getEncoding() {
         return encoding;
@@ -39,11 +82,65 @@ public class TextFileReader extends AbstractOperator {
         this.encoding = encoding;
     }
 
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    @Parameter(optional = true)
+    public void setMapped(boolean mapped) {
+        this.mapped = mapped;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Parameter(optional = true)
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Parameter(optional = true)
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     @Override
     public void initialize(OperatorContext context) throws Exception {
         super.initialize(context);
 
         charset = Charset.forName(getEncoding());
+        blobs = getOutput(0).getStreamSchema().getAttribute(0).getType().getMetaType() == MetaType.BLOB;
+
+        if (blobs && !byteLines(charset))
+            throw new IllegalStateException("Line bytes cannot be split for encoding: " + getEncoding());
+        if (chunkSize <= 0 || threads <= 0)
+            throw new IllegalStateException("chunkSize: " + chunkSize + " threads: " + threads);
+
+        mapped = blobs || (mapped && byteLines(charset));
+        if (mapped && !blobs && threads > 1)
+            decoders = Executors.newFixedThreadPool(threads, context.getThreadFactory());
+    }
+
+    @Override
+    public void shutdown() throws Exception {
+        if (decoders != null)
+            decoders.shutdownNow();
+        super.shutdown();
+    }
+
+    /**
+     * Can lines be split in the encoded bytes, true if carriage
+     * return and line feed are their ASCII bytes. In ASCII compatible
+     * encodings such as UTF-8 these bytes only represent themselves.
+     */
+    static boolean byteLines(Charset charset) {
+        return Arrays.equals("\r\n ~".getBytes(StandardCharsets.US_ASCII),
+                "\r\n ~".getBytes(charset));
     }
 
     @Override
@@ -61,6 +158,11 @@ public class TextFileReader extends AbstractOperator {
                     fileName);
         }
 
+        if (mapped) {
+            readMapped(file, out);
+            return;
+        }
+
         FileInputStream fis = new FileInputStream(file);
         try {
 
@@ -79,4 +181,126 @@ public class TextFileReader extends AbstractOperator {
             fis.close();
         }
     }
+
+    /**
+     * Read a file using memory-mapped chunks, decoding up
+     * to {@code 2*threads} chunks ahead of the submitted lines.
+     */
+    private void readMapped(File file, StreamingOutput<OutputTuple> out) throws Exception {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final Deque<Future<List<Object>>> pending = new ArrayDeque<>();
+            try {
+                for (long start = 0; start < size;) {
+                    final ByteBuffer chunk = mapChunk(channel, start, size);
+                    start += chunk.remaining();
+
+                    final Callable<List<Object>> split = () -> splitLines(chunk);
+                    if (decoders == null) {
+                        submit(out, split.call());
+                        continue;
+                    }
+                    if (pending.size() >= 2 * threads)
+                        submit(out, pending.removeFirst().get());
+                    pending.addLast(decoders.submit(split));
+                }
+                while (!pending.isEmpty())
+                    submit(out, pending.removeFirst().get());
+            } finally {
+                for (Future<?> f : pending)
+                    f.cancel(true);
+            }
+        }
+    }
+
+    private static void submit(StreamingOutput<OutputTuple> out, List<Object> lines) throws Exception {
+        for (Object line : lines)
+            out.submitAsTuple(line);
+    }
+
+    /**
+     * Map the next chunk of the file, starting at {@code start}
+     * and ending after a line terminator or at the end of the file.
+     * A carriage return ends a chunk only when the following byte
+     * is mapped, so a carriage return and line feed pair is never split.
+     * The chunk is extended if a line is longer than the chunk size.
+     */
+    private ByteBuffer mapChunk(FileChannel channel, long start, long size) throws IOException {
+        for (long length = chunkSize;; length = Math.min(length * 2, Integer.MAX_VALUE)) {
+            final long end = Math.min(size, start + length);
+            final ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            if (end == size)
+                return chunk;
+            for (int i = chunk.limit() - 1; i >= 0; i--) {
+                final byte b = chunk.get(i);
+                if (b == '\n' || (b == '\r' && i != chunk.limit() - 1)) {
+                    chunk.limit(i + 1);
+                    return chunk;
+                }
+            }
+            if (length == Integer.MAX_VALUE)
+                throw new IOException("Line exceeds " + length + " bytes");
+        }
+    }
+
+    /**
+     * Split a chunk into lines, terminated by a line feed,
+     * a carriage return or a carriage return followed by
+     * a line feed, as {@link BufferedReader#readLine()}.
+     */
+    private List<Object> splitLines(ByteBuffer chunk) {
+        final List<Object> lines = new ArrayList<>();
+        if (blobs) {
+            int s = chunk.position();
+            for (int i = s; i < chunk.limit(); i++) {
+                final byte b = chunk.get(i);
+                if (b == '\n' || b == '\r') {
+                    lines.add(line(chunk, s, i));
+                    if (b == '\r' && i + 1 < chunk.limit() && chunk.get(i + 1) == '\n')
+                        i++;
+                    s = i + 1;
+                }
+            }
+            if (s < chunk.limit())
+                lines.add(line(chunk, s, chunk.limit()));
+            return lines;
+        }
+
+        final CharBuffer chars;
+        try {
+            chars = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(chunk);
+        } catch (IOException e) {
+            // Not thrown when errors are replaced.
+            throw new IllegalStateException(e);
+        }
+        int s = 0;
+        for (int i = 0; i < chars.limit(); i++) {
+            final char c = chars.get(i);
+            if (c == '\n' || c == '\r') {
+                lines.add(line(chars, s, i));
+                if (c == '\r' && i + 1 < chars.limit() && chars.get(i + 1) == '\n')
+                    i++;
+                s = i + 1;
+            }
+        }
+        if (s < chars.limit())
+            lines.add(line(chars, s, chars.limit()));
+        return lines;
+    }
+
+    private static RString line(CharBuffer chars, int start, int end) {
+        if (chars.hasArray())
+            return new RString(new String(chars.array(), chars.arrayOffset() + start, end - start));
+        return new RString(chars.subSequence(start, end).toString());
+    }
+
+    private static ByteBufferBlob line(ByteBuffer chunk, int start, int end) {
+        final ByteBuffer bb = chunk.duplicate();
+        bb.limit(end);
+        bb.position(start);
+        return new ByteBufferBlob(bb);
+    }
 }
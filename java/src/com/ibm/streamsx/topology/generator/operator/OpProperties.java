@@ -50,6 +50,13 @@ public interface OpProperties {
      * for a partitioned parallel region.
      */
     String HASH_ADDER = "hashAdder";
+
+    /**
+     * Boolean attribute indicating a Java functional operator's
+     * logic is immutable or annotated {@code ThreadSafe}.
+     * Only such operators are fused by the SPL generator.
+     */
+    String THREAD_SAFE_LOGIC = "threadSafeLogic";
       
     /**
      * JSON attribute for operator configuration.
@@ -6,16 +6,37 @@ package com.ibm.streamsx.topology.generator.spl;
 
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.findOperatorsByKinds;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getDownstream;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getUpstream;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.inputs;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.isHashAdder;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONSISTENT;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.THREAD_SAFE_LOGIC;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.object;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.ibm.streamsx.topology.builder.JParamTypes;
+import com.ibm.streamsx.topology.context.ContextProperties;
+import com.ibm.streamsx.topology.internal.core.JavaFunctionalOps;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
+import com.ibm.streamsx.topology.internal.functional.SPLTypes;
 
 /**
  * Optimize takes the preprocessed graph and adds any optimization.
@@ -29,9 +50,441 @@ class Optimizer {
     }
 
     void optimize() {
+        javaQueues();
+        javaHashAtProducer();
+        javaFusion();
+        javaPassByRef();
         pyPassByRef();
     }
 
+    /**
+     * Add input queues to Java functional operators.
+     * 
+     * Sets the queue parameters of each Java functional operator
+     * whose input port accepts a functional queue, when
+     * the queue size is set in the graph's configuration.
+     * A queued operator is not fused with its producer
+     * as its queue is a thread boundary.
+     */
+    private final void javaQueues() {
+        JsonObject config = object(graph, "config");
+        if (config == null || !config.has(ContextProperties.FUNCTIONAL_QUEUE_SIZE))
+            return;
+        final int size = config.get(ContextProperties.FUNCTIONAL_QUEUE_SIZE).getAsInt();
+        if (size <= 0)
+            return;
+        final String wait = jstring(config, ContextProperties.FUNCTIONAL_QUEUE_WAIT);
+        final JsonElement threads = config.get(ContextProperties.FUNCTIONAL_QUEUE_THREADS);
+
+        operators(graph, op -> {
+            JsonArray inputs = array(op, "inputs");
+            if (inputs == null || inputs.size() != 1)
+                return;
+            JsonObject queue = object(inputs.get(0).getAsJsonObject(), "queue");
+            if (queue == null || !jboolean(queue, "functional"))
+                return;
+
+            GraphUtilities.addOpParameter(op, FunctionalOpProperties.QUEUE_SIZE_PARAM,
+                    JParamTypes.create(SPLTypes.INT32, size));
+            if (wait != null)
+                GraphUtilities.addOpParameter(op, FunctionalOpProperties.QUEUE_WAIT_PARAM,
+                        JParamTypes.create(SPLTypes.RSTRING, wait));
+            if (threads != null)
+                GraphUtilities.addOpParameter(op, FunctionalOpProperties.QUEUE_THREADS_PARAM,
+                        JParamTypes.create(SPLTypes.INT32, threads.getAsInt()));
+        });
+    }
+
+    private static final Set<String> JAVA_HASH_PRODUCERS = new HashSet<>();
+
+    static {
+        JAVA_HASH_PRODUCERS.add(JavaFunctionalOps.MAP_KIND);
+        JAVA_HASH_PRODUCERS.add(JavaFunctionalOps.FLAT_MAP_KIND);
+        JAVA_HASH_PRODUCERS.add(JavaFunctionalOps.SOURCE_KIND);
+    }
+
+    /**
+     * Fold hash adders for partitioned parallel regions into
+     * the Java functional operator producing their input.
+     * 
+     * A HashAdder converts each tuple back to its Java object
+     * to calculate the hash, which requires deserialization when
+     * its input is from another PE. When its only input is a
+     * Java Map, FlatMap or Source with no other connections the
+     * producer adds the hash as it submits each object,
+     * using the outputHasher parameter, and the HashAdder is removed.
+     */
+    private final void javaHashAtProducer() {
+        List<JsonObject> hashAdders = new ArrayList<>();
+        operators(graph, op -> {
+            if (isHashAdder(op) && JavaFunctionalOps.HASH_ADDER_KIND.equals(kind(op)))
+                hashAdders.add(op);
+        });
+
+        for (JsonObject hashAdder : hashAdders) {
+            Set<JsonObject> parents = getUpstream(hashAdder, graph);
+            if (parents.size() != 1)
+                continue;
+            JsonObject producer = parents.iterator().next();
+            if (!JAVA_HASH_PRODUCERS.contains(kind(producer)))
+                continue;
+
+            JsonArray producerOutputs = array(producer, "outputs");
+            JsonArray inputs = array(hashAdder, "inputs");
+            JsonArray outputs = array(hashAdder, "outputs");
+            if (producerOutputs == null || producerOutputs.size() != 1
+                    || inputs == null || inputs.size() != 1
+                    || outputs == null || outputs.size() != 1)
+                continue;
+
+            JsonObject producerOutput = producerOutputs.get(0).getAsJsonObject();
+            JsonArray producerConns = array(producerOutput, "connections");
+            if (producerConns == null || producerConns.size() != 1)
+                continue;
+
+            // The producer must serialize objects as the HashAdder expects.
+            JsonObject producerParams = object(producer, "parameters");
+            JsonObject params = object(hashAdder, "parameters");
+            JsonElement serializer = producerParams == null ? null : producerParams.get("outputSerializer");
+            if (!Objects.equals(serializer, params.get("inputSerializer")))
+                continue;
+
+            foldHashAdder(producer, producerOutput, hashAdder, outputs.get(0).getAsJsonObject());
+        }
+    }
+
+    private void foldHashAdder(JsonObject producer, JsonObject producerOutput,
+            JsonObject hashAdder, JsonObject hashOutput) {
+        JsonObject params = object(hashAdder, "parameters");
+
+        GraphUtilities.addOpParameter(producer, FunctionalOpProperties.OUTPUT_HASHER_PARAM,
+                params.get(FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM).getAsJsonObject());
+
+        // The hash function's dependencies.
+        mergeJars(producer, object(params, "jar"));
+
+        // Producer's output takes the place of the HashAdder's output,
+        // keeping its name and index. Any other property of the
+        // HashAdder's output, such as its schema and connections,
+        // replaces the producer's.
+        final String producerName = jstring(producerOutput, "name");
+        final String hashName = jstring(hashOutput, "name");
+        for (Entry<String, JsonElement> property : hashOutput.entrySet()) {
+            if (!"name".equals(property.getKey()) && !"index".equals(property.getKey()))
+                producerOutput.add(property.getKey(), property.getValue());
+        }
+        for (JsonObject child : getDownstream(hashAdder, graph)) {
+            inputs(child, input -> {
+                JsonArray conns = array(input, "connections");
+                for (int i = 0; i < conns.size(); i++) {
+                    if (hashName.equals(conns.get(i).getAsString()))
+                        conns.set(i, new JsonPrimitive(producerName));
+                }
+            });
+        }
+
+        array(graph, "operators").remove(hashAdder);
+    }
+
+    private static final Set<String> JAVA_FUSE_PRODUCERS = new HashSet<>();
+    private static final Set<String> JAVA_FUSE_CONSUMERS = new HashSet<>();
+    private static final Set<String> JAVA_FUSE_PARAMS = new HashSet<>();
+
+    static {
+        Collections.addAll(JAVA_FUSE_PRODUCERS, JavaFunctionalOps.FILTER_KIND,
+                JavaFunctionalOps.MAP_KIND, JavaFunctionalOps.FLAT_MAP_KIND,
+                JavaFunctionalOps.PIPELINE_KIND);
+        JAVA_FUSE_CONSUMERS.addAll(JAVA_FUSE_PRODUCERS);
+        JAVA_FUSE_CONSUMERS.add(JavaFunctionalOps.FOR_EACH_KIND);
+
+        // Parameters of a consumer that are handled by fusion.
+        Collections.addAll(JAVA_FUSE_PARAMS, FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM,
+                "jar", "inputSerializer", "outputSerializer", "tupleSerializer",
+                FunctionalOpProperties.OUTPUT_HASHER_PARAM,
+                FunctionalOpProperties.PIPELINE_STAGES_PARAM,
+                FunctionalOpProperties.PIPELINE_LOGIC_PARAM,
+                FunctionalOpProperties.PIPELINE_METRICS_PARAM);
+    }
+
+    /**
+     * Fuse chains of Java Filter, Map, FlatMap and ForEach
+     * operators into a single Pipeline operator.
+     * 
+     * A consumer is fused into its producer when it is the
+     * producer's only connection, the producer is its only input
+     * and both have the same configuration, and thus placement.
+     * A consumer with an input queue is not fused as its queue
+     * is a thread boundary.
+     * 
+     * Only operators whose logic is immutable or annotated
+     * {@code ThreadSafe} are fused, a stateful function
+     * keeps its own operator.
+     * 
+     * Not performed with checkpointing or consistent regions,
+     * as the fused operator does not combine the state of its
+     * functions.
+     */
+    private final void javaFusion() {
+        JsonObject config = object(graph, "config");
+        if (config != null) {
+            if (config.has(ContextProperties.JAVA_FUSION) && !jboolean(config, ContextProperties.JAVA_FUSION))
+                return;
+            if (config.has("checkpoint"))
+                return;
+        }
+        
+        List<JsonObject> consumers = new ArrayList<>();
+        boolean[] consistent = new boolean[1];
+        operators(graph, op -> {
+            if (op.has(CONSISTENT))
+                consistent[0] = true;
+            if (JAVA_FUSE_CONSUMERS.contains(kind(op)))
+                consumers.add(op);
+        });
+        if (consistent[0])
+            return;
+        
+        final boolean metrics = config != null && jboolean(config, ContextProperties.JAVA_FUSION_METRICS);
+
+        // Each fusion removes a consumer, the producer
+        // may then be fused with its own producer.
+        for (boolean fused = true; fused;) {
+            fused = false;
+            for (JsonObject consumer : consumers) {
+                JsonObject producer = javaFusionProducer(consumer);
+                if (producer != null) {
+                    fuseJava(producer, consumer, metrics);
+                    consumers.remove(consumer);
+                    fused = true;
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get the producer a consumer can be fused into.
+     * @return Producer or null if the consumer cannot be fused.
+     */
+    private JsonObject javaFusionProducer(JsonObject consumer) {
+        JsonArray inputs = array(consumer, "inputs");
+        if (inputs == null || inputs.size() != 1)
+            return null;
+        JsonObject input = inputs.get(0).getAsJsonObject();
+        JsonArray inputConns = array(input, "connections");
+        if (inputConns == null || inputConns.size() != 1 || input.has("window"))
+            return null;
+        JsonArray outputs = array(consumer, "outputs");
+        if (outputs != null && outputs.size() > 1)
+            return null;
+        
+        if (!jboolean(consumer, THREAD_SAFE_LOGIC))
+            return null;
+
+        JsonObject params = object(consumer, "parameters");
+        if (params == null)
+            return null;
+        for (Entry<String,JsonElement> param : params.entrySet()) {
+            if (!JAVA_FUSE_PARAMS.contains(param.getKey()))
+                return null;
+        }
+        
+        Set<JsonObject> parents = getUpstream(consumer, graph);
+        if (parents.size() != 1)
+            return null;
+        JsonObject producer = parents.iterator().next();
+        if (!JAVA_FUSE_PRODUCERS.contains(kind(producer)))
+            return null;
+        if (!jboolean(producer, THREAD_SAFE_LOGIC))
+            return null;
+        
+        JsonArray producerOutputs = array(producer, "outputs");
+        if (producerOutputs == null || producerOutputs.size() != 1)
+            return null;
+        JsonArray producerConns = array(producerOutputs.get(0).getAsJsonObject(), "connections");
+        if (producerConns == null || producerConns.size() != 1)
+            return null;
+        
+        JsonObject producerParams = object(producer, "parameters");
+        if (producerParams == null || producerParams.has(FunctionalOpProperties.OUTPUT_HASHER_PARAM))
+            return null;
+        
+        if (!Objects.equals(jstring(producer, MODEL), jstring(consumer, MODEL)))
+            return null;
+        if (!Objects.equals(object(producer, "config"), object(consumer, "config")))
+            return null;
+
+        return producer;
+    }
+    
+    /**
+     * Fuse the consumer into the producer, the producer
+     * becomes a Pipeline with the consumer's outputs.
+     */
+    private void fuseJava(JsonObject producer, JsonObject consumer, boolean metrics) {
+        final JsonObject params = object(producer, "parameters");
+        final JsonObject consumerParams = object(consumer, "parameters");
+        
+        JsonArray stages = pipelineStages(producer);
+        stages.addAll(pipelineStages(consumer));
+        JsonArray logic = pipelineLogic(producer);
+        logic.addAll(pipelineLogic(consumer));
+        logic.remove(0);
+        
+        // Serializer for the output objects, a Filter's
+        // output is the same as its input.
+        JsonElement outputSerializer = consumerParams.get("outputSerializer");
+        if (JavaFunctionalOps.FILTER_KIND.equals(kind(consumer)))
+            outputSerializer = consumerParams.get("inputSerializer");
+        params.remove("outputSerializer");
+        if (outputSerializer != null)
+            params.add("outputSerializer", outputSerializer);
+        if (consumerParams.has(FunctionalOpProperties.OUTPUT_HASHER_PARAM))
+            params.add(FunctionalOpProperties.OUTPUT_HASHER_PARAM,
+                    consumerParams.get(FunctionalOpProperties.OUTPUT_HASHER_PARAM));
+        
+        producer.addProperty("kind", JavaFunctionalOps.PIPELINE_KIND);
+        params.add(FunctionalOpProperties.PIPELINE_STAGES_PARAM, stringsParam(stages));
+        params.remove(FunctionalOpProperties.PIPELINE_LOGIC_PARAM);
+        if (logic.size() != 0)
+            params.add(FunctionalOpProperties.PIPELINE_LOGIC_PARAM, stringsParam(logic));
+        if (metrics) {
+            JsonObject value = new JsonObject();
+            value.addProperty("type", SPLTypes.BOOLEAN);
+            value.addProperty("value", true);
+            params.add(FunctionalOpProperties.PIPELINE_METRICS_PARAM, value);
+        }
+        
+        mergeJars(producer, object(consumerParams, "jar"));
+        
+        JsonArray sourceLocations = array(consumer, "sourcelocation");
+        if (sourceLocations != null) {
+            JsonArray producerLocations = array(producer, "sourcelocation");
+            if (producerLocations == null)
+                producer.add("sourcelocation", producerLocations = new JsonArray());
+            producerLocations.addAll(sourceLocations);
+        }
+        
+        // Consumer's outputs replace the producer's,
+        // downstream inputs are connected by the unchanged output names.
+        JsonArray outputs = array(consumer, "outputs");
+        if (outputs == null)
+            producer.remove("outputs");
+        else
+            producer.add("outputs", outputs);
+        
+        array(graph, "operators").remove(consumer);
+    }
+    
+    private static JsonArray pipelineStages(JsonObject op) {
+        JsonArray stages = new JsonArray();
+        if (JavaFunctionalOps.PIPELINE_KIND.equals(kind(op))) {
+            stages.addAll(array(object(op, "parameters", FunctionalOpProperties.PIPELINE_STAGES_PARAM), "value"));
+        } else {
+            final String kind = kind(op);
+            stages.add(new JsonPrimitive(kind.substring(kind.indexOf("::") + 2)));
+        }
+        return stages;
+    }
+    
+    private static JsonArray pipelineLogic(JsonObject op) {
+        JsonObject params = object(op, "parameters");
+        JsonArray logic = new JsonArray();
+        logic.add(object(params, FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM).get("value"));
+        JsonObject stageLogic = object(params, FunctionalOpProperties.PIPELINE_LOGIC_PARAM);
+        if (stageLogic != null)
+            logic.addAll(array(stageLogic, "value"));
+        return logic;
+    }
+    
+    private static JsonObject stringsParam(JsonArray values) {
+        JsonObject param = new JsonObject();
+        param.add("value", values);
+        return param;
+    }
+    
+    /**
+     * Add jars to an operator's jar parameter.
+     */
+    private static void mergeJars(JsonObject op, JsonObject addJar) {
+        if (addJar == null)
+            return;
+        JsonObject opJar = object(op, "parameters", "jar");
+        if (opJar == null) {
+            GraphUtilities.addOpParameter(op, "jar", addJar);
+        } else {
+            JsonArray jars = array(opJar, "value");
+            for (JsonElement jar : array(addJar, "value")) {
+                if (!jars.contains(jar))
+                    jars.add(jar);
+            }
+        }
+    }
+
+    private static final Set<String> JAVA_REF_PRODUCERS = new HashSet<>();
+    private static final Set<String> JAVA_REF_CONSUMERS = new HashSet<>();
+
+    static {
+        Collections.addAll(JAVA_REF_PRODUCERS, JavaFunctionalOps.SOURCE_KIND,
+                JavaFunctionalOps.PERIODIC_MULTI_SOURCE_KIND,
+                JavaFunctionalOps.FILTER_KIND, JavaFunctionalOps.MAP_KIND,
+                JavaFunctionalOps.FLAT_MAP_KIND, JavaFunctionalOps.PIPELINE_KIND,
+                JavaFunctionalOps.AGGREGATE_KIND, JavaFunctionalOps.JOIN_KIND);
+
+        // Consumers that convert each tuple to its object once,
+        // windowed operators convert a tuple on each trigger.
+        Collections.addAll(JAVA_REF_CONSUMERS, JavaFunctionalOps.FILTER_KIND,
+                JavaFunctionalOps.MAP_KIND, JavaFunctionalOps.FLAT_MAP_KIND,
+                JavaFunctionalOps.PIPELINE_KIND, JavaFunctionalOps.FOR_EACH_KIND);
+    }
+
+    /**
+     * Setup Java functional operators to pass objects by reference
+     * with copy on fan-out.
+     * 
+     * Sets the outputConnections parameter of Java functional operators
+     * whose single Java object output is only connected to Java
+     * functional operators. With multiple connections only one consumer
+     * is passed the object's reference, the others are passed a copy.
+     * 
+     * Without the parameter the reference is passed to all consumers
+     * in the same PE.
+     * 
+     * Does not modify the structure of the graph.
+     */
+    private final void javaPassByRef() {
+        final String hashSchema = ObjectSchemas.schemaWithHash(ObjectSchemas.JAVA_OBJECT_SCHEMA);
+
+        for (JsonObject op : findOperatorsByKinds(graph, JAVA_REF_PRODUCERS)) {
+            JsonArray outputs = array(op, "outputs");
+            if (outputs == null || outputs.size() != 1)
+                continue;
+            JsonObject output = outputs.get(0).getAsJsonObject();
+
+            String type = jstring(output, "type");
+            if (!ObjectSchemas.JAVA_OBJECT_SCHEMA.equals(type) && !hashSchema.equals(type))
+                continue;
+
+            JsonArray conns = array(output, "connections");
+            if (conns == null || conns.size() == 0)
+                continue;
+
+            boolean canPassByRef = true;
+            for (JsonObject connectedOp : getDownstream(op, graph)) {
+                if (!JAVA_REF_CONSUMERS.contains(kind(connectedOp))) {
+                    canPassByRef = false;
+                    break;
+                }
+            }
+            if (!canPassByRef)
+                continue;
+
+            JsonObject value = new JsonObject();
+            value.addProperty("value", conns.size());
+            GraphUtilities.addOpParameter(op, FunctionalOpProperties.OUTPUT_CONNECTIONS_PARAM, value);
+        }
+    }
+
     private static final String PY_OP_NS = "com.ibm.streamsx.topology.functional.python";
     private static final Set<String> PY_FUNC_OPS = new HashSet<>();
 
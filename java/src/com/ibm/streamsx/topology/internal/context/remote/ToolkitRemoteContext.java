@@ -4,7 +4,13 @@
  */
 package com.ibm.streamsx.topology.internal.context.remote;
 
+import static com.ibm.streamsx.topology.context.ContextProperties.FUNCTIONAL_QUEUE_SIZE;
+import static com.ibm.streamsx.topology.context.ContextProperties.FUNCTIONAL_QUEUE_THREADS;
+import static com.ibm.streamsx.topology.context.ContextProperties.FUNCTIONAL_QUEUE_WAIT;
+import static com.ibm.streamsx.topology.context.ContextProperties.JAVA_FUSION;
+import static com.ibm.streamsx.topology.context.ContextProperties.JAVA_FUSION_METRICS;
 import static com.ibm.streamsx.topology.context.ContextProperties.KEEP_ARTIFACTS;
+import static com.ibm.streamsx.topology.context.ContextProperties.VIRTUAL_THREADS;
 import static com.ibm.streamsx.topology.context.ContextProperties.VMARGS;
 import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.DEPLOYMENT_CONFIG;
 import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.JOB_CONFIG_OVERLAYS;
@@ -54,10 +60,12 @@ import javax.xml.bind.Marshaller;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.remote.RemoteContext;
 import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
 import com.ibm.streamsx.topology.internal.file.FileUtilities;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
 import com.ibm.streamsx.topology.internal.graph.GraphKeys;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
 import com.ibm.streamsx.topology.internal.process.CompletedFuture;
@@ -495,10 +503,11 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
     static {
         
         // ContextProperties
-        Collections.addAll(GRAPH_CONFIG_KEYS, VMARGS);
+        Collections.addAll(GRAPH_CONFIG_KEYS, VMARGS, JAVA_FUSION, JAVA_FUSION_METRICS,
+                FUNCTIONAL_QUEUE_SIZE, FUNCTIONAL_QUEUE_WAIT, FUNCTIONAL_QUEUE_THREADS);
     }
     
-    private void addSelectDeployToGraphConfig(JsonObject submission) {
+    static void addSelectDeployToGraphConfig(JsonObject submission) {
         
         JsonObject deploy = DeployKeys.deploy(submission);
         JsonObject graph = object(submission, SUBMISSION_GRAPH);
@@ -510,6 +519,21 @@ public class ToolkitRemoteContext extends RemoteContextImpl<File> {
             if (deploy.has(key))
                 graphConfig.add(key, deploy.get(key));
         }
+        
+        // Virtual threads are enabled by a system property in the operator's JVM.
+        // The arguments are copied as they may be a single string or
+        // the array from the deploy object, which must not be modified.
+        if (jboolean(deploy, VIRTUAL_THREADS)) {
+            final JsonPrimitive virtualThreads = new JsonPrimitive(
+                    "-D" + FunctionalOpProperties.VIRTUAL_THREADS_PROPERTY + "=true");
+            final JsonArray vmArgs = new JsonArray();
+            final JsonArray existing = array(graphConfig, VMARGS);
+            if (existing != null)
+                vmArgs.addAll(existing);
+            if (!vmArgs.contains(virtualThreads))
+                vmArgs.add(virtualThreads);
+            graphConfig.add(VMARGS, vmArgs);
+        }
     }
 
 
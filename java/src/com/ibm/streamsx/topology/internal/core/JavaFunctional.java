@@ -6,6 +6,7 @@ package com.ibm.streamsx.topology.internal.core;
 
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.LANGUAGE_JAVA;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_FUNCTIONAL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.THREAD_SAFE_LOGIC;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
@@ -69,6 +70,8 @@ public class JavaFunctional {
         params.put(FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM, logicString);
         BOperatorInvocation bop = te.builder().addOperator(name, kind, params);
         bop.setModel(MODEL_FUNCTIONAL, LANGUAGE_JAVA);
+        if (ObjectUtils.isThreadSafe(logic.getClass()))
+            bop._json().addProperty(THREAD_SAFE_LOGIC, true);
 
         addDependency(te, bop, logic);
 
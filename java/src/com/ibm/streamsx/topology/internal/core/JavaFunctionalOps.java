@@ -48,6 +48,8 @@ public interface JavaFunctionalOps {
     
     String PASS_KIND = NS_COLON + "PassThrough"; // Technically not a functional op.
     
+    String PIPELINE_KIND = NS_COLON + "Pipeline";
+    
     String PERIODIC_MULTI_SOURCE_KIND = NS_COLON + "FunctionPeriodicSource";
     
     String SPLIT_KIND = NS_COLON + "Split";
@@ -61,6 +63,11 @@ public interface JavaFunctionalOps {
     
     String PASS_CLASS = PKG + "PassThrough";
     
+    // Threaded embedded execution only, replace virtual markers.
+    String QUEUED_PASS_CLASS = PKG_O + "QueuedPassThrough";
+    
+    String CHANNEL_SPLITTER_CLASS = PKG_O + "ChannelSplitter";
+    
     static JsonObject kind2Class() {
         final JsonObject kinds = new JsonObject();
         
@@ -80,6 +87,8 @@ public interface JavaFunctionalOps {
         
         kinds.addProperty(PERIODIC_MULTI_SOURCE_KIND, PKG_O + "FunctionPeriodicSource");
         
+        kinds.addProperty(PIPELINE_KIND, PKG_O + "FunctionPipeline");
+        
         kinds.addProperty(SPLIT_KIND, PKG_O + "FunctionSplit");
 
         
@@ -10,11 +10,15 @@ import static com.ibm.streamsx.topology.generator.operator.OpProperties.HASH_ADD
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.LANGUAGE_JAVA;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_FUNCTIONAL;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_SPL;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.CONVERT_SPL_KIND;
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.FILTER_KIND;
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.FLAT_MAP_KIND;
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.FOR_EACH_KIND;
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.HASH_ADDER_KIND;
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.HASH_REMOVER_KIND;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.MAP_KIND;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.PASS_KIND;
+import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.SPLIT_KIND;
 import static com.ibm.streamsx.topology.internal.logic.ObjectUtils.serializeLogic;
 import static com.ibm.streamsx.topology.logic.Logic.identity;
 import static com.ibm.streamsx.topology.logic.Logic.notKeyed;
@@ -23,6 +27,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -77,12 +82,16 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
     
     /**
      * Tuple serializer for tuples on this stream.
-     * Only supported through the SPI interface
-     * and not for functional operators invoked
-     * directly through topology. Virtual operators
-     * such as union, parallel etc. are supported.
+     * Set through the SPI interface or {@link #asType(Class, TupleSerializer)}.
+     * Virtual operators such as union, parallel etc. are supported.
      */
     private final Optional<TupleSerializer> serializer;
+    
+    /**
+     * This stream converted to Java serialization for
+     * consumers that do not support the serializer.
+     */
+    private StreamImpl<T> javaSerialized;
 
     @Override
     public BOutput output() {
@@ -116,13 +125,15 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
                 opName,
                 FILTER_KIND, filter).layoutKind("Filter");
         SourceInfo.setSourceInfo(bop, StreamImpl.class);
-        connectTo(bop, true, null);
+        BInputPort inputPort = connectTo(bop, true, null);
+        // By default add a queue
+        inputPort.addQueue(true);
         
        return addMatchingOutput(bop, refineType(Predicate.class, 0, filter));
     }
     
     protected TStream<T> addMatchingOutput(BOperatorInvocation bop, Type tupleType) {
-        return JavaFunctional.addJavaOutput(this, bop, tupleType, true);
+        return JavaFunctional.addJavaOutput(this, bop, tupleType, serializer, true);
     }
     protected TStream<T> addMatchingStream(BOutput output) {
         return new StreamImpl<T>(this, output, getTupleType(), serializer);
@@ -194,6 +205,8 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
                 opName,
                 JavaFunctionalOps.MAP_KIND, transformer).layoutKind("Modify");
         SourceInfo.setSourceInfo(bop, StreamImpl.class);
+        if (serializer.isPresent())
+            bop.setParameter("outputSerializer", serializeLogic(serializer.get()));
         BInputPort inputPort = connectTo(bop, true, null);
         // By default add a queue
         inputPort.addQueue(true);
@@ -257,6 +270,20 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         List<TStream<T>> sourceStreams = new ArrayList<>();
         sourceStreams.addAll(allStreams);
         
+        // All streams in a union must have the same serializer,
+        // otherwise use Java serialization for all of them.
+        Optional<TupleSerializer> unionSerializer = serializer;
+        for (TStream<T> s : sourceStreams) {
+            if (!sameSerializer(serializer, serializerOf(s))) {
+                unionSerializer = Optional.empty();
+                for (int i = 0; i < sourceStreams.size(); i++) {
+                    if (sourceStreams.get(i) instanceof StreamImpl)
+                        sourceStreams.set(i, ((StreamImpl<T>) sourceStreams.get(i)).javaSerialized());
+                }
+                break;
+            }
+        }
+        
         String schema = output()._type();
         Type tupleType = getTupleType();
 
@@ -301,7 +328,26 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         
         BOutput unionOutput = builder().addUnion(outputs);
 
-        return new StreamImpl<T>(this, unionOutput, tupleType, serializer);
+        return new StreamImpl<T>(this, unionOutput, tupleType, unionSerializer);
+    }
+    
+    private static Optional<TupleSerializer> serializerOf(TStream<?> stream) {
+        if (stream instanceof StreamImpl)
+            return ((StreamImpl<?>) stream).serializer;
+        return Optional.empty();
+    }
+    
+    /**
+     * Serializers are the same if they are equal or their
+     * serialized forms are equal, as separate instances of
+     * a serializer without state are interchangeable.
+     */
+    private static boolean sameSerializer(Optional<TupleSerializer> s1, Optional<TupleSerializer> s2) {
+        if (s1.equals(s2))
+            return true;
+        if (!s1.isPresent() || !s2.isPresent())
+            return false;
+        return serializeLogic(s1.get()).equals(serializeLogic(s2.get()));
     }
 
     @Override
@@ -388,6 +434,20 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         
     }
     
+    @Override
+    public <J, U, K, I> TStream<J> join(
+            Function<T,K> keyer,
+            TWindow<U,K> window,
+            Function<? super T, ? extends I> indexer,
+            Function<? super U, ? extends I> windowIndexer,
+            BiFunction<T, List<U>, J> joiner) {
+        
+        Type tupleType = TypeDiscoverer.determineStreamTypeFromFunctionArg(BiFunction.class, 2, joiner);
+        
+        return ((WindowDefinition<U,K>) window).joinInternal(this, keyer,
+                requireNonNull(indexer), requireNonNull(windowIndexer), joiner, tupleType);
+    }
+    
 
     @Override
     public final void publish(String topic) {
@@ -628,6 +688,17 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
     public BInputPort connectTo(BOperatorInvocation receivingBop, boolean functional,
             BInputPort input) {
 
+        // A consumer that does not support this stream's serializer,
+        // or was not explicitly given one, sees Java serialized tuples.
+        if (serializer.isPresent() && !passesThrough(receivingBop)
+                && receivingBop.getRawParameter("inputSerializer") == null) {
+            if (!functional || !acceptsSerializer(receivingBop, INPUT_SERIALIZER_KINDS))
+                return javaSerialized().connectTo(receivingBop, functional, input);
+
+            receivingBop.setParameter("inputSerializer", serializeLogic(serializer.get()));
+            JavaFunctional.addDependency(this, receivingBop, serializer.get().getClass());
+        }
+
         // We go through the JavaFunctional code to ensure
         // that we correctly add the dependent jars into the
         // class path of the operator.
@@ -637,6 +708,42 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         
         return receivingBop.inputFrom(output, input);
     }
+    
+    /**
+     * Functional operator kinds that support the inputSerializer parameter.
+     */
+    private static final Set<String> INPUT_SERIALIZER_KINDS = new HashSet<>(Arrays.asList(
+            FILTER_KIND, FLAT_MAP_KIND, FOR_EACH_KIND, MAP_KIND, SPLIT_KIND, CONVERT_SPL_KIND));
+    
+    private static boolean acceptsSerializer(BOperatorInvocation bop, Set<String> kinds) {
+        return JavaFunctionalOps.isFunctional(bop) && kinds.contains(bop.kind());
+    }
+    
+    /**
+     * Operators that submit their input tuples unmodified.
+     */
+    private static boolean passesThrough(BOperatorInvocation bop) {
+        return HASH_REMOVER_KIND.equals(bop.kind()) || PASS_KIND.equals(bop.kind());
+    }
+    
+    /**
+     * Get this stream with tuples using Java serialization,
+     * converting through an identity map if this stream
+     * has a serializer.
+     */
+    private StreamImpl<T> javaSerialized() {
+        if (!serializer.isPresent())
+            return this;
+        if (javaSerialized == null) {
+            BOperatorInvocation bop = JavaFunctional.addFunctionalOperator(this,
+                    "JavaSerialize",
+                    MAP_KIND, identity());
+            SourceInfo.setSourceInfo(bop, StreamImpl.class);
+            connectTo(bop, true, null);
+            javaSerialized = (StreamImpl<T>) JavaFunctional.<T>addJavaOutput(this, bop, getTupleType(), true);
+        }
+        return javaSerialized;
+    }
 
     @Override
     public TStream<T> isolate() {
@@ -719,7 +826,7 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         
         Type outputType = refineType(ToIntFunction.class, 0, splitter);
         for (int i = 0; i < n; i++) {
-            TStream<T> splitOutput = JavaFunctional.addJavaOutput(this, bop, outputType, false);
+            TStream<T> splitOutput = JavaFunctional.addJavaOutput(this, bop, outputType, serializer, false);
             l.add(splitOutput);
         }
 
@@ -753,6 +860,33 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         throw new UnsupportedOperationException();
     }
     
+    /**
+     * Get a stream that is typed to tupleClass and
+     * uses tupleSerializer. An identity map serializing
+     * with tupleSerializer is always added, the serializer
+     * is not set on the operator producing this stream as
+     * this stream may be connected to other consumers
+     * that expect Java serialized tuples.
+     */
+    @Override
+    public TStream<T> asType(Class<T> tupleClass, TupleSerializer tupleSerializer) {
+        requireNonNull(tupleSerializer);
+        if (ObjectSchemas.usesDirectSchema(tupleClass))
+            return asType(tupleClass);
+        if (tupleClass.equals(getTupleClass()) && sameSerializer(Optional.of(tupleSerializer), serializer))
+            return this;
+        
+        final Optional<TupleSerializer> newSerializer = Optional.of(tupleSerializer);
+        
+        BOperatorInvocation bop = JavaFunctional.addFunctionalOperator(this,
+                "Serialize",
+                MAP_KIND, identity());
+        SourceInfo.setSourceInfo(bop, StreamImpl.class);
+        bop.setParameter("outputSerializer", serializeLogic(tupleSerializer));
+        connectTo(bop, true, null);
+        return JavaFunctional.addJavaOutput(this, bop, tupleClass, newSerializer, true);
+    }
+    
     private TStream<T> fixDirectSchema(Class<T> tupleClass) {
         if (MODEL_FUNCTIONAL.equals(output().operator().model())) {
             
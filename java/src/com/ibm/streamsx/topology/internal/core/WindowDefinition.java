@@ -5,7 +5,9 @@
 package com.ibm.streamsx.topology.internal.core;
 
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.JOIN_KIND;
+import static java.util.Objects.requireNonNull;
 
+import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.util.HashMap;
 import java.util.List;
@@ -17,7 +19,9 @@ import com.ibm.streamsx.topology.TWindow;
 import com.ibm.streamsx.topology.builder.BInputPort;
 import com.ibm.streamsx.topology.builder.BOperatorInvocation;
 import com.ibm.streamsx.topology.function.BiFunction;
+import com.ibm.streamsx.topology.function.BinaryOperator;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
 import com.ibm.streamsx.topology.internal.logic.LogicUtils;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
@@ -34,31 +38,36 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         
     private final Function<? super T,? extends K> keyGetter;
     
-    private WindowDefinition(TStream<T> stream, String policy, long config, TimeUnit timeUnit, Function<? super T,? extends K> keyGetter) {
+    // Tuples cached on heap for off-heap state, zero for on-heap state.
+    private final int heapTuples;
+    
+    private WindowDefinition(TStream<T> stream, String policy, long config, TimeUnit timeUnit, Function<? super T,? extends K> keyGetter, int heapTuples) {
         super(stream);
         this.stream = stream;
         this.policy = policy;
         this.config = config;
         this.keyGetter = keyGetter;
         this.timeUnit = timeUnit;
+        this.heapTuples = heapTuples;
         
         assert (timeUnit == null && !policy.equals(BInputPort.Window.TIME_POLICY)) ||
                (timeUnit != null && policy.equals(BInputPort.Window.TIME_POLICY));
     }
 
     public WindowDefinition(TStream<T> stream, int count) {
-        this(stream, BInputPort.Window.COUNT_POLICY, count, null, null);
+        this(stream, BInputPort.Window.COUNT_POLICY, count, null, null, 0);
     }
 
     public WindowDefinition(TStream<T> stream, long time, TimeUnit unit) {
-        this(stream, BInputPort.Window.TIME_POLICY, time, unit, null);
+        this(stream, BInputPort.Window.TIME_POLICY, time, unit, null, 0);
     }
 
     public WindowDefinition(TStream<T> stream, TWindow<?,?> configWindow) {
         this(stream, ((WindowDefinition<?,?>) configWindow).policy,
                 ((WindowDefinition<?,?>) configWindow).config,
                 ((WindowDefinition<?,?>) configWindow).timeUnit,
-                null);
+                null,
+                ((WindowDefinition<?,?>) configWindow).heapTuples);
     }
     
     private final void setPartitioned(final java.lang.reflect.Type type) {
@@ -102,7 +111,8 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         
         java.lang.reflect.Type aggregateType = TypeDiscoverer.determineStreamType(aggregator, null);
         
-        return aggregate(aggregator, aggregateType, BInputPort.Window.COUNT_POLICY, 1, null);
+        return aggregate(aggregator, aggregateType, listTupleType(aggregator),
+                BInputPort.Window.COUNT_POLICY, 1, null);
     }
     
     @Override
@@ -113,21 +123,73 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         
         java.lang.reflect.Type aggregateType = TypeDiscoverer.determineStreamType(aggregator, null);
         
-        return aggregate(aggregator, aggregateType, BInputPort.Window.TIME_POLICY, period, unit);
+        return aggregate(aggregator, aggregateType, listTupleType(aggregator),
+                BInputPort.Window.TIME_POLICY, period, unit);
+    }
+    
+    @Override
+    public <A> TStream<A> aggregate(Function<List<T>, A> aggregator,
+            BinaryOperator<A> combiner, long period, TimeUnit unit) {
+        if (period == 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_AGGREGATE_PERIOD_CANNOT_BE_ZERO"));
+        
+        java.lang.reflect.Type aggregateType = TypeDiscoverer.determineStreamType(aggregator, null);
+        
+        Map<String,Object> params = getOperatorParams();
+        params.put(FunctionalOpProperties.AGGREGATE_PANE_COMBINER_PARAM,
+                ObjectUtils.serializeLogic(requireNonNull(combiner)));
+        
+        return aggregate(aggregator, aggregateType, listTupleType(aggregator),
+                params, BInputPort.Window.TIME_POLICY, period, unit);
+    }
+    
+    @Override
+    public <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator) {
+        
+        return aggregate(aggregator, incrementalType(aggregator, 2), incrementalType(aggregator, 0),
+                BInputPort.Window.COUNT_POLICY, 1, null);
+    }
+    
+    @Override
+    public <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator,
+            long period, TimeUnit unit) {
+        if (period == 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_AGGREGATE_PERIOD_CANNOT_BE_ZERO"));
+        
+        return aggregate(aggregator, incrementalType(aggregator, 2), incrementalType(aggregator, 0),
+                BInputPort.Window.TIME_POLICY, period, unit);
+    }
+    
+    private static java.lang.reflect.Type listTupleType(Function<?, ?> aggregator) {
+        return TypeDiscoverer.determineStreamTypeNested(Function.class, 0, List.class, aggregator);
+    }
+    
+    private static java.lang.reflect.Type incrementalType(IncrementalAggregator<?, ?, ?> aggregator, int arg) {
+        java.lang.reflect.Type type = TypeDiscoverer.determineStreamTypeFromFunctionArg(
+                IncrementalAggregator.class, arg, aggregator);
+        return type == null ? Object.class : type;
+    }
+    
+    private <A> TStream<A> aggregate(Serializable aggregator,
+            java.lang.reflect.Type aggregateType, java.lang.reflect.Type tupleType,
+            String triggerPolicy, Object triggerConfig, TimeUnit triggerTimeUnit) {
+        return aggregate(aggregator, aggregateType, tupleType, getOperatorParams(),
+                triggerPolicy, triggerConfig, triggerTimeUnit);
     }
     
-    private <A> TStream<A> aggregate(Function<List<T>, A> aggregator,
-            java.lang.reflect.Type aggregateType, String triggerPolicy, Object triggerConfig, TimeUnit triggerTimeUnit) {
+    private <A> TStream<A> aggregate(Serializable aggregator,
+            java.lang.reflect.Type aggregateType, java.lang.reflect.Type tupleType,
+            Map<String,Object> params,
+            String triggerPolicy, Object triggerConfig, TimeUnit triggerTimeUnit) {
         
         if (getTupleClass() == null && !isKeyed()) {
-            java.lang.reflect.Type tupleType = TypeDiscoverer.determineStreamTypeNested(Function.class, 0, List.class, aggregator);
             setPartitioned(tupleType);
         }
         
         String opName = LogicUtils.functionName(aggregator);
 
         BOperatorInvocation aggOp = JavaFunctional.addFunctionalOperator(this,
-                opName, JavaFunctionalOps.AGGREGATE_KIND, aggregator, getOperatorParams()).layoutKind("Aggregate");
+                opName, JavaFunctionalOps.AGGREGATE_KIND, aggregator, params).layoutKind("Aggregate");
         SourceInfo.setSourceInfo(aggOp, WindowDefinition.class);
 
         addInput(aggOp, triggerPolicy, triggerConfig, triggerTimeUnit);
@@ -139,6 +201,8 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         Map<String,Object> params = new HashMap<>();
         if (isKeyed())
             params.put(FunctionalOpProperties.WINDOW_KEY_GETTER_PARAM, ObjectUtils.serializeLogic(keyGetter));
+        if (heapTuples != 0)
+            params.put(FunctionalOpProperties.WINDOW_SPILL_PARAM, heapTuples);
         return params;
     }
 
@@ -154,6 +218,14 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
     public <J, U> TStream<J> joinInternal(TStream<U> xstream,
             Function<? super U, ? extends K> xstreamKey,
             BiFunction<U, List<T>, J> joiner, java.lang.reflect.Type tupleType) {
+        return joinInternal(xstream, xstreamKey, null, null, joiner, tupleType);
+    }
+    
+    public <J, U, I> TStream<J> joinInternal(TStream<U> xstream,
+            Function<? super U, ? extends K> xstreamKey,
+            Function<? super U, ? extends I> xstreamIndexer,
+            Function<? super T, ? extends I> windowIndexer,
+            BiFunction<U, List<T>, J> joiner, java.lang.reflect.Type tupleType) {
         
         String opName = LogicUtils.functionName(joiner);
 
@@ -162,6 +234,10 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
             
             params.put(FunctionalOpProperties.JOIN_KEY_GETTER_PARAM, ObjectUtils.serializeLogic(xstreamKey));
         }
+        if (windowIndexer != null) {
+            params.put(FunctionalOpProperties.JOIN_WINDOW_INDEXER_PARAM, ObjectUtils.serializeLogic(windowIndexer));
+            params.put(FunctionalOpProperties.JOIN_INDEXER_PARAM, ObjectUtils.serializeLogic(xstreamIndexer));
+        }
 
         BOperatorInvocation joinOp = JavaFunctional.addFunctionalOperator(this,
                 opName, JOIN_KIND, joiner, params);
@@ -182,10 +258,17 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
     public <U> TWindow<T,U> key(Function<? super T, ? extends U> keyGetter) {
         if (keyGetter == null)
             throw new NullPointerException();
-        return new WindowDefinition<T,U>(stream, policy, config, timeUnit, keyGetter);
+        return new WindowDefinition<T,U>(stream, policy, config, timeUnit, keyGetter, heapTuples);
     }
     @Override
     public TWindow<T, T> key() {
          return key(new Identity<T>());
     }
+    
+    @Override
+    public TWindow<T, K> offHeap(int heapTuples) {
+        if (heapTuples <= 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_WINDOW_HEAP_TUPLES_INVALID", heapTuples));
+        return new WindowDefinition<T,K>(stream, policy, config, timeUnit, keyGetter, heapTuples);
+    }
 }
@@ -35,10 +35,17 @@ import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.CONFIG;
 import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.Config.JAVA_OPS;
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -58,11 +65,13 @@ import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Type;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.builder.BOperator;
+import com.ibm.streamsx.topology.builder.BVirtualMarker;
 import com.ibm.streamsx.topology.builder.GraphBuilder;
 import com.ibm.streamsx.topology.builder.JParamTypes;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.generator.operator.OpProperties;
+import com.ibm.streamsx.topology.generator.port.PortProperties;
 import com.ibm.streamsx.topology.internal.core.JavaFunctionalOps;
 import com.ibm.streamsx.topology.internal.functional.SubmissionParameterManager;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
@@ -73,7 +82,14 @@ import com.ibm.streamsx.topology.internal.messages.Messages;
  * and creates an OperatorGraph for embedded use.
  * 
  * TODO - work in progress - currently just collects the operator decls.
- *
+ * 
+ * When threaded each channel of a parallel region is
+ * a copy of the region's operators, fed by a ChannelSplitter
+ * in place of the {@code $Parallel$} marker. Isolated streams
+ * and the end of a parallel region are queued, so that each channel
+ * and isolated region executes on its own thread.
+ * Nested parallel regions execute as a single channel
+ * of their enclosing region.
  */
 public class EmbeddedGraph {
     
@@ -87,12 +103,34 @@ public class EmbeddedGraph {
     
     private final JavaOperatorTester jot = new JavaOperatorTester();
     
+    private final boolean threaded;
+    
+    // Threaded execution, operator name to number of channels
+    // for operators in a parallel region, its ChannelSplitter
+    // and the QueuedPassThrough merging its channels.
+    private final Map<String,Integer> channels = new HashMap<>();
+    private final Map<String,Integer> splitters = new HashMap<>();
+    private final Map<String,Integer> merges = new HashMap<>();
+    
     public static void verifySupported(GraphBuilder builder) {
         new EmbeddedGraph(builder).verifySupported();
     }
+    
+    /**
+     * Is threaded execution requested by the submission configuration.
+     */
+    public static boolean isThreaded(Map<String, Object> config) {
+        Object threaded = config.get(ContextProperties.EMBEDDED_THREADED);
+        return threaded != null && Boolean.parseBoolean(threaded.toString());
+    }
    
     public EmbeddedGraph(GraphBuilder builder)  {
+        this(builder, false);
+    }
+    
+    public EmbeddedGraph(GraphBuilder builder, boolean threaded)  {
         this.builder = builder;
+        this.threaded = threaded;
         kind2Class = objectCreate(builder._json(), CONFIG, JAVA_OPS);
         addAll(kind2Class, JavaFunctionalOps.kind2Class());
     }
@@ -124,6 +162,9 @@ public class EmbeddedGraph {
         
         graphDecl = OperatorGraphFactory.newGraph();
         
+        if (threaded)
+            declareChannels();
+        
         declareOps();
         
         declareConnections();
@@ -147,24 +188,183 @@ public class EmbeddedGraph {
     }
 
     private void declareOps() throws Exception {
-        for (BOperator op : builder.getOps())
-            declareOp(op);
+        for (BOperator op : builder.getOps()) {
+            Integer width = channels.get(name(op));
+            if (width == null)
+                declareOp(op, -1);
+            else {
+                for (int channel = 0; channel < width; channel++)
+                    declareOp(op, channel);
+            }
+        }
+    }
+    
+    private static String name(BOperator op) {
+        return jstring(op._json(), NAME);
+    }
+    
+    /**
+     * Port name for a channel of a parallel region.
+     */
+    private static String channelName(String name, int channel) {
+        return channel == -1 ? name : name + "_ch" + channel;
+    }
+    
+    /**
+     * Find the outermost parallel regions and
+     * the number of channels for each.
+     */
+    private void declareChannels() {
+        
+        final Map<String,JsonObject> ops = new HashMap<>();
+        final Map<String,String> inputOwners = new HashMap<>();
+        final List<JsonObject> parallels = new ArrayList<>();
+        
+        for (BOperator op : builder.getOps()) {
+            JsonObject json = op._complete();
+            ops.put(name(op), json);
+            JsonArray inputs = json.getAsJsonArray("inputs");
+            if (!jisEmpty(inputs)) {
+                for (JsonElement e : inputs)
+                    inputOwners.put(jstring(e.getAsJsonObject(), "name"), name(op));
+            }
+            if (BVirtualMarker.PARALLEL.isThis(op.kind()))
+                parallels.add(json);
+        }
+        if (parallels.isEmpty())
+            return;
+        
+        final Map<JsonObject,Set<String>> regions = new HashMap<>();
+        final Map<JsonObject,Set<String>> ends = new HashMap<>();
+        final Set<String> nested = new HashSet<>();
+        for (JsonObject parallel : parallels) {
+            Set<String> region = new HashSet<>();
+            Set<String> regionEnds = new HashSet<>();
+            parallelRegion(parallel, ops, inputOwners, region, regionEnds);
+            regions.put(parallel, region);
+            ends.put(parallel, regionEnds);
+            nested.addAll(region);
+        }
+        
+        for (JsonObject parallel : parallels) {
+            final String name = jstring(parallel, "name");
+            if (nested.contains(name))
+                continue;
+            
+            final int width = channelWidth(parallel.getAsJsonArray("outputs").get(0).getAsJsonObject());
+            splitters.put(name, width);
+            for (String op : regions.get(parallel))
+                channels.put(op, width);
+            for (String op : ends.get(parallel))
+                merges.put(op, width);
+        }
+    }
+    
+    /**
+     * Collect the operators downstream of a {@code $Parallel$} marker
+     * up to its matching {@code $EndParallel$} markers.
+     */
+    private static void parallelRegion(JsonObject parallel, Map<String,JsonObject> ops,
+            Map<String,String> inputOwners, Set<String> region, Set<String> ends) {
+        
+        final Map<String,Integer> depths = new HashMap<>();
+        final Deque<JsonObject> pending = new ArrayDeque<>();
+        depths.put(jstring(parallel, "name"), 0);
+        pending.add(parallel);
+        
+        while (!pending.isEmpty()) {
+            final JsonObject op = pending.remove();
+            final int depth = depths.get(jstring(op, "name"));
+            
+            for (JsonObject downstream : downstreamOps(op, ops, inputOwners)) {
+                final String name = jstring(downstream, "name");
+                final String kind = jstring(downstream, KIND);
+                
+                int downstreamDepth = depth;
+                if (BVirtualMarker.END_PARALLEL.isThis(kind)) {
+                    if (depth == 0) {
+                        ends.add(name);
+                        continue;
+                    }
+                    downstreamDepth--;
+                } else if (BVirtualMarker.PARALLEL.isThis(kind))
+                    downstreamDepth++;
+                
+                if (region.add(name)) {
+                    depths.put(name, downstreamDepth);
+                    pending.add(downstream);
+                }
+            }
+        }
+    }
+    
+    private static List<JsonObject> downstreamOps(JsonObject op, Map<String,JsonObject> ops,
+            Map<String,String> inputOwners) {
+        JsonArray outputs = op.getAsJsonArray("outputs");
+        if (jisEmpty(outputs))
+            return Collections.emptyList();
+        
+        List<JsonObject> downstream = new ArrayList<>();
+        for (JsonElement e : outputs) {
+            JsonArray conns = e.getAsJsonObject().getAsJsonArray("connections");
+            if (jisEmpty(conns))
+                continue;
+            for (JsonElement c : conns) {
+                String owner = inputOwners.get(c.getAsString());
+                if (owner != null)
+                    downstream.add(ops.get(owner));
+            }
+        }
+        return downstream;
+    }
+    
+    /**
+     * Width of a parallel region from its {@code $Parallel$} output port,
+     * either a constant or a submission parameter.
+     */
+    private static int channelWidth(JsonObject parallelOutput) {
+        JsonElement width = parallelOutput.get(PortProperties.WIDTH);
+        if (width.isJsonObject()) {
+            JsonObject sp = object(width.getAsJsonObject(), "value");
+            Object value = SubmissionParameterManager.getValue(
+                    jstring(sp, "name"), jstring(sp, "metaType"));
+            return ((Number) value).intValue();
+        }
+        return width.getAsInt();
+    }
+    
+    /**
+     * Operator class for a virtual marker with threaded execution,
+     * null if the marker remains a PassThrough.
+     */
+    private String threadedMarkerClass(BOperator op) {
+        final String name = name(op);
+        if (splitters.containsKey(name))
+            return JavaFunctionalOps.CHANNEL_SPLITTER_CLASS;
+        if (merges.containsKey(name))
+            return JavaFunctionalOps.QUEUED_PASS_CLASS;
+        if (BVirtualMarker.ISOLATE.isThis(op.kind()) && !builder.isInLowLatencyRegion(op))
+            return JavaFunctionalOps.QUEUED_PASS_CLASS;
+        return null;
     }
     
     /**
      * Creates the complete operator declaration
      * from the JSON representation.
      * @param op
+     * @param channel Channel of a parallel region or -1 if not replicated.
      * @throws Exception
      */
     @SuppressWarnings("unchecked")
-    private void declareOp(BOperator op) throws Exception {
+    private void declareOp(BOperator op, int channel) throws Exception {
         JsonObject json = op._complete();
        
         if (!verifyOp(json))
             return;
         
-        String opClassName = jstring(json, KIND_CLASS);
+        String opClassName = threaded ? threadedMarkerClass(op) : null;
+        if (opClassName == null)
+            opClassName = jstring(json, KIND_CLASS);
         if (opClassName == null) {
             opClassName = requireNonNull(
                     jstring(kind2Class, op.kind()), op.kind());
@@ -178,11 +378,25 @@ public class EmbeddedGraph {
                 setOpParameter(opDecl, param.getKey(), param.getValue().getAsJsonObject());
         }
         
-        declareOutputs(opDecl, json.getAsJsonArray("outputs"));
-        declareInputs(opDecl, json.getAsJsonArray("inputs"));
+        int splitWidth = -1;
+        if (splitters.containsKey(name(op))) {
+            JsonObject output = json.getAsJsonArray("outputs").get(0).getAsJsonObject();
+            opDecl.setStringParameter("routing", jstring(output, PortProperties.ROUTING));
+            splitWidth = splitters.get(name(op));
+        } else if (merges.containsKey(name(op))) {
+            opDecl.setIntParameter("channels", merges.get(name(op)));
+        }
+        
+        declareOutputs(opDecl, json.getAsJsonArray("outputs"), channel, splitWidth);
+        declareInputs(opDecl, json.getAsJsonArray("inputs"), channel);
     }
     
-    private void declareOutputs(OperatorInvocation<? extends Operator> opDecl, JsonArray outputs) {
+    /**
+     * @param splitWidth Number of channels for a ChannelSplitter,
+     * which declares a port per channel for each output, otherwise -1.
+     */
+    private void declareOutputs(OperatorInvocation<? extends Operator> opDecl, JsonArray outputs,
+            int channel, int splitWidth) {
         if (GsonUtilities.jisEmpty(outputs))
             return;
         
@@ -195,15 +409,23 @@ public class EmbeddedGraph {
         }
         
         for (JsonObject output : ports) {
-            String name = jstring(output, "name");            
             StreamSchema schema = Type.Factory.getTupleType(jstring(output, "type")).getTupleSchema();            
-            OutputPortDeclaration port = opDecl.addOutput(name, schema);
-          
-            assert !outputPorts.containsKey(name);
-            outputPorts.put(name, port);
+            final int portCount = splitWidth == -1 ? 1 : splitWidth;
+            for (int split = 0; split < portCount; split++) {
+                String name = jstring(output, "name");
+                if (splitWidth != -1)
+                    name = channelName(name, split);
+                else
+                    name = channelName(name, channel);
+                OutputPortDeclaration port = opDecl.addOutput(name, schema);
+
+                assert !outputPorts.containsKey(name);
+                outputPorts.put(name, port);
+            }
         }  
     }
-    private void declareInputs(OperatorInvocation<? extends Operator> opDecl, JsonArray inputs) {
+    private void declareInputs(OperatorInvocation<? extends Operator> opDecl, JsonArray inputs,
+            int channel) {
         if (jisEmpty(inputs))
             return;
         
@@ -216,7 +438,7 @@ public class EmbeddedGraph {
         }
         
         for (JsonObject input : ports) {
-            String name = jstring(input, "name");            
+            String name = channelName(jstring(input, "name"), channel);
             StreamSchema schema = Type.Factory.getTupleType(jstring(input, "type")).getTupleSchema();            
             InputPortDeclaration port = opDecl.addInput(name, schema);
             
@@ -288,15 +510,42 @@ public class EmbeddedGraph {
     }
 
     private void declareConnections() throws Exception {
+        final Map<String,String> inputOwners = new HashMap<>();
+        if (!channels.isEmpty()) {
+            for (BOperator op : builder.getOps()) {
+                JsonArray inputs = op._complete().getAsJsonArray("inputs");
+                if (jisEmpty(inputs))
+                    continue;
+                for (JsonElement e : inputs)
+                    inputOwners.put(jstring(e.getAsJsonObject(), "name"), name(op));
+            }
+        }
+        
         for (BOperator op : builder.getOps())
-            declareOpConnections(op._complete());
+            declareOpConnections(op, inputOwners);
     }
 
-    private void declareOpConnections(JsonObject json) {
-        JsonArray outputs = json.getAsJsonArray("outputs");
+    /**
+     * Connect an operator's outputs, for threaded execution:
+     * <UL>
+     * <LI>a channel is connected to the same channel of a downstream
+     * operator in the parallel region,</LI>
+     * <LI>all channels are connected to an operator outside the region,</LI>
+     * <LI>an operator outside the region is connected to all
+     * channels of a downstream operator in the region.</LI>
+     * </UL>
+     */
+    private void declareOpConnections(BOperator op, Map<String,String> inputOwners) {
+        JsonArray outputs = op._complete().getAsJsonArray("outputs");
         if (jisEmpty(outputs))
             return;
         
+        int width = -1;
+        if (channels.containsKey(name(op)))
+            width = channels.get(name(op));
+        else if (splitters.containsKey(name(op)))
+            width = splitters.get(name(op));
+        
         for (JsonElement e : outputs) {
             JsonObject output = e.getAsJsonObject();
             String name = jstring(output, "name");
@@ -304,14 +553,32 @@ public class EmbeddedGraph {
             if (jisEmpty(conns))
                 continue;
             
-            OutputPortDeclaration port = requireNonNull(outputPorts.get(name));
             for (JsonElement c : conns) {
                 String iname = c.getAsString();
-                InputPortDeclaration iport = requireNonNull(inputPorts.get(iname));               
-                port.connect(iport);
+                String owner = inputOwners.get(iname);
+                int iwidth = owner != null && channels.containsKey(owner) ? channels.get(owner) : -1;
+                
+                if (width == -1) {
+                    if (iwidth == -1)
+                        connect(name, iname);
+                    else {
+                        for (int channel = 0; channel < iwidth; channel++)
+                            connect(name, channelName(iname, channel));
+                    }
+                } else {
+                    for (int channel = 0; channel < width; channel++)
+                        connect(channelName(name, channel),
+                                iwidth == -1 ? iname : channelName(iname, channel));
+                }
             }
         }     
     }
+    
+    private void connect(String output, String input) {
+        OutputPortDeclaration port = requireNonNull(outputPorts.get(output));
+        InputPortDeclaration iport = requireNonNull(inputPorts.get(input));               
+        port.connect(iport);
+    }
 
     /**
      * From a JSON parameter set the operator declaration parameter.
@@ -398,6 +665,19 @@ public class EmbeddedGraph {
         OutputPortDeclaration portDecl = outputPorts.get(name); 
         return Objects.requireNonNull(portDecl);
     }
+    
+    /**
+     * Get the declared ports for a stream, one for each
+     * channel when the stream is in a parallel region.
+     */
+    public List<OutputPortDeclaration> getOutputPorts(String name) {
+        List<OutputPortDeclaration> portDecls = new ArrayList<>();
+        for (int channel = 0; outputPorts.containsKey(channelName(name, channel)); channel++)
+            portDecls.add(outputPorts.get(channelName(name, channel)));
+        if (portDecls.isEmpty())
+            portDecls.add(getOutputPort(name));
+        return portDecls;
+    }
 
     /**
      * Initialize EMBEDDED submission parameter value information
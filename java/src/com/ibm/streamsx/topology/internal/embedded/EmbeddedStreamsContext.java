@@ -31,7 +31,8 @@ public class EmbeddedStreamsContext extends
         
         config = new HashMap<>(config);
 
-        EmbeddedGraph eg = new EmbeddedGraph(app.builder());
+        EmbeddedGraph eg = new EmbeddedGraph(app.builder(),
+                EmbeddedGraph.isThreaded(config));
         eg.verifySupported();
         
         EmbeddedGraph.initializeEmbedded(app.builder(), config);
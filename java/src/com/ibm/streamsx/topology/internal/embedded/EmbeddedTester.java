@@ -23,7 +23,8 @@ public class EmbeddedTester extends StreamsContextImpl<JavaTestableGraph> {
     public Future<JavaTestableGraph> submit(Topology app,
             Map<String, Object> config) throws Exception {
 
-        EmbeddedGraph eg = new EmbeddedGraph(app.builder());
+        EmbeddedGraph eg = new EmbeddedGraph(app.builder(),
+                EmbeddedGraph.isThreaded(config));
         eg.verifySupported();
         
         ConditionTesterImpl tester = null;
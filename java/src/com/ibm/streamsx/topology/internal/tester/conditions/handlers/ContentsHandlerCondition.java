@@ -4,8 +4,10 @@
  */
 package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
 
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import com.ibm.streams.flow.handlers.StreamCollector;
 import com.ibm.streams.operator.Tuple;
@@ -44,8 +46,9 @@ public class ContentsHandlerCondition extends HandlerCondition<List<Tuple>, Stre
     static <T> boolean checkIfFailed(List<T> got, List<T> expected) {
         if (expected.isEmpty())
             return false;
+        final Set<T> values = new HashSet<>(expected);
         for (T tuple : got) {
-            if (!expected.contains(tuple))
+            if (!values.contains(tuple))
                 return true;
         }
         return false;
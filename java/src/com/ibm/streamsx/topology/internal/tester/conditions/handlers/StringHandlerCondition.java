@@ -7,9 +7,10 @@ package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
 import static com.ibm.streamsx.topology.internal.tester.conditions.handlers.ContentsHandlerCondition.checkIfFailed;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import com.ibm.streams.flow.handlers.StreamCollector;
 import com.ibm.streams.operator.Tuple;
@@ -53,17 +54,23 @@ public class StringHandlerCondition extends HandlerCondition<List<String>, Strea
 
         if (expected.size() == got.size()) {
 
-            if (!ordered) {
+            if (!ordered)
+                return counts(expected).equals(counts(got));
 
-                // don't modify the original expected.
-                expected = new ArrayList<>(expected);
-
-                Collections.sort(expected);
-                Collections.sort(got);
-            }
             if (expected.equals(got))
                 return true;
         }
         return false;
     }
+
+    /**
+     * Count of each value, comparing counts is linear
+     * unlike sorting the values.
+     */
+    private static Map<String,Integer> counts(List<String> values) {
+        Map<String,Integer> counts = new HashMap<>(values.size() * 4 / 3 + 1);
+        for (String value : values)
+            counts.merge(value, 1, Integer::sum);
+        return counts;
+    }
 }
@@ -0,0 +1,69 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.tester.fns;
+
+import java.io.Serializable;
+
+/**
+ * Order independent digest of a multiset of tuples.
+ * <BR>
+ * Each tuple is hashed to 64 bits, the digest is the count
+ * and two sums of independently mixed hashes, so that two
+ * digests are equal if the tuples are equal in any order,
+ * and differ with high probability otherwise.
+ */
+final class ContentsDigest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+    private long sum1;
+    private long sum2;
+
+    void add(Object tuple) {
+        final long h = hash(tuple);
+        count++;
+        sum1 += mix(h);
+        sum2 += mix(h ^ 0x9E3779B97F4A7C15L);
+    }
+
+    long count() {
+        return count;
+    }
+
+    boolean matches(ContentsDigest other) {
+        return count == other.count && sum1 == other.sum1 && sum2 == other.sum2;
+    }
+
+    /**
+     * 64 bit hash, FNV-1a for strings as
+     * {@code String.hashCode()} collides frequently.
+     */
+    private static long hash(Object tuple) {
+        if (tuple instanceof String) {
+            final String s = (String) tuple;
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return h;
+        }
+        return tuple == null ? 0 : tuple.hashCode();
+    }
+
+    /**
+     * Finalizer from SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d tuples digest %016x%016x", count, sum1, sum2);
+    }
+}
@@ -4,79 +4,120 @@
  */
 package com.ibm.streamsx.topology.internal.tester.fns;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 public final class TupleContents<T> extends ConditionChecker<T> {
     private static final long serialVersionUID = 1L;
-    
+
+    /**
+     * Unordered contents with at least this number of
+     * expected tuples are checked using a digest,
+     * rather than shipping the expected tuples with the checker.
+     */
+    public static final int DIGEST_THRESHOLD = 100_000;
+
     private final List<T> expected;
+    private final int expectedCount;
     private final boolean ordered;
-    private List<T> got;
+
+    /**
+     * Count of each expected tuple not yet received,
+     * created on the first tuple for unordered contents.
+     */
+    private HashMap<T,Integer> remaining;
+
+    /**
+     * Digest mode, expected is null.
+     */
+    private final ContentsDigest expectedDigest;
+    private ContentsDigest digest;
 
     public TupleContents(String name, boolean ordered, List<T> expected) {
         super(name);
         this.ordered = ordered;
-        this.expected = expected;
-        if (!ordered)
-            got = new ArrayList<>(expected.size());
+        this.expectedCount = expected.size();
+        if (!ordered && expectedCount >= DIGEST_THRESHOLD) {
+            this.expected = null;
+            expectedDigest = new ContentsDigest();
+            for (T t : expected)
+                expectedDigest.add(t);
+        } else {
+            this.expected = expected;
+            expectedDigest = null;
+        }
     }
 
     @Override
     public void checkValid(T tuple) {
-            
-        if (tupleCount() > expected.size()) {
+
+        if (tupleCount() > expectedCount) {
             // too many tuples
-            failTooMany(expected.size());
+            failTooMany(expectedCount);
             return;
         }
-        
 
-        
         if (ordered)
             checkOrdered(tuple);
+        else if (expectedDigest != null)
+            checkDigest(tuple);
         else
             checkUnordered(tuple);
     }
 
     private void checkOrdered(T tuple) {
         int tupleIndex = (int) (tupleCount() - 1);
-        
+
         if (tuple.equals(expected.get(tupleIndex))) {
-            if (tupleCount() == expected.size())
+            if (tupleCount() == expectedCount)
                 setValid();
         } else {
             failUnexpectedTuple(tuple, expected);
         }
     }
-    
+
+    /**
+     * Each tuple must match an expected tuple that has
+     * not yet been received, so that the contents are
+     * valid once the expected number of tuples is received.
+     */
     private void checkUnordered(T tuple) {
-        
-        if (!expected.contains(tuple)) {
+
+        if (remaining == null) {
+            remaining = new HashMap<>(expectedCount * 4 / 3 + 1);
+            for (T t : expected)
+                remaining.merge(t, 1, Integer::sum);
+        }
+
+        final Integer count = remaining.get(tuple);
+        if (count == null) {
             failUnexpectedTuple(tuple, expected);
             return;
         }
-        
-        got.add(tuple);
-        
-        if (got.size() == expected.size()) {
-            
-            // Copy expected to avoid modifying it.
-            List<T> ce = new ArrayList<>(expected.size());
-            ce.addAll(expected);
-            
-            for (T t : got) {
-                if (!ce.remove(t)) {
-                    setFailed(String.format("Expected %s Received %s.", got, expected));
-                    return;
-                }   
-            }
+        if (count == 1)
+            remaining.remove(tuple);
+        else
+            remaining.put(tuple, count - 1);
+
+        if (tupleCount() == expectedCount)
             setValid();
+    }
+
+    private void checkDigest(T tuple) {
+        if (digest == null)
+            digest = new ContentsDigest();
+        digest.add(tuple);
+
+        if (tupleCount() == expectedCount) {
+            if (digest.matches(expectedDigest))
+                setValid();
+            else
+                setFailed(String.format("Expected %s Received %s.", expectedDigest, digest));
         }
     }
-    
+
     @Override
     String notValidText() {
-        return expectedCountText(expected.size());
+        return expectedCountText(expectedCount);
     }
 }
@@ -0,0 +1,301 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.json;
+
+import java.io.IOException;
+
+import com.ibm.json.java.JSON;
+import com.ibm.json.java.JSONArtifact;
+
+/**
+ * Scans JSON text by index, skipping values without
+ * decoding them so that a value can be decoded on
+ * demand or copied verbatim.
+ */
+final class JSONScanner {
+
+    private JSONScanner() {
+    }
+
+    static int skipWhitespace(String s, int i) {
+        while (i < s.length()) {
+            switch (s.charAt(i)) {
+            case ' ': case '\t': case '\n': case '\r':
+                i++;
+                break;
+            default:
+                return i;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Skip the value starting at {@code i}.
+     * @return Index after the value.
+     */
+    static int skipValue(String s, int i) {
+        if (i >= s.length())
+            throw error(i);
+        switch (s.charAt(i)) {
+        case '"':
+            return skipString(s, i);
+        case '{':
+        case '[':
+            int depth = 0;
+            for (; i < s.length(); i++) {
+                switch (s.charAt(i)) {
+                case '"':
+                    i = skipString(s, i) - 1;
+                    break;
+                case '{': case '[':
+                    depth++;
+                    break;
+                case '}': case ']':
+                    if (--depth == 0)
+                        return i + 1;
+                    break;
+                }
+            }
+            throw error(i);
+        default:
+            final int start = i;
+            while (i < s.length()) {
+                char c = s.charAt(i);
+                if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r')
+                    break;
+                i++;
+            }
+            if (i == start)
+                throw error(i);
+            return i;
+        }
+    }
+
+    /**
+     * Skip the string starting with the quote at {@code i}.
+     * @return Index after the closing quote.
+     */
+    static int skipString(String s, int i) {
+        if (s.charAt(i) != '"')
+            throw error(i);
+        for (i++; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\')
+                i++;
+            else if (c == '"')
+                return i + 1;
+        }
+        throw error(i);
+    }
+
+    /**
+     * Decode the string between {@code start}, its opening quote,
+     * and {@code end}, after its closing quote.
+     */
+    static String readString(String s, int start, int end) {
+        final int last = end - 1;
+        int escape = s.indexOf('\\', start + 1);
+        if (escape == -1 || escape >= last)
+            return s.substring(start + 1, last);
+
+        final StringBuilder sb = new StringBuilder(last - start);
+        sb.append(s, start + 1, escape);
+        for (int i = escape; i < last; i++) {
+            char c = s.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            c = s.charAt(++i);
+            switch (c) {
+            case 'b': sb.append('\b'); break;
+            case 'f': sb.append('\f'); break;
+            case 'n': sb.append('\n'); break;
+            case 'r': sb.append('\r'); break;
+            case 't': sb.append('\t'); break;
+            case 'u':
+                sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                i += 4;
+                break;
+            default:
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decode the value between {@code start} and {@code end}.
+     * Objects and arrays are parsed as JSON4J artifacts,
+     * integral numbers as {@code Long} and other numbers
+     * as {@code Double}.
+     */
+    static Object decode(String s, int start, int end) {
+        switch (s.charAt(start)) {
+        case '"':
+            return readString(s, start, end);
+        case '{':
+        case '[':
+            try {
+                return JSON.parse(s.substring(start, end));
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        case 't':
+            return Boolean.TRUE;
+        case 'f':
+            return Boolean.FALSE;
+        case 'n':
+            return null;
+        default:
+            final String number = s.substring(start, end);
+            if (number.indexOf('.') == -1 && number.indexOf('e') == -1 && number.indexOf('E') == -1) {
+                try {
+                    return Long.valueOf(number);
+                } catch (NumberFormatException e) {
+                    // Too large for a long.
+                }
+            }
+            return Double.valueOf(number);
+        }
+    }
+
+    static void quote(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"': sb.append("\\\""); break;
+            case '\\': sb.append("\\\\"); break;
+            case '\b': sb.append("\\b"); break;
+            case '\f': sb.append("\\f"); break;
+            case '\n': sb.append("\\n"); break;
+            case '\r': sb.append("\\r"); break;
+            case '\t': sb.append("\\t"); break;
+            default:
+                if (c < 0x20)
+                    sb.append(String.format("\\u%04x", (int) c));
+                else
+                    sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Encode a value as JSON text.
+     */
+    static String encode(Object value) {
+        if (value == null)
+            return "null";
+        if (value instanceof String) {
+            StringBuilder sb = new StringBuilder();
+            quote(sb, (String) value);
+            return sb.toString();
+        }
+        if (value instanceof Boolean || value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte)
+            return value.toString();
+        if (value instanceof Number) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d))
+                throw new IllegalArgumentException(value.toString());
+            return value.toString();
+        }
+        if (value instanceof LazyJSONObject)
+            return ((LazyJSONObject) value).serialize();
+        if (value instanceof JSONArtifact) {
+            try {
+                return ((JSONArtifact) value).serialize();
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        throw new IllegalArgumentException(value.getClass().getName());
+    }
+
+    /**
+     * Receives the fields of an object from {@link JSONScanner#scanObject(String, FieldHandler)}.
+     */
+    interface FieldHandler {
+        /**
+         * A field whose value is the text between {@code start} and {@code end}.
+         */
+        void field(String name, int start, int end);
+    }
+
+    /**
+     * Scan the top-level fields of a JSON object, skipping
+     * their values. If the text is not an object then it is
+     * passed as the value of the field {@link JSONStreams#PAYLOAD payload}.
+     */
+    static void scanObject(String s, FieldHandler handler) {
+        int i = skipWhitespace(s, 0);
+        if (i >= s.length() || s.charAt(i) != '{') {
+            handler.field(JSONStreams.PAYLOAD, i, skipValue(s, i));
+            return;
+        }
+        i = skipWhitespace(s, i + 1);
+        if (i < s.length() && s.charAt(i) == '}')
+            return;
+        for (;;) {
+            final int nameEnd = skipString(s, i);
+            final String name = readString(s, i, nameEnd);
+            i = skipWhitespace(s, nameEnd);
+            if (i >= s.length() || s.charAt(i) != ':')
+                throw error(i);
+            final int start = skipWhitespace(s, i + 1);
+            final int end = skipValue(s, start);
+            handler.field(name, start, end);
+            i = skipWhitespace(s, end);
+            if (i < s.length() && s.charAt(i) == ',') {
+                i = skipWhitespace(s, i + 1);
+                continue;
+            }
+            if (i < s.length() && s.charAt(i) == '}')
+                return;
+            throw error(i);
+        }
+    }
+
+    /**
+     * Parse the integral number between {@code start} and {@code end}
+     * without creating a string. A number with a fraction or exponent
+     * is truncated. A number with more than 18 digits is parsed
+     * from a string, so it is exact when within the range of a long.
+     */
+    static long parseLong(String s, int start, int end) {
+        int i = start;
+        final boolean negative = i < end && s.charAt(i) == '-';
+        if (negative)
+            i++;
+        if (i == end)
+            return (long) parseDouble(s, start, end);
+        if (end - i > 18) {
+            try {
+                return Long.parseLong(s.substring(start, end));
+            } catch (NumberFormatException e) {
+                return (long) parseDouble(s, start, end);
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            final char c = s.charAt(i);
+            if (c < '0' || c > '9')
+                return (long) parseDouble(s, start, end);
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    static double parseDouble(String s, int start, int end) {
+        return Double.parseDouble(s.substring(start, end));
+    }
+
+    static IllegalArgumentException error(int i) {
+        return new IllegalArgumentException("Invalid JSON at offset " + i);
+    }
+}
@@ -13,6 +13,7 @@ import com.ibm.json.java.JSONArray;
 import com.ibm.json.java.JSONArtifact;
 import com.ibm.json.java.JSONObject;
 import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.function.BiFunction;
 import com.ibm.streamsx.topology.function.Function;
@@ -103,6 +104,35 @@ public class JSONStreams {
             return v1.toJSON();
         }
     }
+
+    /**
+     * Function to deserialize a String to a {@link LazyJSONObject}.
+     * The text is not parsed until a field is accessed.
+     * @since 1.15
+     */
+    public static final class DeserializeLazyJSON implements
+            Function<String, LazyJSONObject> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public LazyJSONObject apply(String tuple) {
+            return new LazyJSONObject(tuple);
+        }
+    }
+
+    /**
+     * Function to serialize a {@link LazyJSONObject} to a String.
+     * @since 1.15
+     */
+    public static final class SerializeLazyJSON implements
+            Function<LazyJSONObject, String> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String apply(LazyJSONObject v1) {
+            return v1.serialize();
+        }
+    }
     
     /**
      * Convert a JSON stream to an SPLStream.
@@ -127,6 +157,35 @@ public class JSONStreams {
         }, JSONSchemas.JSON);
     }
 
+    /**
+     * Convert a stream of serialized JSON objects to an SPLStream
+     * with a fixed schema.
+     * <BR>
+     * The value of each top-level JSON field with the same name
+     * as an attribute is decoded directly into the attribute, without
+     * creating a {@code JSONObject}. Fields that do not match an attribute
+     * are skipped, and attributes without a field, or whose field is
+     * {@code null}, have their default value.
+     * <BR>
+     * Supported attribute types are {@code boolean}, signed and unsigned
+     * integers, {@code float32}, {@code float64}, decimals, {@code rstring}
+     * and {@code ustring}. A JSON value that is not a string is set
+     * into a string attribute as its serialized JSON.
+     * <BR>
+     * As with {@link #deserialize(TStream)}, serialized JSON that
+     * is not an object is the value of the field {@link #PAYLOAD payload}.
+     * 
+     * @param stream Stream containing the JSON serialized values.
+     * @param schema Schema of returned SPLStream.
+     * @return SPLStream containing the converted tuples.
+     * @throws IllegalArgumentException {@code schema} contains an attribute
+     * with a type that is not supported.
+     * @since 1.15
+     */
+    public static SPLStream toSPL(TStream<String> stream, StreamSchema schema) {
+        return SPLStreams.convertStream(stream, new JSONTupleDecoder(schema), schema);
+    }
+
     /**
      * Create a stream of serialized JSON objects as String tuples.
      * 
@@ -151,6 +210,67 @@ public class JSONStreams {
     public static TStream<JSONObject> deserialize(TStream<String> stream) {
         return stream.transform(new DeserializeJSON());
     }
+
+    /**
+     * Declare a stream of lazily parsed JSON objects from a stream
+     * of serialized JSON tuples.
+     * <BR>
+     * Unlike {@link #deserialize(TStream)} each JSON value is
+     * not parsed into a tree of objects, fields are decoded
+     * when they are accessed, see {@link LazyJSONObject}.
+     * Applications that only read or project a few fields
+     * of large JSON values avoid most of the parsing cost.
+     * @param stream
+     *            Stream containing the JSON serialized values.
+     * @return Stream that will contain the lazily parsed JSON objects.
+     * @since 1.15
+     */
+    public static TStream<LazyJSONObject> deserializeLazy(TStream<String> stream) {
+        return stream.transform(new DeserializeLazyJSON());
+    }
+
+    /**
+     * Create a stream of serialized JSON objects from lazily
+     * parsed JSON objects.
+     * Unmodified objects are serialized as their original text.
+     * @param stream
+     *            Stream containing the lazily parsed JSON objects.
+     * @return Stream that will contain the serialized JSON values.
+     * @since 1.15
+     */
+    public static TStream<String> serializeLazy(TStream<LazyJSONObject> stream) {
+        return stream.transform(new SerializeLazyJSON());
+    }
+
+    /**
+     * Project lazily parsed JSON objects to a subset of their fields.
+     * The values of the fields are copied without being decoded.
+     * @param stream
+     *            Stream containing the lazily parsed JSON objects.
+     * @param fields Names of the fields to keep.
+     * @return Stream containing the projected objects.
+     * @since 1.15
+     * @see LazyJSONObject#project(String...)
+     */
+    public static TStream<LazyJSONObject> project(TStream<LazyJSONObject> stream,
+            String... fields) {
+        return stream.transform(new ProjectLazyJSON(fields.clone()));
+    }
+
+    private static final class ProjectLazyJSON implements
+            Function<LazyJSONObject, LazyJSONObject> {
+        private static final long serialVersionUID = 1L;
+        private final String[] fields;
+
+        ProjectLazyJSON(String[] fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public LazyJSONObject apply(LazyJSONObject v1) {
+            return v1.project(fields);
+        }
+    }
     
     /**
      * Declare a stream of JSON objects from a stream
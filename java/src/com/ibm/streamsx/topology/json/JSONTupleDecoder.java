@@ -0,0 +1,114 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.json;
+
+import static com.ibm.streamsx.topology.json.JSONScanner.parseDouble;
+import static com.ibm.streamsx.topology.json.JSONScanner.parseLong;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ibm.streams.operator.Attribute;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streamsx.topology.function.BiFunction;
+
+/**
+ * Converts serialized JSON objects directly to SPL tuples.
+ * <BR>
+ * The attribute indexes and a decoder for each attribute's type
+ * are resolved once from the output schema when the decoder is
+ * created, so it holds no mutable state. Each JSON
+ * object is then scanned once, the value of a field matching
+ * an attribute is decoded into the tuple by index and
+ * all other values are skipped.
+ */
+final class JSONTupleDecoder implements BiFunction<String, OutputTuple, OutputTuple> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Decodes a JSON value into an attribute of an output tuple.
+     */
+    private interface AttributeDecoder extends Serializable {
+        void decode(OutputTuple tuple, String json, int start, int end);
+    }
+
+    private final Map<String,AttributeDecoder> decoders;
+
+    /**
+     * @param schema Schema of the output tuples.
+     */
+    JSONTupleDecoder(StreamSchema schema) {
+        decoders = decoders(schema);
+    }
+
+    @Override
+    public OutputTuple apply(String json, OutputTuple tuple) {
+        JSONScanner.scanObject(json, (name, start, end) -> {
+            final AttributeDecoder decoder = decoders.get(name);
+            // null leaves the attribute with its default value.
+            if (decoder != null && json.charAt(start) != 'n')
+                decoder.decode(tuple, json, start, end);
+        });
+        return tuple;
+    }
+
+    private static Map<String,AttributeDecoder> decoders(StreamSchema schema) {
+        final Map<String,AttributeDecoder> decoders = new HashMap<>();
+        for (Attribute attr : schema)
+            decoders.put(attr.getName(), decoder(attr));
+        return decoders;
+    }
+
+    private static AttributeDecoder decoder(Attribute attr) {
+        final int index = attr.getIndex();
+        switch (attr.getType().getMetaType()) {
+        case BOOLEAN:
+            return (t, s, start, end) -> t.setBoolean(index, parseBoolean(s, start));
+        case INT8:
+        case UINT8:
+            return (t, s, start, end) -> t.setByte(index, (byte) parseLong(s, start, end));
+        case INT16:
+        case UINT16:
+            return (t, s, start, end) -> t.setShort(index, (short) parseLong(s, start, end));
+        case INT32:
+        case UINT32:
+            return (t, s, start, end) -> t.setInt(index, (int) parseLong(s, start, end));
+        case INT64:
+            return (t, s, start, end) -> t.setLong(index, parseLong(s, start, end));
+        case UINT64:
+            return (t, s, start, end) -> t.setLong(index, Long.parseUnsignedLong(s.substring(start, end)));
+        case FLOAT32:
+            return (t, s, start, end) -> t.setFloat(index, (float) parseDouble(s, start, end));
+        case FLOAT64:
+            return (t, s, start, end) -> t.setDouble(index, parseDouble(s, start, end));
+        case DECIMAL32:
+        case DECIMAL64:
+        case DECIMAL128:
+            return (t, s, start, end) -> t.setBigDecimal(index, new BigDecimal(s.substring(start, end)));
+        case RSTRING:
+        case USTRING:
+            // Values that are not strings are set as their JSON text.
+            return (t, s, start, end) -> t.setString(index,
+                    s.charAt(start) == '"' ? JSONScanner.readString(s, start, end) : s.substring(start, end));
+        default:
+            throw new IllegalArgumentException("Attribute " + attr.getName()
+                    + " type not supported for JSON conversion: " + attr.getType().getLanguageType());
+        }
+    }
+
+    private static boolean parseBoolean(String s, int start) {
+        switch (s.charAt(start)) {
+        case 't':
+            return true;
+        case 'f':
+            return false;
+        default:
+            throw JSONScanner.error(start);
+        }
+    }
+}
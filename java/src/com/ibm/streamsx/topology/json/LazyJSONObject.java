@@ -0,0 +1,279 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.json;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.ibm.json.java.JSON;
+import com.ibm.json.java.JSONArtifact;
+import com.ibm.json.java.JSONObject;
+import com.ibm.streamsx.topology.tuple.JSONAble;
+
+/**
+ * JSON object that keeps its serialized text and decodes
+ * fields on demand.
+ * <P>
+ * The text is only scanned to locate the object's top-level fields
+ * when a field is first accessed, values are skipped without being
+ * decoded. A field's value is decoded when it is read, so only
+ * the fields used by an application are decoded.
+ * </P>
+ * <P>
+ * {@link #serialize()} returns the original text when the
+ * object has not been modified. After {@link #put(String, Object)}
+ * or {@link #remove(String)} the object is serialized from
+ * the original text of its unmodified values and the encoded
+ * modified values. {@link #project(String...)} creates an object with
+ * a subset of the fields, again without decoding their values.
+ * </P>
+ * <P>
+ * As with {@link JSONStreams.DeserializeJSON}, JSON text that is not
+ * an object is the value of a single field {@link JSONStreams#PAYLOAD payload}.
+ * </P>
+ * <P>
+ * Values are decoded as with JSON4J, objects as {@code JSONObject},
+ * arrays as {@code JSONArray}, strings as {@code String}, integral
+ * numbers as {@code Long}, other numbers as {@code Double} and
+ * booleans as {@code Boolean}.
+ * </P>
+ * <P>
+ * A {@code LazyJSONObject} is not thread safe.
+ * </P>
+ *
+ * @see JSONStreams#deserializeLazy(com.ibm.streamsx.topology.TStream)
+ * @since 1.15
+ */
+public final class LazyJSONObject implements JSONAble, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String text;
+
+    /** Modified fields and their JSON text, null for a removed field. */
+    private LinkedHashMap<String,String> changes;
+
+    /** Start and end of each field's value in text. */
+    private transient Map<String,int[]> index;
+    /** Values that have been decoded. */
+    private transient Map<String,Object> decoded;
+
+    /**
+     * Create an object from its JSON text.
+     * The text is not scanned until a field is accessed.
+     * @param text JSON text.
+     */
+    public LazyJSONObject(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Get the value of a field, decoding it on first access.
+     * @param field Name of the field.
+     * @return Value of the field, {@code null} if the field
+     * does not exist or its value is {@code null}.
+     */
+    public Object get(String field) {
+        if (changes != null && changes.containsKey(field)) {
+            final String change = changes.get(field);
+            return change == null ? null : decoded(field, change, 0, change.length());
+        }
+        final int[] range = index().get(field);
+        if (range == null)
+            return null;
+        return decoded(field, text, range[0], range[1]);
+    }
+
+    private Object decoded(String field, String json, int start, int end) {
+        if (decoded == null)
+            decoded = new HashMap<>();
+        else if (decoded.containsKey(field))
+            return decoded.get(field);
+        final Object value = JSONScanner.decode(json, start, end);
+        decoded.put(field, value);
+        return value;
+    }
+
+    /**
+     * Get the value of a string field.
+     * @return Value of the field, {@code null} if the field
+     * does not exist or its value is not a string.
+     */
+    public String getString(String field) {
+        final Object value = get(field);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Test if this object has a field.
+     */
+    public boolean has(String field) {
+        if (changes != null && changes.containsKey(field))
+            return changes.get(field) != null;
+        return index().containsKey(field);
+    }
+
+    /**
+     * Get the names of this object's fields.
+     * @return Read-only set of the field names.
+     */
+    public Set<String> fields() {
+        if (changes == null)
+            return Collections.unmodifiableSet(index().keySet());
+        final Set<String> fields = new LinkedHashSet<>(index().keySet());
+        for (Map.Entry<String,String> change : changes.entrySet()) {
+            if (change.getValue() == null)
+                fields.remove(change.getKey());
+            else
+                fields.add(change.getKey());
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Set the value of a field.
+     * @param field Name of the field.
+     * @param value Value, {@code null}, a {@code String}, {@code Boolean},
+     * {@code Number}, JSON4J {@code JSONObject} or {@code JSONArray},
+     * or a {@code LazyJSONObject}.
+     * @return This object.
+     */
+    public LazyJSONObject put(String field, Object value) {
+        change(field, JSONScanner.encode(value));
+        return this;
+    }
+
+    /**
+     * Remove a field.
+     * @return This object.
+     */
+    public LazyJSONObject remove(String field) {
+        if (has(field))
+            change(field, null);
+        return this;
+    }
+
+    private void change(String field, String json) {
+        if (changes == null)
+            changes = new LinkedHashMap<>();
+        changes.put(field, json);
+        if (decoded != null)
+            decoded.remove(field);
+    }
+
+    /**
+     * Create an object containing only the named fields
+     * that exist in this object. The values are not decoded.
+     * @param fields Names of the fields.
+     * @return Projected object.
+     */
+    public LazyJSONObject project(String... fields) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (String field : fields) {
+            final String value = raw(field);
+            if (value == null)
+                continue;
+            if (sb.length() != 1)
+                sb.append(',');
+            JSONScanner.quote(sb, field);
+            sb.append(':').append(value);
+        }
+        sb.append('}');
+        return new LazyJSONObject(sb.toString());
+    }
+
+    /**
+     * JSON text of a field's value, null if the field does not exist.
+     */
+    private String raw(String field) {
+        if (changes != null && changes.containsKey(field))
+            return changes.get(field);
+        final int[] range = index().get(field);
+        return range == null ? null : text.substring(range[0], range[1]);
+    }
+
+    /**
+     * Serialize this object as JSON text.
+     * @return The original text if this object has not been modified.
+     */
+    public String serialize() {
+        if (changes == null)
+            return text;
+
+        final StringBuilder sb = new StringBuilder(text.length() + 64);
+        sb.append('{');
+        for (Map.Entry<String,int[]> field : index().entrySet()) {
+            final String name = field.getKey();
+            final String value;
+            if (changes.containsKey(name)) {
+                value = changes.get(name);
+                if (value == null)
+                    continue;
+            } else {
+                value = null;
+            }
+            if (sb.length() != 1)
+                sb.append(',');
+            JSONScanner.quote(sb, name);
+            sb.append(':');
+            if (value == null)
+                sb.append(text, field.getValue()[0], field.getValue()[1]);
+            else
+                sb.append(value);
+        }
+        for (Map.Entry<String,String> change : changes.entrySet()) {
+            if (change.getValue() == null || index().containsKey(change.getKey()))
+                continue;
+            if (sb.length() != 1)
+                sb.append(',');
+            JSONScanner.quote(sb, change.getKey());
+            sb.append(':').append(change.getValue());
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Fully parse this object as a JSON4J object.
+     */
+    @Override
+    public JSONObject toJSON() {
+        try {
+            final String json = serialize();
+            JSONArtifact artifact = JSON.parse(json);
+            if (artifact instanceof JSONObject)
+                return (JSONObject) artifact;
+            JSONObject wrapper = new JSONObject();
+            wrapper.put(JSONStreams.PAYLOAD, artifact);
+            return wrapper;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return serialize();
+    }
+
+    /**
+     * Locate the top-level fields, skipping their values.
+     */
+    private Map<String,int[]> index() {
+        if (index != null)
+            return index;
+
+        final Map<String,int[]> fields = new LinkedHashMap<>();
+        JSONScanner.scanObject(text, (name, start, end) -> fields.put(name, new int[] { start, end }));
+        return index = fields;
+    }
+}
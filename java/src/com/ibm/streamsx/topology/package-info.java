@@ -133,6 +133,15 @@
  * when <i>functional logic</i> instances are being executed on different
  * hosts in a distributed environment, then the tuple object will passed using
  * serialization and de-serialization.
+ * <BR>
+ * When a stream is consumed by multiple <i>functional logic</i> instances,
+ * for example {@code s.forEach(c1)} and {@code s.forEach(c2)}, and all of them
+ * are Java filter, transform, multiTransform or forEach logic, then only one of them
+ * is passed the tuple's reference, the others are passed a copy created
+ * by serialization. Thus a tuple object is never seen by two downstream
+ * <i>functional logic</i> instances, even if it is mutable.
+ * With any other consumer, such as a window or an SPL operator, the
+ * reference may be passed to every consumer in the same process.
  * <H4>Ensuring consistent behavior</H4>
  * To ensure consistent behavior regardless of how the topology is executed,
  * these recommendations should be followed:
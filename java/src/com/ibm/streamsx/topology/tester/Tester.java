@@ -190,6 +190,11 @@ public interface Tester {
     /**
      * Return a condition that evaluates if {@code stream} has submitted
      * at tuples matching {@code values} in any order.
+     * <BR>
+     * When a large number of values is expected a distributed test
+     * compares an order independent digest of the tuples with
+     * that of {@code values}, rather than each tuple, thus the
+     * condition only fails once the expected number of tuples is received.
      * <P>
      * <b>Note:</b> Since 1.11 {@code getResult()} from the returned {@code Condition} is
      * deprecated and tests should not rely on it returning the tuple count seen on the stream.
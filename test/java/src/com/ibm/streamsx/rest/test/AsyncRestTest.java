@@ -0,0 +1,211 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.ibm.streamsx.rest.Instance;
+import com.ibm.streamsx.rest.Job;
+import com.ibm.streamsx.rest.Metric;
+import com.ibm.streamsx.rest.Operator;
+import com.ibm.streamsx.rest.StreamsConnection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests asynchronous and bulk requests against a local mock
+ * of the Streams REST API with slow responses.
+ */
+public class AsyncRestTest {
+
+    private static final int JOBS = 10;
+    private static final int OPERATORS = 6;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String base;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverThreads);
+        base = "http://localhost:" + server.getAddress().getPort() + "/streams/rest";
+        server.createContext("/streams/rest", this::handle);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            respond(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        final String rest = exchange.getRequestURI().getPath().substring("/streams/rest".length());
+        JsonObject response = new JsonObject();
+
+        if (rest.equals("/resources")) {
+            JsonObject instances = new JsonObject();
+            instances.addProperty("name", "instances");
+            instances.addProperty("resource", base + "/instances");
+            response.add("resources", array(instances));
+        } else if (rest.equals("/instances")) {
+            JsonObject instance = new JsonObject();
+            instance.addProperty("id", "inst");
+            instance.addProperty("self", base + "/instances/inst");
+            instance.addProperty("jobs", base + "/jobs");
+            response.add("instances", array(instance));
+        } else if (rest.equals("/jobs")) {
+            JsonArray jobs = new JsonArray();
+            for (int j = 0; j < JOBS; j++) {
+                JsonObject job = new JsonObject();
+                job.addProperty("id", Integer.toString(j));
+                job.addProperty("operators", base + "/operators/" + j);
+                jobs.add(job);
+            }
+            response.add("jobs", jobs);
+        } else if (rest.startsWith("/operators/")) {
+            final String job = rest.substring("/operators/".length());
+            JsonArray ops = new JsonArray();
+            for (int o = 0; o < OPERATORS; o++) {
+                JsonObject op = new JsonObject();
+                op.addProperty("name", "op" + o);
+                op.addProperty("metrics", base + "/metrics/" + job + "/" + o);
+                ops.add(op);
+            }
+            response.add("operators", ops);
+        } else if (rest.startsWith("/metrics/")) {
+            if (rest.endsWith("/missing")) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            sleep();
+            JsonObject metric = new JsonObject();
+            metric.addProperty("name", "nTuplesProcessed");
+            metric.addProperty("value", rest.hashCode() & 0xFFFF);
+            response.add("metrics", array(metric));
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+
+        byte[] data = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static JsonArray array(JsonObject element) {
+        JsonArray array = new JsonArray();
+        array.add(element);
+        return array;
+    }
+
+    private Instance instance(int maxConcurrency) throws IOException {
+        StreamsConnection sc = StreamsConnection.ofAuthenticator(base + "/resources",
+                executor -> "Basic dGVzdDp0ZXN0");
+        sc.setMaxConcurrency(maxConcurrency);
+        return sc.getInstance("inst");
+    }
+
+    @Test
+    public void testOperatorMetrics() throws Exception {
+        Instance instance = instance(4);
+        requests.set(0);
+        maxInFlight.set(0);
+
+        Map<String,Map<String,List<Metric>>> snapshot = instance.getOperatorMetrics();
+
+        assertEquals(JOBS, snapshot.size());
+        for (int j = 0; j < JOBS; j++) {
+            Map<String,List<Metric>> ops = snapshot.get(Integer.toString(j));
+            assertEquals(OPERATORS, ops.size());
+            for (int o = 0; o < OPERATORS; o++) {
+                List<Metric> metrics = ops.get("op" + o);
+                assertEquals(1, metrics.size());
+                assertEquals(("/metrics/" + j + "/" + o).hashCode() & 0xFFFF, metrics.get(0).getValue());
+            }
+        }
+
+        // jobs, operators of each job and metrics of each operator.
+        assertEquals(1 + JOBS + JOBS * OPERATORS, requests.get());
+        assertTrue("concurrent requests: " + maxInFlight.get(), maxInFlight.get() > 1);
+        assertTrue("concurrent requests: " + maxInFlight.get(), maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        Instance instance = instance(8);
+        List<Job> jobs = instance.getJobsAsync().get();
+        assertEquals(JOBS, jobs.size());
+
+        List<Operator> ops = jobs.get(3).getOperatorsAsync().get();
+        assertEquals(OPERATORS, ops.size());
+        assertEquals(1, ops.get(0).getMetricsAsync().get().size());
+    }
+
+    @Test
+    public void testAsyncError() throws Exception {
+        Instance instance = instance(2);
+        Job job = instance.getJobsAsync().join().get(0);
+        Operator op = job.getOperatorsAsync().join().get(0);
+
+        // Point the operator's metrics at a failing URL.
+        java.lang.reflect.Field metrics = Operator.class.getDeclaredField("metrics");
+        metrics.setAccessible(true);
+        metrics.set(op, base + "/metrics/0/missing");
+
+        try {
+            op.getMetricsAsync().join();
+            fail("Expected failure");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
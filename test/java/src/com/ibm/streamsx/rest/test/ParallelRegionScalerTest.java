@@ -0,0 +1,212 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.streamsx.rest.Job;
+import com.ibm.streamsx.rest.ParallelRegionScaler;
+import com.ibm.streamsx.rest.StreamsConnection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests ParallelRegionScaler against a local mock of
+ * the Streams REST API.
+ */
+public class ParallelRegionScalerTest {
+
+    private static final String REGION = "src_parallel";
+
+    private HttpServer server;
+    private String base;
+
+    /** Current width of the mock job's region. */
+    private volatile int width = 2;
+    /** Tuples queued on each channel's input port. */
+    private volatile long queued;
+    /** Enqueue waits on each channel's input port. */
+    private volatile long enqueueWaits;
+    /** Bodies of job updates. */
+    private final List<JsonObject> updates = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        base = "http://localhost:" + server.getAddress().getPort() + "/streams/rest";
+        server.createContext("/streams/rest", this::handle);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final String rest = path.substring("/streams/rest".length());
+        JsonObject response = new JsonObject();
+
+        if ("PUT".equals(exchange.getRequestMethod())) {
+            JsonObject body = new JsonParser().parse(read(exchange.getRequestBody())).getAsJsonObject();
+            updates.add(body);
+            width = body.getAsJsonObject("jobConfigurationOverlay")
+                    .getAsJsonArray("jobConfigOverlays").get(0).getAsJsonObject()
+                    .getAsJsonObject("configInstructions")
+                    .getAsJsonArray("adjustmentSection").get(0).getAsJsonObject()
+                    .get("newWidth").getAsInt();
+        } else if (rest.equals("/resources")) {
+            JsonObject instances = new JsonObject();
+            instances.addProperty("name", "instances");
+            instances.addProperty("resource", base + "/instances");
+            response.add("resources", array(instances));
+        } else if (rest.equals("/instances")) {
+            JsonObject instance = new JsonObject();
+            instance.addProperty("id", "inst");
+            instance.addProperty("self", base + "/instances/inst");
+            instance.addProperty("jobs", base + "/instances/inst/jobs");
+            response.add("instances", array(instance));
+        } else if (rest.equals("/instances/inst/jobs/1")) {
+            response.addProperty("id", "1");
+            response.addProperty("self", base + rest);
+            response.addProperty("operators", base + rest + "/operators");
+        } else if (rest.equals("/instances/inst/jobs/1/operators")) {
+            JsonArray ops = new JsonArray();
+            ops.add(operator("src", "src"));
+            for (int c = 0; c < width; c++) {
+                ops.add(operator(REGION + "[" + c + "].op", REGION + ".op"));
+                ops.add(operator(REGION + "[" + c + "].inner_parallel[0].op",
+                        REGION + ".inner_parallel.op"));
+            }
+            response.add("operators", ops);
+        } else if (rest.startsWith("/ports/")) {
+            JsonObject port = new JsonObject();
+            port.addProperty("name", "in");
+            port.addProperty("metrics", base + "/metrics/" + rest.substring("/ports/".length()));
+            response.add("inputPorts", array(port));
+        } else if (rest.startsWith("/metrics/")) {
+            JsonArray metrics = new JsonArray();
+            metrics.add(metric(ParallelRegionScaler.QUEUED_METRIC, queued));
+            metrics.add(metric(ParallelRegionScaler.ENQUEUE_WAITS_METRIC, enqueueWaits));
+            response.add("metrics", metrics);
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+
+        byte[] data = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private JsonObject operator(String name, String logicalName) {
+        JsonObject op = new JsonObject();
+        op.addProperty("name", name);
+        op.addProperty("logicalName", logicalName);
+        op.addProperty("inputPorts", base + "/ports/" + name.replaceAll("\\W", "_"));
+        return op;
+    }
+
+    private static JsonObject metric(String name, long value) {
+        JsonObject metric = new JsonObject();
+        metric.addProperty("name", name);
+        metric.addProperty("value", value);
+        return metric;
+    }
+
+    private static JsonArray array(JsonObject element) {
+        JsonArray array = new JsonArray();
+        array.add(element);
+        return array;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        for (int n; (n = in.read(buf)) != -1;)
+            out.write(buf, 0, n);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private ParallelRegionScaler scaler() throws IOException {
+        StreamsConnection sc = StreamsConnection.ofAuthenticator(base + "/resources",
+                executor -> "Basic dGVzdDp0ZXN0");
+        Job job = sc.getInstance("inst").getJob("1");
+        return new ParallelRegionScaler(job, REGION)
+                .setWidthRange(1, 6)
+                .setQueueThresholds(100, 5)
+                .setHysteresis(2, 3)
+                .setCooldown(1);
+    }
+
+    @Test
+    public void testScaleUpAndDown() throws Exception {
+        ParallelRegionScaler scaler = scaler();
+
+        // Between the water marks, no change.
+        queued = 50;
+        for (int i = 0; i < 5; i++)
+            assertEquals(2, scaler.step());
+        assertTrue(updates.isEmpty());
+
+        // Hysteresis, first high sample does not resize.
+        queued = 200;
+        assertEquals(2, scaler.step());
+        assertEquals(4, scaler.step());
+        assertEquals(1, updates.size());
+        assertEquals(4, width);
+
+        // Cooldown sample is ignored, then limited by the maximum width.
+        assertEquals(4, scaler.step());
+        assertEquals(4, scaler.step());
+        assertEquals(6, scaler.step());
+        assertEquals(6, width);
+
+        // Decreased by one after three low samples.
+        queued = 0;
+        assertEquals(6, scaler.step());
+        assertEquals(6, scaler.step());
+        assertEquals(6, scaler.step());
+        assertEquals(5, scaler.step());
+        assertEquals(5, width);
+        assertEquals(3, updates.size());
+    }
+
+    @Test
+    public void testCongestion() throws Exception {
+        ParallelRegionScaler scaler = scaler();
+
+        // Queues are low but enqueues are waiting.
+        queued = 0;
+        enqueueWaits = 10;
+        assertEquals(2, scaler.step());
+        enqueueWaits = 20;
+        assertEquals(2, scaler.step());
+        enqueueWaits = 30;
+        assertEquals(4, scaler.step());
+        assertEquals(4, width);
+    }
+}
@@ -0,0 +1,334 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.generator.spl;
+
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.builder.BOperatorInvocation;
+import com.ibm.streamsx.topology.builder.BOutputPort;
+import com.ibm.streamsx.topology.consistent.ConsistentRegionConfig;
+import com.ibm.streamsx.topology.context.ContextProperties;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.ThreadSafe;
+import com.ibm.streamsx.topology.internal.core.JavaFunctionalOps;
+import com.ibm.streamsx.topology.internal.core.StreamImpl;
+
+/**
+ * Tests of the graph optimizations applied during SPL generation.
+ */
+public class OptimizerTest {
+
+    private static List<JsonObject> operators(JsonObject graph, String kind) {
+        final List<JsonObject> ops = new ArrayList<>();
+        GraphUtilities.operators(graph, op -> {
+            if (kind.equals(kind(op)))
+                ops.add(op);
+        });
+        return ops;
+    }
+
+    private static JsonObject operator(JsonObject graph, String kind) {
+        final List<JsonObject> ops = operators(graph, kind);
+        assertEquals(kind, 1, ops.size());
+        return ops.get(0);
+    }
+
+    private static JsonObject output(JsonObject op) {
+        assertEquals(1, op.getAsJsonArray("outputs").size());
+        return op.getAsJsonArray("outputs").get(0).getAsJsonObject();
+    }
+
+    private static JsonObject copy(JsonObject object) {
+        return new JsonParser().parse(object.toString()).getAsJsonObject();
+    }
+
+    private static JsonObject parameters(JsonObject op) {
+        return op.getAsJsonObject("parameters");
+    }
+
+    /**
+     * A keyed parallel region fed by a Java map has its
+     * HashAdder folded into the map, the map's output port
+     * takes every property of the HashAdder's output port,
+     * apart from its name and index.
+     */
+    @Test
+    public void testHashAdderFoldedIntoJavaProducer() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> s = topology.strings("a", "bb", "ccc").map(v -> v + "!");
+        s = s.parallel(() -> 3, v -> v.length());
+        s.filter(v -> true).endParallel().forEach(v -> {});
+
+        final JsonObject graph = topology.builder()._complete();
+        // Any property of the HashAdder's port is carried over.
+        output(operator(graph, JavaFunctionalOps.HASH_ADDER_KIND)).addProperty("test.property", 42);
+        final JsonObject hashOutput = copy(output(operator(graph, JavaFunctionalOps.HASH_ADDER_KIND)));
+        final JsonObject mapOutputBefore = copy(output(operator(graph, JavaFunctionalOps.MAP_KIND)));
+        final String mapName = jstring(operator(graph, JavaFunctionalOps.MAP_KIND), "name");
+
+        new SPLGenerator().generateSPL(graph);
+
+        assertTrue(operators(graph, JavaFunctionalOps.HASH_ADDER_KIND).isEmpty());
+
+        final JsonObject map = operator(graph, JavaFunctionalOps.MAP_KIND);
+        assertEquals(mapName, jstring(map, "name"));
+        assertNotNull(parameters(map).get("outputHasher"));
+
+        final JsonObject mapOutput = output(map);
+        assertEquals(jstring(mapOutputBefore, "name"), jstring(mapOutput, "name"));
+        for (Entry<String, JsonElement> property : hashOutput.entrySet()) {
+            if (!"name".equals(property.getKey()))
+                assertEquals(property.getKey(), property.getValue(), mapOutput.get(property.getKey()));
+        }
+        // Properties only on the map's port are kept.
+        for (Entry<String, JsonElement> property : mapOutputBefore.entrySet()) {
+            if (!hashOutput.has(property.getKey()))
+                assertEquals(property.getKey(), property.getValue(), mapOutput.get(property.getKey()));
+        }
+        assertEquals(42, mapOutput.get("test.property").getAsInt());
+    }
+
+    /**
+     * A HashAdder fed by an SPL operator is kept,
+     * only Java functional operators can add the hash.
+     */
+    @Test
+    public void testHashAdderKeptForNonJavaProducer() throws Exception {
+        final Topology topology = new Topology();
+        final BOperatorInvocation beacon = topology.builder().addSPLOperator(
+                "Beacon", "spl.utility::Beacon", Collections.emptyMap());
+        final BOutputPort port = beacon.addOutput("tuple<blob __spl_jo>");
+        TStream<String> s = new StreamImpl<String>(topology, port, String.class);
+        s = s.parallel(() -> 3, v -> v.length());
+        s.filter(v -> true).endParallel().forEach(v -> {});
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        final JsonObject hashAdder = operator(graph, JavaFunctionalOps.HASH_ADDER_KIND);
+        assertNotNull(parameters(hashAdder).get("functionalLogic"));
+        final JsonObject beaconOp = operator(graph, "spl.utility::Beacon");
+        assertNull(parameters(beaconOp).get("outputHasher"));
+        assertEquals("tuple<blob __spl_jo>", jstring(output(beaconOp), "type"));
+    }
+
+    /**
+     * A HashAdder is kept when its Java producer
+     * has other consumers, as they do not expect the hash.
+     */
+    @Test
+    public void testHashAdderKeptForFanOut() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> s = topology.strings("a", "bb", "ccc").map(v -> v + "!");
+        s.forEach(v -> {});
+        s = s.parallel(() -> 3, v -> v.length());
+        s.filter(v -> true).endParallel().forEach(v -> {});
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        assertEquals(1, operators(graph, JavaFunctionalOps.HASH_ADDER_KIND).size());
+        final JsonObject map = operator(graph, JavaFunctionalOps.MAP_KIND);
+        assertNull(parameters(map).get("outputHasher"));
+        assertEquals(2, output(map).getAsJsonArray("connections").size());
+    }
+
+    /**
+     * Map logic without state, fused.
+     */
+    public static final class Exclaim implements Function<String,String> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String apply(String v) {
+            return v + "!";
+        }
+    }
+
+    /**
+     * Map logic with state, not fused.
+     */
+    public static final class Counter implements Function<String,String> {
+        private static final long serialVersionUID = 1L;
+        private long count;
+
+        @Override
+        public String apply(String v) {
+            return v + count++;
+        }
+    }
+
+    /**
+     * Map logic with state that is thread safe, fused.
+     */
+    @ThreadSafe
+    public static final class SafeCounter implements Function<String,String> {
+        private static final long serialVersionUID = 1L;
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public String apply(String v) {
+            return v + count.getAndIncrement();
+        }
+    }
+
+    private static JsonArray stages(JsonObject pipeline) {
+        return parameters(pipeline).getAsJsonObject("stages").getAsJsonArray("value");
+    }
+
+    private static JsonArray stagesOf(String... kinds) {
+        final JsonArray stages = new JsonArray();
+        for (String kind : kinds)
+            stages.add(new JsonPrimitive(kind));
+        return stages;
+    }
+
+    private static void assertNotFused(JsonObject graph) {
+        assertTrue(operators(graph, JavaFunctionalOps.PIPELINE_KIND).isEmpty());
+        assertEquals(1, operators(graph, JavaFunctionalOps.FILTER_KIND).size());
+        assertEquals(1, operators(graph, JavaFunctionalOps.MAP_KIND).size());
+        assertEquals(1, operators(graph, JavaFunctionalOps.FOR_EACH_KIND).size());
+    }
+
+    private static TStream<String> chain(Topology topology, Function<String,String> mapper) {
+        TStream<String> s = topology.strings("a", "", "b").filter(v -> !v.isEmpty());
+        s = s.map(mapper);
+        s.forEach(v -> {});
+        return s;
+    }
+
+    /**
+     * A chain of stateless functions is fused into a single
+     * Pipeline operator, with the stages in order and
+     * the logic of all but the first stage in stageLogic.
+     */
+    @Test
+    public void testFusion() throws Exception {
+        final Topology topology = new Topology();
+        chain(topology, new Exclaim());
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        final JsonObject pipeline = operator(graph, JavaFunctionalOps.PIPELINE_KIND);
+        assertEquals(stagesOf("Filter", "Map", "ForEach"), stages(pipeline));
+        assertEquals(2, parameters(pipeline).getAsJsonObject("stageLogic").getAsJsonArray("value").size());
+        assertNotNull(parameters(pipeline).get("functionalLogic"));
+        assertNull(pipeline.get("outputs"));
+
+        assertTrue(operators(graph, JavaFunctionalOps.FILTER_KIND).isEmpty());
+        assertTrue(operators(graph, JavaFunctionalOps.MAP_KIND).isEmpty());
+        assertTrue(operators(graph, JavaFunctionalOps.FOR_EACH_KIND).isEmpty());
+    }
+
+    /**
+     * Stateful logic is not fused with its producer or consumer.
+     */
+    @Test
+    public void testStatefulNotFused() throws Exception {
+        final Topology topology = new Topology();
+        chain(topology, new Counter());
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        assertNotFused(graph);
+    }
+
+    /**
+     * Stateful logic annotated ThreadSafe is fused.
+     */
+    @Test
+    public void testThreadSafeFused() throws Exception {
+        final Topology topology = new Topology();
+        chain(topology, new SafeCounter());
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        assertEquals(stagesOf("Filter", "Map", "ForEach"),
+                stages(operator(graph, JavaFunctionalOps.PIPELINE_KIND)));
+    }
+
+    @Test
+    public void testNoFusionWhenDisabled() throws Exception {
+        final Topology topology = new Topology();
+        chain(topology, new Exclaim());
+
+        final JsonObject graph = topology.builder()._complete();
+        graph.getAsJsonObject("config").addProperty(ContextProperties.JAVA_FUSION, false);
+        new SPLGenerator().generateSPL(graph);
+
+        assertNotFused(graph);
+    }
+
+    @Test
+    public void testNoFusionWithCheckpoint() throws Exception {
+        final Topology topology = new Topology();
+        chain(topology, new Exclaim());
+        topology.checkpointPeriod(1, TimeUnit.SECONDS);
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        assertNotFused(graph);
+    }
+
+    @Test
+    public void testNoFusionWithConsistentRegion() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> s = topology.strings("a", "", "b");
+        s.setConsistent(ConsistentRegionConfig.periodic(10));
+        s = s.filter(v -> !v.isEmpty()).map(new Exclaim());
+        s.forEach(v -> {});
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        assertNotFused(graph);
+    }
+
+    /**
+     * A producer with multiple consumers is not fused,
+     * its consumers may still be fused with their own consumers.
+     */
+    @Test
+    public void testNoFusionWithFanOut() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> s = topology.strings("a", "", "b").filter(v -> !v.isEmpty());
+        s.map(new Exclaim()).forEach(v -> {});
+        s.forEach(v -> {});
+
+        final JsonObject graph = topology.builder()._complete();
+        new SPLGenerator().generateSPL(graph);
+
+        final JsonObject filter = operator(graph, JavaFunctionalOps.FILTER_KIND);
+        assertEquals(2, output(filter).getAsJsonArray("connections").size());
+        assertEquals(stagesOf("Map", "ForEach"),
+                stages(operator(graph, JavaFunctionalOps.PIPELINE_KIND)));
+        assertEquals(1, operators(graph, JavaFunctionalOps.FOR_EACH_KIND).size());
+    }
+}
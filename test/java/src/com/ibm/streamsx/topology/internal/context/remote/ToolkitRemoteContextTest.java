@@ -0,0 +1,100 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.context.remote;
+
+import static com.ibm.streamsx.topology.context.ContextProperties.VIRTUAL_THREADS;
+import static com.ibm.streamsx.topology.context.ContextProperties.VMARGS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.ibm.streamsx.topology.context.remote.RemoteContext;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+
+public class ToolkitRemoteContextTest {
+
+    private static final JsonPrimitive VIRTUAL_ARG = new JsonPrimitive(
+            "-D" + FunctionalOpProperties.VIRTUAL_THREADS_PROPERTY + "=true");
+
+    private static JsonObject submission(JsonElement vmArgs) {
+        final JsonObject deploy = new JsonObject();
+        deploy.addProperty(VIRTUAL_THREADS, true);
+        if (vmArgs != null)
+            deploy.add(VMARGS, vmArgs);
+
+        final JsonObject submission = new JsonObject();
+        submission.add(RemoteContext.SUBMISSION_DEPLOY, deploy);
+        submission.add(RemoteContext.SUBMISSION_GRAPH, new JsonObject());
+        return submission;
+    }
+
+    private static JsonArray graphVmArgs(JsonObject submission) {
+        return submission.getAsJsonObject(RemoteContext.SUBMISSION_GRAPH)
+                .getAsJsonObject("config").getAsJsonArray(VMARGS);
+    }
+
+    private static JsonArray array(String... values) {
+        final JsonArray array = new JsonArray();
+        for (String value : values)
+            array.add(new JsonPrimitive(value));
+        return array;
+    }
+
+    @Test
+    public void testVirtualThreadsNoVmArgs() {
+        final JsonObject submission = submission(null);
+        ToolkitRemoteContext.addSelectDeployToGraphConfig(submission);
+        final JsonArray expected = new JsonArray();
+        expected.add(VIRTUAL_ARG);
+        assertEquals(expected, graphVmArgs(submission));
+        assertFalse(DeployKeys.deploy(submission).has(VMARGS));
+    }
+
+    /**
+     * The application's arguments are kept and the deploy
+     * array is not modified, so repeated submissions
+     * do not add the argument again.
+     */
+    @Test
+    public void testVirtualThreadsVmArgsArray() {
+        final JsonArray vmArgs = array("-Xmx1g", "-Da=b");
+        final JsonObject submission = submission(vmArgs);
+
+        for (int i = 0; i < 3; i++) {
+            ToolkitRemoteContext.addSelectDeployToGraphConfig(submission);
+            final JsonArray expected = array("-Xmx1g", "-Da=b");
+            expected.add(VIRTUAL_ARG);
+            assertEquals(expected, graphVmArgs(submission));
+            assertEquals(array("-Xmx1g", "-Da=b"), vmArgs);
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsVmArgsString() {
+        final JsonObject submission = submission(new JsonPrimitive("-Xmx1g"));
+        ToolkitRemoteContext.addSelectDeployToGraphConfig(submission);
+
+        final JsonArray expected = array("-Xmx1g");
+        expected.add(VIRTUAL_ARG);
+        assertEquals(expected, graphVmArgs(submission));
+        assertEquals(new JsonPrimitive("-Xmx1g"), DeployKeys.deploy(submission).get(VMARGS));
+    }
+
+    /**
+     * An argument explicitly enabling virtual threads is not repeated.
+     */
+    @Test
+    public void testVirtualThreadsVmArgsIncluded() {
+        final JsonArray vmArgs = array("-Xmx1g", VIRTUAL_ARG.getAsString());
+        final JsonObject submission = submission(vmArgs);
+        ToolkitRemoteContext.addSelectDeployToGraphConfig(submission);
+        assertEquals(vmArgs, graphVmArgs(submission));
+    }
+}
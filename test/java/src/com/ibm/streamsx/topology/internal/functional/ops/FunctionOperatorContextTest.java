@@ -0,0 +1,95 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streamsx.topology.function.FunctionContext;
+
+/**
+ * Function contexts for the stages of a fused Pipeline operator.
+ */
+public class FunctionOperatorContextTest {
+
+    /**
+     * Stages keep their custom metric names, a name already
+     * used by another stage is qualified by its stage.
+     */
+    @Test
+    public void testStageMetrics() throws Exception {
+        final Map<String,Metric> metrics = new ConcurrentHashMap<>();
+        final FunctionOperatorContext context = new FunctionOperatorContext(OperatorContexts.context(metrics));
+        final FunctionContext filter = context.stageContext("0.Filter");
+        final FunctionContext map = context.stageContext("1.Map");
+        final FunctionContext forEach = context.stageContext("2.ForEach");
+
+        filter.createCustomMetric("filtered", "Filter count", "counter", () -> 2);
+        map.createCustomMetric("count", "Map count", "counter", () -> 3);
+        forEach.createCustomMetric("count", "ForEach count", "counter", () -> 7);
+        forEach.createCustomMetric("other", "ForEach other", "gauge", () -> 1);
+
+        assertEquals(new HashSet<>(Arrays.asList("filtered", "count", "count.2.ForEach", "other")),
+                metrics.keySet());
+        assertEquals(2, metrics.get("filtered").getValue());
+        assertEquals(3, metrics.get("count").getValue());
+        assertEquals(7, metrics.get("count.2.ForEach").getValue());
+
+        assertEquals(Collections.singleton("filtered"), filter.getCustomMetricNames());
+        assertEquals(Collections.singleton("count"), map.getCustomMetricNames());
+        assertEquals(new HashSet<>(Arrays.asList("count", "other")), forEach.getCustomMetricNames());
+        assertTrue(context.stageContext("3.ForEach").getCustomMetricNames().isEmpty());
+
+        // Names remain unique within a stage.
+        try {
+            map.createCustomMetric("count", "Map count", "counter", () -> 3);
+            fail("Duplicate metric created");
+        } catch (IllegalArgumentException e) {
+        }
+        context.finalMarkers();
+    }
+
+    /**
+     * After a reset stages rebind to the metrics they created,
+     * regardless of the order they create them.
+     */
+    @Test
+    public void testStageMetricsReset() throws Exception {
+        final Map<String,Metric> metrics = new ConcurrentHashMap<>();
+        final FunctionOperatorContext context = new FunctionOperatorContext(OperatorContexts.context(metrics));
+        final FunctionContext map = context.stageContext("1.Map");
+        final FunctionContext forEach = context.stageContext("2.ForEach");
+
+        map.createCustomMetric("count", "Map count", "counter", () -> 3);
+        forEach.createCustomMetric("count", "ForEach count", "counter", () -> 7);
+
+        context.clearMetrics();
+        forEach.createCustomMetric("count", "ForEach count", "counter", () -> 8);
+        map.createCustomMetric("count", "Map count", "counter", () -> 4);
+
+        assertEquals(new HashSet<>(Arrays.asList("count", "count.2.ForEach")), metrics.keySet());
+        assertEquals(4, metrics.get("count").getValue());
+        assertEquals(8, metrics.get("count.2.ForEach").getValue());
+        context.finalMarkers();
+    }
+
+    @Test
+    public void testOperatorContext() throws Exception {
+        final FunctionOperatorContext context = new FunctionOperatorContext(OperatorContexts.context());
+        assertSame(context, FunctionOperatorContext.operatorContext(context));
+        assertSame(context, FunctionOperatorContext.operatorContext(context.stageContext("1.Map")));
+    }
+}
@@ -0,0 +1,227 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.metrics.Metric;
+
+public class FunctionalQueueTest {
+
+    private final ExecutorService producers = Executors.newCachedThreadPool();
+    private FunctionalQueue<Integer> queue;
+
+    @After
+    public void stop() {
+        if (queue != null)
+            queue.stop();
+        producers.shutdownNow();
+    }
+
+    @Test(timeout=30_000)
+    public void testOrderWithMarks() throws Exception {
+        final List<Object> seen = Collections.synchronizedList(new ArrayList<>());
+        queue = new FunctionalQueue<>(OperatorContexts.context(), 8,
+                FunctionalQueue.Wait.BLOCK, new Recorder(seen, null));
+
+        for (int i = 0; i < 1000; i++) {
+            queue.tuple(i);
+            if (i % 100 == 99)
+                queue.mark(Punctuation.WINDOW_MARKER);
+        }
+        queue.mark(Punctuation.FINAL_MARKER);
+
+        assertEquals(1011, seen.size());
+        assertEquals(Punctuation.FINAL_MARKER, seen.get(1010));
+        int expected = 0;
+        for (int i = 0; i < 1010; i++) {
+            if (i % 101 == 100)
+                assertEquals(Punctuation.WINDOW_MARKER, seen.get(i));
+            else
+                assertEquals(expected++, seen.get(i));
+        }
+    }
+
+    /**
+     * A full queue blocks its producer until the reader
+     * makes space.
+     */
+    @Test(timeout=30_000)
+    public void testFullQueue() throws Exception {
+        final Map<String,Metric> metrics = new ConcurrentHashMap<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Object> seen = Collections.synchronizedList(new ArrayList<>());
+        queue = new FunctionalQueue<>(OperatorContexts.context(metrics), 4,
+                FunctionalQueue.Wait.PARK, new Recorder(seen, release));
+
+        final AtomicInteger submitted = new AtomicInteger();
+        final Future<?> producer = producers.submit(() -> {
+            for (int i = 0; i < 20; i++) {
+                queue.tuple(i);
+                submitted.incrementAndGet();
+            }
+            return null;
+        });
+
+        // Reader holds one tuple, the queue holds four.
+        try {
+            producer.get(500, TimeUnit.MILLISECONDS);
+            fail("Producer not blocked by full queue");
+        } catch (TimeoutException e) {
+        }
+        assertEquals(5, submitted.get());
+
+        release.countDown();
+        producer.get();
+        queue.mark(Punctuation.WINDOW_MARKER);
+        assertEquals(21, seen.size());
+        for (int i = 0; i < 20; i++)
+            assertEquals(i, seen.get(i));
+
+        assertTrue(metrics.get("queueEnqueueWaitNanos").getValue() > 0);
+    }
+
+    /**
+     * A failure of the reader's handler releases
+     * producers waiting for space and for marks.
+     */
+    @Test(timeout=30_000)
+    public void testReaderException() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        queue = new FunctionalQueue<>(OperatorContexts.context(), 4,
+                FunctionalQueue.Wait.BLOCK, new StreamHandler<Integer>() {
+            @Override
+            public void tuple(Integer tuple) throws Exception {
+                release.await();
+                throw new IllegalArgumentException("Failed: " + tuple);
+            }
+
+            @Override
+            public void mark(Punctuation mark) throws Exception {
+            }
+        });
+
+        final Future<?> marker = producers.submit(() -> {
+            queue.tuple(0);
+            queue.mark(Punctuation.WINDOW_MARKER);
+            return null;
+        });
+        final Future<?> producer = producers.submit(() -> {
+            for (int i = 1; i < 100; i++)
+                queue.tuple(i);
+            return null;
+        });
+
+        Thread.sleep(200);
+        assertFalse(marker.isDone());
+        assertFalse(producer.isDone());
+
+        release.countDown();
+        assertFailed(marker, IllegalArgumentException.class);
+        assertFailed(producer, IllegalArgumentException.class);
+
+        assertTrue(queue.isStopped());
+        try {
+            queue.tuple(100);
+            fail("Submitted to failed queue");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    /**
+     * Stopping the queue releases blocked producers.
+     */
+    @Test(timeout=30_000)
+    public void testStop() throws Exception {
+        final List<Object> seen = Collections.synchronizedList(new ArrayList<>());
+        queue = new FunctionalQueue<>(OperatorContexts.context(), 2,
+                FunctionalQueue.Wait.BLOCK, new Recorder(seen, new CountDownLatch(1)));
+
+        final Future<?> producer = producers.submit(() -> {
+            for (int i = 0; i < 10; i++)
+                queue.tuple(i);
+            return null;
+        });
+        final Future<?> marker = producers.submit(() -> {
+            queue.mark(Punctuation.FINAL_MARKER);
+            return null;
+        });
+
+        Thread.sleep(200);
+        assertFalse(producer.isDone());
+        assertFalse(marker.isDone());
+
+        queue.stop();
+        assertFailed(producer, null);
+        assertFailed(marker, null);
+        assertTrue(queue.isStopped());
+        assertFalse(seen.contains(Punctuation.FINAL_MARKER));
+    }
+
+    private static void assertFailed(Future<?> future, Class<? extends Throwable> cause)
+            throws InterruptedException {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Expected failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), e.getCause() instanceof IllegalStateException);
+            if (cause == null)
+                assertEquals(null, e.getCause().getCause());
+            else
+                assertTrue(cause.isInstance(e.getCause().getCause()));
+        } catch (TimeoutException e) {
+            fail("Producer not released");
+        }
+    }
+
+    /**
+     * Records tuples and marks, optionally blocking
+     * each tuple until released.
+     */
+    private static class Recorder implements StreamHandler<Integer> {
+        private final List<Object> seen;
+        private final CountDownLatch release;
+
+        Recorder(List<Object> seen, CountDownLatch release) {
+            this.seen = seen;
+            this.release = release;
+        }
+
+        @Override
+        public void tuple(Integer tuple) throws Exception {
+            if (release != null)
+                release.await();
+            seen.add(tuple);
+        }
+
+        @Override
+        public void mark(Punctuation mark) throws Exception {
+            seen.add(mark);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.OperatorMetrics;
+
+/**
+ * Minimal operator context for unit testing
+ * functional operator internals outside of Streams.
+ * Supports custom metrics, a thread factory and
+ * a scheduled executor service.
+ */
+class OperatorContexts {
+
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread t = new Thread(r);
+                t.setDaemon(true);
+                return t;
+            });
+
+    /**
+     * Create an operator context, custom metrics
+     * are added to {@code metrics} by name.
+     */
+    static OperatorContext context(Map<String,Metric> metrics) {
+        final OperatorMetrics opMetrics = proxy(OperatorMetrics.class, (method, args) -> {
+            switch (method) {
+            case "createCustomMetric":
+                final String name = (String) args[0];
+                final Metric metric = metric(name);
+                if (metrics.putIfAbsent(name, metric) != null)
+                    throw new IllegalArgumentException("Metric exists: " + name);
+                return metric;
+            case "getCustomMetric":
+                return metrics.get(args[0]);
+            case "getCustomMetrics":
+                return metrics;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+
+        return proxy(OperatorContext.class, (method, args) -> {
+            switch (method) {
+            case "getMetrics":
+                return opMetrics;
+            case "getThreadFactory":
+                return Executors.defaultThreadFactory();
+            case "getScheduledExecutorService":
+                return SCHEDULER;
+            case "getPE":
+                return null;
+            case "getName":
+                return "op";
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    static OperatorContext context() {
+        return context(new ConcurrentHashMap<>());
+    }
+
+    private static Metric metric(String name) {
+        final AtomicLong value = new AtomicLong();
+        return proxy(Metric.class, (method, args) -> {
+            switch (method) {
+            case "getName":
+                return name;
+            case "getValue":
+                return value.get();
+            case "setValue":
+                value.set((Long) args[0]);
+                return null;
+            case "increment":
+                value.incrementAndGet();
+                return null;
+            case "incrementValue":
+                value.addAndGet((Long) args[0]);
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(OperatorContexts.class.getClassLoader(),
+                new Class<?>[] { type }, (p, method, args) -> {
+                    switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    case "equals":
+                        return p == args[0];
+                    case "toString":
+                        return type.getSimpleName();
+                    }
+                    return handler.invoke(method.getName(), args);
+                }));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.streams.operator.StreamingData.Punctuation;
+
+public class ParallelFunctionalQueueTest {
+
+    private ParallelFunctionalQueue queue;
+
+    @After
+    public void stop() {
+        if (queue != null)
+            queue.stop();
+    }
+
+    /**
+     * Results are submitted in input order though
+     * the logic is applied concurrently, marks are
+     * submitted after all earlier tuples.
+     */
+    @Test(timeout=60_000)
+    public void testOrdering() throws Exception {
+        final Recorder functor = new Recorder(TimeUnit.MICROSECONDS.toNanos(20));
+        queue = new ParallelFunctionalQueue(OperatorContexts.context(), 16,
+                FunctionalQueue.Wait.BLOCK, 4, functor);
+
+        final int n = 10_000;
+        final List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            queue.tuple(i);
+            if (i % 7 != 0)
+                expected.add(i * 2);
+            if (i % 1000 == 999) {
+                queue.mark(Punctuation.WINDOW_MARKER);
+                expected.add(Punctuation.WINDOW_MARKER);
+            }
+        }
+        queue.mark(Punctuation.FINAL_MARKER);
+        expected.add(Punctuation.FINAL_MARKER);
+
+        assertEquals(expected, functor.submitted);
+        assertTrue("Logic not applied concurrently: " + functor.maxConcurrent,
+                functor.maxConcurrent.get() > 1);
+        assertEquals(4, functor.threads.size());
+    }
+
+    /**
+     * The final marker waits until all earlier tuples
+     * have been processed and submitted.
+     */
+    @Test(timeout=60_000)
+    public void testFinalMarkerDrain() throws Exception {
+        final Recorder functor = new Recorder(TimeUnit.MILLISECONDS.toNanos(2));
+        queue = new ParallelFunctionalQueue(OperatorContexts.context(), 64,
+                FunctionalQueue.Wait.PARK, 3, functor);
+
+        for (int i = 1; i <= 200; i++)
+            queue.tuple(i);
+        queue.mark(Punctuation.FINAL_MARKER);
+
+        final List<Object> submitted = new ArrayList<>(functor.submitted);
+        assertEquals(200 - 200 / 7 + 1, submitted.size());
+        assertEquals(Punctuation.FINAL_MARKER, submitted.get(submitted.size() - 1));
+        assertEquals(2, submitted.get(0));
+        assertEquals(400, submitted.get(submitted.size() - 2));
+    }
+
+    /**
+     * Functor whose logic doubles its value, dropping multiples of
+     * seven, and records the submitted results and marks.
+     */
+    private static class Recorder extends FunctionQueueableFunctor {
+        final List<Object> submitted = Collections.synchronizedList(new ArrayList<>());
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final long delay;
+
+        Recorder(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        Object apply(Object value) throws Exception {
+            threads.add(Thread.currentThread());
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(delay));
+                final int v = (Integer) value;
+                return v % 7 == 0 ? null : v * 2;
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+
+        @Override
+        void submit(Object result) throws Exception {
+            submitted.add(result);
+        }
+
+        @Override
+        public void mark(Punctuation mark) throws Exception {
+            submitted.add(mark);
+        }
+    }
+}
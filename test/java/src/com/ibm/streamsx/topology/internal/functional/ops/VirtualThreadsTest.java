@@ -0,0 +1,72 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    private static boolean hasVirtualThreads() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    public void testNotEnabled() {
+        assertNull(VirtualThreads.virtualThreadFactory(false));
+    }
+
+    /**
+     * Without {@code Thread.ofVirtual} enabling virtual threads
+     * falls back to the operator context's platform threads.
+     */
+    @Test
+    public void testNotSupported() throws Exception {
+        assumeFalse(hasVirtualThreads());
+        assertNull(VirtualThreads.virtualThreadFactory(true));
+
+        assumeFalse(Boolean.getBoolean(VirtualThreads.PROPERTY));
+        assertFalse(VirtualThreads.isEnabled());
+        final CountDownLatch ran = new CountDownLatch(1);
+        final Thread thread = VirtualThreads.newThread(OperatorContexts.context(), ran::countDown);
+        assertFalse(thread.isDaemon());
+        thread.start();
+        assertTrue(ran.await(10, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    @Test
+    public void testSupported() throws Exception {
+        assumeTrue(hasVirtualThreads());
+        final ThreadFactory factory = VirtualThreads.virtualThreadFactory(true);
+        assertNotNull(factory);
+
+        final CountDownLatch ran = new CountDownLatch(1);
+        final Thread thread = factory.newThread(ran::countDown);
+        assertTrue(isVirtual(thread));
+        assertTrue(thread.getName().startsWith("functional-"));
+        thread.start();
+        assertTrue(ran.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.internal.functional.window.PanePeriodicAggregator.Pane;
+import com.ibm.streamsx.topology.internal.functional.window.PanePeriodicAggregator.PartitionPanes;
+
+public class PanePeriodicAggregatorTest {
+
+    private static RingList<String> tuples(String... values) {
+        final RingList<String> tuples = new RingList<>();
+        for (String value : values)
+            tuples.addLast(value);
+        return tuples;
+    }
+
+    /**
+     * A reset window has new partition state instances, so
+     * the panes are rebuilt as a single pane of the reset tuples.
+     */
+    @Test
+    public void testReset() {
+        final Map<Object, PartitionPanes<String>> panes = new HashMap<>();
+
+        final RingList<String> tuples = tuples("a", "b", "c");
+        final PartitionPanes<String> partitionPanes = PanePeriodicAggregator.panes(panes, "p", tuples);
+        assertSame(partitionPanes, PanePeriodicAggregator.panes(panes, "p", tuples));
+        assertEquals(1, partitionPanes.panes.size());
+        assertEquals(3, partitionPanes.panes.getFirst().count);
+
+        // Checkpoint, then the window continues with a new pane.
+        final RingList<String> checkpoint = tuples("a", "b", "c");
+        final Pane<String> pane = new Pane<>();
+        pane.count = 2;
+        partitionPanes.panes.addLast(pane);
+        tuples.addLast("d");
+        tuples.addLast("e");
+
+        // Reset to the checkpoint, the existing panes are stale.
+        assertFalse(partitionPanes.isFor(checkpoint));
+        final PartitionPanes<String> reset = PanePeriodicAggregator.panes(panes, "p", checkpoint);
+        assertNotSame(partitionPanes, reset);
+        assertSame(reset, panes.get("p"));
+        assertEquals(1, reset.panes.size());
+        assertEquals(3, reset.panes.getFirst().count);
+
+        // Reset to the initial state, an empty partition.
+        assertTrue(PanePeriodicAggregator.panes(panes, "p", tuples()).panes.isEmpty());
+    }
+}
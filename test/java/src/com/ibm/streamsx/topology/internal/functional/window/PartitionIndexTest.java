@@ -0,0 +1,111 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.function.Function;
+
+public class PartitionIndexTest {
+
+    /** Index key is the first character of the tuple. */
+    private static final Function<Object,Object> FIRST = t -> ((String) t).charAt(0);
+
+    private static RingList<String> tuples(String... values) {
+        final RingList<String> tuples = new RingList<>();
+        for (String value : values)
+            tuples.addLast(value);
+        return tuples;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RingList<String> checkpointAndRestore(RingList<String> tuples)
+            throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tuples);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (RingList<String>) in.readObject();
+        }
+    }
+
+    @Test
+    public void testInsertEvict() {
+        final RingList<String> tuples = tuples("a1", "b1", "a2");
+        final PartitionIndex<String> index = new PartitionIndex<>(tuples, FIRST);
+        assertEquals(Arrays.asList("a1", "a2"), index.matches('a'));
+        assertEquals(Arrays.asList("b1"), index.matches('b'));
+        assertEquals(Collections.emptyList(), index.matches('c'));
+
+        index.insert("a3");
+        tuples.addLast("a3");
+        assertEquals(Arrays.asList("a1", "a2", "a3"), index.matches('a'));
+
+        index.evict(tuples.getFirst());
+        tuples.removeFirst();
+        index.evict(tuples.getFirst());
+        tuples.removeFirst();
+        assertEquals(Arrays.asList("a2", "a3"), index.matches('a'));
+        assertEquals(Collections.emptyList(), index.matches('b'));
+
+        index.evict(tuples.removeFirst());
+        index.evict(tuples.removeFirst());
+        assertTrue(index.isEmpty());
+    }
+
+    /**
+     * A restored window has new partition state instances,
+     * so a join after the restore rebuilds the index
+     * from the restored tuples.
+     */
+    @Test
+    public void testRestoreThenJoin() throws Exception {
+        final Map<Object, PartitionIndex<String>> indexes = new HashMap<>();
+
+        final RingList<String> tuples = tuples("a1", "b1", "a2");
+        final PartitionIndex<String> index = PartitionIndexes.index(indexes, "p", tuples, FIRST);
+        assertSame(index, PartitionIndexes.index(indexes, "p", tuples, FIRST));
+        assertEquals(Arrays.asList("a1", "a2"), index.matches('a'));
+
+        final RingList<String> checkpoint = checkpointAndRestore(tuples);
+
+        // Window continues after the checkpoint.
+        index.insert("a3");
+        tuples.addLast("a3");
+        index.evict(tuples.removeFirst());
+        assertEquals(Arrays.asList("a2", "a3"), index.matches('a'));
+
+        // Reset to the checkpoint, the existing index is stale.
+        assertFalse(index.isFor(checkpoint));
+        final PartitionIndex<String> restored = PartitionIndexes.index(indexes, "p", checkpoint, FIRST);
+        assertNotSame(index, restored);
+        assertSame(restored, indexes.get("p"));
+        assertEquals(Arrays.asList("a1", "a2"), restored.matches('a'));
+        assertEquals(Arrays.asList("b1"), restored.matches('b'));
+
+        // Restart, no indexes exist.
+        indexes.clear();
+        final RingList<String> restarted = checkpointAndRestore(checkpoint);
+        assertEquals(Arrays.asList("a1", "a2"),
+                PartitionIndexes.index(indexes, "p", restarted, FIRST).matches('a'));
+    }
+}
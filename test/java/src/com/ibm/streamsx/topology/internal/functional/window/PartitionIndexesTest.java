@@ -0,0 +1,152 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.function.Function;
+
+public class PartitionIndexesTest {
+
+    /** Index key is the first character of the tuple. */
+    private static final Function<Object,Object> FIRST = t -> ((String) t).charAt(0);
+
+    private static final char[] KEYS = { 'a', 'b', 'c', 'd', 'e' };
+
+    private static List<String> scan(PartitionTuples<String> tuples, char key) {
+        final List<String> matches = new ArrayList<>();
+        for (String tuple : tuples) {
+            if (tuple.charAt(0) == key)
+                matches.add(tuple);
+        }
+        return matches;
+    }
+
+    /**
+     * Lookups concurrent with a window thread inserting and
+     * evicting tuples always see an index consistent with
+     * the partition's tuples.
+     */
+    @Test(timeout = 60_000)
+    public void testConcurrentInsertEvictLookup() throws Exception {
+        final PartitionIndexes<String> indexes = new PartitionIndexes<>(FIRST);
+        final int partitions = 4;
+        final List<RingList<String>> states = new ArrayList<>();
+        for (int p = 0; p < partitions; p++)
+            states.add(new RingList<>());
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Long>> lookups = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                lookups.add(executor.submit(() -> {
+                    long count = 0;
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!done.get()) {
+                        final int p = random.nextInt(partitions);
+                        final RingList<String> tuples = states.get(p);
+                        final char key = KEYS[random.nextInt(KEYS.length)];
+                        synchronized (indexes.stripe(p)) {
+                            final List<String> matches = indexes.matches(p, tuples, key);
+                            assertEquals(scan(tuples, key), new ArrayList<>(matches));
+                        }
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+
+            // Window thread, each partition holds up to ten tuples
+            // and is emptied periodically, removing its index.
+            final Future<?> window = executor.submit(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    final int p = i % partitions;
+                    final RingList<String> tuples = states.get(p);
+                    indexes.insert(p, tuples, KEYS[(i / partitions) % KEYS.length] + Integer.toString(i));
+                    if (tuples.size() > 10 || i % 1000 < partitions) {
+                        while (tuples.size() > (i % 1000 < partitions ? 0 : 10))
+                            indexes.evict(p, tuples);
+                    }
+                }
+                return null;
+            });
+            window.get();
+            done.set(true);
+            for (Future<Long> lookup : lookups)
+                assertTrue(lookup.get() > 0);
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        for (int p = 0; p < partitions; p++) {
+            final RingList<String> tuples = states.get(p);
+            for (char key : KEYS)
+                assertEquals(scan(tuples, key), new ArrayList<>(indexes.matches(p, tuples, key)));
+        }
+    }
+
+    /**
+     * A lookup after its partition was evicted
+     * does not recreate the partition's index.
+     */
+    @Test
+    public void testLookupAfterPartitionEvicted() {
+        final PartitionIndexes<String> indexes = new PartitionIndexes<>(FIRST);
+        final RingList<String> tuples = new RingList<>();
+        indexes.insert("p", tuples, "a1");
+        indexes.insert("p", tuples, "b1");
+        assertNotNull(indexes.get("p"));
+
+        indexes.remove("p");
+        assertEquals(Arrays.asList("a1"), indexes.matches("p", tuples, 'a'));
+        assertNull(indexes.get("p"));
+    }
+
+    /**
+     * A lookup against restored partition state scans the tuples,
+     * the index is rebuilt by the next window update.
+     */
+    @Test
+    public void testLookupAfterRestore() {
+        final PartitionIndexes<String> indexes = new PartitionIndexes<>(FIRST);
+        final RingList<String> tuples = new RingList<>();
+        indexes.insert("p", tuples, "a1");
+        indexes.insert("p", tuples, "b1");
+        final PartitionIndex<String> index = indexes.get("p");
+
+        final RingList<String> restored = new RingList<>();
+        restored.addLast("a0");
+        assertEquals(Arrays.asList("a0"), indexes.matches("p", restored, 'a'));
+        assertEquals(Collections.emptyList(), indexes.matches("p", restored, 'b'));
+        assertSame(index, indexes.get("p"));
+
+        indexes.insert("p", restored, "a2");
+        assertTrue(indexes.get("p").isFor(restored));
+        assertEquals(Arrays.asList("a0", "a2"), indexes.matches("p", restored, 'a'));
+
+        indexes.evict("p", restored);
+        indexes.evict("p", restored);
+        assertNull(indexes.get("p"));
+        assertTrue(restored.isEmpty());
+    }
+}
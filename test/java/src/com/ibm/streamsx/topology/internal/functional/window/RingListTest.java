@@ -0,0 +1,239 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RingListTest {
+
+    private static int capacity(RingList<?> list) throws Exception {
+        Field elements = RingList.class.getDeclaredField("elements");
+        elements.setAccessible(true);
+        return ((Object[]) elements.get(list)).length;
+    }
+
+    private static void assertContents(List<Integer> expected, RingList<Integer> list) {
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected.isEmpty(), list.isEmpty());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i), list.get(i));
+        assertEquals(expected, new ArrayList<>(list));
+        if (!expected.isEmpty())
+            assertEquals(expected.get(0), list.getFirst());
+    }
+
+    /**
+     * Elements wrap around the end of the array without growing.
+     */
+    @Test
+    public void testWraparound() throws Exception {
+        final RingList<Integer> list = new RingList<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            list.addLast(i);
+            expected.add(i);
+        }
+        final int capacity = capacity(list);
+
+        for (int i = 6; i < 100; i++) {
+            assertEquals(expected.remove(0), list.removeFirst());
+            list.addLast(i);
+            expected.add(i);
+            assertContents(expected, list);
+        }
+        assertEquals(capacity, capacity(list));
+    }
+
+    /**
+     * A full list doubles, keeping order when the
+     * elements had wrapped around.
+     */
+    @Test
+    public void testGrowth() throws Exception {
+        final RingList<Integer> list = new RingList<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            list.addLast(i);
+            expected.add(i);
+        }
+        assertEquals(8, capacity(list));
+        for (int i = 0; i < 3; i++) {
+            list.removeFirst();
+            expected.remove(0);
+        }
+        for (int i = 8; i < 1000; i++) {
+            list.addLast(i);
+            expected.add(i);
+        }
+        assertContents(expected, list);
+        assertEquals(1024, capacity(list));
+    }
+
+    /**
+     * Removing elements halves the array once a quarter
+     * full, but not below its minimum capacity.
+     */
+    @Test
+    public void testRemoveFirst() throws Exception {
+        final RingList<Integer> list = new RingList<>();
+        for (int i = 0; i < 64; i++)
+            list.addLast(i);
+        assertEquals(64, capacity(list));
+
+        for (int i = 0; i < 48; i++)
+            assertEquals(Integer.valueOf(i), list.removeFirst());
+        assertEquals(16, list.size());
+        assertEquals(32, capacity(list));
+
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 48; i < 64; i++)
+            expected.add(i);
+        assertContents(expected, list);
+
+        while (!list.isEmpty())
+            assertEquals(expected.remove(0), list.removeFirst());
+        assertEquals(8, capacity(list));
+
+        try {
+            list.removeFirst();
+            fail("Removed from empty list");
+        } catch (NoSuchElementException e) {
+        }
+        try {
+            list.getFirst();
+            fail("First of empty list");
+        } catch (NoSuchElementException e) {
+        }
+        try {
+            list.get(0);
+            fail("Get from empty list");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    /**
+     * Random inserts and evictions match a deque.
+     */
+    @Test
+    public void testRandomOperations() throws Exception {
+        final Random r = new Random(11);
+        final RingList<Integer> list = new RingList<>();
+        final ArrayDeque<Integer> expected = new ArrayDeque<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (expected.isEmpty() || r.nextInt(10) < 6) {
+                list.addLast(i);
+                expected.addLast(i);
+            } else {
+                assertEquals(expected.removeFirst(), list.removeFirst());
+            }
+            if (i % 997 == 0)
+                assertContents(new ArrayList<>(expected), list);
+        }
+        assertContents(new ArrayList<>(expected), list);
+    }
+
+    @Test
+    public void testIteration() throws Exception {
+        final RingList<Integer> list = new RingList<>();
+        for (int i = 0; i < 5; i++)
+            list.addLast(i);
+        list.removeFirst();
+        list.removeFirst();
+        for (int i = 5; i < 12; i++)
+            list.addLast(i);
+
+        int expected = 2;
+        for (Integer value : list)
+            assertEquals(Integer.valueOf(expected++), value);
+        assertEquals(12, expected);
+
+        assertEquals(Arrays.asList(5, 6, 7), list.subList(3, 6));
+
+        final Iterator<Integer> it = list.iterator();
+        it.next();
+        list.addLast(12);
+        try {
+            it.next();
+            fail("Iterator not fail-fast");
+        } catch (ConcurrentModificationException e) {
+        }
+    }
+
+    /**
+     * The List view passed to user logic is read-only.
+     */
+    @Test
+    public void testReadOnly() throws Exception {
+        final RingList<Integer> list = new RingList<>();
+        list.addLast(1);
+        try {
+            list.add(2);
+            fail("Modified list");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            list.set(0, 2);
+            fail("Modified list");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            list.remove(0);
+            fail("Modified list");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            list.clear();
+            fail("Modified list");
+        } catch (UnsupportedOperationException e) {
+        }
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final RingList<Integer> list = new RingList<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            list.addLast(i);
+        for (int i = 0; i < 15; i++)
+            list.removeFirst();
+        for (int i = 20; i < 30; i++)
+            list.addLast(i);
+        expected.addAll(list);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(list);
+        }
+        @SuppressWarnings("unchecked")
+        final RingList<Integer> restored = (RingList<Integer>) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertContents(expected, restored);
+        restored.addLast(30);
+        expected.add(30);
+        assertEquals(expected.remove(0), restored.removeFirst());
+        assertContents(expected, restored);
+        assertTrue(capacity(restored) >= restored.size());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
+import com.ibm.streamsx.topology.internal.functional.window.SlidingSetAggregator.AggregationState;
+
+public class SlidingSetAggregatorTest {
+
+    /** Sum of the tuples. */
+    @SuppressWarnings("serial")
+    private static final IncrementalAggregator<Integer, Object, Integer> SUM =
+            new IncrementalAggregator<Integer, Object, Integer>() {
+        @Override
+        public Object initialState() {
+            return 0;
+        }
+
+        @Override
+        public Object add(Object state, Integer tuple) {
+            return (Integer) state + tuple;
+        }
+
+        @Override
+        public Object remove(Object state, Integer tuple) {
+            return (Integer) state - tuple;
+        }
+
+        @Override
+        public Integer result(Object state) {
+            return (Integer) state;
+        }
+    };
+
+    private static RingList<Integer> tuples(Integer... values) {
+        final RingList<Integer> tuples = new RingList<>();
+        for (Integer value : values)
+            tuples.addLast(value);
+        return tuples;
+    }
+
+    private static void insert(Map<Object, AggregationState<Integer>> states,
+            RingList<Integer> tuples, Integer tuple) {
+        final AggregationState<Integer> state = SlidingSetAggregator.state(states, SUM, "p", tuples);
+        state.value = SUM.add(state.value, tuple);
+        tuples.addLast(tuple);
+    }
+
+    private static void evict(Map<Object, AggregationState<Integer>> states,
+            RingList<Integer> tuples) {
+        final AggregationState<Integer> state = SlidingSetAggregator.state(states, SUM, "p", tuples);
+        state.value = SUM.remove(state.value, tuples.removeFirst());
+    }
+
+    private static Object sum(Map<Object, AggregationState<Integer>> states,
+            RingList<Integer> tuples) {
+        return SlidingSetAggregator.state(states, SUM, "p", tuples).value;
+    }
+
+    /**
+     * A reset window has new partition state instances, so
+     * the aggregation state is rebuilt from the reset tuples.
+     */
+    @Test
+    public void testReset() {
+        final Map<Object, AggregationState<Integer>> states = new HashMap<>();
+
+        final RingList<Integer> tuples = tuples(1, 2, 3);
+        final AggregationState<Integer> state = SlidingSetAggregator.state(states, SUM, "p", tuples);
+        assertSame(state, SlidingSetAggregator.state(states, SUM, "p", tuples));
+        assertEquals(6, state.value);
+
+        // Checkpoint, then the window continues.
+        final RingList<Integer> checkpoint = tuples(1, 2, 3);
+        insert(states, tuples, 4);
+        evict(states, tuples);
+        assertEquals(9, sum(states, tuples));
+
+        // Reset to the checkpoint, the existing state is stale.
+        assertNotSame(state, SlidingSetAggregator.state(states, SUM, "p", checkpoint));
+        assertEquals(6, sum(states, checkpoint));
+        insert(states, checkpoint, 10);
+        assertEquals(16, sum(states, checkpoint));
+
+        // Reset to the initial state, an empty partition.
+        assertEquals(0, sum(states, tuples()));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+public class SpillStoreTest {
+
+    private File directory;
+    private SpillStore store;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = new File(Files.createTempDirectory("spillstore").toFile(), "window");
+    }
+
+    @After
+    public void close() {
+        if (store != null)
+            store.close();
+        directory.getParentFile().delete();
+    }
+
+    private static String tuple(int i) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(i).append(':');
+        while (sb.length() < 1000)
+            sb.append('x');
+        return sb.toString();
+    }
+
+    private int files() {
+        String[] files = directory.list();
+        return files == null ? 0 : files.length;
+    }
+
+    /**
+     * Tuples are read back through the stream's
+     * serializer once evicted from the heap cache.
+     */
+    @Test
+    public void testSerializer() throws Exception {
+        final Counting serializer = new Counting();
+        store = new SpillStore(directory, 2, serializer);
+
+        final List<Long> locations = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            locations.add(store.write(tuple(i)));
+        assertEquals(10, serializer.serialized.get());
+        assertEquals(0, serializer.deserialized.get());
+
+        // The two most recently written tuples are cached.
+        for (int i = 9; i >= 0; i--)
+            assertEquals(tuple(i), store.read(locations.get(i)));
+        assertEquals(8, serializer.deserialized.get());
+    }
+
+    /**
+     * A segment is released once all its tuples are freed,
+     * such as when the partitions holding them are evicted.
+     */
+    @Test
+    public void testFreeReleasesSegments() throws Exception {
+        store = new SpillStore(directory, 4, TupleSerializer.JAVA_SERIALIZER);
+
+        // Each tuple fills most of a segment, so every
+        // write after the first starts a new segment.
+        final byte[] large = new byte[12 * 1024 * 1024];
+        final List<Long> locations = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            locations.add(store.write(large));
+        assertEquals(4, store.mappedSegments());
+        assertEquals(4, files());
+
+        for (int i = 0; i < 3; i++)
+            store.free(locations.get(i));
+        assertEquals(1, store.mappedSegments());
+        assertEquals(1, files());
+
+        // The current segment is reused from its start.
+        store.free(locations.get(3));
+        assertEquals(1, store.mappedSegments());
+        final long location = store.write(tuple(1));
+        assertEquals(location >>> 32, locations.get(3) >>> 32);
+        assertEquals(0, (int) location);
+    }
+
+    /**
+     * Closing releases all segments and the directory,
+     * the store cannot be used once closed.
+     */
+    @Test
+    public void testClose() throws Exception {
+        store = new SpillStore(directory, 0, TupleSerializer.JAVA_SERIALIZER);
+        final long location = store.write(tuple(7));
+        assertEquals(tuple(7), store.read(location));
+        assertTrue(directory.isDirectory());
+
+        store.close();
+        assertEquals(0, store.mappedSegments());
+        assertFalse(directory.exists());
+
+        try {
+            store.read(location);
+            fail("Read from closed store");
+        } catch (IllegalStateException e) {
+        }
+        try {
+            store.write(tuple(8));
+            fail("Wrote to closed store");
+        } catch (IllegalStateException e) {
+        }
+        // Partitions released after close are ignored.
+        store.free(location);
+        store.close();
+    }
+
+    /**
+     * Releasing a partition's list frees its tuples.
+     */
+    @Test
+    public void testSpillListRelease() throws Exception {
+        store = new SpillStore(directory, 1, TupleSerializer.JAVA_SERIALIZER);
+        final SpillList<String> a = new SpillList<>(store);
+        final SpillList<String> b = new SpillList<>(store);
+        for (int i = 0; i < 20; i++) {
+            a.addLast(tuple(i));
+            b.addLast(tuple(100 + i));
+        }
+        assertEquals(tuple(5), a.get(5));
+        assertEquals(tuple(105), b.get(5));
+
+        a.release();
+        assertTrue(a.isEmpty());
+        assertEquals(20, b.size());
+        for (int i = 0; i < 20; i++)
+            assertEquals(tuple(100 + i), b.get(i));
+    }
+
+    /**
+     * Java serialization counting serialized and deserialized tuples.
+     */
+    private static class Counting implements TupleSerializer {
+        private static final long serialVersionUID = 1L;
+        final AtomicInteger serialized = new AtomicInteger();
+        final AtomicInteger deserialized = new AtomicInteger();
+
+        @Override
+        public void serialize(Object tuple, OutputStream output) throws IOException {
+            serialized.incrementAndGet();
+            JAVA_SERIALIZER.serialize(tuple, output);
+        }
+
+        @Override
+        public Object deserialize(InputStream input) throws IOException, ClassNotFoundException {
+            deserialized.incrementAndGet();
+            return JAVA_SERIALIZER.deserialize(input);
+        }
+    }
+}
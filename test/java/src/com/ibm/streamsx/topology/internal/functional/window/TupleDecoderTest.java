@@ -0,0 +1,172 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+public class TupleDecoderTest {
+
+    private static int ids;
+
+    /**
+     * Create an SPL tuple, only identity is used.
+     */
+    private static Tuple tuple() {
+        final int id = ids++;
+        return (Tuple) Proxy.newProxyInstance(Tuple.class.getClassLoader(),
+                new Class<?>[] {Tuple.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "hashCode":
+                        return id;
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "tuple" + id;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Mapping counting the number of decoded tuples,
+     * each decode creates a new object as deserialization would.
+     */
+    private static final class CountingMapping extends SPLMapping<Object> {
+        final AtomicInteger decoded = new AtomicInteger();
+
+        CountingMapping() {
+            super(null);
+        }
+
+        @Override
+        public Object convertFrom(Tuple tuple) {
+            decoded.incrementAndGet();
+            return new StringBuilder(tuple.toString());
+        }
+
+        @Override
+        public Tuple convertTo(Object tuple) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class Key implements Function<Object,Object> {
+        private static final long serialVersionUID = 1L;
+        final List<Object> keyed = new ArrayList<>();
+
+        @Override
+        public Object apply(Object value) {
+            keyed.add(value);
+            return value.toString().length();
+        }
+    }
+
+    /**
+     * A keyed window's tuple is decoded once by the partitioner
+     * and the same object is inserted by the listener.
+     * Trigger and eviction events do not decode tuples, so
+     * each tuple is decoded exactly once.
+     */
+    @Test
+    public void testDecodedOnce() throws Exception {
+        final CountingMapping mapping = new CountingMapping();
+        final TupleDecoder<Object> decoder = new TupleDecoder<>(mapping);
+        final Key key = new Key();
+        final KeyPartitioner partitioner = new KeyPartitioner(decoder, key);
+
+        for (int i = 0; i < 100; i++) {
+            final Tuple tuple = tuple();
+            partitioner.getPartition(tuple);
+            final Object inserted = decoder.decode(tuple);
+            assertSame(key.keyed.get(i), inserted);
+            assertEquals(i + 1, mapping.decoded.get());
+        }
+    }
+
+    /**
+     * A tuple partitioned more than once is only decoded once.
+     */
+    @Test
+    public void testPartitionedTwice() throws Exception {
+        final CountingMapping mapping = new CountingMapping();
+        final TupleDecoder<Object> decoder = new TupleDecoder<>(mapping);
+        final KeyPartitioner partitioner = new KeyPartitioner(decoder, new Key());
+
+        final Tuple tuple = tuple();
+        partitioner.getPartition(tuple);
+        partitioner.getPartition(tuple);
+        decoder.decode(tuple);
+        assertEquals(1, mapping.decoded.get());
+    }
+
+    /**
+     * The kept object is only used once and only for the
+     * identical tuple, anything else is decoded.
+     */
+    @Test
+    public void testNotKept() throws Exception {
+        final CountingMapping mapping = new CountingMapping();
+        final TupleDecoder<Object> decoder = new TupleDecoder<>(mapping);
+
+        final Tuple t1 = tuple();
+        final Tuple t2 = tuple();
+
+        // Unpartitioned window, listener decodes.
+        decoder.decode(t1);
+        assertEquals(1, mapping.decoded.get());
+
+        final Object kept = decoder.decodeAndKeep(t1);
+        assertEquals(2, mapping.decoded.get());
+
+        // A different tuple does not use the kept object.
+        assertNotSame(kept, decoder.decode(t2));
+        assertEquals(3, mapping.decoded.get());
+
+        // Kept object is released after use.
+        decoder.decodeAndKeep(t2);
+        assertEquals(4, mapping.decoded.get());
+        decoder.decode(t2);
+        assertEquals(4, mapping.decoded.get());
+        decoder.decode(t2);
+        assertEquals(5, mapping.decoded.get());
+    }
+
+    /**
+     * An object kept by one thread is not used by another.
+     */
+    @Test
+    public void testOtherThread() throws Exception {
+        final CountingMapping mapping = new CountingMapping();
+        final TupleDecoder<Object> decoder = new TupleDecoder<>(mapping);
+        final Tuple tuple = tuple();
+
+        final Object kept = decoder.decodeAndKeep(tuple);
+        final ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(kept, other.submit(() -> decoder.decode(tuple)).get());
+        } finally {
+            other.shutdownNow();
+        }
+        assertEquals(2, mapping.decoded.get());
+        assertSame(kept, decoder.decode(tuple));
+        assertEquals(2, mapping.decoded.get());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+public class JavaObjectBlobTest {
+
+    private static final String VALUE = "The quick brown fox jumps over the lazy dog";
+
+    /**
+     * Put serializes directly into the buffer without
+     * keeping a copy, later reads serialize again.
+     */
+    @Test
+    public void testPutThenRead() throws Exception {
+        final Counting serializer = new Counting();
+        final ArrayList<String> tuple = new ArrayList<>(Arrays.asList(VALUE, "b"));
+        final JavaObjectBlob blob = new JavaObjectBlob(serializer, tuple, new SerializationStats());
+
+        final byte[] expected = serialize(tuple);
+
+        final ByteBuffer buf = ByteBuffer.allocate(1024);
+        buf.position(7);
+        blob.put(buf);
+        assertEquals(7 + expected.length, buf.position());
+        assertEquals(1, serializer.count.get());
+        final ByteBuffer written = buf.duplicate();
+        written.flip();
+        written.position(7);
+        assertEquals(ByteBuffer.wrap(expected), written);
+
+        // Serialized form is not changed by later writes to the buffer.
+        buf.clear();
+        buf.put(new byte[buf.capacity()]);
+
+        assertEquals(expected.length, blob.getLength());
+        assertEquals(2, serializer.count.get());
+        assertArrayEquals(expected, blob.getData());
+        assertEquals(ByteBuffer.wrap(expected), blob.getByteBuffer());
+        assertEquals(2, serializer.count.get());
+
+        // A put after a read copies the serialized form.
+        final ByteBuffer other = ByteBuffer.allocate(1024);
+        blob.put(other);
+        assertEquals(expected.length, other.position());
+        other.flip();
+        assertEquals(ByteBuffer.wrap(expected), other);
+        assertEquals(2, serializer.count.get());
+
+        assertSame(tuple, blob.takeObject());
+        assertEquals(2, serializer.count.get());
+    }
+
+    /**
+     * Each put of an unread blob serializes directly into its buffer.
+     */
+    @Test
+    public void testPutTwice() throws Exception {
+        final Counting serializer = new Counting();
+        final JavaObjectBlob blob = new JavaObjectBlob(serializer, VALUE, new SerializationStats());
+
+        final byte[] expected = serialize(VALUE);
+        for (int i = 1; i <= 2; i++) {
+            final ByteBuffer buf = ByteBuffer.allocate(1024);
+            blob.put(buf);
+            buf.flip();
+            assertEquals(ByteBuffer.wrap(expected), buf);
+            assertEquals(i, serializer.count.get());
+        }
+    }
+
+    /**
+     * A shared blob serializes once, hands its reference to one
+     * consumer and the serialized form reflects the object as submitted.
+     */
+    @Test
+    public void testPutThenTakeShared() throws Exception {
+        final Counting serializer = new Counting();
+        final ArrayList<String> tuple = new ArrayList<>(Arrays.asList(VALUE));
+        final JavaObjectBlob blob = new JavaObjectBlob(serializer, tuple, new SerializationStats(), true);
+
+        final byte[] expected = serialize(tuple);
+        blob.put(ByteBuffer.allocate(1024));
+
+        assertSame(tuple, blob.takeObject());
+        assertNull(blob.takeObject());
+        tuple.add("modified");
+
+        assertEquals(expected.length, blob.getLength());
+        assertArrayEquals(expected, blob.getData());
+        assertEquals(1, serializer.count.get());
+    }
+
+    /**
+     * A buffer too small for the size hint serializes
+     * into the blob's own data first.
+     */
+    @Test
+    public void testPutSmallBuffer() throws Exception {
+        final Counting serializer = new Counting();
+        final JavaObjectBlob blob = new JavaObjectBlob(serializer, VALUE, new SerializationStats());
+
+        final byte[] expected = serialize(VALUE);
+        final ByteBuffer buf = ByteBuffer.allocate(expected.length);
+        blob.put(buf);
+        assertEquals(expected.length, buf.position());
+        assertEquals(expected.length, blob.getLength());
+        assertArrayEquals(expected, blob.getData());
+        assertEquals(1, serializer.count.get());
+    }
+
+    @Test
+    public void testReadThenPut() throws Exception {
+        final Counting serializer = new Counting();
+        final JavaObjectBlob blob = new JavaObjectBlob(serializer, VALUE, new SerializationStats());
+
+        final byte[] expected = serialize(VALUE);
+        assertEquals(expected.length, blob.getLength());
+
+        final ByteBuffer buf = ByteBuffer.allocate(1024);
+        blob.put(buf);
+        assertEquals(expected.length, buf.position());
+        assertArrayEquals(expected, blob.getData());
+        assertEquals(1, serializer.count.get());
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TupleSerializer.JAVA_SERIALIZER.serialize(value, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Java serialization counting the number of serialized tuples.
+     */
+    private static class Counting implements TupleSerializer {
+        private static final long serialVersionUID = 1L;
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void serialize(Object tuple, OutputStream output) throws IOException {
+            count.incrementAndGet();
+            JAVA_SERIALIZER.serialize(tuple, output);
+        }
+
+        @Override
+        public Object deserialize(InputStream input) throws IOException, ClassNotFoundException {
+            return JAVA_SERIALIZER.deserialize(input);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.json;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for parsing numbers in JSONScanner.
+ */
+public class JSONScannerTest {
+
+    private static long parseLong(String s) {
+        final String text = "[" + s + "]";
+        return JSONScanner.parseLong(text, 1, text.length() - 1);
+    }
+
+    @Test
+    public void testParseLong() {
+        assertEquals(0L, parseLong("0"));
+        assertEquals(42L, parseLong("42"));
+        assertEquals(-42L, parseLong("-42"));
+        assertEquals(999999999999999999L, parseLong("999999999999999999"));
+        assertEquals(-999999999999999999L, parseLong("-999999999999999999"));
+    }
+
+    /**
+     * Numbers with 19 digits are exact.
+     */
+    @Test
+    public void testParseLongLimits() {
+        assertEquals(Long.MAX_VALUE, parseLong(Long.toString(Long.MAX_VALUE)));
+        assertEquals(Long.MIN_VALUE, parseLong(Long.toString(Long.MIN_VALUE)));
+        assertEquals(Long.MAX_VALUE - 1, parseLong(Long.toString(Long.MAX_VALUE - 1)));
+        assertEquals(1000000000000000001L, parseLong("1000000000000000001"));
+    }
+
+    /**
+     * Numbers with a fraction or exponent, or
+     * outside the range of a long, are truncated.
+     */
+    @Test
+    public void testParseLongTruncated() {
+        assertEquals(1L, parseLong("1.9"));
+        assertEquals(-1L, parseLong("-1.9"));
+        assertEquals(1500L, parseLong("1.5e3"));
+        assertEquals(Long.MAX_VALUE, parseLong("12345678901234567890"));
+        assertEquals(Long.MIN_VALUE, parseLong("-12345678901234567890"));
+        assertEquals(1000000000000000000L, parseLong("1000000000000000000.5"));
+    }
+}
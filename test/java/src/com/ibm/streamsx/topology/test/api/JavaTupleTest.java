@@ -5,12 +5,15 @@
 package com.ibm.streamsx.topology.test.api;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -18,6 +21,8 @@ import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.test.TestTopology;
+import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
 
 public class JavaTupleTest extends TestTopology {
 
@@ -92,6 +97,34 @@ public class JavaTupleTest extends TestTopology {
         completeAndValidate(sourceNAÃÃ, 10,  "one-NAÃÃ", "two-NAÃÃ", "three-NAÃÃ");
     }
     
+    /**
+     * Test a mutable tuple fanned out to Java functional logic
+     * is not seen by both consumers. Embedded passes the reference
+     * to all consumers.
+     */
+    @Test
+    public void testFanOutCopy() throws Exception {
+        assumeFalse(isEmbedded());
+
+        final Topology topology = newTopology();
+        TStream<ArrayList<String>> source = topology.strings("A", "B").transform(v -> {
+            ArrayList<String> l = new ArrayList<>();
+            l.add(v);
+            return l;
+        });
+
+        TStream<String> x = source.transform(l -> {l.add("X"); return l.toString();});
+        TStream<String> y = source.transform(l -> {l.add("Y"); return l.toString();});
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> xc = tester.stringContents(x, "[A, X]", "[B, X]");
+        Condition<List<String>> yc = tester.stringContents(y, "[A, Y]", "[B, Y]");
+
+        complete(tester, xc.and(yc), 20, TimeUnit.SECONDS);
+        assertTrue(xc.valid());
+        assertTrue(yc.valid());
+    }
+    
     public static class NAŇÃ implements Serializable {
 		private static final long serialVersionUID = 1L;
 		private final String s;
@@ -194,6 +194,33 @@ public class JoinTest extends TestTopology {
         });        
     }
     
+    @Test
+    public void testIndexedJoin() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> strings = t.strings("a1", "b1", "a2", "a1", "c3", "a1");
+
+        TStream<String> main = delayedList(t, "a1", "b1", "a2", "d9");
+
+        TWindow<String,String> window = strings.last(10).key(s -> s.substring(0, 1));
+        UnaryOperator<String> indexer = Logic.identity();
+
+        TStream<Integer> joined = main.join(s -> s.substring(0, 1), window, indexer, indexer,
+                new BiFunction<String, List<String>, Integer>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Integer apply(String v1, List<String> v2) {
+                for (String wt : v2)
+                    if (!v1.equals(wt))
+                        return -1;
+                return v2.size();
+            }
+        });
+        TStream<String> asString = StringStreams.toString(joined);
+
+        completeAndValidate(asString, 25, "3", "1", "1", "0");
+    }
+
     @Test
     public void testKeyedJoinLast() throws Exception {
         final Topology t = newTopology();
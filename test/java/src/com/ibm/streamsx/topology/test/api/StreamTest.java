@@ -411,6 +411,42 @@ public class StreamTest extends TestTopology {
         complete(tester, spCount, 20, TimeUnit.SECONDS);
     }
     
+    /**
+     * A chain of functions that is fused when the topology
+     * is executed as SPL, each stage creates custom metrics
+     * with the same names and the filter drops a tuple.
+     */
+    @Test
+    public void testFusedMetrics() throws Exception {
+
+        final Topology topo = new Topology();
+        
+        TStream<String> strings = topo.strings("a", "b", "c", "d");
+        strings = strings.filter(new DropB());
+        strings = strings.modify(new CreateMetricTester<String>());
+        strings = strings.modify(new CreateMetricTester<String>());
+        
+        Tester tester = topo.getTester();
+        Condition<List<String>> contents = tester.stringContents(strings, "a", "c", "d");
+        complete(tester, contents, 20, TimeUnit.SECONDS);
+        assertTrue(contents.valid());
+    }
+    
+    public static class DropB implements Predicate<String>, Initializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean test(String v) {
+            return !"b".equals(v);
+        }
+
+        @Override
+        public void initialize(FunctionContext functionContext) throws Exception {
+            functionContext.createCustomMetric("aCounter", "Counter desc.",
+                    "counter", () -> this.hashCode());
+        }
+    }
+    
     public static class CreateMetricTester<T> implements UnaryOperator<T>, Initializable {
         private static final long serialVersionUID = 1L;
 
@@ -8,6 +8,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -95,6 +97,39 @@ public class TopologySourceTest extends TestTopology {
         }
     }
     
+    @Test
+    public void testBatchSource() throws Exception {
+        Topology topology = newTopology("testBatchSource");
+
+        TStream<String> ts = topology.batchSource(new BatchSource());
+
+        Condition<List<String>> c = topology.getTester().stringContents(ts, "C0", "C1", "C2",
+                "C3", "C4");
+
+        complete(topology.getTester(), c, 10, TimeUnit.SECONDS);
+
+        assertTrue(c.toString(), c.valid());
+    }
+
+    private static class BatchSource implements Supplier<Collection<String>> {
+        private static final long serialVersionUID = 1L;
+        private transient int i;
+
+        @Override
+        public Collection<String> get() {
+            switch (i++) {
+            case 0:
+                return Arrays.asList("C0", "C1");
+            case 1:
+                return Collections.emptyList();
+            case 2:
+                return Arrays.asList("C2", null, "C3", "C4");
+            default:
+                return null;
+            }
+        }
+    }
+
     @Test
     public void testPeriodicSource() throws Exception {
         
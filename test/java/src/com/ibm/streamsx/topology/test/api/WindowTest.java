@@ -23,9 +23,11 @@ import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.TWindow;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.function.Supplier;
 import com.ibm.streamsx.topology.json.JSONStreams;
+import com.ibm.streamsx.topology.streams.StringStreams;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
 import com.ibm.streamsx.topology.tester.Tester;
@@ -59,6 +61,32 @@ public class WindowTest extends TestTopology {
         }
     }
 
+    @SuppressWarnings("serial")
+    private static final class IncrementalSumInt implements
+            IncrementalAggregator<Number, int[], Integer> {
+        @Override
+        public int[] initialState() {
+            return new int[2];
+        }
+        @Override
+        public int[] add(int[] state, Number tuple) {
+            state[0] += tuple.intValue();
+            if (++state[1] > 3)
+                throw new IllegalStateException("more than three tuples for last(3)");
+            return state;
+        }
+        @Override
+        public int[] remove(int[] state, Number tuple) {
+            state[0] -= tuple.intValue();
+            state[1]--;
+            return state;
+        }
+        @Override
+        public Integer result(int[] state) {
+            return state[0];
+        }
+    }
+
     public static void assertWindow(Topology f, TWindow<?,?> window) {
         TopologyTest.assertFlowElement(f, window);
     }
@@ -106,6 +134,16 @@ public class WindowTest extends TestTopology {
         completeAndValidate(aggregate, 10, "1", "3", "6", "9", "12", "15", "18");
     }
 
+    @Test
+    public void testCountIncrementalAggregate() throws Exception {
+        final Topology f = newTopology("CountIncrementalAggregate");
+        TStream<Number> source = f.numbers(1, 2, 3, 4, 5, 6, 7);
+        TWindow<Number,?> window = source.last(3);
+        TStream<Integer> aggregate = window.aggregate(new IncrementalSumInt());
+        
+        completeAndValidate(aggregate, 10, "1", "3", "6", "9", "12", "15", "18");
+    }
+
     @Test
     public void testKeyedAggregate() throws Exception {
         TStream<StockPrice> aggregate = _testKeyedAggregate();
@@ -168,6 +206,22 @@ public class WindowTest extends TestTopology {
         return aggregate;
     }
 
+    // Keyed aggregate with the window state off the heap,
+    // caching fewer tuples than the window holds.
+    @Test
+    public void testKeyedOffHeapAggregate() throws Exception {
+        final Topology f = newTopology("KeyedOffHeapAggregate");
+
+        TStream<StockPrice> source = f.constants(Arrays.asList(PRICES)).asType(StockPrice.class);
+
+        TStream<StockPrice> aggregate = source.last(2).key(StockPrice::getKey).offHeap(1).aggregate(new AveragePrice());
+
+        completeAndValidate(aggregate, 10, "A:1000", "B:4004", "C:2013", "A:1005",
+                "A:1010", "B:4005", "A:1010", "C:2007", "B:4008", "C:2003",
+                "A:1015", "B:4010", "B:4009", "B:4008", "A:1021", "C:2005",
+                "C:2018", "A:1024");
+    }
+
     public static class StockPrice implements Serializable {
 
         private static final long serialVersionUID = 1L;
@@ -367,6 +421,140 @@ public class WindowTest extends TestTopology {
         }
     }
     
+    /**
+     * Test a periodic aggregation that combines pane aggregations.
+     * The window holds all the tuples, so once all tuples have been
+     * inserted every aggregation combines the same panes.
+     */
+    @Test
+    public void testPeriodicPaneAggregate() throws Exception {
+        final Topology t = newTopology();
+        TStream<Number> source = t.numbers(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        source = source.throttle(50, TimeUnit.MILLISECONDS);
+
+        TStream<Integer> sums = source.last(1, TimeUnit.MINUTES).aggregate(
+                tuples -> tuples.stream().mapToInt(Number::intValue).sum(),
+                Integer::sum, 200, TimeUnit.MILLISECONDS);
+        TStream<Integer> total = sums.filter(sum -> sum == 55);
+
+        Tester tester = t.getTester();
+        Condition<Long> ending = tester.atLeastTupleCount(total, 5);
+        complete(tester, ending, 30, TimeUnit.SECONDS);
+
+        assertTrue(ending.valid());
+    }
+    
+    /**
+     * Sequence numbers, starting at zero.
+     */
+    public static final class Sequence implements Supplier<Integer> {
+        private static final long serialVersionUID = 1L;
+        private int next;
+
+        @Override
+        public Integer get() {
+            return next++;
+        }
+    }
+
+    /**
+     * Range of sequence numbers, the aggregation
+     * of a pane and the combination of panes.
+     */
+    public static final class Range implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final int min;
+        final int max;
+        final int count;
+
+        Range(int min, int max, int count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        static Range of(List<Integer> tuples) {
+            if (tuples.isEmpty())
+                return null;
+            return new Range(tuples.get(0), tuples.get(tuples.size() - 1), tuples.size());
+        }
+
+        static Range combine(Range r1, Range r2) {
+            return new Range(Math.min(r1.min, r2.min), Math.max(r1.max, r2.max), r1.count + r2.count);
+        }
+
+        @Override
+        public String toString() {
+            return min + ":" + max + ":" + count;
+        }
+    }
+
+    /**
+     * Test a periodic pane aggregation with time eviction.
+     * Tuples are evicted from the oldest pane, partially evicted panes
+     * are aggregated again, so the combined aggregation is always
+     * the contiguous range of sequence numbers in the window.
+     */
+    @Test
+    public void testPeriodicPaneAggregateTimeEviction() throws Exception {
+        final Topology t = newTopology();
+        TStream<Integer> source = t.periodicSource(new Sequence(), 50, TimeUnit.MILLISECONDS);
+
+        TStream<Range> ranges = source.last(1, TimeUnit.SECONDS).aggregate(
+                Range::of, Range::combine, 300, TimeUnit.MILLISECONDS);
+        TStream<String> strings = StringStreams.toString(ranges);
+
+        Tester tester = t.getTester();
+        Condition<String> contiguous = tester.stringTupleTester(strings, range -> {
+            String[] r = range.split(":");
+            int min = Integer.parseInt(r[0]);
+            int max = Integer.parseInt(r[1]);
+            int count = Integer.parseInt(r[2]);
+            // Around 20 tuples in a one second window.
+            return max - min + 1 == count && count <= 30;
+        });
+
+        // Tuples have been evicted once the window no longer starts at zero.
+        TStream<String> evicted = strings.filter(range -> !range.startsWith("0:"));
+        Condition<Long> ending = tester.atLeastTupleCount(evicted, 10);
+        complete(tester, ending, 30, TimeUnit.SECONDS);
+
+        assertTrue(ending.valid());
+        assertTrue(contiguous.toString(), contiguous.valid());
+    }
+
+    /**
+     * Test a periodic pane aggregation of a keyed window,
+     * each partition has its own panes.
+     */
+    @Test
+    public void testKeyedPeriodicPaneAggregate() throws Exception {
+        final Topology t = newTopology();
+        TStream<StockPrice> source = t.constants(Arrays.asList(PRICES)).asType(StockPrice.class);
+        source = source.throttle(20, TimeUnit.MILLISECONDS);
+
+        TStream<StockPrice> totals = source.last(1, TimeUnit.MINUTES).key(StockPrice::getKey).aggregate(
+                tuples -> tuples.isEmpty() ? null : new StockPrice(tuples.get(0).getKey(),
+                        tuples.stream().mapToInt(StockPrice::getPrice).sum()),
+                (p1, p2) -> new StockPrice(p1.getKey(), p1.getPrice() + p2.getPrice()),
+                100, TimeUnit.MILLISECONDS);
+        TStream<String> strings = StringStreams.toString(totals);
+
+        Tester tester = t.getTester();
+        Condition<String> keyed = tester.stringTupleTester(strings,
+                total -> total.startsWith("A:") || total.startsWith("B:") || total.startsWith("C:"));
+
+        // Once all tuples are inserted each partition aggregates to its total.
+        Condition<Long> a = tester.atLeastTupleCount(strings.filter(total -> total.equals("A:7099")), 3);
+        Condition<Long> b = tester.atLeastTupleCount(strings.filter(total -> total.equals("B:24048")), 3);
+        Condition<Long> c = tester.atLeastTupleCount(strings.filter(total -> total.equals("C:10056")), 3);
+        Condition<Boolean> ending = Condition.all(a, b, c);
+        complete(tester, ending, 30, TimeUnit.SECONDS);
+
+        assertTrue(ending.toString(), ending.valid());
+        assertTrue(keyed.toString(), keyed.valid());
+    }
+    
     /**
      * Test a periodic aggregation with microsecond aggregation.
      * Basically a test that the application runs, hard to test
@@ -0,0 +1,159 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.embedded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.TStream.Routing;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
+import com.ibm.streamsx.topology.function.UnaryOperator;
+import com.ibm.streamsx.topology.test.TestTopology;
+import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
+
+/**
+ * Embedded execution with a thread per parallel channel
+ * and isolated region.
+ */
+public class ThreadedEmbeddedTest extends TestTopology {
+
+    /**
+     * Threads that executed the parallel region, static
+     * as the logic is serialized into each channel.
+     */
+    static final Set<Long> THREADS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Threads that executed each stage of a topology.
+     */
+    static final Map<String,Set<Long>> STAGE_THREADS = new ConcurrentHashMap<>();
+
+    @Before
+    public void checkEmbedded() {
+        assumeTrue(isEmbedded());
+        getConfig().put(ContextProperties.EMBEDDED_THREADED, true);
+        THREADS.clear();
+        STAGE_THREADS.clear();
+    }
+
+    public static final class RecordThread implements UnaryOperator<String> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String apply(String v) {
+            THREADS.add(Thread.currentThread().getId());
+            return v.concat("X");
+        }
+    }
+
+    public static final class RecordStageThread implements UnaryOperator<String> {
+        private static final long serialVersionUID = 1L;
+        private final String stage;
+
+        RecordStageThread(String stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public String apply(String v) {
+            STAGE_THREADS.computeIfAbsent(stage, k -> ConcurrentHashMap.newKeySet())
+                    .add(Thread.currentThread().getId());
+            return v;
+        }
+    }
+
+    private void testParallel(Routing routing) throws Exception {
+        testParallel(3, routing);
+    }
+
+    private void testParallel(int width, Routing routing) throws Exception {
+        Topology topology = newTopology();
+
+        TStream<String> s = topology.strings("A", "B", "C", "D", "E", "F", "G", "H");
+        s = s.parallel(() -> width, routing).modify(new RecordThread()).endParallel();
+
+        Tester tester = topology.getTester();
+        Condition<Long> count = tester.tupleCount(s, 8);
+        Condition<List<String>> contents = tester.stringContentsUnordered(s,
+                "AX", "BX", "CX", "DX", "EX", "FX", "GX", "HX");
+
+        complete(tester, count.and(contents), 10, TimeUnit.SECONDS);
+        assertTrue(count.valid());
+        assertTrue(contents.valid());
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        testParallel(Routing.ROUND_ROBIN);
+        assertTrue(THREADS.toString(), THREADS.size() == 3);
+    }
+
+    @Test
+    public void testHashPartitioned() throws Exception {
+        testParallel(Routing.HASH_PARTITIONED);
+        assertTrue(THREADS.toString(), THREADS.size() > 1);
+    }
+
+    /**
+     * A parallel region with a single channel
+     * still has a splitter and a thread.
+     */
+    @Test
+    public void testWidthOne() throws Exception {
+        testParallel(1, Routing.ROUND_ROBIN);
+        assertTrue(THREADS.toString(), THREADS.size() == 1);
+    }
+
+    @Test
+    public void testWidthOneHashPartitioned() throws Exception {
+        testParallel(1, Routing.HASH_PARTITIONED);
+        assertTrue(THREADS.toString(), THREADS.size() == 1);
+    }
+
+    /**
+     * Each isolated region is executed by its own thread.
+     */
+    @Test
+    public void testIsolate() throws Exception {
+        Topology topology = newTopology();
+
+        TStream<String> s = topology.strings("A", "B", "C");
+        s = s.modify(new RecordStageThread("source"));
+        s = s.isolate().modify(new RecordThread()).modify(new RecordStageThread("isolated"));
+        s = s.isolate().modify(new RecordStageThread("downstream"));
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> contents = tester.stringContents(s, "AX", "BX", "CX");
+
+        complete(tester, contents, 10, TimeUnit.SECONDS);
+        assertTrue(contents.valid());
+        assertTrue(THREADS.toString(), THREADS.size() == 1);
+
+        final Set<Long> threads = new HashSet<>();
+        for (String stage : new String[] {"source", "isolated", "downstream"}) {
+            final Set<Long> stageThreads = STAGE_THREADS.get(stage);
+            assertNotNull(stage, stageThreads);
+            assertEquals(stage + stageThreads, 1, stageThreads.size());
+            threads.addAll(stageThreads);
+        }
+        assertEquals(STAGE_THREADS.toString(), 3, threads.size());
+        assertEquals(STAGE_THREADS.get("isolated"), THREADS);
+    }
+}
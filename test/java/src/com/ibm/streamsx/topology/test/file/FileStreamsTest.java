@@ -5,6 +5,7 @@
 package com.ibm.streamsx.topology.test.file;
 
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
 import static org.junit.Assume.assumeTrue;
 
 import java.io.BufferedWriter;
@@ -14,7 +15,9 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
@@ -26,7 +29,12 @@ import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.context.JobProperties;
 import com.ibm.streamsx.topology.context.StreamsContext.Type;
 import com.ibm.streamsx.topology.file.FileStreams;
+import com.ibm.streamsx.topology.file.TextFileReader;
 import com.ibm.streamsx.topology.function.Consumer;
+import com.ibm.streamsx.topology.spl.JavaPrimitive;
+import com.ibm.streamsx.topology.spl.SPLSchemas;
+import com.ibm.streamsx.topology.spl.SPLStream;
+import com.ibm.streamsx.topology.spl.SPLStreams;
 import com.ibm.streamsx.topology.streams.BeaconStreams;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
@@ -196,4 +204,80 @@ public class FileStreamsTest extends TestTopology {
         
         tmpFile.toFile().delete();
     }
+
+    /**
+     * Test the memory-mapped readers with mixed line terminators
+     * and no terminator on the last line.
+     */
+    @Test
+    public void testMappedTextFileReader() throws Exception {
+        assumeFalse(isEmbedded());
+        Path tmpFile = Files.createTempFile("test", "txt");
+        Files.write(tmpFile, "Caf\u00e9\nsecond\r\nthird\r\n\nlast".getBytes(StandardCharsets.UTF_8));
+        
+        final Topology t = newTopology();
+        TStream<String> fileName = t.strings(tmpFile.toAbsolutePath().toString());
+        TStream<String> contents = FileStreams.mappedTextFileReader(fileName, 2);
+        TStream<String> bytes = FileStreams.mappedLineReader(fileName)
+                .map(blob -> new String(blob.getData(), StandardCharsets.UTF_8));
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expected = tester.stringContents(contents,
+                "Caf\u00e9", "second", "third", "", "last");
+        Condition<List<String>> expectedBytes = tester.stringContents(bytes,
+                "Caf\u00e9", "second", "third", "", "last");
+
+        complete(tester, expected.and(expectedBytes), 20, TimeUnit.SECONDS);
+        assertTrue(expected.toString(), expected.valid());
+        assertTrue(expectedBytes.toString(), expectedBytes.valid());
+        
+        tmpFile.toFile().delete();
+    }
+
+    /**
+     * Test the memory-mapped readers with chunks much smaller
+     * than the file, lines are output in order across chunks,
+     * including when a carriage return and line feed pair
+     * or a carriage return ends at a chunk boundary.
+     */
+    @Test
+    public void testMappedTextFileReaderChunks() throws Exception {
+        assumeFalse(isEmbedded());
+        final String[] terminators = {"\n", "\r\n", "\r"};
+        final String[] lines = new String[300];
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "line" + i;
+            sb.append(lines[i]).append(terminators[i % terminators.length]);
+        }
+        Path tmpFile = Files.createTempFile("test", "txt");
+        Files.write(tmpFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+        
+        final Topology t = newTopology();
+        SPLStream fileName = SPLStreams.stringToSPLStream(
+                t.strings(tmpFile.toAbsolutePath().toString()));
+        
+        Map<String,Object> params = new HashMap<>();
+        params.put("mapped", true);
+        params.put("threads", 3);
+        params.put("chunkSize", 16);
+        TStream<String> contents = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, fileName, SPLSchemas.STRING, params).toStringStream();
+        
+        params.remove("mapped");
+        params.remove("threads");
+        TStream<String> bytes = JavaPrimitive.invokeJavaPrimitive(
+                TextFileReader.class, fileName, SPLSchemas.BLOB, params)
+                .convert(tuple -> new String(tuple.getBlob(0).getData(), StandardCharsets.UTF_8));
+        
+        Tester tester = t.getTester();
+        Condition<List<String>> expected = tester.stringContents(contents, lines);
+        Condition<List<String>> expectedBytes = tester.stringContents(bytes, lines);
+
+        complete(tester, expected.and(expectedBytes), 20, TimeUnit.SECONDS);
+        assertTrue(expected.toString(), expected.valid());
+        assertTrue(expectedBytes.toString(), expectedBytes.valid());
+        
+        tmpFile.toFile().delete();
+    }
 }
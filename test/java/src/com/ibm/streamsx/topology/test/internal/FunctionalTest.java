@@ -13,11 +13,14 @@ import java.io.File;
 import java.io.Serializable;
 import java.net.Proxy;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
 import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.function.ThreadSafe;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+import com.ibm.streamsx.topology.internal.logic.Throttle;
 import com.ibm.streamsx.topology.test.AllowAll;
 import com.ibm.streamsx.topology.test.TestTopology;
 
@@ -38,6 +41,35 @@ public class FunctionalTest extends TestTopology {
         assertFalse(ObjectUtils.isImmutable(new Primitive()));
         assertFalse(ObjectUtils.isImmutable(new Collection()));
     }
+    
+    @Test
+    public void testThreadSafeLogicTest() {
+        assumeTrue(isMainRun());
+        
+        assertTrue(ObjectUtils.isThreadSafe(AllowAll.class));
+        assertTrue(ObjectUtils.isThreadSafe(FinalPrimitive.class));
+        assertTrue(ObjectUtils.isThreadSafe(SafeCounter.class));
+        
+        assertFalse(ObjectUtils.isImmutable(SafeCounter.class));
+        assertFalse(ObjectUtils.isThreadSafe(Primitive.class));
+        assertFalse(ObjectUtils.isThreadSafe(Collection.class));
+    }
+    
+    /**
+     * Transient fields are ignored for checkpointing but
+     * may hold state, so the logic is not thread safe.
+     */
+    @Test
+    public void testTransientNotThreadSafe() {
+        assumeTrue(isMainRun());
+        
+        assertTrue(ObjectUtils.isImmutable(Throttle.class));
+        assertFalse(ObjectUtils.isThreadSafe(Throttle.class));
+        
+        assertTrue(ObjectUtils.isImmutable(TransientState.class));
+        assertFalse(ObjectUtils.isThreadSafe(TransientState.class));
+        assertTrue(ObjectUtils.isThreadSafe(SafeTransientState.class));
+    }
 
     static class FinalPrimitive implements Supplier<Integer> {
         private final int v;
@@ -92,6 +124,33 @@ public class FunctionalTest extends TestTopology {
         }
     }
     
+    @ThreadSafe
+    static class SafeCounter implements Supplier<Long> {
+        private final AtomicLong v = new AtomicLong();
+        @Override
+        public Long get() {
+            return v.incrementAndGet();
+        }
+    }
+    
+    static class TransientState implements Supplier<Integer> {
+        private final int v = 0;
+        private transient int count;
+        @Override
+        public Integer get() {
+            return v + count++;
+        }
+    }
+    
+    @ThreadSafe
+    static class SafeTransientState implements Supplier<Long> {
+        private transient AtomicLong v = new AtomicLong();
+        @Override
+        public Long get() {
+            return v.incrementAndGet();
+        }
+    }
+    
     static class FinalMixed implements Serializable {
         @SuppressWarnings("unused")
         private final double d = 0.0;
@@ -24,11 +24,14 @@ import com.ibm.json.java.JSON;
 import com.ibm.json.java.JSONArray;
 import com.ibm.json.java.JSONArtifact;
 import com.ibm.json.java.JSONObject;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.Type;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.function.UnaryOperator;
 import com.ibm.streamsx.topology.json.JSONSchemas;
 import com.ibm.streamsx.topology.json.JSONStreams;
+import com.ibm.streamsx.topology.json.LazyJSONObject;
 import com.ibm.streamsx.topology.spl.SPLStream;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
@@ -76,6 +79,24 @@ public class JSONStreamsTest extends TestTopology {
         checkJsonOutput(JSON.parse(JSON_EXAMPLE), jsonString);
     }
 
+    /**
+     * Lazily deserialize, project and serialize the example,
+     * the projected value is copied verbatim.
+     */
+    @Test
+    public void testLazyJson() throws Exception {
+        final Topology t = new Topology("LazyJson");
+        TStream<String> example = t.strings(JSON_EXAMPLE);
+
+        TStream<LazyJSONObject> json = JSONStreams.deserializeLazy(example);
+        assertEquals(LazyJSONObject.class, json.getTupleClass());
+
+        json = JSONStreams.project(json, "menu", "missing");
+        TStream<String> jsonString = JSONStreams.serializeLazy(json);
+
+        checkJsonOutput(JSON.parse(JSON_EXAMPLE), jsonString);
+    }
+
     private void checkJsonOutput(JSONArtifact expected,
             TStream<String> jsonString) throws Exception, IOException {
                
@@ -207,6 +228,25 @@ public class JSONStreamsTest extends TestTopology {
         checkJsonOutput(JSON.parse(JSON_EXAMPLE), jsonString);
     }
     
+    @Test
+    public void testJsonToSPLSchema() throws Exception {
+        final Topology t = new Topology();
+        TStream<String> events = t.strings(
+                "{\"id\": 7, \"name\": \"a\\\"b\", \"extra\": [1, {\"x\": 2}], \"v\": 2.5, \"ok\": true}",
+                "{\"ok\": false, \"name\": {\"n\": 1}, \"id\": null}");
+
+        StreamSchema schema = Type.Factory.getStreamSchema(
+                "tuple<int64 id, rstring name, float64 v, boolean ok>");
+        SPLStream spl = JSONStreams.toSPL(events, schema);
+        assertEquals(schema, spl.getSchema());
+
+        TStream<String> output = spl.convert(
+                tuple -> tuple.getLong("id") + ":" + tuple.getString("name")
+                + ":" + tuple.getDouble("v") + ":" + tuple.getBoolean("ok"));
+
+        completeAndValidate(output, 10, "7:a\"b:2.5:true", "0:{\"n\": 1}:0.0:false");
+    }
+
     @Test
     public void testFlatten() throws Exception {
         final Topology t = new Topology();
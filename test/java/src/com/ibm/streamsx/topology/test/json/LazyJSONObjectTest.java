@@ -0,0 +1,97 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.json.JSONStreams;
+import com.ibm.streamsx.topology.json.LazyJSONObject;
+
+/**
+ * Tests for LazyJSONObject that do not require JSON4J.
+ */
+public class LazyJSONObjectTest {
+
+    private static final String EVENT =
+            "{ \"id\" : 42, \"name\":\"a \\\"b\\\" \\u00e9\\n\", \"ok\":true,"
+            + " \"none\":null, \"v\":-1.5e2, \"nested\":{\"x\":[1,\"}\",{\"y\":2}]}, \"big\":12345678901234567890 }";
+
+    @Test
+    public void testGet() {
+        LazyJSONObject jo = new LazyJSONObject(EVENT);
+        assertEquals(42L, jo.get("id"));
+        assertEquals("a \"b\" é\n", jo.getString("name"));
+        assertEquals(Boolean.TRUE, jo.get("ok"));
+        assertNull(jo.get("none"));
+        assertTrue(jo.has("none"));
+        assertEquals(-150.0, jo.get("v"));
+        assertEquals(1.2345678901234567e19, jo.get("big"));
+        assertNull(jo.get("missing"));
+        assertFalse(jo.has("missing"));
+        assertNull(jo.getString("id"));
+        assertEquals(new HashSet<>(Arrays.asList("id", "name", "ok", "none", "v", "nested", "big")),
+                jo.fields());
+    }
+
+    @Test
+    public void testSerializeUnmodified() {
+        LazyJSONObject jo = new LazyJSONObject(EVENT);
+        jo.get("name");
+        assertSame(EVENT, jo.serialize());
+    }
+
+    @Test
+    public void testPutRemove() {
+        LazyJSONObject jo = new LazyJSONObject("{\"a\":1,\"b\" : [ 1, 2 ],\"c\":\"x\"}");
+        jo.put("a", "z\t").remove("c").put("d", 2.5).put("e", null).remove("missing");
+
+        assertEquals("{\"a\":\"z\\t\",\"b\":[ 1, 2 ],\"d\":2.5,\"e\":null}", jo.serialize());
+        assertEquals("z\t", jo.get("a"));
+        assertFalse(jo.has("c"));
+        assertTrue(jo.has("e"));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "d", "e")), jo.fields());
+
+        jo.put("c", new LazyJSONObject("{\"n\":true}"));
+        assertEquals("{\"a\":\"z\\t\",\"b\":[ 1, 2 ],\"c\":{\"n\":true},\"d\":2.5,\"e\":null}", jo.serialize());
+    }
+
+    @Test
+    public void testProject() {
+        LazyJSONObject jo = new LazyJSONObject(EVENT);
+        LazyJSONObject projected = jo.project("nested", "missing", "id");
+        assertEquals("{\"nested\":{\"x\":[1,\"}\",{\"y\":2}]},\"id\":42}", projected.serialize());
+        assertEquals(42L, projected.get("id"));
+    }
+
+    @Test
+    public void testPayload() {
+        LazyJSONObject jo = new LazyJSONObject("\"hello\"");
+        assertEquals("hello", jo.get(JSONStreams.PAYLOAD));
+        assertEquals("\"hello\"", jo.serialize());
+
+        jo = new LazyJSONObject("{}");
+        assertTrue(jo.fields().isEmpty());
+        assertEquals("{\"a\":1}", jo.put("a", 1).serialize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        new LazyJSONObject("{\"a\" 1}").get("a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminated() {
+        new LazyJSONObject("{\"a\":\"x}").get("a");
+    }
+}
@@ -0,0 +1,145 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.spi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
+import com.ibm.streamsx.topology.spi.runtime.BinarySerializer;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+public class BinarySerializerTest {
+
+    public enum Level { LOW, HIGH }
+
+    public static class Reading {
+        String id;
+        int count;
+        long time;
+        double value;
+        boolean valid;
+        char unit;
+        Level level;
+        Location location;
+        Object extra;
+        transient String ignored;
+    }
+
+    public static class Location {
+        final float lat;
+        final float lon;
+
+        Location(float lat, float lon) {
+            this.lat = lat;
+            this.lon = lon;
+        }
+
+        private Location() {
+            this(0, 0);
+        }
+    }
+
+    public static class NoDefaultConstructor {
+        NoDefaultConstructor(int a) {
+        }
+    }
+
+    private static Object roundTrip(TupleSerializer serializer, Object tuple) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.serialize(tuple, bytes);
+        return serializer.deserialize(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static Reading reading() {
+        Reading r = new Reading();
+        r.id = "sensor-é-1";
+        r.count = -3;
+        r.time = 1567890123456L;
+        r.value = 21.5;
+        r.valid = true;
+        r.unit = 'C';
+        r.level = Level.HIGH;
+        r.location = new Location(51.5f, -0.12f);
+        r.extra = new BigDecimal("1.25");
+        r.ignored = "x";
+        return r;
+    }
+
+    @Test
+    public void testRegisteredClass() throws Exception {
+        BinarySerializer serializer = new BinarySerializer(Reading.class, Location.class, Level.class);
+
+        Reading r = (Reading) roundTrip(serializer, reading());
+        assertEquals("sensor-é-1", r.id);
+        assertEquals(-3, r.count);
+        assertEquals(1567890123456L, r.time);
+        assertEquals(21.5, r.value, 0.0);
+        assertTrue(r.valid);
+        assertEquals('C', r.unit);
+        assertEquals(Level.HIGH, r.level);
+        assertEquals(51.5f, r.location.lat, 0.0f);
+        assertEquals(-0.12f, r.location.lon, 0.0f);
+        assertEquals(new BigDecimal("1.25"), r.extra);
+        assertNull(r.ignored);
+    }
+
+    @Test
+    public void testBuiltInTypes() throws Exception {
+        BinarySerializer serializer = new BinarySerializer();
+
+        assertNull(roundTrip(serializer, null));
+        assertEquals("abc", roundTrip(serializer, "abc"));
+        assertEquals(Integer.MIN_VALUE, roundTrip(serializer, Integer.MIN_VALUE));
+        assertEquals(Long.MAX_VALUE, roundTrip(serializer, Long.MAX_VALUE));
+        assertEquals((short) -7, roundTrip(serializer, (short) -7));
+        assertEquals((byte) -128, roundTrip(serializer, (byte) -128));
+        assertEquals(Boolean.FALSE, roundTrip(serializer, false));
+        assertEquals(Double.NaN, roundTrip(serializer, Double.NaN));
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) roundTrip(serializer, new byte[] {1, 2, 3}));
+
+        List<Object> list = new ArrayList<>(Arrays.asList("a", 1, null, 2.0));
+        assertEquals(list, roundTrip(serializer, list));
+
+        Map<Object,Object> map = new HashMap<>();
+        map.put("k", list);
+        map.put(3L, "v");
+        assertEquals(map, roundTrip(serializer, map));
+    }
+
+    @Test
+    public void testSerializedSerializer() throws Exception {
+        BinarySerializer serializer = new BinarySerializer(Reading.class, Location.class, Level.class);
+
+        // Serializer is passed to operators as serialized logic.
+        TupleSerializer copy = (TupleSerializer) ObjectUtils.deserializeLogic(
+                ObjectUtils.serializeLogic(serializer));
+        assertEquals(serializer, copy);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.serialize(reading(), bytes);
+        Reading r = (Reading) copy.deserialize(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals("sensor-é-1", r.id);
+        assertEquals(Level.HIGH, r.level);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNoDefaultConstructor() {
+        new BinarySerializer(NoDefaultConstructor.class);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.builder.BOperatorInvocation;
+import com.ibm.streamsx.topology.spi.runtime.BinarySerializer;
+import com.ibm.streamsx.topology.test.TestTopology;
+import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
+
+/**
+ * Streams using a tuple serializer set by
+ * {@link TStream#asType(Class, com.ibm.streamsx.topology.spi.runtime.TupleSerializer)}.
+ */
+public class TupleSerializerTest extends TestTopology {
+
+    public static class Item implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String name;
+        int count;
+
+        public Item() {
+        }
+
+        Item(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + count;
+        }
+    }
+
+    private static TStream<Item> items(Topology topology) {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("a", 1));
+        items.add(new Item("b", 2));
+        items.add(new Item("c", 3));
+        return topology.constants(items).asType(Item.class);
+    }
+
+    /**
+     * The serializer is applied by an identity map,
+     * the producer of the original stream is unchanged.
+     */
+    @Test
+    public void testSerializerNotSetOnProducer() {
+        assumeTrue(isMainRun());
+
+        final Topology topology = newTopology();
+        TStream<Item> items = items(topology);
+        TStream<Item> binary = items.asType(Item.class, new BinarySerializer(Item.class));
+
+        BOperatorInvocation producer = items.operator();
+        assertNull(producer.getRawParameter("outputSerializer"));
+        assertNotSame(producer, binary.operator());
+        assertNotNull(binary.operator().getRawParameter("outputSerializer"));
+
+        // Consumers of the original stream see Java serialized tuples.
+        TStream<Item> filtered = items.filter(i -> i.count > 1);
+        assertNull(filtered.operator().getRawParameter("inputSerializer"));
+
+        // Consumers of the typed stream use its serializer.
+        TStream<Item> binaryFiltered = binary.filter(i -> i.count > 1);
+        assertNotNull(binaryFiltered.operator().getRawParameter("inputSerializer"));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Topology topology = newTopology();
+        TStream<Item> items = items(topology)
+                .asType(Item.class, new BinarySerializer(Item.class));
+
+        TStream<String> names = items.isolate().map(Item::toString);
+
+        completeAndValidate(names, 15, "a:1", "b:2", "c:3");
+    }
+
+    /**
+     * The original stream is connected after the serializer is set,
+     * its consumers must still see Java serialized tuples.
+     */
+    @Test
+    public void testOriginalStreamConsumer() throws Exception {
+        final Topology topology = newTopology();
+        TStream<Item> items = items(topology);
+        TStream<Item> binary = items.asType(Item.class, new BinarySerializer(Item.class));
+
+        TStream<String> fromBinary = binary.isolate().map(i -> "B" + i);
+        TStream<String> fromOriginal = items.isolate().map(i -> "J" + i);
+
+        Tester tester = topology.getTester();
+        Condition<List<String>> contents = tester.stringContentsUnordered(
+                fromBinary.union(fromOriginal),
+                "Ba:1", "Bb:2", "Bc:3", "Ja:1", "Jb:2", "Jc:3");
+
+        complete(tester, contents, 15, TimeUnit.SECONDS);
+        assertTrue(contents.toString(), contents.valid());
+        assertEquals(6, contents.getResult().size());
+    }
+}
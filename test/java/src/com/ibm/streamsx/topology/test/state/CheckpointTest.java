@@ -8,6 +8,9 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -19,6 +22,8 @@ import com.ibm.streams.operator.logging.LogLevel;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.context.StreamsContext;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalCheckpoint;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.streams.BeaconStreams;
 import com.ibm.streamsx.topology.streams.StringStreams;
@@ -80,6 +85,89 @@ public class CheckpointTest extends TestTopology {
         assertTrue(outputChecker.valid());       
     }
     
+    /**
+     * Periodic checkpointing of a function that implements
+     * IncrementalCheckpoint, the count of tuples must
+     * be restored from its snapshot and deltas after the crash.
+     */
+    @Test
+    public void testIncrementalCheckpoint() throws Exception {
+        final int crashAfterCount = 45;
+
+        final Topology topology = new Topology();
+        topology.checkpointPeriod(1, TimeUnit.SECONDS);
+
+        TStream<Long> lb = BeaconStreams.longBeacon(topology, 500);
+        TStream<Long> b = lb.throttle(100, TimeUnit.MILLISECONDS);
+        lb.colocate(b);
+        TStream<Long> c = b.map(new IncrementalCount());
+        lb.colocate(c);
+        c = c.filter(new CrashAfter<Long>(crashAfterCount));
+        lb.colocate(c);
+
+        TStream<String> sc = StringStreams.toString(c.isolate());
+
+        Condition<Long> atLeast = topology.getTester().atLeastTupleCount(sc, 230);
+        Condition<String> outputChecker = topology.getTester().stringTupleTester(sc, new CheckOutput(crashAfterCount));
+
+        complete(topology.getTester(), atLeast, 90, TimeUnit.SECONDS);
+
+        assertTrue(atLeast.valid());
+        assertTrue(outputChecker.valid());
+    }
+
+    /**
+     * Counts tuples by key, returning the total count less one.
+     * Checkpoints the modified keys as deltas.
+     */
+    public static class IncrementalCount implements Function<Long,Long>,
+        IncrementalCheckpoint<HashMap<Long,Long>, HashMap<Long,Long>> {
+        private static final long serialVersionUID = 1L;
+
+        private final HashMap<Long,Long> counts = new HashMap<>();
+        private final Set<Long> dirty = new HashSet<>();
+        private long total = -1;
+
+        @Override
+        public Long apply(Long v) {
+            final Long key = v % 7;
+            counts.merge(key, 1L, Long::sum);
+            dirty.add(key);
+            return ++total;
+        }
+
+        @Override
+        public HashMap<Long, Long> snapshot() {
+            dirty.clear();
+            return new HashMap<>(counts);
+        }
+
+        @Override
+        public HashMap<Long, Long> delta() {
+            if (dirty.isEmpty())
+                return null;
+            HashMap<Long,Long> delta = new HashMap<>();
+            for (Long key : dirty)
+                delta.put(key, counts.get(key));
+            dirty.clear();
+            return delta;
+        }
+
+        @Override
+        public void restore(HashMap<Long, Long> snapshot) {
+            counts.clear();
+            apply(snapshot);
+        }
+
+        @Override
+        public void apply(HashMap<Long, Long> delta) {
+            counts.putAll(delta);
+            total = -1;
+            for (long count : counts.values())
+                total += count;
+        }
+    }
+
     public static class CheckOutput implements Predicate<String> {
 		private static final long serialVersionUID = 1L;
 
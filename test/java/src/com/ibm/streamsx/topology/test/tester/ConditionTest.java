@@ -222,4 +222,41 @@ public class ConditionTest extends TestTopology {
         assertFalse(contents.toString(), contents.valid());
         assertFalse(passed);
     }
+
+    @Test
+    public void testStringContentsUnorderedDuplicates() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> source = topology.strings("A", "B", "A", "C");
+
+        Condition<List<String>> good = topology.getTester().stringContentsUnordered(source, "A", "C", "A", "B");
+        Condition<List<String>> bad = topology.getTester().stringContentsUnordered(source, "A", "C", "B", "B");
+
+        complete(topology.getTester(), good, 10, TimeUnit.SECONDS);
+        assertTrue(good.toString(), good.valid());
+        assertFalse(bad.toString(), bad.valid());
+    }
+
+    /**
+     * Large number of expected tuples, checked using a digest
+     * in distributed testing.
+     */
+    @Test
+    public void testStringContentsUnorderedLarge() throws Exception {
+        final int n = 150_000;
+        final Topology topology = new Topology();
+        TStream<String> source = topology.limitedSourceN(i -> "V" + (i % 5000), n);
+
+        String[] expected = new String[n];
+        for (int i = 0; i < n; i++)
+            expected[i] = "V" + ((n - 1 - i) % 5000);
+        Condition<List<String>> good = topology.getTester().stringContentsUnordered(source, expected);
+
+        String[] wrong = expected.clone();
+        wrong[n / 2] = "V5000";
+        Condition<List<String>> bad = topology.getTester().stringContentsUnordered(source, wrong);
+
+        complete(topology.getTester(), good, 60, TimeUnit.SECONDS);
+        assertTrue(good.toString(), good.valid());
+        assertFalse(bad.toString(), bad.valid());
+    }
 }